@@ -90,43 +90,76 @@ public final class FileUtils {
 	 * @throws IOException
 	 */
 	public static File createZipArchive(final File rootDirectory, final File archiveFile, final FileFilter filter) throws IOException {
+		checkNotNull(archiveFile, "zipFile");
+
+		try (FileOutputStream fos = new FileOutputStream(archiveFile)) {
+			writeZipArchive(rootDirectory, fos, filter);
+		}
+		
+		return archiveFile; 
+	}
+
+	/**
+	 * Writes a zip archive with the filtered contents of the given root directory to the given output stream. If no filter is specified
+	 * (null), all content is compressed. The output stream is not closed by this method.
+	 * @param rootDirectory the directory with the content to be compressed
+	 * @param out the output stream to write the archive to
+	 * @param filter file filter to filter the content compressed
+	 * @throws IOException
+	 */
+	public static void writeZipArchive(final File rootDirectory, final OutputStream out, final FileFilter filter) throws IOException {
+		writeZipArchive(rootDirectory, out, filter, DEFAULT_BUFFER_SIZE);
+	}
+	
+	/**
+	 * Writes a zip archive with the filtered contents of the given root directory to the given output stream, using buffers of the given
+	 * size for reading the files and writing the archive. If no filter is specified (null), all content is compressed. The output stream is
+	 * not closed by this method.
+	 * @param rootDirectory the directory with the content to be compressed
+	 * @param out the output stream to write the archive to
+	 * @param filter file filter to filter the content compressed
+	 * @param bufferSize the size of the buffers in bytes
+	 * @throws IOException
+	 */
+	public static void writeZipArchive(final File rootDirectory, final OutputStream out, final FileFilter filter, final int bufferSize) throws IOException {
 		
 		checkArgument(rootDirectory != null
 				&& rootDirectory.isDirectory() 
 				&& rootDirectory.canWrite(), "The given directory %s is not found or it's read-only", rootDirectory);
 		
-		checkNotNull(archiveFile, "zipFile");
-
-		try (FileOutputStream fos = new FileOutputStream(archiveFile)) {
-			try (ZipOutputStream zos = new ZipOutputStream(fos)) {
+		checkNotNull(out, "out");
+		checkArgument(bufferSize > 0, "Buffer size should be greater than zero, got '%s'.", bufferSize);
 
-				final Deque<File> queue = new LinkedList<File>();
-				queue.push(rootDirectory);
+		final BufferedOutputStream bos = new BufferedOutputStream(out, bufferSize);
+		final ZipOutputStream zos = new ZipOutputStream(bos);
+		
+		final Deque<File> queue = new LinkedList<File>();
+		queue.push(rootDirectory);
 
-				while (!queue.isEmpty()) {
-					final File first = queue.pop();
-					final File[] content = first.listFiles(filter);
-					if (content != null) {
-						for (final File file : content) {
-							final String relativeName = getRelativeName(rootDirectory, file);
-							if (file.isDirectory()) {
-								zos.putNextEntry(new ZipEntry(relativeName));
-								queue.push(file);
-							} else {
-								zos.putNextEntry(new ZipEntry(relativeName));
-								try (FileInputStream fis = new FileInputStream(file)) {
-									copy(fis, zos);
-								}
-							}
-							zos.closeEntry();
+		while (!queue.isEmpty()) {
+			final File first = queue.pop();
+			final File[] content = first.listFiles(filter);
+			if (content != null) {
+				for (final File file : content) {
+					final String relativeName = getRelativeName(rootDirectory, file);
+					if (file.isDirectory()) {
+						zos.putNextEntry(new ZipEntry(relativeName));
+						queue.push(file);
+					} else {
+						zos.putNextEntry(new ZipEntry(relativeName));
+						try (FileInputStream fis = new FileInputStream(file)) {
+							copy(fis, zos, bufferSize);
 						}
 					}
-					// TODO include empty dirs???
+					zos.closeEntry();
 				}
 			}
+			// TODO include empty dirs???
 		}
 		
-		return archiveFile; 
+		// finish the archive without closing the underlying stream
+		zos.finish();
+		bos.flush();
 	}
 
 	/**
@@ -229,8 +262,8 @@ public final class FileUtils {
 		
 	}
 
-	private static void copy(final InputStream is, final OutputStream os) throws IOException {
-		final byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+	private static void copy(final InputStream is, final OutputStream os, final int bufferSize) throws IOException {
+		final byte[] buffer = new byte[bufferSize];
 		int length;
 		while ((length = is.read(buffer)) > 0) {
 			os.write(buffer, 0, length);
@@ -80,7 +80,9 @@ public abstract class BaseRevisionIndexTest {
 		return Map.of(
 			IndexClientFactory.RESULT_WINDOW_KEY, ""+IndexClientFactory.DEFAULT_RESULT_WINDOW,
 			IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_LOW_VALUE,
-			IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE
+			IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE,
+			IndexClientFactory.COMMIT_SPILL_THRESHOLD_KEY, IndexClientFactory.DEFAULT_COMMIT_SPILL_THRESHOLD,
+			IndexClientFactory.MERGE_READ_CONCURRENCY_KEY, IndexClientFactory.DEFAULT_MERGE_READ_CONCURRENCY
 		);
 	}
 	
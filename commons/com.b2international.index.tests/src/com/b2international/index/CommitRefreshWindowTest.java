@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.index.Fixtures.Data;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.google.common.collect.Lists;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * @since 7.17
+ */
+public class CommitRefreshWindowTest extends BaseIndexTest {
+
+	private static final long REFRESH_WINDOW = 5_000L;
+	private static final int CONCURRENT_COMMITS = 8;
+
+	private ListAppender<ILoggingEvent> appender;
+	private Level originalLevel;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return List.of(Data.class);
+	}
+
+	@Override
+	protected Map<String, Object> getIndexSettings() {
+		return Map.of(IndexClientFactory.COMMIT_REFRESH_WINDOW_KEY, REFRESH_WINDOW);
+	}
+
+	@Before
+	public void setup() {
+		appender = new ListAppender<>();
+		appender.start();
+		Logger log = (Logger) index().admin().log();
+		originalLevel = log.getLevel();
+		// refresh requests are logged on trace level
+		log.setLevel(Level.TRACE);
+		log.addAppender(appender);
+	}
+
+	@After
+	public void after() {
+		appender.stop();
+		Logger log = (Logger) index().admin().log();
+		log.detachAppender(appender);
+		log.setLevel(originalLevel);
+	}
+
+	@Test
+	public void singleCommitDoesNotWaitForRefreshWindow() throws Exception {
+		final long start = System.nanoTime();
+		indexDocument(KEY1, createData(KEY1));
+		final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// no other refresh is in progress, the commit refreshes right away
+		assertThat(elapsed).isLessThan(REFRESH_WINDOW);
+		assertThat(searchByField1(KEY1)).containsOnly(createData(KEY1));
+	}
+
+	@Test
+	public void concurrentCommitsSeeOwnWritesWithCoalescedRefreshes() throws Exception {
+		appender.list.clear();
+
+		final CyclicBarrier barrier = new CyclicBarrier(CONCURRENT_COMMITS);
+		final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_COMMITS);
+		final List<Future<?>> commits = Lists.newArrayList();
+		try {
+			for (int i = 0; i < CONCURRENT_COMMITS; i++) {
+				final String key = "key" + i;
+				commits.add(executor.submit(() -> {
+					barrier.await(10, TimeUnit.SECONDS);
+					indexDocument(key, createData(key));
+
+					// the document of this commit must be searchable right after the commit returns
+					assertThat(searchByField1(key)).containsOnly(createData(key));
+					return null;
+				}));
+			}
+
+			for (Future<?> commit : commits) {
+				commit.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		final long refreshRequests = appender.list.stream()
+				.map(ILoggingEvent::getFormattedMessage)
+				.filter(message -> message.startsWith("Refreshing indexes"))
+				.count();
+
+		// commits arriving while a refresh is in progress are served by the same next refresh request
+		assertThat(refreshRequests).isBetween(1L, CONCURRENT_COMMITS - 1L);
+	}
+
+	private Iterable<Data> searchByField1(String value) {
+		return search(Query.select(Data.class)
+				.where(Expressions.exactMatch("field1", value))
+				.build());
+	}
+
+	private static Data createData(String value) {
+		final Data data = new Data();
+		data.setField1(value);
+		data.setField2(value);
+		return data;
+	}
+
+}
@@ -105,6 +105,32 @@ public class PartialDocumentLoadingTest extends BaseIndexTest {
 		assertEquals(data2.getField2(), hits.getHits().get(1)[1]);
 	}
 
+	@Test
+	public void selectPartialWithLongArray() throws Exception {
+		final Data data1 = new Data();
+		data1.setField1("1"); 
+		data1.setLongField(100L);
+		indexDocument(KEY1, data1);
+		
+		final Data data2 = new Data();
+		data2.setField1("2"); 
+		data2.setLongField(200L);
+		indexDocument(KEY2, data2);
+		
+		final Query<long[]> query = Query.select(long[].class)
+				.from(Data.class)
+				.fields("field1", "longField", "field2")
+				.where(Expressions.matchAll())
+				.sortBy(SortBy.field("field1", Order.ASC))
+				.build();
+		
+		final Hits<long[]> hits = search(query);
+		
+		checkHits(hits, DEFAULT_LIMIT, 2, 2);
+		assertArrayEquals(new long[] { 1L, 100L, 0L }, hits.getHits().get(0));
+		assertArrayEquals(new long[] { 2L, 200L, 0L }, hits.getHits().get(1));
+	}
+
 	@Test
 	public void selectPartialWithClass() throws Exception {
 		final Data data1 = new Data();
@@ -120,4 +120,34 @@ public class SearchAfterTest extends BaseIndexTest {
 				.where(Expressions.matchAll())
 				.sortBy(SortBy.field("field1", Order.DESC)));
 	}
+	
+	@Test
+	public void streamAllPages() throws Exception {
+		final List<Data> expectedHitsInOrder = search(Query.select(Data.class)
+				.where(Expressions.matchAll())
+				.limit(NUM_DOCS)
+				.build())
+				.getHits();
+		
+		final List<Hits<Data>> pages = index().read(searcher -> searcher.stream(Query.select(Data.class)
+				.where(Expressions.matchAll())
+				.limit(300)
+				.build())
+				.collect(Collectors.toList()));
+		
+		assertThat(pages).hasSize(4);
+		assertThat(pages).allSatisfy(page -> assertThat(page.getTotal()).isEqualTo(NUM_DOCS));
+		assertThat(pages.stream().flatMap(Hits::stream).collect(Collectors.toList())).containsExactlyElementsOf(expectedHitsInOrder);
+	}
+	
+	@Test
+	public void streamEmpty() throws Exception {
+		final long numberOfPages = index().read(searcher -> searcher.stream(Query.select(Data.class)
+				.where(Expressions.exactMatch("field1", "unknown"))
+				.limit(300)
+				.build())
+				.count());
+		
+		assertThat(numberOfPages).isZero();
+	}
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionFixtures.RevisionData;
+
+/**
+ * @since 7.17
+ */
+public class ParallelMergeReadTest extends BaseRevisionIndexTest {
+
+	private static final int PARALLEL_READS = 4;
+	private static final int REVISIONS_PER_CASE = 20;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return List.of(RevisionData.class);
+	}
+
+	@Override
+	protected Map<String, Object> getIndexSettings() {
+		return Map.of(
+			IndexClientFactory.RESULT_WINDOW_KEY, ""+IndexClientFactory.DEFAULT_RESULT_WINDOW,
+			IndexClientFactory.MERGE_READ_CONCURRENCY_KEY, PARALLEL_READS
+		);
+	}
+
+	@Test
+	public void squashMergeNewChangedAndRemovedRevisions() throws Exception {
+		final RevisionData toChange = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		final RevisionData toRemove = new RevisionData(STORAGE_KEY2, "field1", "field2");
+		indexRevision(MAIN, toChange, toRemove);
+
+		final String child = createBranch(MAIN, "a");
+		final RevisionData changed = new RevisionData(STORAGE_KEY1, "field1Changed", "field2");
+		final RevisionData added = new RevisionData("3", "field1", "field2");
+		indexChange(child, toChange, changed);
+		indexRevision(child, added);
+		indexRemove(child, toRemove);
+
+		branching()
+			.prepareMerge(child, MAIN)
+			.squash(true)
+			.merge();
+
+		assertEquals(changed, getRevision(MAIN, RevisionData.class, STORAGE_KEY1));
+		assertEquals(added, getRevision(MAIN, RevisionData.class, "3"));
+		assertNull(getRevision(MAIN, RevisionData.class, STORAGE_KEY2));
+	}
+
+	@Test
+	public void parallelMergeEqualsSequentialMerge() throws Exception {
+		setMergeReadConcurrency(1);
+		final String sequentialParent = createBranch(MAIN, "sequential");
+		final String sequentialChild = rebaseThenMerge(sequentialParent);
+		
+		setMergeReadConcurrency(PARALLEL_READS);
+		final String parallelParent = createBranch(MAIN, "parallel");
+		final String parallelChild = rebaseThenMerge(parallelParent);
+		
+		final Map<String, RevisionData> sequentialRevisions = getRevisions(sequentialChild);
+		// added, untouched and both-side changed revisions remain, revisions deleted on either side are gone
+		assertEquals(REVISIONS_PER_CASE * 4, sequentialRevisions.size());
+		assertEquals(sequentialRevisions, getRevisions(parallelChild));
+		assertEquals(getRevisions(sequentialParent), getRevisions(parallelParent));
+	}
+	
+	private void setMergeReadConcurrency(int mergeReadConcurrency) {
+		rawIndex().admin().updateSettings(Map.of(IndexClientFactory.MERGE_READ_CONCURRENCY_KEY, mergeReadConcurrency));
+	}
+	
+	/*
+	 * Creates a child branch with changes diverging from the given parent, rebases the child on the parent, then merges it back.
+	 */
+	private String rebaseThenMerge(String parent) {
+		final List<RevisionData> propertyChanged = createRevisions(parent, "propertyChanged");
+		final List<RevisionData> deletedOnParent = createRevisions(parent, "deletedOnParent");
+		final List<RevisionData> deletedOnChild = createRevisions(parent, "deletedOnChild");
+		final List<RevisionData> deleted = createRevisions(parent, "deleted");
+		createRevisions(parent, "untouched");
+		
+		final String child = createBranch(parent, "child");
+		for (int i = 0; i < REVISIONS_PER_CASE; i++) {
+			// the same revision is changed on both sides, which can be resolved as different properties are affected
+			indexChange(parent, propertyChanged.get(i), propertyChanged.get(i).toBuilder().field1("field1Changed").build());
+			indexChange(child, propertyChanged.get(i), propertyChanged.get(i).toBuilder().field2("field2Changed").build());
+			// revisions changed on one side and deleted on the other are deleted
+			indexChange(child, deletedOnParent.get(i), deletedOnParent.get(i).toBuilder().field1("field1Changed").build());
+			indexChange(parent, deletedOnChild.get(i), deletedOnChild.get(i).toBuilder().field1("field1Changed").build());
+		}
+		indexRemove(parent, deletedOnParent.toArray(new RevisionData[0]));
+		indexRemove(child, deletedOnChild.toArray(new RevisionData[0]));
+		indexRemove(child, deleted.toArray(new RevisionData[0]));
+		createRevisions(parent, "addedOnParent");
+		createRevisions(child, "addedOnChild");
+		
+		branching()
+			.prepareMerge(parent, child)
+			.merge();
+		
+		branching()
+			.prepareMerge(child, parent)
+			.squash(true)
+			.merge();
+		
+		return child;
+	}
+	
+	private List<RevisionData> createRevisions(String branchPath, String prefix) {
+		final List<RevisionData> revisions = newArrayList();
+		for (int i = 0; i < REVISIONS_PER_CASE; i++) {
+			revisions.add(new RevisionData(prefix + i, "field1", "field2"));
+		}
+		commit(branchPath, revisions);
+		return revisions;
+	}
+	
+	private Map<String, RevisionData> getRevisions(String branchPath) {
+		final Map<String, RevisionData> revisionsById = new TreeMap<>();
+		search(branchPath, Query.select(RevisionData.class).where(Expressions.matchAll()).limit(REVISIONS_PER_CASE * 10).build())
+			.forEach(revision -> revisionsById.put(revision.getId(), revision));
+		return revisionsById;
+	}
+	
+}
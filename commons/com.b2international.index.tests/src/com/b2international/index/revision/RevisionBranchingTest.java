@@ -80,6 +80,18 @@ public class RevisionBranchingTest extends BaseRevisionIndexTest {
 		assertThat(branching().getBranchState(MAIN)).isEqualTo(BranchState.UP_TO_DATE);
 	}
 	
+	@Test
+	public void getBranchIsCachedUntilNextChange() throws Exception {
+		final RevisionBranch main = getMainBranch();
+		assertThat(getMainBranch()).isSameAs(main);
+		
+		final long timestamp = commit(MAIN, List.of(rev1)).getTimestamp();
+		final RevisionBranch mainAfterCommit = getMainBranch();
+		assertThat(mainAfterCommit).isNotSameAs(main);
+		assertThat(mainAfterCommit.getHeadTimestamp()).isEqualTo(timestamp);
+		assertThat(branching().getBranch(main.getId())).isSameAs(mainAfterCommit);
+	}
+	
 	@Test(expected = BadRequestException.class)
 	public void deleteMainIsNotPossible() throws Exception {
 		branching().delete(MAIN);
@@ -17,6 +17,7 @@ package com.b2international.index.revision;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 import org.elasticsearch.common.collect.List;
@@ -277,4 +278,22 @@ public class RevisionCompareTest extends BaseRevisionIndexTest {
 		);
 	}
 	
+	@Test
+	public void compareWithDetailConsumer() throws Exception {
+		final RevisionData rev1 = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		indexRevision(MAIN, rev1);
+		final String branch = createBranch(MAIN, "a");
+		final RevisionData rev2 = new RevisionData(STORAGE_KEY1, "field1Changed", "field2");
+		indexChange(branch, rev1, rev2);
+		indexRevision(branch, new RevisionData(STORAGE_KEY2, "field1", "field2"));
+		
+		final Collection<RevisionCompareDetail> details = new ArrayList<>();
+		final RevisionCompare compare = index().compare(MAIN, branch, false, details::add);
+		
+		assertThat(compare.getDetails()).isEmpty();
+		assertThat(compare.getTotalAdded()).isEqualTo(1);
+		assertThat(compare.getTotalChanged()).isEqualTo(1);
+		assertThat(details).containsExactlyElementsOf(index().compare(MAIN, branch).getDetails());
+	}
+	
 }
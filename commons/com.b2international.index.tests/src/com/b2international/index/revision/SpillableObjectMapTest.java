@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @since 7.17
+ */
+public class SpillableObjectMapTest {
+
+	private static final int SPILL_THRESHOLD = 4;
+	private static final String TYPE = "data";
+	private static final String OTHER_TYPE = "other";
+
+	private final CountingCodec codec = new CountingCodec();
+	private final SpillableObjectMap<String> map = new SpillableObjectMap<>(SPILL_THRESHOLD, codec);
+
+	@After
+	public void after() {
+		map.close();
+	}
+
+	@Test
+	public void heapEntriesFilteredByTagAndKey() throws Exception {
+		map.put(ObjectId.of(TYPE, "1"), "a1");
+		map.put(ObjectId.of(TYPE, "2"), "b2");
+		map.put(ObjectId.of(OTHER_TYPE, "3"), "a3");
+
+		assertThat(map.isSpilled()).isFalse();
+		assertThat(getValues((byte) 'a', TYPE)).containsOnly("a1");
+	}
+
+	@Test
+	public void spilledEntriesDecodedOnlyWhenMatching() throws Exception {
+		for (int i = 0; i < SPILL_THRESHOLD; i++) {
+			map.put(ObjectId.of(TYPE, "a" + i), "a" + i);
+			map.put(ObjectId.of(TYPE, "b" + i), "b" + i);
+			map.put(ObjectId.of(OTHER_TYPE, "a" + i), "a" + i);
+		}
+
+		assertThat(map.isSpilled()).isTrue();
+		assertThat(map).hasSize(SPILL_THRESHOLD * 3);
+
+		codec.decoded = 0;
+		assertThat(getValues((byte) 'a', TYPE)).containsOnly("a0", "a1", "a2", "a3");
+		assertThat(codec.decoded).isEqualTo(SPILL_THRESHOLD);
+	}
+
+	private List<String> getValues(byte tag, String type) {
+		return map.entries(tag, objectId -> type.equals(objectId.type()))
+				.map(Entry::getValue)
+				.collect(Collectors.toList());
+	}
+
+	/*
+	 * Stores values as UTF-8 bytes, the first character of a value is its tag.
+	 */
+	private static final class CountingCodec implements SpillableObjectMap.Codec<String> {
+
+		private int decoded;
+
+		@Override
+		public byte[] encode(String value) {
+			return value.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String decode(byte[] value) {
+			decoded++;
+			return new String(value, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public byte tag(String value) {
+			return (byte) value.charAt(0);
+		}
+
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.revision.RevisionFixtures.RevisionData;
+
+/**
+ * @since 7.17
+ */
+public class StagingAreaSpillTest extends BaseRevisionIndexTest {
+
+	private static final int SPILL_THRESHOLD = 5;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return List.of(RevisionData.class);
+	}
+
+	@Override
+	protected Map<String, Object> getIndexSettings() {
+		return Map.of(
+			IndexClientFactory.RESULT_WINDOW_KEY, ""+IndexClientFactory.DEFAULT_RESULT_WINDOW,
+			IndexClientFactory.COMMIT_SPILL_THRESHOLD_KEY, SPILL_THRESHOLD
+		);
+	}
+
+	@Test
+	public void commitSpilledNewRevisions() throws Exception {
+		StagingArea staging = index().prepareCommit(MAIN);
+		for (int i = 0; i < SPILL_THRESHOLD * 2; i++) {
+			staging.stageNew(new RevisionData("id" + i, "field1", "field2"));
+		}
+
+		assertThat(staging.getNumberOfStagedObjects()).isEqualTo(SPILL_THRESHOLD * 2);
+		assertThat(staging.isNew(new RevisionData("id0", "field1", "field2"))).isTrue();
+		assertThat(staging.getNewObject(RevisionData.class, "id9")).isEqualTo(new RevisionData("id9", "field1", "field2"));
+		assertThat(staging.getNewObjects(RevisionData.class)).hasSize(SPILL_THRESHOLD * 2);
+
+		staging.commit(currentTime(), USER_ID, "commitSpilledNewRevisions");
+
+		for (int i = 0; i < SPILL_THRESHOLD * 2; i++) {
+			assertThat(getRevision(MAIN, RevisionData.class, "id" + i)).isEqualTo(new RevisionData("id" + i, "field1", "field2"));
+		}
+	}
+
+	@Test
+	public void commitSpilledChangedRevisions() throws Exception {
+		commitSpilledNewRevisions();
+
+		StagingArea staging = index().prepareCommit(MAIN);
+		for (int i = 0; i < SPILL_THRESHOLD * 2; i++) {
+			final RevisionData oldRevision = getRevision(MAIN, RevisionData.class, "id" + i);
+			staging.stageChange(oldRevision, new RevisionData("id" + i, "field1Changed", "field2"));
+		}
+
+		assertThat(staging.isChanged(new RevisionData("id0", "field1", "field2"))).isTrue();
+		assertThat(staging.getChangedRevisions(RevisionData.class)).hasSize(SPILL_THRESHOLD * 2);
+
+		staging.commit(currentTime(), USER_ID, "commitSpilledChangedRevisions");
+
+		for (int i = 0; i < SPILL_THRESHOLD * 2; i++) {
+			assertThat(getRevision(MAIN, RevisionData.class, "id" + i)).isEqualTo(new RevisionData("id" + i, "field1Changed", "field2"));
+		}
+	}
+
+	@Test
+	public void squashMergeSpilledNewChangedAndRemovedRevisions() throws Exception {
+		for (int i = 0; i < SPILL_THRESHOLD * 2; i++) {
+			indexRevision(MAIN, new RevisionData("id" + i, "field1", "field2"));
+		}
+
+		// the merge stages more objects than the threshold, it has to read them back from the temporary store
+		final String child = createBranch(MAIN, "a");
+		for (int i = 0; i < SPILL_THRESHOLD; i++) {
+			indexChange(child, getRevision(child, RevisionData.class, "id" + i), new RevisionData("id" + i, "field1Changed", "field2"));
+			indexRemove(child, getRevision(child, RevisionData.class, "id" + (SPILL_THRESHOLD + i)));
+			indexRevision(child, new RevisionData("new" + i, "field1", "field2"));
+		}
+
+		branching()
+			.prepareMerge(child, MAIN)
+			.squash(true)
+			.merge();
+
+		for (int i = 0; i < SPILL_THRESHOLD; i++) {
+			assertThat(getRevision(MAIN, RevisionData.class, "id" + i)).isEqualTo(new RevisionData("id" + i, "field1Changed", "field2"));
+			assertThat(getRevision(MAIN, RevisionData.class, "id" + (SPILL_THRESHOLD + i))).isNull();
+			assertThat(getRevision(MAIN, RevisionData.class, "new" + i)).isEqualTo(new RevisionData("new" + i, "field1", "field2"));
+		}
+	}
+
+}
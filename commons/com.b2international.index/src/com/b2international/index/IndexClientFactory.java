@@ -129,6 +129,26 @@ public interface IndexClientFactory {
 	 */
 	String COMMIT_WATERMARK_HIGH_KEY = "commit.watermark.high";
 	
+	/**
+	 * Configuration key to specify the maximum time in milliseconds a commit waits for an index refresh already in progress, while the refreshes
+	 * requested by other concurrent commits are collected and executed as a single refresh request. Commits refresh right away when no other
+	 * refresh is in progress. By default it is set to {@value #DEFAULT_COMMIT_REFRESH_WINDOW}, which disables coalescing.
+	 */
+	String COMMIT_REFRESH_WINDOW_KEY = "commit.refresh_window";
+	
+	/**
+	 * Configuration key to specify the number of staged objects a commit keeps in memory. Commits staging more objects than this move their
+	 * staged objects to a temporary file until they are written to the index. By default it is set to {@value #DEFAULT_COMMIT_SPILL_THRESHOLD},
+	 * which keeps all staged objects in memory.
+	 */
+	String COMMIT_SPILL_THRESHOLD_KEY = "commit.spill_threshold";
+	
+	/**
+	 * Configuration key to specify the number of threads loading the revisions of the source and target branch when applying the changes of a
+	 * merge or rebase. By default it is set to {@value #DEFAULT_MERGE_READ_CONCURRENCY}.
+	 */
+	String MERGE_READ_CONCURRENCY_KEY = "merge.read_concurrency";
+	
 	//
 	// Default values
 	//
@@ -200,6 +220,21 @@ public interface IndexClientFactory {
 	 * Default amount of commit details indicating high watermark
 	 */
 	int DEFAULT_COMMIT_WATERMARK_HIGH_VALUE = 50_000;
+	
+	/**
+	 * Refreshes of concurrent commits are not coalesced by default
+	 */
+	int DEFAULT_COMMIT_REFRESH_WINDOW = 0;
+	
+	/**
+	 * Staged objects are not moved to disk by default
+	 */
+	int DEFAULT_COMMIT_SPILL_THRESHOLD = 0;
+	
+	/**
+	 * Revisions are loaded sequentially during merges by default
+	 */
+	int DEFAULT_MERGE_READ_CONCURRENCY = 1;
 
 
 	/**
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+
+import com.b2international.index.query.Query;
+import com.google.common.base.Strings;
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * Iterates over all matches of a {@link Query} page by page, using the searchAfter API. The limit of the query is used as page size, and each page
+ * is fetched lazily, only when the previous page has been consumed by the caller. Unlike {@link ScrollingIterator} it does not keep a search
+ * context open on the server side.
+ * 
+ * @since 7.17
+ * @param <T> - the type of returned documents
+ */
+public final class SearchAfterIterator<T> extends AbstractIterator<Hits<T>> {
+
+	private final Searcher searcher;
+	private final Query<T> query;
+	
+	private String searchAfter;
+	private boolean done;
+
+	public SearchAfterIterator(Searcher searcher, Query<T> query) {
+		checkArgument(Strings.isNullOrEmpty(query.getScrollKeepAlive()), "Scroll and searchAfter based iteration cannot be used at the same time");
+		checkArgument(query.getLimit() > 0, "Page size (limit) must be greater than zero");
+		this.searcher = searcher;
+		this.query = query;
+		// allow starting the iteration from an arbitrary point
+		this.searchAfter = query.getSearchAfter();
+	}
+	
+	@Override
+	protected Hits<T> computeNext() {
+		if (done) {
+			return endOfData();
+		}
+		
+		final Hits<T> hits;
+		try {
+			hits = searcher.search(query.withSearchAfter(searchAfter));
+		} catch (IOException e) {
+			throw new IndexException("Failed to load next page of documents", e);
+		}
+		
+		if (hits.isEmpty()) {
+			done = true;
+			return endOfData();
+		}
+		
+		searchAfter = hits.getSearchAfter();
+		// a partially filled page is always the last one, no need to execute another search request
+		done = searchAfter == null || hits.getHits().size() < query.getLimit();
+		return hits;
+	}
+
+}
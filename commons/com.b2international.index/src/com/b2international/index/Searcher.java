@@ -17,10 +17,12 @@ package com.b2international.index;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.stream.Stream;
 
 import com.b2international.index.aggregations.Aggregation;
 import com.b2international.index.aggregations.AggregationBuilder;
 import com.b2international.index.query.Query;
+import com.google.common.collect.Streams;
 
 /**
  * @since 4.7
@@ -102,4 +104,18 @@ public interface Searcher {
 		};
 	}
 	
+	/**
+	 * Returns a lazy {@link Stream} of result pages for all matches of the given query. The limit of the query is used as page size (it should not
+	 * exceed the configured result window) and pages are fetched one by one using the searchAfter API when the stream is consumed, so the memory
+	 * required to process the results depends on the page size, not on the total number of matches. Use
+	 * <code>stream(query).flatMap(Hits::stream)</code> to process individual hits.
+	 * 
+	 * @param query
+	 * @return
+	 * @see SearchAfterIterator
+	 */
+	default <T> Stream<Hits<T>> stream(Query<T> query) {
+		return Streams.stream(new SearchAfterIterator<T>(this, query));
+	}
+	
 }
@@ -207,14 +207,21 @@ public class EsDocumentSearcher implements Searcher {
 		TotalHits totalHits = response.getHits().getTotalHits();
 		checkState(totalHits.relation == Relation.EQUAL_TO, "Searches should always track total hits accurately");
 		final int totalHitCount = (int) totalHits.value;
-		final ImmutableList.Builder<SearchHit> allHits = ImmutableList.builder();
 		int numDocsToFetch = Math.min(limit, totalHitCount) - response.getHits().getHits().length;
 
+		final Class<T> select = query.getSelect();
+		final Class<?> from = query.getFrom();
+		final HitConverter<T> hitConverter = HitConverter.getConverter(mapper, mapping, select, from, fetchSource, query.getFields());
+		
+		// hits are converted page by page, so the raw SearchHit instances of a page can be released before fetching the next one
+		final ImmutableList.Builder<T> allHits = ImmutableList.builder();
+		Object[] searchAfterSortValues = null;
+
 		// if the client requested all data at once and there are more data in the index
 		// throw away the first batch and perform a local scroll
 		if (isLocalScroll && numDocsToFetch > 0) {
 			// WARN the caller that this might not be the most efficient way of fetching the data, consider using SearchAfter API or explicit Scroll API
-			admin.log().warn("Returning all matches (totalHits: '{}') larger than the currently configured result_window ('{}') might not be the most efficient way of getting the data. Consider using the index pagination APIs (searchAfter or explicit scroll) instead.", totalHitCount, resultWindow);
+			admin.log().warn("Returning all matches (totalHits: '{}') larger than the currently configured result_window ('{}') might not be the most efficient way of getting the data. Consider using the index pagination APIs (searchAfter, explicit scroll or Searcher.stream) instead.", totalHitCount, resultWindow);
 
 			// perform search again with a default 60s scroll enabled
 			final TimeValue scrollTime = TimeValue.timeValueSeconds(60);
@@ -228,7 +235,7 @@ public class EsDocumentSearcher implements Searcher {
 			// recalc if there were index changes in the middle
 			numDocsToFetch = Math.min(limit, totalHitCount) - response.getHits().getHits().length;
 			// register all hits
-			allHits.add(response.getHits().getHits());
+			searchAfterSortValues = convertHits(hitConverter, response.getHits(), allHits, searchAfterSortValues);
 
 			// then continue scroll
 			while (numDocsToFetch > 0) {
@@ -241,7 +248,7 @@ public class EsDocumentSearcher implements Searcher {
 					break;
 				}
 				numDocsToFetch -= fetchedDocs;
-				allHits.add(response.getHits().getHits());
+				searchAfterSortValues = convertHits(hitConverter, response.getHits(), allHits, searchAfterSortValues);
 			}
 			
 			// clear the custom local scroll
@@ -249,13 +256,10 @@ public class EsDocumentSearcher implements Searcher {
 			clearScrollRequest.addScrollId(response.getScrollId());
 			client.clearScroll(clearScrollRequest);
 		} else {
-			allHits.add(response.getHits().getHits());
+			searchAfterSortValues = convertHits(hitConverter, response.getHits(), allHits, searchAfterSortValues);
 		}
-
-		final Class<T> select = query.getSelect();
-		final Class<?> from = query.getFrom();
 		
-		return toHits(select, from, query.getFields(), fetchSource, limit, totalHitCount, response.getScrollId(), query.getSortBy(), allHits.build());
+		return new Hits<T>(allHits.build(), response.getScrollId(), toSearchAfterToken(searchAfterSortValues), limit, totalHitCount);
 	}
 
 	private <T> boolean applySourceFiltering(List<String> fields, boolean isDocIdOnly, final DocumentMapping mapping, final SearchSourceBuilder reqSource) {
@@ -304,7 +308,7 @@ public class EsDocumentSearcher implements Searcher {
 			
 			final DocumentMapping mapping = admin.mappings().getMapping(scroll.getFrom());
 			final boolean fetchSource = scroll.getFields().isEmpty() || requiresDocumentSourceField(mapping, scroll.getFields());
-			return toHits(scroll.getSelect(), scroll.getFrom(), scroll.getFields(), fetchSource, response.getHits().getHits().length, (int) response.getHits().getTotalHits().value, response.getScrollId(), null, response.getHits());	
+			return toHits(mapping, scroll.getSelect(), scroll.getFrom(), scroll.getFields(), fetchSource, response.getHits().getHits().length, (int) response.getHits().getTotalHits().value, response.getScrollId(), null, response.getHits());	
 			
 		} catch (IOException | ElasticsearchStatusException e) {
 			final Throwable rootCause = Throwables.getRootCause(e);
@@ -332,6 +336,7 @@ public class EsDocumentSearcher implements Searcher {
 	}
 	
 	private <T> Hits<T> toHits(
+			final DocumentMapping mapping,
 			Class<T> select, 
 			Class<?> from, 
 			final List<String> fields, 
@@ -341,9 +346,22 @@ public class EsDocumentSearcher implements Searcher {
 			final String scrollId,
 			final SortBy sortBy,
 			final Iterable<SearchHit> hits) throws IOException {
-		final HitConverter<T> hitConverter = HitConverter.getConverter(mapper, select, from, fetchSource, fields);
-		Object[] searchAfterSortValues = null;
+		final HitConverter<T> hitConverter = HitConverter.getConverter(mapper, mapping, select, from, fetchSource, fields);
 		final ImmutableList.Builder<T> result = ImmutableList.builder();
+		final Object[] searchAfterSortValues = convertHits(hitConverter, hits, result, null);
+		return new Hits<T>(result.build(), scrollId, toSearchAfterToken(searchAfterSortValues), limit, totalHits);
+	}
+	
+	/*
+	 * Converts the given page of hits and adds them to the result builder. Returns the sort values of the last hit on the page (to be used for
+	 * searchAfter), or the given previous sort values if the page was empty.
+	 */
+	private <T> Object[] convertHits(
+			final HitConverter<T> hitConverter, 
+			final Iterable<SearchHit> hits, 
+			final ImmutableList.Builder<T> result, 
+			final Object[] previousSortValues) throws IOException {
+		Object[] searchAfterSortValues = previousSortValues;
 		for (Iterator<SearchHit> iterator = hits.iterator(); iterator.hasNext();) {
 			SearchHit hit = iterator.next();
 			// if this was the last value then collect the sort values for searchAfter
@@ -356,7 +374,7 @@ public class EsDocumentSearcher implements Searcher {
 				searchAfterSortValues = hit.getSortValues();
 			}
 		}
-		return new Hits<T>(result.build(), scrollId, toSearchAfterToken(searchAfterSortValues), limit, totalHits);
+		return searchAfterSortValues;
 	}
 	
 	private String toSearchAfterToken(final Object[] searchAfter) {
@@ -508,7 +526,7 @@ public class EsDocumentSearcher implements Searcher {
 			}
 			Hits<T> hits;
 			if (topHits != null) {
-				hits = toHits(aggregation.getSelect(), aggregation.getFrom(), aggregation.getFields(), fetchSource, aggregation.getBucketHitsLimit(), (int) bucket.getDocCount(), null, null, topHits.getHits()); 
+				hits = toHits(mapping, aggregation.getSelect(), aggregation.getFrom(), aggregation.getFields(), fetchSource, aggregation.getBucketHitsLimit(), (int) bucket.getDocCount(), null, null, topHits.getHits()); 
 			} else {
 				hits = new Hits<>(Collections.emptyList(), null, null, aggregation.getBucketHitsLimit(), (int) bucket.getDocCount());
 			}
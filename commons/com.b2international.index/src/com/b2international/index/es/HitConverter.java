@@ -21,16 +21,19 @@ import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToLongFunction;
 
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.search.SearchHit;
 
 import com.b2international.commons.CompareUtils;
+import com.b2international.index.mapping.DocumentMapping;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Ints;
@@ -155,6 +158,73 @@ public interface HitConverter<T> {
 		
 	}
 	
+	/**
+	 * Converts the requested fields of a hit to a primitive <code>long</code> array, without the intermediate {@link String} array. The way each
+	 * field is read is decided up front from the document mapping: doc values of numeric and boolean fields are used as they are, only keyword
+	 * (eg. identifier) values, which Elasticsearch returns as strings, need to be parsed. Missing values are reported as <code>0L</code>.
+	 * 
+	 * @since 7.17
+	 */
+	final class FieldsAsLongArrayHitConverter<T> implements HitConverter<T> {
+		
+		private final Class<T> select;
+		private final List<String> fields;
+		private final List<ToLongFunction<Object>> readers;
+		
+		private FieldsAsLongArrayHitConverter(Class<T> select, List<String> fields, DocumentMapping mapping) {
+			this.select = select;
+			this.fields = fields;
+			this.readers = getLongReaders(mapping, fields);
+		}
+		
+		@Override
+		public T convert(SearchHit hit) {
+			Map<String, DocumentField> hitFields = hit.getFields();
+			final long[] val = new long[fields.size()];
+			for (int i = 0; i < fields.size(); i++) {
+				DocumentField docField = hitFields.get(fields.get(i));
+				if (docField != null) {
+					Object fieldValue = docField.getValue();
+					if (fieldValue != null) {
+						val[i] = readers.get(i).applyAsLong(fieldValue);
+					}
+				}
+			}
+			return select.cast(val);
+		}
+		
+	}
+	
+	/**
+	 * @since 7.17
+	 */
+	final class SourceAsLongArrayHitConverter<T> implements HitConverter<T> {
+		
+		private final Class<T> select;
+		private final List<String> fields;
+		private final List<ToLongFunction<Object>> readers;
+		
+		private SourceAsLongArrayHitConverter(Class<T> select, List<String> fields, DocumentMapping mapping) {
+			this.select = select;
+			this.fields = fields;
+			this.readers = getLongReaders(mapping, fields);
+		}
+		
+		@Override
+		public T convert(SearchHit hit) {
+			final Map<String, Object> source = hit.getSourceAsMap();
+			final long[] val = new long[fields.size()];
+			for (int i = 0; i < fields.size(); i++) {
+				Object value = source.get(fields.get(i));
+				if (value != null) {
+					val[i] = readers.get(i).applyAsLong(value);
+				}
+			}
+			return select.cast(val);
+		}
+		
+	}
+	
 	final class SourceAsObjectHitConverter<T> implements HitConverter<T> {
 		
 		private final ObjectReader reader;
@@ -205,7 +275,7 @@ public interface HitConverter<T> {
 		
 	}
 	
-	static <T> HitConverter<T> getConverter(ObjectMapper mapper, Class<T> select, Class<?> from, boolean fetchSource, List<String> fields) {
+	static <T> HitConverter<T> getConverter(ObjectMapper mapper, DocumentMapping mapping, Class<T> select, Class<?> from, boolean fetchSource, List<String> fields) {
 		if (Primitives.isWrapperType(select) || String.class.isAssignableFrom(select)) {
 			checkState(!fetchSource, "Single field fetching is not supported when it requires to load the source of the document.");
 			return new FieldValueHitConverter<>(select);
@@ -221,6 +291,12 @@ public interface HitConverter<T> {
 			} else {
 				return new FieldsAsStringArrayHitConverter<>(select, fields);
 			}
+		} else if (long[].class.isAssignableFrom(select)) {
+			if (fetchSource) {
+				return new SourceAsLongArrayHitConverter<>(select, fields, mapping);
+			} else {
+				return new FieldsAsLongArrayHitConverter<>(select, fields, mapping);
+			}
 		} else if (JsonNode.class.isAssignableFrom(select)) {
 			return new SourceAsJsonNodeHitConverter<>(mapper, select);
 		} else {
@@ -232,6 +308,36 @@ public interface HitConverter<T> {
 		}
 	}
 	
+	private static List<ToLongFunction<Object>> getLongReaders(DocumentMapping mapping, List<String> fields) {
+		final ImmutableList.Builder<ToLongFunction<Object>> readers = ImmutableList.builder();
+		for (String field : fields) {
+			readers.add(getLongReader(Primitives.wrap(mapping.getFieldType(field))));
+		}
+		return readers.build();
+	}
+	
+	private static ToLongFunction<Object> getLongReader(Class<?> fieldType) {
+		if (Long.class == fieldType || Integer.class == fieldType || Short.class == fieldType || Byte.class == fieldType) {
+			return value -> ((Number) value).longValue();
+		} else if (Boolean.class == fieldType) {
+			return value -> ((Boolean) value) ? 1L : 0L;
+		} else if (String.class == fieldType) {
+			return value -> Long.parseLong((String) value);
+		} else {
+			return HitConverter::toLong;
+		}
+	}
+	
+	private static long toLong(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		} else if (value instanceof Boolean) {
+			return ((Boolean) value) ? 1L : 0L;
+		} else {
+			return Long.parseLong(value.toString());
+		}
+	}
+	
 	static <T> ObjectReader getResultObjectReader(ObjectMapper mapper, Class<T> select, Class<?> from) {
 		return select != from 
 				? mapper.readerFor(select).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES) 
@@ -27,6 +27,11 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -69,6 +74,7 @@ import com.b2international.index.util.NumericClassUtils;
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Primitives;
@@ -91,7 +97,10 @@ public final class EsIndexAdmin implements IndexAdmin {
 	 */
 	private static final Set<String> LOCAL_SETTINGS = Set.of(
 		IndexClientFactory.COMMIT_WATERMARK_LOW_KEY,
-		IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY
+		IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY,
+		IndexClientFactory.COMMIT_REFRESH_WINDOW_KEY,
+		IndexClientFactory.COMMIT_SPILL_THRESHOLD_KEY,
+		IndexClientFactory.MERGE_READ_CONCURRENCY_KEY
 	);
 	
 	private static final int DEFAULT_MAX_NUMBER_OF_VERSION_CONFLICT_RETRIES = 5;
@@ -106,6 +115,11 @@ public final class EsIndexAdmin implements IndexAdmin {
 	
 	private final Logger log;
 	private final String prefix;
+	
+	// the refresh batch currently collecting indexes and the one being refreshed when refreshes of concurrent commits are coalesced
+	private final Object refreshLock = new Object();
+	private RefreshBatch pendingRefresh;
+	private RefreshBatch runningRefresh;
 
 	public EsIndexAdmin(EsClient client, ObjectMapper mapper, String name, Mappings mappings, Map<String, Object> settings) {
 		this.client = client;
@@ -124,6 +138,9 @@ public final class EsIndexAdmin implements IndexAdmin {
 		this.settings.putIfAbsent(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB, IndexClientFactory.DEFAULT_BULK_ACTIONS_SIZE_IN_MB);
 		this.settings.putIfAbsent(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_LOW_VALUE);
 		this.settings.putIfAbsent(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE);
+		this.settings.putIfAbsent(IndexClientFactory.COMMIT_REFRESH_WINDOW_KEY, IndexClientFactory.DEFAULT_COMMIT_REFRESH_WINDOW);
+		this.settings.putIfAbsent(IndexClientFactory.COMMIT_SPILL_THRESHOLD_KEY, IndexClientFactory.DEFAULT_COMMIT_SPILL_THRESHOLD);
+		this.settings.putIfAbsent(IndexClientFactory.MERGE_READ_CONCURRENCY_KEY, IndexClientFactory.DEFAULT_MERGE_READ_CONCURRENCY);
 		
 		final String prefix = (String) settings.getOrDefault(IndexClientFactory.INDEX_PREFIX, IndexClientFactory.DEFAULT_INDEX_PREFIX);
 		this.prefix = prefix.isEmpty() ? "" : prefix + ".";
@@ -610,26 +627,110 @@ public final class EsIndexAdmin implements IndexAdmin {
 						.toArray(String[]::new);
 			}
 			
-			if (log.isTraceEnabled()) {
-				log.trace("Refreshing indexes '{}'", Arrays.toString(indicesToRefresh));
+			final long refreshWindow = getRefreshWindow();
+			if (refreshWindow > 0L) {
+				refreshCoalesced(indicesToRefresh, refreshWindow);
+			} else {
+				refresh(indicesToRefresh);
+			}
+		}
+	}
+	
+	/*
+	 * Joins the currently pending refresh batch or starts a new one. When no other refresh is in progress, the thread starting the batch refreshes
+	 * right away, otherwise it waits for the running refresh to complete (but at most for the configured window) while later callers join its
+	 * batch, then refreshes all indexes collected by the batch in a single request. Callers return only after a refresh request started after
+	 * their own call has been completed, so the documents written before calling this method are visible to searches when it returns.
+	 */
+	private void refreshCoalesced(String[] indicesToRefresh, long refreshWindow) {
+		final RefreshBatch batch;
+		final RefreshBatch previousBatch;
+		final boolean leader;
+		
+		synchronized (refreshLock) {
+			if (pendingRefresh == null) {
+				pendingRefresh = new RefreshBatch();
+				previousBatch = runningRefresh;
+				leader = true;
+			} else {
+				previousBatch = null;
+				leader = false;
+			}
+			batch = pendingRefresh;
+			batch.indices.addAll(Arrays.asList(indicesToRefresh));
+		}
+		
+		if (leader) {
+			if (previousBatch != null) {
+				awaitRefresh(previousBatch, refreshWindow);
 			}
 			
-			try {
+			final String[] batchIndices;
+			synchronized (refreshLock) {
+				pendingRefresh = null;
+				runningRefresh = batch;
+				batchIndices = batch.indices.toArray(String[]::new);
+			}
 			
-				final RefreshRequest refreshRequest = new RefreshRequest(indicesToRefresh);
-				final RefreshResponse refreshResponse = client()
-						.indices()
-						.refresh(refreshRequest);
-				if (RestStatus.OK != refreshResponse.getStatus() && log.isErrorEnabled()) {
-					log.error("Index refresh request of '{}' returned with status {}", Arrays.toString(indicesToRefresh), refreshResponse.getStatus());
+			try {
+				refresh(batchIndices);
+				batch.completion.complete(null);
+			} catch (RuntimeException e) {
+				batch.completion.completeExceptionally(e);
+				throw e;
+			} finally {
+				synchronized (refreshLock) {
+					if (runningRefresh == batch) {
+						runningRefresh = null;
+					}
 				}
-				
-			} catch (Exception e) {
-				throw new IndexException(String.format("Failed to refresh ES indexes '%s'.", Arrays.toString(indicesToRefresh)), e);
 			}
+		} else {
+			try {
+				batch.completion.join();
+			} catch (CompletionException e) {
+				Throwables.throwIfUnchecked(e.getCause());
+				throw e;
+			}
+		}
+	}
+	
+	private void awaitRefresh(RefreshBatch batch, long timeout) {
+		try {
+			batch.completion.get(timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			// refresh the collected indexes anyway, other commits are waiting for the next batch
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			// the next batch issues its own refresh request regardless of the outcome of the running one
 		}
 	}
 	
+	private void refresh(String[] indicesToRefresh) {
+		if (log.isTraceEnabled()) {
+			log.trace("Refreshing indexes '{}'", Arrays.toString(indicesToRefresh));
+		}
+		
+		try {
+		
+			final RefreshRequest refreshRequest = new RefreshRequest(indicesToRefresh);
+			final RefreshResponse refreshResponse = client()
+					.indices()
+					.refresh(refreshRequest);
+			if (RestStatus.OK != refreshResponse.getStatus() && log.isErrorEnabled()) {
+				log.error("Index refresh request of '{}' returned with status {}", Arrays.toString(indicesToRefresh), refreshResponse.getStatus());
+			}
+			
+		} catch (Exception e) {
+			throw new IndexException(String.format("Failed to refresh ES indexes '%s'.", Arrays.toString(indicesToRefresh)), e);
+		}
+	}
+	
+	private long getRefreshWindow() {
+		final Object refreshWindow = settings().get(IndexClientFactory.COMMIT_REFRESH_WINDOW_KEY);
+		return refreshWindow == null ? IndexClientFactory.DEFAULT_COMMIT_REFRESH_WINDOW : Long.parseLong(refreshWindow.toString());
+	}
+	
 	public boolean bulkUpdate(final BulkUpdate<?> update) {
 		final DocumentMapping mapping = mappings().getMapping(update.getType());
 		final String rawScript = mapping.getScript(update.getScript()).script();
@@ -740,4 +841,11 @@ public final class EsIndexAdmin implements IndexAdmin {
 		return (int) settings().get(IndexClientFactory.COMMIT_CONCURRENCY_LEVEL);
 	}
 	
+	private static final class RefreshBatch {
+		
+		private final Set<String> indices = new LinkedHashSet<>();
+		private final CompletableFuture<Void> completion = new CompletableFuture<>();
+		
+	}
+	
 }
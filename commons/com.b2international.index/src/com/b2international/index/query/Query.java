@@ -201,6 +201,28 @@ public final class Query<T> {
 		this.searchAfter = searchAfter;
 	}
 	
+	/**
+	 * Returns a copy of this query that returns matches after the given sort values. The original query instance is not modified.
+	 * 
+	 * @param searchAfter - the last sort values in sort order, may be <code>null</code> to start from the first page
+	 * @return a new {@link Query} instance with the same configuration and the given searchAfter value
+	 * @see AfterWhereBuilder#searchAfter(String)
+	 */
+	public Query<T> withSearchAfter(String searchAfter) {
+		Query<T> query = new Query<T>();
+		query.setSelect(select);
+		query.setFrom(from);
+		query.setParentType(parentType);
+		query.setWhere(where);
+		query.setScrollKeepAlive(scrollKeepAlive);
+		query.setSearchAfter(searchAfter);
+		query.setLimit(limit);
+		query.setSortBy(sortBy);
+		query.setWithScores(withScores);
+		query.setFields(fields);
+		return query;
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
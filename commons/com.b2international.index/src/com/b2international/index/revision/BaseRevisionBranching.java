@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
@@ -37,6 +38,7 @@ import com.b2international.index.query.Query;
 import com.b2international.index.query.Query.AfterWhereBuilder;
 import com.b2international.index.revision.RevisionBranch.BranchState;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -50,10 +52,22 @@ import com.google.common.collect.Iterables;
  */
 public abstract class BaseRevisionBranching {
 
+	private static final int MAX_CACHED_BRANCHES = 10_000;
+	
 	private final RevisionIndex index;
 	private final TimestampProvider timestampProvider;
 	private final List<Consumer<String>> onBranchChange = newArrayListWithCapacity(1);
 	
+	// in-process cache of branch documents, entries are invalidated on every branch change made through this instance
+	private final Cache<String, RevisionBranch> branchesByPath = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_BRANCHES)
+			.build();
+	private final Cache<Long, String> branchPathsById = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_BRANCHES)
+			.build();
+	// incremented before each invalidation, so documents loaded concurrently with a change are not cached
+	private final AtomicLong branchCacheGeneration = new AtomicLong();
+	
 	private final LoadingCache<String, ReentrantLock> locks = CacheBuilder.newBuilder()
 			.expireAfterAccess(5L, TimeUnit.MINUTES)
 			.build(new CacheLoader<String, ReentrantLock>() {
@@ -101,6 +115,7 @@ public abstract class BaseRevisionBranching {
 	}
 	
 	protected void init() {
+		invalidateBranchCache();
 		RevisionBranch mainBranch = get(RevisionBranch.MAIN_PATH);
 		if (mainBranch == null) {
 			final long branchId = getMainBranchId();
@@ -133,13 +148,25 @@ public abstract class BaseRevisionBranching {
 	}
 	
 	public RevisionBranch getBranch(long branchId) {
-		return index().read(searcher -> searcher.search(Query.select(RevisionBranch.class)
+		final String branchPath = branchPathsById.getIfPresent(branchId);
+		if (branchPath != null) {
+			final RevisionBranch branch = get(branchPath);
+			// the path might have been reopened with a different branch ID since it was cached
+			if (branch != null && branch.getId() == branchId) {
+				return branch;
+			}
+		}
+		
+		final long generation = branchCacheGeneration.get();
+		final RevisionBranch branch = index().read(searcher -> searcher.search(Query.select(RevisionBranch.class)
 				.where(Expressions.exactMatch(RevisionBranch.Fields.ID, branchId))
 				.limit(1)
 				.build())
 				.stream()
 				.findFirst()
 				.orElseThrow(() -> new NotFoundException("RevisionBranch", Long.toString(branchId))));
+		cache(branch, generation);
+		return branch;
 	}
 	
 	
@@ -150,7 +177,45 @@ public abstract class BaseRevisionBranching {
 	 * @return
 	 */
 	protected RevisionBranch get(String branchPath) {
-		return index().read(searcher -> searcher.get(RevisionBranch.class, branchPath));
+		final RevisionBranch cachedBranch = branchesByPath.getIfPresent(branchPath);
+		if (cachedBranch != null) {
+			return cachedBranch;
+		}
+		
+		final long generation = branchCacheGeneration.get();
+		final RevisionBranch branch = index().read(searcher -> searcher.get(RevisionBranch.class, branchPath));
+		if (branch != null) {
+			cache(branch, generation);
+		}
+		return branch;
+	}
+	
+	private void cache(final RevisionBranch branch, final long generation) {
+		branchesByPath.put(branch.getPath(), branch);
+		branchPathsById.put(branch.getId(), branch.getPath());
+		// a branch change happened while the document was loaded, it might be stale already
+		if (branchCacheGeneration.get() != generation) {
+			branchesByPath.invalidate(branch.getPath());
+		}
+	}
+	
+	/**
+	 * Drops the cached document of the given branch. Subsequent reads of the branch will load it from the index.
+	 * 
+	 * @param branchPath
+	 */
+	private void invalidateBranch(final String branchPath) {
+		branchCacheGeneration.incrementAndGet();
+		branchesByPath.invalidate(branchPath);
+	}
+	
+	/**
+	 * Drops all cached branch documents.
+	 */
+	final void invalidateBranchCache() {
+		branchCacheGeneration.incrementAndGet();
+		branchesByPath.invalidateAll();
+		branchPathsById.invalidateAll();
 	}
 
 	/**
@@ -200,11 +265,16 @@ public abstract class BaseRevisionBranching {
 	}
 	
 	public <T> T commit(IndexWrite<T> changes) {
-		return index().write(writer -> {
-			T result = changes.execute(writer);
-			writer.commit();
-			return result;
-		});
+		try {
+			return index().write(writer -> {
+				T result = changes.execute(writer);
+				writer.commit();
+				return result;
+			});
+		} finally {
+			// branch documents are written directly, without a branch path at hand
+			invalidateBranchCache();
+		}
 	}
 	
 	protected final String toAbsolutePath(final String parentPath, final String name) {
@@ -465,6 +535,7 @@ public abstract class BaseRevisionBranching {
 	 * @param branchPath the subject of the notification (may not be {@code null})
 	 */
 	protected final void sendChangeEvent(final String branchPath) {
+		invalidateBranch(branchPath);
 		onBranchChange.forEach(c -> c.accept(branchPath));
 	}
 	
@@ -16,6 +16,7 @@
 package com.b2international.index.revision;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 
@@ -23,9 +24,15 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import com.b2international.index.Hits;
 import com.b2international.index.Index;
+import com.b2international.index.IndexClientFactory;
 import com.b2international.index.Searcher;
 import com.b2international.index.Writer;
 import com.b2international.index.mapping.DocumentMapping;
@@ -39,6 +46,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @since 4.7
@@ -56,6 +64,10 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	private final RevisionIndexAdmin admin;
 	private final ObjectMapper mapper;
 	private final List<Hooks.Hook> hooks = newArrayList();
+	
+	// created on first use, released when the index is closed
+	private ExecutorService mergeReadExecutor;
+	private boolean closed;
 
 	public DefaultRevisionIndex(Index index, TimestampProvider timestampProvider, ObjectMapper mapper) {
 		this.index = index;
@@ -145,6 +157,11 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 		return compare(getBaseRef(branch), getBranchRef(branch), limit, excludeComponentChanges);
 	}
 	
+	@Override
+	public RevisionCompare compare(final String branch, boolean excludeComponentChanges, Consumer<RevisionCompareDetail> detailConsumer) {
+		return compare(getBaseRef(branch), getBranchRef(branch), excludeComponentChanges, detailConsumer);
+	}
+	
 	@Override
 	public RevisionCompare compare(final String baseBranch, final String compareBranch) {
 		return compare(baseBranch, compareBranch, COMPARE_DEFAULT_LIMIT, false);
@@ -155,24 +172,35 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 		return compare(getBranchRef(baseBranch), getBranchRef(compareBranch), limit, excludeComponentChanges);
 	}
 	
+	@Override
+	public RevisionCompare compare(final String baseBranch, final String compareBranch, boolean excludeComponentChanges, Consumer<RevisionCompareDetail> detailConsumer) {
+		return compare(getBranchRef(baseBranch), getBranchRef(compareBranch), excludeComponentChanges, detailConsumer);
+	}
+	
 	@Override
 	public RevisionCompare compare(final RevisionBranchRef base, final RevisionBranchRef compare, final int limit, boolean excludeComponentChanges) {
-		return index.read(searcher -> {
-			
-			final RevisionBranchRef baseOfCompareRef = base.intersection(compare);
-			final RevisionBranchRef compareRef = compare.difference(base);
-
-			final Builder result = RevisionCompare.builder(baseOfCompareRef, compareRef, limit, excludeComponentChanges);
-			
-			if (base.branchId() != compare.branchId()) {
-				Stopwatch w = Stopwatch.createStarted();
-				admin.log().trace("Comparing changes between {} -> {}.", base, compare);
-				doRevisionCompare(searcher, compareRef, result);
-				admin.log().trace("Compared changes between {} -> {} in {}.", base, compare, w);
-			}
+		return index.read(searcher -> compare(searcher, base, compare, limit, excludeComponentChanges).build());
+	}
+	
+	@Override
+	public RevisionCompare compare(final RevisionBranchRef base, final RevisionBranchRef compare, boolean excludeComponentChanges, Consumer<RevisionCompareDetail> detailConsumer) {
+		return index.read(searcher -> compare(searcher, base, compare, Integer.MAX_VALUE, excludeComponentChanges).build(detailConsumer));
+	}
+	
+	private Builder compare(Searcher searcher, final RevisionBranchRef base, final RevisionBranchRef compare, final int limit, boolean excludeComponentChanges) throws IOException {
+		final RevisionBranchRef baseOfCompareRef = base.intersection(compare);
+		final RevisionBranchRef compareRef = compare.difference(base);
 
-			return result.build();
-		});
+		final Builder result = RevisionCompare.builder(baseOfCompareRef, compareRef, limit, excludeComponentChanges);
+		
+		if (base.branchId() != compare.branchId()) {
+			Stopwatch w = Stopwatch.createStarted();
+			admin.log().trace("Comparing changes between {} -> {}.", base, compare);
+			doRevisionCompare(searcher, compareRef, result);
+			admin.log().trace("Compared changes between {} -> {} in {}.", base, compare, w);
+		}
+		
+		return result;
 	}
 	
 	private void doRevisionCompare(Searcher searcher, RevisionBranchRef compareRef, RevisionCompare.Builder result) throws IOException {
@@ -318,6 +346,44 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 		return ImmutableList.copyOf(hooks);
 	}
 
+	/**
+	 * Returns the executor loading revisions for merges and rebases of this index. The executor is shared by all merges, so the number of
+	 * threads reading revisions never exceeds the configured merge read concurrency. Idle threads are released after a minute, the executor
+	 * itself is shut down when this index is {@link #close() closed}.
+	 * 
+	 * @return the shared executor for merge revision reads, created on first use
+	 * @throws IllegalStateException - if this index has already been closed
+	 */
+	synchronized ExecutorService getMergeReadExecutor() {
+		checkState(!closed, "Revision index '%s' is already closed.", name());
+		if (mergeReadExecutor == null) {
+			mergeReadExecutor = createMergeReadExecutor();
+		}
+		return mergeReadExecutor;
+	}
+	
+	/**
+	 * Releases the resources held by this revision index. Revision reads of merges that are already running are allowed to complete, new
+	 * merges and rebases can not be started afterwards. The underlying {@link Index} is not affected.
+	 */
+	public synchronized void close() {
+		closed = true;
+		if (mergeReadExecutor != null) {
+			mergeReadExecutor.shutdown();
+			mergeReadExecutor = null;
+		}
+	}
+	
+	private ExecutorService createMergeReadExecutor() {
+		final int threads = (int) index.admin().settings().getOrDefault(IndexClientFactory.MERGE_READ_CONCURRENCY_KEY, IndexClientFactory.DEFAULT_MERGE_READ_CONCURRENCY);
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1L, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+				.setNameFormat(name() + "-merge-read-%d")
+				.setDaemon(true)
+				.build());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
 	private RevisionBranchRef getBranchRef(final String branchPath) {
 		return getBranch(branchPath).ref();
 	}
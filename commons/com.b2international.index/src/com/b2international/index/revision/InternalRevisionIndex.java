@@ -16,6 +16,7 @@
 package com.b2international.index.revision;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @since 5.0
@@ -33,4 +34,6 @@ interface InternalRevisionIndex extends RevisionIndex {
 
 	RevisionCompare compare(RevisionBranchRef base, RevisionBranchRef compare, int limit, boolean excludeComponentChanges);
 	
+	RevisionCompare compare(RevisionBranchRef base, RevisionBranchRef compare, boolean excludeComponentChanges, Consumer<RevisionCompareDetail> detailConsumer);
+	
 }
@@ -15,8 +15,11 @@
  */
 package com.b2international.index.revision;
 
+import static com.google.common.base.Preconditions.checkState;
+
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.b2international.commons.collections.Collections3;
@@ -43,6 +46,7 @@ public final class RevisionCompare {
 		private boolean excludeComponentChanges;
 	
 		private final TreeMap<String, RevisionCompareDetail> detailsByComponent = new TreeMap<>();
+		private boolean built;
 		
 		Builder(RevisionBranchRef base, RevisionBranchRef compare, int limit, boolean excludeComponentChanges) {
 			this.base = base;
@@ -52,6 +56,7 @@ public final class RevisionCompare {
 		}
 		
 		public Builder apply(Commit commit) {
+			checkState(!built, "Compare result has already been built.");
 			for (CommitDetail detail : commit.getDetails()) {
 								
 				List<String> objects = detail.getObjects();
@@ -104,31 +109,63 @@ public final class RevisionCompare {
 			return this;
 		}
 		
+		/**
+		 * Builds the compare result from the changes applied so far. Change details are moved out of this builder, so it can be built only
+		 * once.
+		 * 
+		 * @return a {@link RevisionCompare} with the totals and at most <code>limit</code> change details
+		 */
 		public RevisionCompare build() {
+			final List<RevisionCompareDetail> details = new ArrayList<>(Math.min(limit, detailsByComponent.size()));
+			return build(details, compareDetail -> {
+				if (details.size() < limit) {
+					details.add(compareDetail);
+				}
+			});
+		}
+		
+		/**
+		 * Passes all change details to the given consumer in key order, removing each of them from this builder before the next one is passed.
+		 * All commits have to be applied before calling this method, as later commits may cancel out the changes of earlier ones. The builder
+		 * can be built only once.
+		 * 
+		 * @param detailConsumer
+		 * @return a {@link RevisionCompare} with the totals and without change details
+		 */
+		public RevisionCompare build(Consumer<RevisionCompareDetail> detailConsumer) {
+			return build(Collections.emptyList(), detailConsumer);
+		}
+		
+		private RevisionCompare build(List<RevisionCompareDetail> details, Consumer<RevisionCompareDetail> detailConsumer) {
+			checkState(!built, "Compare result has already been built.");
+			built = true;
+			
 			// count changes only once
 			final Set<ObjectId> changedObjects = Sets.newHashSet();
-			detailsByComponent.values().forEach(compareDetail -> {
-						switch (compareDetail.getOp()) {
-						case ADD:
-							added++;
-							break;
-						case CHANGE:
-							// count only property changes
-							if (compareDetail.isPropertyChange()) {
-								changedObjects.add(compareDetail.getObject());
-							}
-							break;
-						case REMOVE:
-							removed++;
-							break;
-						}
-					});
-			final List<RevisionCompareDetail> details = detailsByComponent.values().stream().limit(limit).collect(Collectors.toUnmodifiableList());
+			Entry<String, RevisionCompareDetail> entry;
+			while ((entry = detailsByComponent.pollFirstEntry()) != null) {
+				final RevisionCompareDetail compareDetail = entry.getValue();
+				switch (compareDetail.getOp()) {
+				case ADD:
+					added++;
+					break;
+				case CHANGE:
+					// count only property changes
+					if (compareDetail.isPropertyChange()) {
+						changedObjects.add(compareDetail.getObject());
+					}
+					break;
+				case REMOVE:
+					removed++;
+					break;
+				}
+				detailConsumer.accept(compareDetail);
+			}
 			
 			return new RevisionCompare(
 					base, 
 					compare,
-					details,
+					Collections.unmodifiableList(details),
 					added,
 					changedObjects.size(),
 					removed);
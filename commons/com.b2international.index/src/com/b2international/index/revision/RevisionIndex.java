@@ -17,6 +17,8 @@ package com.b2international.index.revision;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.function.Consumer;
+
 import com.b2international.index.Index;
 import com.b2international.index.admin.Administrable;
 import com.google.common.base.Strings;
@@ -96,6 +98,17 @@ public interface RevisionIndex extends Administrable<RevisionIndexAdmin> {
 	 */
 	RevisionCompare compare(String branch, int limit, boolean excludeComponentChanges);
 	
+	/**
+	 * Compares the given branch with its parent branch and passes each change detail to the given consumer.
+	 * 
+	 * @param branch
+	 * @param excludeComponentChanges
+	 * @param detailConsumer - the consumer to pass the change details to
+	 * @return a {@link RevisionCompare} with the total number of changes and without any details
+	 * @see #compare(String, String, boolean, Consumer)
+	 */
+	RevisionCompare compare(String branch, boolean excludeComponentChanges, Consumer<RevisionCompareDetail> detailConsumer);
+	
 	/**
 	 * Compares the given compare branch with the given base branch. The {@link RevisionCompare} response will contain the difference from the compare
 	 * branch compared to the base. The result might contain new, changed, deleted revision storage keys of any revision.
@@ -116,6 +129,23 @@ public interface RevisionIndex extends Administrable<RevisionIndexAdmin> {
 	 */
 	RevisionCompare compare(String baseBranch, String compareBranch, int limit, boolean excludeComponentChanges);
 	
+	/**
+	 * Compares the given compare branch with the given base branch and passes each change detail to the given consumer, instead of collecting
+	 * them into the returned {@link RevisionCompare}. Details are passed in the same order as they would appear in
+	 * {@link RevisionCompare#getDetails()}, and each detail is released by the compare as soon as it has been passed to the consumer.
+	 * <p>
+	 * Details are only known after all commits of the compare branch have been folded (later commits may cancel out earlier changes), so this
+	 * method does not lower the peak memory use of the compare itself. It avoids copying the details into the result, the caller decides
+	 * what to keep.
+	 * 
+	 * @param baseBranch
+	 * @param compareBranch
+	 * @param excludeComponentChanges
+	 * @param detailConsumer - the consumer to pass the change details to
+	 * @return a {@link RevisionCompare} with the total number of changes and without any details
+	 */
+	RevisionCompare compare(String baseBranch, String compareBranch, boolean excludeComponentChanges, Consumer<RevisionCompareDetail> detailConsumer);
+	
 	/**
 	 * Returns the revision branching API that can be used to access the branches available in this {@link RevisionIndex}.
 	 * @return
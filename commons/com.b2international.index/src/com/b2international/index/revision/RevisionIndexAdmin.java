@@ -64,11 +64,13 @@ public final class RevisionIndexAdmin implements IndexAdmin {
 	@Override
 	public void delete() {
 		rawIndexAdmin.delete();
+		index.branching().invalidateBranchCache();
 	}
 
 	@Override
 	public void clear(Collection<Class<?>> types) {
 		rawIndexAdmin.clear(types);
+		index.branching().invalidateBranchCache();
 	}
 
 	@Override
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+import com.b2international.index.IndexException;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+
+/**
+ * A {@link Map} keyed by {@link ObjectId}s that keeps its entries on the heap until the number of entries exceeds a threshold. When that happens,
+ * all entries are moved to a temporary, file-backed MapDB store and subsequent reads and writes go through the given {@link Codec}.
+ * <p>
+ * Values read from a spilled map are new instances, changes made to them are not reflected in the map until they are put back. Use
+ * {@link #entries(byte, Predicate)} to read a subset of the entries, it decodes matching values only. The temporary store is deleted when the
+ * map is {@link #close() closed}.
+ *
+ * @since 7.17
+ * @param <V> - the type of the values
+ */
+final class SpillableObjectMap<V> extends AbstractMap<ObjectId, V> implements AutoCloseable {
+
+	/**
+	 * Converts values of a {@link SpillableObjectMap} to and from their binary representation. The binary representation of a value must start
+	 * with the {@link #tag(Object) tag} of the value.
+	 *
+	 * @param <V>
+	 */
+	interface Codec<V> {
+
+		byte[] encode(V value) throws IOException;
+
+		V decode(byte[] value) throws IOException;
+
+		/**
+		 * @param value
+		 * @return the tag of the value, entries can be filtered by their tag without decoding their value
+		 */
+		byte tag(V value);
+
+	}
+
+	private static final char KEY_SEPARATOR = '/';
+
+	private final int spillThreshold;
+	private final Codec<V> codec;
+
+	private Map<ObjectId, V> heapEntries = Maps.newHashMap();
+	private DB db;
+	private HTreeMap<String, byte[]> spilledEntries;
+
+	/**
+	 * @param spillThreshold - the number of entries to keep on the heap, a value less than one disables spilling
+	 * @param codec - the codec to use when entries are moved to disk
+	 */
+	SpillableObjectMap(int spillThreshold, Codec<V> codec) {
+		this.spillThreshold = spillThreshold;
+		this.codec = codec;
+	}
+
+	/**
+	 * @return <code>true</code> if the entries of this map have been moved to disk, <code>false</code> otherwise
+	 */
+	boolean isSpilled() {
+		return spilledEntries != null;
+	}
+
+	@Override
+	public int size() {
+		return isSpilled() ? spilledEntries.size() : heapEntries.size();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (!(key instanceof ObjectId)) {
+			return false;
+		}
+		return isSpilled() ? spilledEntries.containsKey(toKey((ObjectId) key)) : heapEntries.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		if (!(key instanceof ObjectId)) {
+			return null;
+		}
+		return isSpilled() ? decode(spilledEntries.get(toKey((ObjectId) key))) : heapEntries.get(key);
+	}
+
+	@Override
+	public V put(ObjectId key, V value) {
+		if (isSpilled()) {
+			// avoid decoding the previous value, callers of this map do not use it
+			spilledEntries.put(toKey(key), encode(value));
+			return null;
+		}
+
+		final V previous = heapEntries.put(key, value);
+		if (spillThreshold > 0 && heapEntries.size() > spillThreshold) {
+			spill();
+		}
+		return previous;
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (!(key instanceof ObjectId)) {
+			return null;
+		}
+		return isSpilled() ? decode(spilledEntries.remove(toKey((ObjectId) key))) : heapEntries.remove(key);
+	}
+
+	@Override
+	public Set<Entry<ObjectId, V>> entrySet() {
+		if (!isSpilled()) {
+			return heapEntries.entrySet();
+		}
+
+		return new AbstractSet<Entry<ObjectId, V>>() {
+			@Override
+			public Iterator<Entry<ObjectId, V>> iterator() {
+				return Iterators.transform(spilledEntries.entrySet().iterator(), entry -> Maps.immutableEntry(toObjectId(entry.getKey()), decode(entry.getValue())));
+			}
+
+			@Override
+			public int size() {
+				return spilledEntries.size();
+			}
+		};
+	}
+
+	/**
+	 * Returns the entries of this map whose value has the given tag and whose key matches the given filter. Values of other entries are not
+	 * decoded when the map is spilled.
+	 *
+	 * @param tag - the tag of the values to return
+	 * @param keyFilter - the filter to apply to the keys of entries with a matching tag
+	 * @return the matching entries
+	 */
+	Stream<Entry<ObjectId, V>> entries(byte tag, Predicate<ObjectId> keyFilter) {
+		if (!isSpilled()) {
+			return heapEntries.entrySet()
+					.stream()
+					.filter(entry -> codec.tag(entry.getValue()) == tag && keyFilter.test(entry.getKey()));
+		}
+
+		return spilledEntries.entrySet()
+				.stream()
+				.filter(entry -> entry.getValue()[0] == tag)
+				.map(entry -> Maps.immutableEntry(toObjectId(entry.getKey()), entry.getValue()))
+				.filter(entry -> keyFilter.test(entry.getKey()))
+				.map(entry -> Maps.immutableEntry(entry.getKey(), decode(entry.getValue())));
+	}
+
+	@Override
+	public void close() {
+		heapEntries = Maps.newHashMap();
+		if (db != null) {
+			spilledEntries = null;
+			db.close();
+			db = null;
+		}
+	}
+
+	private void spill() {
+		db = DBMaker.tempFileDB()
+				.fileMmapEnableIfSupported()
+				.fileDeleteAfterClose()
+				.closeOnJvmShutdown()
+				.make();
+		spilledEntries = db.hashMap("entries", Serializer.STRING, Serializer.BYTE_ARRAY).create();
+		for (Entry<ObjectId, V> entry : heapEntries.entrySet()) {
+			spilledEntries.put(toKey(entry.getKey()), encode(entry.getValue()));
+		}
+		heapEntries = null;
+	}
+
+	private byte[] encode(V value) {
+		try {
+			return codec.encode(value);
+		} catch (IOException e) {
+			throw new IndexException("Couldn't write staged object to temporary store.", e);
+		}
+	}
+
+	private V decode(byte[] value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return codec.decode(value);
+		} catch (IOException e) {
+			throw new IndexException("Couldn't read staged object from temporary store.", e);
+		}
+	}
+
+	private static String toKey(ObjectId objectId) {
+		return objectId.type() + KEY_SEPARATOR + objectId.id();
+	}
+
+	private static ObjectId toObjectId(String key) {
+		// document types never contain the separator, identifiers might
+		final int separatorIdx = key.indexOf(KEY_SEPARATOR);
+		return ObjectId.of(key.substring(0, separatorIdx), key.substring(separatorIdx + 1));
+	}
+
+}
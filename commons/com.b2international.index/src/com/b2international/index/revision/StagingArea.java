@@ -22,9 +22,18 @@ import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.google.common.collect.Sets.newHashSet;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -49,6 +58,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.flipkart.zjsonpatch.JsonPatch;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.*;
 
 /**
@@ -63,10 +73,14 @@ public final class StagingArea {
 	private final String branchPath;
 	private final ObjectMapper mapper;
 	private final int maxTermsCount;
+	private final int mergeReadConcurrency;
 	private final int commitWatermarkLow;
 	private final int commitWatermarkHigh;
+	private final int spillThreshold;
+	private final Map<String, Class<?>> documentTypesByName = newHashMap();
+	private final Map<Class<?>, Set<String>> unrelatedDocumentTypes = new ConcurrentHashMap<>();
 
-	private Map<ObjectId, StagedObject> stagedObjects;
+	private SpillableObjectMap<StagedObject> stagedObjects;
 
 	private SortedSet<RevisionBranchPoint> mergeSources;
 	private RevisionBranchRef mergeFromBranchRef;
@@ -80,8 +94,10 @@ public final class StagingArea {
 		this.branchPath = branchPath;
 		this.mapper = mapper;
 		this.maxTermsCount = Integer.parseInt((String) index.admin().settings().get(IndexClientFactory.MAX_TERMS_COUNT_KEY));
+		this.mergeReadConcurrency = (int) index.admin().settings().getOrDefault(IndexClientFactory.MERGE_READ_CONCURRENCY_KEY, IndexClientFactory.DEFAULT_MERGE_READ_CONCURRENCY);
 		this.commitWatermarkLow = (int) index.admin().settings().get(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY);
 		this.commitWatermarkHigh = (int) index.admin().settings().get(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY);
+		this.spillThreshold = (int) index.admin().settings().getOrDefault(IndexClientFactory.COMMIT_SPILL_THRESHOLD_KEY, IndexClientFactory.DEFAULT_COMMIT_SPILL_THRESHOLD);
 		rollback();
 	}
 	
@@ -182,9 +198,7 @@ public final class StagingArea {
 	 * @return a {@link Stream} of objects that are registered as NEW in this staging area.
 	 */
 	public Stream<Object> getNewObjects() {
-		return stagedObjects.entrySet()
-				.stream()
-				.filter(entry -> entry.getValue().isAdded())
+		return getStagedObjects(StageKind.ADDED, null)
 				.map(e -> e.getValue().getObject());
 	}
 
@@ -194,9 +208,7 @@ public final class StagingArea {
 	 * @return a {@link Stream} of objects of type T that are registered as NEW in this staging area.
 	 */
 	public <T> Stream<T> getNewObjects(Class<T> type) {
-		return stagedObjects.entrySet()
-				.stream()
-				.filter(entry -> entry.getValue().isAdded())
+		return getStagedObjects(StageKind.ADDED, type)
 				.map(entry -> entry.getValue().getObject())
 				.filter(type::isInstance)
 				.map(type::cast);
@@ -217,9 +229,7 @@ public final class StagingArea {
 	 * @return a {@link Stream} of objects that are registered as CHANGED in this staging area.
 	 */
 	public Stream<Object> getChangedObjects() {
-		return stagedObjects.entrySet()
-				.stream()
-				.filter(entry -> entry.getValue().isChanged())
+		return getStagedObjects(StageKind.CHANGED, null)
 				.map(e -> e.getValue().getObject());
 	}
 	
@@ -229,9 +239,7 @@ public final class StagingArea {
 	 * @return a {@link Stream} of objects of type T that are registered as CHANGED in this staging area.
 	 */
 	public <T> Stream<T> getChangedObjects(Class<T> type) {
-		return stagedObjects.entrySet()
-				.stream()
-				.filter(entry -> entry.getValue().isChanged())
+		return getStagedObjects(StageKind.CHANGED, type)
 				.map(entry -> entry.getValue().getObject())
 				.filter(type::isInstance)
 				.map(type::cast);
@@ -241,9 +249,7 @@ public final class StagingArea {
 	 * @return a {@link Stream} of objects that are registered as REMOVED in this staging area.
 	 */
 	public Stream<Object> getRemovedObjects() {
-		return stagedObjects.entrySet()
-				.stream()
-				.filter(entry -> entry.getValue().isRemoved())
+		return getStagedObjects(StageKind.REMOVED, null)
 				.map(e -> e.getValue().getObject());
 	}
 	
@@ -253,9 +259,7 @@ public final class StagingArea {
 	 * @return a {@link Stream} of objects of type T that are registered as REMOVED in this staging area.
 	 */
 	public <T> Stream<T> getRemovedObjects(Class<T> type) {
-		return stagedObjects.entrySet()
-				.stream()
-				.filter(entry -> entry.getValue().isRemoved())
+		return getStagedObjects(StageKind.REMOVED, type)
 				.map(entry -> entry.getValue().getObject())
 				.filter(type::isInstance)
 				.map(type::cast);
@@ -266,9 +270,7 @@ public final class StagingArea {
 	 * @see RevisionDiff
 	 */
 	public Map<ObjectId, RevisionDiff> getChangedRevisions() {
-		return stagedObjects.entrySet()
-				.stream()
-				.filter(entry -> entry.getValue().isChanged())
+		return getStagedObjects(StageKind.CHANGED, null)
 				.collect(Collectors.toMap(Entry::getKey, e -> e.getValue().getDiff()));
 	}
 	
@@ -277,9 +279,7 @@ public final class StagingArea {
 	 * @return a {@link Stream} of {@link RevisionDiff} objects registered for the given type.
 	 */
 	public Stream<RevisionDiff> getChangedRevisions(Class<? extends Revision> type) {
-		return stagedObjects.entrySet()
-				.stream()
-				.filter(entry -> entry.getValue().isChanged())
+		return getStagedObjects(StageKind.CHANGED, type)
 				.map(entry -> entry.getValue().getDiff())
 				.filter(diff -> type.isAssignableFrom(diff.newRevision.getClass()));
 	}
@@ -295,6 +295,23 @@ public final class StagingArea {
 				.filter(diff -> diff.hasRevisionPropertyChanges(changedPropertyNames));
 	}
 	
+	/*
+	 * Returns the staged objects of the given kind. When a type is given, objects of document types unrelated to it are skipped, so spilled
+	 * staged objects of other kinds or unrelated types are not decoded.
+	 */
+	private Stream<Entry<ObjectId, StagedObject>> getStagedObjects(StageKind stageKind, Class<?> type) {
+		if (type == null) {
+			return stagedObjects.entries(StageKind.tag(stageKind), objectId -> true);
+		}
+		final Set<String> unrelatedTypes = unrelatedDocumentTypes.computeIfAbsent(type, t -> index.admin().mappings().getMappings()
+				.stream()
+				.map(DocumentMapping::type)
+				.filter(mappedType -> !t.isAssignableFrom(mappedType))
+				.map(DocumentMapping::getType)
+				.collect(Collectors.toSet()));
+		return stagedObjects.entries(StageKind.tag(stageKind), objectId -> !unrelatedTypes.contains(objectId.type()));
+	}
+	
 	/**
 	 * Commits the changes so far staged to the staging area.
 	 *  
@@ -347,7 +364,7 @@ public final class StagingArea {
 		final Multimap<ObjectId, ObjectId> removedComponentsByContainer = HashMultimap.create();
 		final Multimap<Class<?>, String> deletedIdsByType = HashMultimap.create();
 
-		stagedObjects.entrySet().forEach( entry -> {
+		getStagedObjects(StageKind.REMOVED, null).forEach( entry -> {
 			ObjectId key = entry.getKey();
 			StagedObject value = entry.getValue();
 			
@@ -373,7 +390,7 @@ public final class StagingArea {
 		}
 		
 		// then new documents and revisions
-		stagedObjects.entrySet().forEach( entry -> {
+		getStagedObjects(StageKind.ADDED, null).forEach( entry -> {
 			ObjectId key = entry.getKey();
 			StagedObject value = entry.getValue();
 			if (value.isAdded() && value.isCommit()) {
@@ -393,7 +410,7 @@ public final class StagingArea {
 		
 		// and changed documents/revisions
 		final Multimap<JsonChange, ObjectId> revisionsByChange = HashMultimap.create();
-		stagedObjects.entrySet().forEach( entry -> {
+		getStagedObjects(StageKind.CHANGED, null).forEach( entry -> {
 			ObjectId key = entry.getKey();
 			StagedObject value = entry.getValue();
 			if (value.isChanged() && value.isCommit()) {
@@ -644,7 +661,11 @@ public final class StagingArea {
 	}
 	
 	private void clear() {
-		stagedObjects = newHashMap();
+		if (stagedObjects != null) {
+			// releases the temporary store if staged objects have been spilled to disk
+			stagedObjects.close();
+		}
+		stagedObjects = new SpillableObjectMap<>(spillThreshold, new StagedObjectCodec());
 		revisionsToReviseOnMergeSource = HashMultimap.create();
 		externalRevisionsToReviseOnMergeSource = HashMultimap.create();
 	}
@@ -813,24 +834,15 @@ public final class StagingArea {
 				.collect(Collectors.toCollection(TreeSet::new));
 		this.squashMerge = squash;
 		
-		List<RevisionCompareDetail> fromChangeDetails = index.compare(toRef, fromRef, Integer.MAX_VALUE, false).getDetails();
-		
-		if (!CompareUtils.isEmpty(exclusions)) {
-			// Exclude items from change details of the "from" branch, so they do not participate in conflict processing
-			fromChangeDetails = fromChangeDetails
-				.stream()
-				.filter(d -> !exclusions.contains(d.isPropertyChange() 
-						? d.getObject().id() 
-						: d.getComponent().id()))
-				.collect(Collectors.toList());
-		}
+		// Exclude items from change details of the "from" branch, so they do not participate in conflict processing
+		List<RevisionCompareDetail> fromChangeDetails = compareDetails(toRef, fromRef, exclusions);
 		
 		// in case of nothing to merge, then just proceed to commit
 		if (fromChangeDetails.isEmpty()) {
 			return;
 		}
 		
-		List<RevisionCompareDetail> toChangeDetails = index.compare(fromRef, toRef, Integer.MAX_VALUE, false).getDetails();
+		List<RevisionCompareDetail> toChangeDetails = compareDetails(fromRef, toRef, null);
 		
 		// in case of fast-forward merge only check conflicts when there are changes on the to branch
 		if (toChangeDetails.isEmpty() && !squash) {
@@ -862,19 +874,37 @@ public final class StagingArea {
 		
 		applyPropertyUpdates(toRef, propertyUpdatesToApply);
 		
+		final List<Callable<Runnable>> partitionReads = newArrayList();
+		
 		// apply new objects
-		applyNewObjects(added, fromRef, toRef, squash);
+		applyNewObjects(added, fromRef, toRef, squash, partitionReads);
 		
 		// apply changed objects
-		applyChangedObjects(changed, fromRef, toRef, squash);
+		applyChangedObjects(changed, fromRef, toRef, squash, partitionReads);
 		
 		// always apply deleted objects, they set the revised timestamp properly without introducing any new document
-		applyRemovedObjects(removed, fromRef, toRef, squash);
+		applyRemovedObjects(removed, fromRef, toRef, squash, partitionReads);
+		
+		readAndStage(partitionReads);
 		
 		// any externally marked revised revisions should be applied here
 		revisionsToReviseOnMergeSource.putAll(externalRevisionsToReviseOnMergeSource);
 	}
 
+	/*
+	 * Collects the change details of the compare directly into a list while the compare releases them, so the complete compare result is never
+	 * held twice in memory.
+	 */
+	private List<RevisionCompareDetail> compareDetails(RevisionBranchRef base, RevisionBranchRef compare, Set<String> exclusions) {
+		final List<RevisionCompareDetail> details = newArrayList();
+		index.compare(base, compare, false, detail -> {
+			if (CompareUtils.isEmpty(exclusions) || !exclusions.contains(detail.isPropertyChange() ? detail.getObject().id() : detail.getComponent().id())) {
+				details.add(detail);
+			}
+		});
+		return details;
+	}
+
 	private void applyPropertyUpdates(final RevisionBranchRef toRef, final Map<Class<? extends Revision>, Multimap<String, RevisionPropertyDiff>> propertyUpdatesToApply) {
 		// apply property changes, conflicts in all cases, so merge commits will have the actual conflict resolutions
 		if (!propertyUpdatesToApply.isEmpty()) {
@@ -1032,61 +1062,110 @@ public final class StagingArea {
 	}
 
 	private void applyRemovedObjects(SetMultimap<Class<? extends Revision>, String> removed, RevisionBranchRef fromRef, RevisionBranchRef toRef,
-			boolean squash) {
+			boolean squash, List<Callable<Runnable>> partitionReads) {
 		for (Class<? extends Revision> type : ImmutableSet.copyOf(removed.keySet())) {
 			final Collection<String> removedRevisionIds = removed.removeAll(type);
 			for (List<String> currentRemovedRevisionIds : Iterables.partition(removedRevisionIds, maxTermsCount)) {
-				index.read(toRef, searcher -> searcher.get(type, currentRemovedRevisionIds)).forEach(this::stageRemove);
+				partitionReads.add(() -> {
+					final Iterable<? extends Revision> removedRevisions = index.read(toRef, searcher -> searcher.get(type, currentRemovedRevisionIds));
+					return () -> removedRevisions.forEach(this::stageRemove);
+				});
 			}
 		}
 	}
 
 	private void applyChangedObjects(SetMultimap<Class<? extends Revision>, String> changed, RevisionBranchRef fromRef, RevisionBranchRef toRef,
-			boolean squash) {
+			boolean squash, List<Callable<Runnable>> partitionReads) {
 		for (Class<? extends Revision> type : ImmutableSet.copyOf(changed.keySet())) {
 			final Collection<String> changedRevisionIds = changed.removeAll(type);
 			
 			for (List<String> currentChangedRevisionIds : Iterables.partition(changedRevisionIds, maxTermsCount)) {
-				
-				final Iterable<? extends Revision> oldRevisions = index.read(toRef, searcher -> searcher.get(type, currentChangedRevisionIds));
-				final Map<String, ? extends Revision> oldRevisionsById = FluentIterable.from(oldRevisions).uniqueIndex(Revision::getId);
-				final Iterable<? extends Revision> updatedRevisions = index.read(fromRef, searcher -> searcher.get(type, currentChangedRevisionIds));
-				final Map<String, ? extends Revision> updatedRevisionsById = FluentIterable.from(updatedRevisions).uniqueIndex(Revision::getId);
-			
-				for (String updatedId : updatedRevisionsById.keySet()) {
-					if (oldRevisionsById.containsKey(updatedId)) {
-						stageChange(oldRevisionsById.get(updatedId), updatedRevisionsById.get(updatedId), squash);
-					} else {
-						stageNew(updatedRevisionsById.get(updatedId), squash);
-					}
-				}
-				
+				partitionReads.add(() -> {
+					final Iterable<? extends Revision> oldRevisions = index.read(toRef, searcher -> searcher.get(type, currentChangedRevisionIds));
+					final Map<String, ? extends Revision> oldRevisionsById = FluentIterable.from(oldRevisions).uniqueIndex(Revision::getId);
+					final Iterable<? extends Revision> updatedRevisions = index.read(fromRef, searcher -> searcher.get(type, currentChangedRevisionIds));
+					final Map<String, ? extends Revision> updatedRevisionsById = FluentIterable.from(updatedRevisions).uniqueIndex(Revision::getId);
+					
+					return () -> {
+						for (String updatedId : updatedRevisionsById.keySet()) {
+							if (oldRevisionsById.containsKey(updatedId)) {
+								stageChange(oldRevisionsById.get(updatedId), updatedRevisionsById.get(updatedId), squash);
+							} else {
+								stageNew(updatedRevisionsById.get(updatedId), squash);
+							}
+						}
+					};
+				});
 			}
 		}
 	}
 
-	private void applyNewObjects(final SetMultimap<Class<? extends Revision>, String> added, RevisionBranchRef fromRef, RevisionBranchRef toRef, boolean squash) {
+	private void applyNewObjects(final SetMultimap<Class<? extends Revision>, String> added, RevisionBranchRef fromRef, RevisionBranchRef toRef, boolean squash, 
+			List<Callable<Runnable>> partitionReads) {
 		for (Class<? extends Revision> type : ImmutableSet.copyOf(added.keySet())) {
 			final Set<String> addedIds = added.removeAll(type);
 			// skip new objects that are already marked as revised on merge source, content that is present on target should take place instead
-			final Set<String> newRevisionIds = Sets.difference(addedIds, externalRevisionsToReviseOnMergeSource.get(type));
+			final Set<String> newRevisionIds = ImmutableSet.copyOf(Sets.difference(addedIds, externalRevisionsToReviseOnMergeSource.get(type)));
 			
 			for (List<String> currentNewRevisionIds : Iterables.partition(newRevisionIds, maxTermsCount)) {
-				final Iterable<? extends Revision> oldRevisions = index.read(toRef, searcher -> searcher.get(type, currentNewRevisionIds));
-				final Iterable<? extends Revision> newRevisions = index.read(fromRef, searcher -> searcher.get(type, currentNewRevisionIds));
-				final Map<String, ? extends Revision> oldRevisionsById = FluentIterable.from(oldRevisions).uniqueIndex(Revision::getId);
-				
-				newRevisions.forEach(rev -> {
-					if (oldRevisionsById.containsKey(rev.getId())) {
-						stageChange(oldRevisionsById.get(rev.getId()), rev, squash);
-					} else {
-						stageNew(rev, squash);
-					}
+				partitionReads.add(() -> {
+					final Iterable<? extends Revision> oldRevisions = index.read(toRef, searcher -> searcher.get(type, currentNewRevisionIds));
+					final Iterable<? extends Revision> newRevisions = index.read(fromRef, searcher -> searcher.get(type, currentNewRevisionIds));
+					final Map<String, ? extends Revision> oldRevisionsById = FluentIterable.from(oldRevisions).uniqueIndex(Revision::getId);
+					
+					return () -> newRevisions.forEach(rev -> {
+						if (oldRevisionsById.containsKey(rev.getId())) {
+							stageChange(oldRevisionsById.get(rev.getId()), rev, squash);
+						} else {
+							stageNew(rev, squash);
+						}
+					});
 				});
 			}
 		}
 	}
 	
+	/*
+	 * Executes the given partition reads on the merge read executor of the index and applies their results to this staging area in the order of
+	 * the list, so the staged state does not depend on the order in which the reads complete. At most twice as many partitions are loaded ahead
+	 * of the partition currently being staged as the configured read concurrency.
+	 */
+	private void readAndStage(List<Callable<Runnable>> partitionReads) {
+		if (mergeReadConcurrency <= 1 || partitionReads.size() <= 1) {
+			for (Callable<Runnable> partitionRead : partitionReads) {
+				try {
+					partitionRead.call().run();
+				} catch (Exception e) {
+					Throwables.throwIfUnchecked(e);
+					throw new IndexException("Couldn't read revisions to merge", e);
+				}
+			}
+			return;
+		}
+		
+		final ExecutorService executor = index.getMergeReadExecutor();
+		final int maxPendingReads = mergeReadConcurrency * 2;
+		final Deque<Future<Runnable>> pendingReads = new ArrayDeque<>(maxPendingReads);
+		try {
+			final Iterator<Callable<Runnable>> remainingReads = partitionReads.iterator();
+			while (remainingReads.hasNext() || !pendingReads.isEmpty()) {
+				while (remainingReads.hasNext() && pendingReads.size() < maxPendingReads) {
+					pendingReads.add(executor.submit(remainingReads.next()));
+				}
+				pendingReads.removeFirst().get().run();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IndexException("Interrupted while reading revisions to merge", e);
+		} catch (ExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new IndexException("Couldn't read revisions to merge", e.getCause());
+		} finally {
+			// the executor is shared with other merges, only the reads of this one should be abandoned on failure
+			pendingReads.forEach(pendingRead -> pendingRead.cancel(true));
+		}
+	}
+	
 	private Map<String, Map<String, RevisionCompareDetail>> indexPropertyChangesByObject(List<RevisionCompareDetail> changeDetails) {
 		final Map<String, Map<String, RevisionCompareDetail>> propertyChangesByObject = newHashMap();
 		for (RevisionCompareDetail changeDetail : changeDetails) {
@@ -1288,7 +1367,11 @@ public final class StagingArea {
 	}
 	
 	private enum StageKind {
-		ADDED, CHANGED, REMOVED
+		ADDED, CHANGED, REMOVED;
+		
+		static byte tag(StageKind stageKind) {
+			return (byte) stageKind.ordinal();
+		}
 	}
 	
 	private final class StagedObject {
@@ -1341,6 +1424,60 @@ public final class StagingArea {
 		
 	}
 	
+	/*
+	 * Serializes staged objects when the number of staged objects exceeds the spill threshold. Only the old and new state of the object is
+	 * stored, RevisionDiffs are computed again when the staged object is read back.
+	 */
+	private final class StagedObjectCodec implements SpillableObjectMap.Codec<StagedObject> {
+		
+		@Override
+		public byte[] encode(StagedObject value) throws IOException {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(bytes)) {
+				out.writeByte(tag(value));
+				out.writeBoolean(value.commit);
+				writeDocument(out, value.object);
+				final Revision oldRevision = value.diff == null ? null : value.diff.oldRevision;
+				out.writeBoolean(oldRevision != null);
+				if (oldRevision != null) {
+					writeDocument(out, oldRevision);
+				}
+			}
+			return bytes.toByteArray();
+		}
+		
+		@Override
+		public StagedObject decode(byte[] value) throws IOException {
+			try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+				final StageKind stageKind = StageKind.values()[in.readByte()];
+				final boolean commit = in.readBoolean();
+				final Object object = readDocument(in);
+				final RevisionDiff diff = in.readBoolean() ? new RevisionDiff((Revision) readDocument(in), (Revision) object) : null;
+				return new StagedObject(stageKind, object, diff, commit);
+			}
+		}
+		
+		@Override
+		public byte tag(StagedObject value) {
+			return StageKind.tag(value.stageKind);
+		}
+		
+		private void writeDocument(DataOutputStream out, Object document) throws IOException {
+			final byte[] source = mapper.writeValueAsBytes(document);
+			out.writeUTF(document.getClass().getName());
+			out.writeInt(source.length);
+			out.write(source);
+		}
+		
+		private Object readDocument(DataInputStream in) throws IOException {
+			final Class<?> type = documentTypesByName.computeIfAbsent(in.readUTF(), className -> index.admin().mappings().getByType(className).type());
+			final byte[] source = new byte[in.readInt()];
+			in.readFully(source);
+			return mapper.readValue(source, type);
+		}
+		
+	}
+	
 	private StagedObject added(Object object, RevisionDiff diff, boolean commit) {
 		return new StagedObject(StageKind.ADDED, object, diff, commit);
 	}
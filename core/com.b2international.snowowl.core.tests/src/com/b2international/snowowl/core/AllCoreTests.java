@@ -31,6 +31,7 @@ import com.b2international.snowowl.core.locks.DatastoreLockTests;
 import com.b2international.snowowl.core.locks.LockIndexTests;
 import com.b2international.snowowl.core.merge.MergeConflictSerializationTest;
 import com.b2international.snowowl.core.monitoring.ConsoleProgressMonitorTest;
+import com.b2international.snowowl.core.request.PrefetchingSearchResourceRequestIteratorTest;
 import com.b2international.snowowl.core.request.SearchResourceRequestTest;
 import com.b2international.snowowl.core.request.SortParserTest;
 import com.b2international.snowowl.core.request.io.ImportResponseSerializationTest;
@@ -40,6 +41,7 @@ import com.b2international.snowowl.core.uri.ComponentURITest;
 import com.b2international.snowowl.core.validation.ValidationRuleApiTest;
 import com.b2international.snowowl.core.validation.ValidationThreadPoolTest;
 import com.b2international.snowowl.core.validation.ValidationWhiteListApiTest;
+import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluatorTest;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueApiTest;
 
 /**
@@ -64,10 +66,12 @@ import com.b2international.snowowl.core.validation.issue.ValidationIssueApiTest;
 	GroovyScriptEngineTest.class,
 	CodeSystemURITest.class,
 	SearchResourceRequestTest.class,
+	PrefetchingSearchResourceRequestIteratorTest.class,
 	ValidationIssueApiTest.class,
 	ValidationRuleApiTest.class,
 	ValidationThreadPoolTest.class,
 	ValidationWhiteListApiTest.class,
+	ValidationRuleEvaluatorTest.class,
 	ImportResponseSerializationTest.class
 })
 public class AllCoreTests {
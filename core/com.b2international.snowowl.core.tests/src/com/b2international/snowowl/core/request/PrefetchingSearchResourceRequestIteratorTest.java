@@ -0,0 +1,155 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.domain.PageableCollectionResource;
+
+/**
+ * @since 7.17
+ */
+public class PrefetchingSearchResourceRequestIteratorTest {
+
+	private static final int TOTAL = 10;
+	private static final int PAGE_SIZE = 3;
+
+	private static final class TestSearchRequestBuilder extends SearchResourceRequestBuilder<TestSearchRequestBuilder, ServiceProvider, PageableCollectionResource<Integer>> {
+
+		private String searchAfter;
+
+		@Override
+		public TestSearchRequestBuilder setSearchAfter(String searchAfter) {
+			this.searchAfter = searchAfter;
+			return super.setSearchAfter(searchAfter);
+		}
+
+		@Override
+		protected SearchResourceRequest<ServiceProvider, PageableCollectionResource<Integer>> createSearch() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	private final List<String> requestedPages = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	public void samePagesAsSequentialIterator() throws Exception {
+		final List<List<Integer>> sequentialPages = collect(new SearchResourceRequestIterator<>(new TestSearchRequestBuilder(), this::fetch));
+		final List<String> sequentialRequests = new ArrayList<>(requestedPages);
+		requestedPages.clear();
+
+		try (PrefetchingSearchResourceRequestIterator<TestSearchRequestBuilder, PageableCollectionResource<Integer>> iterator =
+				new PrefetchingSearchResourceRequestIterator<>(new TestSearchRequestBuilder(), this::fetch, 2)) {
+			assertThat(collect(iterator)).isEqualTo(sequentialPages);
+		}
+
+		assertThat(sequentialPages).hasSize(4);
+		assertThat(sequentialPages.stream().flatMap(List::stream)).containsExactlyElementsOf(IntStream.range(0, TOTAL).boxed().collect(Collectors.toList()));
+		assertThat(requestedPages).isEqualTo(sequentialRequests);
+	}
+
+	@Test
+	public void emptyResult() throws Exception {
+		try (PrefetchingSearchResourceRequestIterator<TestSearchRequestBuilder, PageableCollectionResource<Integer>> iterator =
+				new PrefetchingSearchResourceRequestIterator<>(new TestSearchRequestBuilder(), builder -> PageableCollectionResource.of(List.of(), null, PAGE_SIZE, 0))) {
+			assertThat(iterator.hasNext()).isFalse();
+		}
+	}
+
+	@Test
+	public void closeCancelsPendingPages() throws Exception {
+		final CountDownLatch secondPageStarted = new CountDownLatch(1);
+		final CountDownLatch secondPageReleased = new CountDownLatch(1);
+		final CountDownLatch secondPageCompleted = new CountDownLatch(1);
+
+		final PrefetchingSearchResourceRequestIterator<TestSearchRequestBuilder, PageableCollectionResource<Integer>> iterator =
+				new PrefetchingSearchResourceRequestIterator<>(new TestSearchRequestBuilder(), builder -> {
+					if (builder.searchAfter == null) {
+						return fetch(builder);
+					}
+
+					// keep the second page running until the iterator is closed
+					secondPageStarted.countDown();
+					try {
+						secondPageReleased.await();
+						return fetch(builder);
+					} catch (InterruptedException e) {
+						throw new RuntimeException(e);
+					} finally {
+						secondPageCompleted.countDown();
+					}
+				}, 2);
+
+		assertThat(iterator.next().getItems()).containsExactly(0, 1, 2);
+		assertThat(secondPageStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+		iterator.close();
+		secondPageReleased.countDown();
+		assertThat(secondPageCompleted.await(10, TimeUnit.SECONDS)).isTrue();
+
+		// the third page was waiting for the second one, it was cancelled before it could start
+		assertThat(iterator.hasNext()).isFalse();
+		assertThat(requestedPages).containsExactly(null, "3");
+	}
+
+	@Test
+	public void fetchFailureIsRethrown() throws Exception {
+		final Function<TestSearchRequestBuilder, PageableCollectionResource<Integer>> failOnSecondPage = builder -> {
+			if (builder.searchAfter != null) {
+				throw new IllegalStateException("Page is not available.");
+			}
+			return fetch(builder);
+		};
+
+		try (PrefetchingSearchResourceRequestIterator<TestSearchRequestBuilder, PageableCollectionResource<Integer>> iterator =
+				new PrefetchingSearchResourceRequestIterator<>(new TestSearchRequestBuilder(), failOnSecondPage, 2)) {
+			assertThat(iterator.next().getItems()).containsExactly(0, 1, 2);
+			assertThatThrownBy(iterator::next)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Page is not available.");
+		}
+	}
+
+	private PageableCollectionResource<Integer> fetch(TestSearchRequestBuilder builder) {
+		requestedPages.add(builder.searchAfter);
+		final int from = builder.searchAfter == null ? 0 : Integer.parseInt(builder.searchAfter);
+		final int to = Math.min(from + PAGE_SIZE, TOTAL);
+		final List<Integer> items = IntStream.range(from, to).boxed().collect(Collectors.toList());
+		return PageableCollectionResource.of(items, Integer.toString(to), PAGE_SIZE, TOTAL);
+	}
+
+	private static List<List<Integer>> collect(Iterator<PageableCollectionResource<Integer>> iterator) {
+		final List<List<Integer>> pages = new ArrayList<>();
+		iterator.forEachRemaining(page -> pages.add(page.getItems()));
+		return pages;
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation.eval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.core.ComponentIdentifier;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.validation.ValidationIssueDetails;
+import com.b2international.snowowl.core.validation.rule.ValidationRule;
+import com.b2international.snowowl.core.validation.rule.ValidationRule.CheckType;
+import com.b2international.snowowl.core.validation.rule.ValidationRule.Severity;
+
+/**
+ * @since 7.17
+ */
+public class ValidationRuleEvaluatorTest {
+
+	private static final short TERMINOLOGY_COMPONENT_ID = 100;
+
+	private static final ValidationRule RULE = new ValidationRule("ruleId", "toolingId", "Error", Severity.ERROR, CheckType.FAST, "test", "");
+
+	private static final class TestEvaluator implements ValidationRuleEvaluator {
+
+		private final List<?> results;
+
+		TestEvaluator(List<?> results) {
+			this.results = results;
+		}
+
+		@Override
+		public List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> params) throws Exception {
+			return results;
+		}
+
+		@Override
+		public String type() {
+			return "test";
+		}
+
+	}
+
+	@Test
+	public void evalComponentIdentifiersForComponents() throws Exception {
+		final ValidationRuleEvaluator evaluator = new TestEvaluator(List.of(identifier("1"), identifier("2"), identifier("3")));
+
+		assertThat(evaluator.eval(null, RULE, Collections.emptyMap(), Set.of("1", "3", "4"))).containsExactly(identifier("1"), identifier("3"));
+	}
+
+	@Test
+	public void evalIssueDetailsForComponents() throws Exception {
+		final ValidationIssueDetails details1 = new ValidationIssueDetails(identifier("1"));
+		final ValidationIssueDetails details2 = new ValidationIssueDetails(identifier("2"));
+		final ValidationRuleEvaluator evaluator = new TestEvaluator(List.of(details1, details2));
+
+		assertThat(evaluator.eval(null, RULE, Collections.emptyMap(), Set.of("2"))).containsExactly(details2);
+	}
+
+	private static ComponentIdentifier identifier(String componentId) {
+		return ComponentIdentifier.of(TERMINOLOGY_COMPONENT_ID, componentId);
+	}
+
+}
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.core.branch.compare;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.validation.constraints.Min;
 
@@ -85,26 +86,51 @@ final class BranchCompareRequest implements Request<RepositoryContext, BranchCom
 		final Branch branchToCompare = RepositoryRequests.branching().prepareGet(compare).build().execute(context);
 		final long compareHeadTimestamp = branchToCompare.headTimestamp();
 		
+		final String baseBranchPath = base != null ? base : branchToCompare.parentPath();
+		final BranchCompareResult.Builder result = BranchCompareResult.builder(baseBranchPath, compare, compareHeadTimestamp);
+		final DetailCollector collector = new DetailCollector(context.service(TerminologyComponents.class), result);
+		
+		// details are converted as the compare hands them over, only the first "limit" of them are kept
 		final RevisionCompare compareResult;
-		final String baseBranchPath;
 		if (base != null) {
-			compareResult = index.compare(base, compare, limit, excludeComponentChanges);
-			baseBranchPath = base;
+			compareResult = index.compare(base, compare, excludeComponentChanges, collector);
 		} else {
-			compareResult = index.compare(compare, limit, excludeComponentChanges);
-			baseBranchPath = branchToCompare.parentPath();
+			compareResult = index.compare(compare, excludeComponentChanges, collector);
 		}
 		
-		final BranchCompareResult.Builder result = BranchCompareResult.builder(baseBranchPath, compare, compareHeadTimestamp);
-		final Set<ComponentIdentifier> changedContainers = Sets.newHashSet();
-				
-		int subtractAdded = 0;
-		for (RevisionCompareDetail detail : compareResult.getDetails()) {
+		return result
+				.totalNew(compareResult.getTotalAdded() - collector.subtractAdded)
+				.totalChanged(compareResult.getTotalChanged())
+				.totalDeleted(compareResult.getTotalRemoved())
+				.build(collector.changedContainers);
+	}
+	
+	private final class DetailCollector implements Consumer<RevisionCompareDetail> {
+		
+		private final TerminologyComponents terminologyComponents;
+		private final BranchCompareResult.Builder result;
+		private final Set<ComponentIdentifier> changedContainers = Sets.newHashSet();
+		
+		private int remaining = limit;
+		private int subtractAdded = 0;
+		
+		DetailCollector(TerminologyComponents terminologyComponents, BranchCompareResult.Builder result) {
+			this.terminologyComponents = terminologyComponents;
+			this.result = result;
+		}
+		
+		@Override
+		public void accept(RevisionCompareDetail detail) {
+			if (remaining <= 0) {
+				return;
+			}
+			remaining--;
+			
 			final ObjectId affectedId;
 			if (detail.isComponentChange()) {
 				affectedId = detail.getComponent();
 				if (!detail.getObject().isRoot()) {
-					final short containerTerminologyComponentId = context.service(TerminologyComponents.class).getTerminologyComponentId(DocumentMapping.getClass(detail.getObject().type()));
+					final short containerTerminologyComponentId = terminologyComponents.getTerminologyComponentId(DocumentMapping.getClass(detail.getObject().type()));
 					if (CodeSystemEntry.TERMINOLOGY_COMPONENT_ID != containerTerminologyComponentId && CodeSystemVersionEntry.TERMINOLOGY_COMPONENT_ID != containerTerminologyComponentId) {
 						changedContainers.add(ComponentIdentifier.of(containerTerminologyComponentId, detail.getObject().id()));
 					}
@@ -112,10 +138,10 @@ final class BranchCompareRequest implements Request<RepositoryContext, BranchCom
 			} else {
 				affectedId = detail.getObject();
 			}
-			final short terminologyComponentId = context.service(TerminologyComponents.class).getTerminologyComponentId(DocumentMapping.getClass(affectedId.type()));
+			final short terminologyComponentId = terminologyComponents.getTerminologyComponentId(DocumentMapping.getClass(affectedId.type()));
 			if (CodeSystemEntry.TERMINOLOGY_COMPONENT_ID == terminologyComponentId || CodeSystemVersionEntry.TERMINOLOGY_COMPONENT_ID == terminologyComponentId) {
 				subtractAdded++;
-				continue;
+				return;
 			}
 			
 			final ComponentIdentifier identifier = ComponentIdentifier.of(terminologyComponentId, affectedId.id());
@@ -133,11 +159,6 @@ final class BranchCompareRequest implements Request<RepositoryContext, BranchCom
 			}
 		}
 		
-		return result
-				.totalNew(compareResult.getTotalAdded() - subtractAdded)
-				.totalChanged(compareResult.getTotalChanged())
-				.totalDeleted(compareResult.getTotalRemoved())
-				.build(changedContainers);
 	}
 	
 	@Override
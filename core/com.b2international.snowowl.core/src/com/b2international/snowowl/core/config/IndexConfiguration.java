@@ -72,6 +72,17 @@ public class IndexConfiguration {
 	@Max(IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE)
 	private int commitWatermarkHigh = IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE;
 	
+	@Min(0)
+	@Max(1_000)
+	private int commitRefreshWindow = IndexClientFactory.DEFAULT_COMMIT_REFRESH_WINDOW;
+	
+	@Min(0)
+	private int commitSpillThreshold = IndexClientFactory.DEFAULT_COMMIT_SPILL_THRESHOLD;
+	
+	@Min(1)
+	@Max(64)
+	private int mergeReadConcurrency = IndexClientFactory.DEFAULT_MERGE_READ_CONCURRENCY;
+	
 	@JsonProperty
 	public String getCommitInterval() {
 		return commitInterval;
@@ -219,6 +230,41 @@ public class IndexConfiguration {
 	public void setCommitWatermarkLow(int commitWatermarkLow) {
 		this.commitWatermarkLow = commitWatermarkLow;
 	}
+	
+	/**
+	 * @return the maximum time in milliseconds a commit waits for a running index refresh while the refreshes of concurrent commits are collected
+	 *         into a single refresh request, <code>0</code> if each commit refreshes the indexes on its own
+	 */
+	public int getCommitRefreshWindow() {
+		return commitRefreshWindow;
+	}
+	
+	public void setCommitRefreshWindow(int commitRefreshWindow) {
+		this.commitRefreshWindow = commitRefreshWindow;
+	}
+	
+	/**
+	 * @return the number of staged objects a commit keeps in memory before moving them to a temporary file, <code>0</code> if staged objects
+	 *         are always kept in memory
+	 */
+	public int getCommitSpillThreshold() {
+		return commitSpillThreshold;
+	}
+	
+	public void setCommitSpillThreshold(int commitSpillThreshold) {
+		this.commitSpillThreshold = commitSpillThreshold;
+	}
+	
+	/**
+	 * @return the number of threads loading revisions from the source and target branch of a merge or rebase
+	 */
+	public int getMergeReadConcurrency() {
+		return mergeReadConcurrency;
+	}
+	
+	public void setMergeReadConcurrency(int mergeReadConcurrency) {
+		this.mergeReadConcurrency = mergeReadConcurrency;
+	}
 
 	public void configure(Builder<String, Object> settings) {
 		if (getClusterHealthTimeout() <= getSocketTimeout()) {
@@ -250,6 +296,9 @@ public class IndexConfiguration {
 		settings.put(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB, getBulkActionSizeInMb());
 		settings.put(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, getCommitWatermarkLow());
 		settings.put(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, getCommitWatermarkHigh());
+		settings.put(IndexClientFactory.COMMIT_REFRESH_WINDOW_KEY, getCommitRefreshWindow());
+		settings.put(IndexClientFactory.COMMIT_SPILL_THRESHOLD_KEY, getCommitSpillThreshold());
+		settings.put(IndexClientFactory.MERGE_READ_CONCURRENCY_KEY, getMergeReadConcurrency());
 	}
 	
 }
@@ -35,6 +35,7 @@ public class ValidationConfiguration {
 	private static final int DEFAULT_NUMBER_OF_VALIDATION_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() / 2); 
 	private static final int DEFAULT_MAX_CONCURRENT_EXPENSIVE_JOBS = 1;
 	private static final int DEFAULT_MAX_CONCURRENT_NORMAL_JOBS = 4;
+	private static final int DEFAULT_MAX_CONCURRENT_ISSUE_EXTENSIONS = 1;
 	
 	@Min(1)
 	@Max(8)
@@ -48,6 +49,10 @@ public class ValidationConfiguration {
 	@Max(5)
 	private int maxConcurrentNormalJobs = DEFAULT_MAX_CONCURRENT_NORMAL_JOBS;
 	
+	@Min(1)
+	@Max(8)
+	private int maxConcurrentIssueExtensions = DEFAULT_MAX_CONCURRENT_ISSUE_EXTENSIONS;
+	
 	public void setNumberOfValidationThreads(int numberOfValidationThreads) {
 		this.numberOfValidationThreads = numberOfValidationThreads;
 	}
@@ -60,6 +65,10 @@ public class ValidationConfiguration {
 		this.maxConcurrentNormalJobs = maxConcurrentNormalJobs;
 	}
 	
+	public void setMaxConcurrentIssueExtensions(int maxConcurrentIssueExtensions) {
+		this.maxConcurrentIssueExtensions = maxConcurrentIssueExtensions;
+	}
+	
 	/**
 	 * The number of validations jobs that can be run asynchronously.
 	 * 
@@ -90,4 +99,14 @@ public class ValidationConfiguration {
 		return maxConcurrentNormalJobs;
 	}
 	
+	/**
+	 * The number of threads that can extend the persisted issues of a validation run with additional details at the same time.
+	 * 
+	 * @return maxConcurrentIssueExtensions
+	 */
+	@JsonProperty("maxConcurrentIssueExtensions")
+	public int getMaxConcurrentIssueExtensions() {
+		return maxConcurrentIssueExtensions;
+	}
+	
 }
@@ -74,7 +74,7 @@ public final class ValidationPlugin extends Plugin {
 			final Index validationIndex = Indexes.createIndex(
 				"validations", 
 				mapper, 
-				new Mappings(ValidationIssue.class, ValidationRule.class, ValidationWhiteList.class), 
+				new Mappings(ValidationIssue.class, ValidationRule.class, ValidationWhiteList.class, ValidationPoint.class), 
 				env.service(IndexSettings.class)
 			);
 			
@@ -139,9 +139,17 @@ public final class ValidationPlugin extends Plugin {
 							.limit(Integer.MAX_VALUE)
 							.build())
 							.getHits());
+					final Set<String> pointsToDelete = newHashSet(writer.searcher().search(Query.select(String.class)
+							.from(ValidationPoint.class)
+							.fields(ValidationPoint.Fields.ID)
+							.where(Expressions.matchAny(ValidationPoint.Fields.RULE_ID, rulesToDelete))
+							.limit(Integer.MAX_VALUE)
+							.build())
+							.getHits());
 					writer.removeAll(ImmutableMap.<Class<?>, Set<String>>of(
 							ValidationRule.class, rulesToDelete,
-							ValidationIssue.class, issuesToDelete
+							ValidationIssue.class, issuesToDelete,
+							ValidationPoint.class, pointsToDelete
 							));
 				}
 				
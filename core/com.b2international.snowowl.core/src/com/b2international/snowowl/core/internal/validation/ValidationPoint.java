@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.internal.validation;
+
+import java.io.Serializable;
+
+import com.b2international.index.Doc;
+import com.b2international.index.ID;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Records the branch state a validation rule was last evaluated against on a resource. Incremental validation runs use it to determine which
+ * components have changed since the issues of the rule were last reconciled.
+ *
+ * @since 7.17
+ */
+@Doc
+public final class ValidationPoint implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @since 7.17
+	 */
+	public static final class Fields {
+		public static final String ID = "id";
+		public static final String RULE_ID = "ruleId";
+		public static final String RESOURCE_URI = "resourceURI";
+	}
+
+	@ID
+	private final String id;
+	private final String ruleId;
+	private final String resourceURI;
+	private final long baseTimestamp;
+	private final long headTimestamp;
+	private final int configurationHash;
+
+	public ValidationPoint(
+			final String ruleId,
+			final String resourceURI,
+			final long baseTimestamp,
+			final long headTimestamp,
+			final int configurationHash) {
+		this(toId(resourceURI, ruleId), ruleId, resourceURI, baseTimestamp, headTimestamp, configurationHash);
+	}
+
+	@JsonCreator
+	ValidationPoint(
+			@JsonProperty("id") final String id,
+			@JsonProperty("ruleId") final String ruleId,
+			@JsonProperty("resourceURI") final String resourceURI,
+			@JsonProperty("baseTimestamp") final long baseTimestamp,
+			@JsonProperty("headTimestamp") final long headTimestamp,
+			@JsonProperty("configurationHash") final int configurationHash) {
+		this.id = id;
+		this.ruleId = ruleId;
+		this.resourceURI = resourceURI;
+		this.baseTimestamp = baseTimestamp;
+		this.headTimestamp = headTimestamp;
+		this.configurationHash = configurationHash;
+	}
+
+	/**
+	 * @param resourceURI - the validated resource
+	 * @param ruleId - the evaluated rule
+	 * @return the identifier of the validation point of the given rule on the given resource
+	 */
+	public static String toId(String resourceURI, String ruleId) {
+		return String.join("#", resourceURI, ruleId);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getRuleId() {
+		return ruleId;
+	}
+
+	public String getResourceURI() {
+		return resourceURI;
+	}
+
+	/**
+	 * @return the base timestamp of the validated branch at the time of the evaluation, a different value indicates that the branch has been
+	 *         rebased since
+	 */
+	public long getBaseTimestamp() {
+		return baseTimestamp;
+	}
+
+	/**
+	 * @return the head timestamp of the validated branch at the time of the evaluation
+	 */
+	public long getHeadTimestamp() {
+		return headTimestamp;
+	}
+
+	/**
+	 * @return the hash of the rule implementation and the rule parameters used in the evaluation
+	 */
+	public int getConfigurationHash() {
+		return configurationHash;
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(getClass())
+			.add("id", id)
+			.add("ruleId", ruleId)
+			.add("resourceURI", resourceURI)
+			.add("baseTimestamp", baseTimestamp)
+			.add("headTimestamp", headTimestamp)
+			.add("configurationHash", configurationHash)
+			.toString();
+	}
+
+}
@@ -18,6 +18,7 @@ package com.b2international.snowowl.core.repository;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 
@@ -46,6 +47,11 @@ public final class DefaultRepositoryContext implements RepositoryContext {
 		return serviceProvider.service(type);
 	}
 
+	@Override
+	public <T> Optional<T> optionalService(Class<T> type) {
+		return serviceProvider.optionalService(type);
+	}
+	
 	@Override
 	public <T> Provider<T> provider(Class<T> type) {
 		return serviceProvider.provider(type);
@@ -63,6 +63,7 @@ public final class TerminologyRepository extends DelegatingContext implements Re
 	private final Mappings mappings;
 	private final Logger log;
 	private final Map<Long, RepositoryCommitNotification> commitNotifications = new MapMaker().makeMap();
+	private DefaultRevisionIndex revisionIndex;
 	
 	TerminologyRepository(String repositoryId, int mergeMaxResults, Environment env, Mappings mappings, Logger log) {
 		super(env);
@@ -117,7 +118,7 @@ public final class TerminologyRepository extends DelegatingContext implements Re
 		indexSettings.put(IndexClientFactory.NUMBER_OF_SHARDS, repositoryIndexConfiguration.getNumberOfShards());
 		final IndexClient indexClient = Indexes.createIndexClient(repositoryId, mapper, mappings, indexSettings);
 		final Index index = new DefaultIndex(indexClient);
-		final RevisionIndex revisionIndex = new DefaultRevisionIndex(index, service(TimestampProvider.class), mapper);
+		final DefaultRevisionIndex revisionIndex = new DefaultRevisionIndex(index, service(TimestampProvider.class), mapper);
 		revisionIndex.branching().addBranchChangeListener(path -> {
 			sendNotification(new BranchChangedEvent(repositoryId, path));
 		});
@@ -130,8 +131,16 @@ public final class TerminologyRepository extends DelegatingContext implements Re
 		bind(RevisionIndex.class, revisionIndex);
 		// register branching services
 		bind(BaseRevisionBranching.class, revisionIndex.branching());
+		this.revisionIndex = revisionIndex;
 		return revisionIndex;
 	}
+	
+	@Override
+	protected void doDispose() {
+		if (revisionIndex != null) {
+			revisionIndex.close();
+		}
+	}
 
 	@Override
 	protected Environment getDelegate() {
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.request;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Function;
+
+import com.b2international.snowowl.core.domain.PageableCollectionResource;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
+import com.b2international.snowowl.core.util.ConcurrentTasks.Task;
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * A {@link SearchResourceRequestIterator} variant that fetches the following pages in the background (on the shared {@link ConcurrentTasks}
+ * pool) while the caller processes the current one. Pages are requested one after the other (each request uses the <code>searchAfter</code>
+ * value of the previous page), and at most <code>prefetchDepth</code> pages are fetched ahead of the caller, so a slow consumer does not cause
+ * unbounded memory use. If no worker picked up the next page by the time the caller needs it, the page is fetched on the calling thread.
+ * <p>
+ * Callers that stop iterating before reaching the last page should {@link #close() close} the iterator, which cancels the pages that are not
+ * being fetched yet. An iterator abandoned without closing fetches at most <code>prefetchDepth</code> unnecessary pages.
+ *
+ * @since 7.17
+ *
+ * @param <B> the search resource request builder type; an instance of this will be configured for paging
+ * @param <R> the collection resource response type; the iterator will return results as instances of this type
+ */
+public final class PrefetchingSearchResourceRequestIterator<
+		B extends SearchResourceRequestBuilder<B, ?, R>,
+		R extends PageableCollectionResource<?>> extends AbstractIterator<R> implements AutoCloseable {
+
+	public static final int DEFAULT_PREFETCH_DEPTH = 2;
+
+	private final B searchRequestBuilder;
+	private final Function<B, R> executeHandler;
+	private final int prefetchDepth;
+
+	private final Deque<Task<Page<R>>> pages = new ArrayDeque<>();
+	private Task<Page<R>> lastPage;
+	private boolean closed;
+
+	/**
+	 * @param searchRequestBuilder
+	 *            the pre-configured request builder (should have a batch limit set)
+	 * @param executeHandler
+	 *            a function that builds an appropriate request, executes it either through a request context or an event bus, and returns the
+	 *            results
+	 */
+	public PrefetchingSearchResourceRequestIterator(B searchRequestBuilder, Function<B, R> executeHandler) {
+		this(searchRequestBuilder, executeHandler, DEFAULT_PREFETCH_DEPTH);
+	}
+
+	/**
+	 * @param searchRequestBuilder
+	 *            the pre-configured request builder (should have a batch limit set)
+	 * @param executeHandler
+	 *            a function that builds an appropriate request, executes it either through a request context or an event bus, and returns the
+	 *            results
+	 * @param prefetchDepth
+	 *            the maximum number of pages to fetch ahead of the caller
+	 */
+	public PrefetchingSearchResourceRequestIterator(B searchRequestBuilder, Function<B, R> executeHandler, int prefetchDepth) {
+		checkArgument(prefetchDepth > 0, "Prefetch depth should be greater than zero, got '%s'.", prefetchDepth);
+		this.searchRequestBuilder = searchRequestBuilder;
+		this.executeHandler = executeHandler;
+		this.prefetchDepth = prefetchDepth;
+	}
+
+	@Override
+	protected R computeNext() {
+		if (closed) {
+			return endOfData();
+		}
+		
+		if (lastPage == null) {
+			// first run, fetch the first page
+			lastPage = ConcurrentTasks.fork(() -> fetch(null));
+			pages.add(lastPage);
+		}
+
+		fillPipeline();
+
+		final Page<R> page = pages.removeFirst().join();
+		if (page == null) {
+			return endOfData();
+		}
+
+		return page.hits;
+	}
+
+	/**
+	 * Cancels the pages fetched ahead of the caller that have not started yet. Pages that are being fetched complete in the background, but
+	 * their results are discarded. The iterator returns no more pages after closing.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		// cancel the last page first, so that completing pages do not start the ones following them
+		while (!pages.isEmpty()) {
+			pages.removeLast().cancel();
+		}
+	}
+
+	private void fillPipeline() {
+		while (pages.size() <= prefetchDepth) {
+			lastPage = lastPage.then(this::fetchNext);
+			pages.add(lastPage);
+		}
+	}
+
+	private Page<R> fetchNext(Page<R> previous) {
+		// If all items have already been collected, exit
+		if (previous == null || previous.visited >= previous.total) {
+			return null;
+		}
+		return fetch(previous);
+	}
+
+	private Page<R> fetch(Page<R> previous) {
+		// Execute the request with the last recorded searchAfter value (null on first run)
+		searchRequestBuilder.setSearchAfter(previous == null ? null : previous.hits.getSearchAfter());
+		final R hits = executeHandler.apply(searchRequestBuilder);
+
+		// Initialize total counter on first run
+		if (previous == null) {
+			return hits.getTotal() < 1 ? null : new Page<>(hits, hits.getItems().size(), hits.getTotal());
+		} else {
+			return new Page<>(hits, previous.visited + hits.getItems().size(), previous.total);
+		}
+	}
+
+	private static final class Page<R> {
+
+		private final R hits;
+		private final int visited;
+		private final int total;
+
+		Page(R hits, int visited, int total) {
+			this.hits = hits;
+			this.visited = visited;
+			this.total = total;
+		}
+
+	}
+
+}
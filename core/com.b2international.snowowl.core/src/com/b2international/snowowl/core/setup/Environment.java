@@ -16,6 +16,7 @@
 package com.b2international.snowowl.core.setup;
 
 import java.nio.file.Path;
+import java.util.Optional;
 
 import org.eclipse.net4j.util.container.IManagedContainer;
 import org.eclipse.net4j.util.container.IPluginContainer;
@@ -104,6 +105,11 @@ public final class Environment implements ServiceProvider {
 		return services().getServiceChecked(type);
 	}
 	
+	@Override
+	public <T> Optional<T> optionalService(Class<T> type) {
+		return Optional.ofNullable(services().getService(type));
+	}
+	
 	@Override
 	public <T> Provider<T> provider(final Class<T> type) {
 		return new Provider<T>() {
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Runs CPU or I/O bound work of a single request concurrently on a shared, bounded pool of daemon worker threads.
+ * <p>
+ * The pool has as many threads as there are available processors (but at least four, as part of the work waits for the index), idle threads
+ * are released after one minute. Callers never block on work that has not been picked up by a worker yet: {@link Task#join()} runs a task
+ * on the calling thread if it has not started, and {@link #runAll(int, IntConsumer, int)} lets the calling thread take part in running the
+ * tasks. Nested use from within a task therefore cannot exhaust the pool.
+ *
+ * @since 7.17
+ */
+public final class ConcurrentTasks {
+
+	/**
+	 * The number of threads in the shared worker pool.
+	 */
+	public static final int MAX_WORKERS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(MAX_WORKERS, MAX_WORKERS, 1L, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), runnable -> {
+		final Thread thread = new Thread(runnable, "concurrent-task-" + THREAD_COUNTER.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private ConcurrentTasks() {
+		// static utility class
+	}
+
+	/**
+	 * Creates a task for the given supplier and schedules it on the shared worker pool.
+	 *
+	 * @param supplier - the work to do
+	 * @return the scheduled task
+	 */
+	public static <T> Task<T> fork(Supplier<T> supplier) {
+		return new Task<>(supplier).fork();
+	}
+
+	/**
+	 * Runs the given tasks with at most <code>maxConcurrency</code> threads (including the calling thread), in list order, and waits for their
+	 * completion.
+	 *
+	 * @param tasks - the tasks to run
+	 * @param maxConcurrency - the maximum number of threads to use, <code>1</code> runs all tasks on the calling thread
+	 * @see #runAll(int, IntConsumer, int)
+	 */
+	public static void runAll(List<? extends Runnable> tasks, int maxConcurrency) {
+		runAll(tasks.size(), i -> tasks.get(i).run(), maxConcurrency);
+	}
+
+	/**
+	 * Calls the given task for each index between <code>0</code> (inclusive) and <code>taskCount</code> (exclusive) with at most
+	 * <code>maxConcurrency</code> threads (including the calling thread), and waits for their completion. Indexes are handed out in ascending
+	 * order.
+	 * <p>
+	 * If any of the calls fail, the ones not yet started are skipped and the failure is rethrown after the running ones have completed. A
+	 * failure on the calling thread takes precedence, otherwise the first failed worker's exception is rethrown.
+	 *
+	 * @param taskCount - the number of calls to make
+	 * @param task - the task to call with each index
+	 * @param maxConcurrency - the maximum number of threads to use, <code>1</code> runs all tasks on the calling thread
+	 */
+	public static void runAll(int taskCount, IntConsumer task, int maxConcurrency) {
+		checkArgument(maxConcurrency > 0, "Maximum concurrency should be greater than zero, got '%s'.", maxConcurrency);
+
+		final AtomicInteger nextIndex = new AtomicInteger();
+		final Supplier<Void> drain = () -> {
+			int i;
+			while ((i = nextIndex.getAndIncrement()) < taskCount) {
+				try {
+					task.accept(i);
+				} catch (RuntimeException | Error e) {
+					// skip remaining tasks, the work can not be completed anyway
+					nextIndex.set(taskCount);
+					throw e;
+				}
+			}
+			return null;
+		};
+
+		final int workerCount = Math.min(maxConcurrency, taskCount);
+		final List<Task<Void>> workers = new ArrayList<>(Math.max(0, workerCount - 1));
+		for (int i = 1; i < workerCount; i++) {
+			workers.add(fork(drain));
+		}
+
+		Throwable failure = null;
+		try {
+			drain.get();
+		} catch (RuntimeException | Error e) {
+			failure = e;
+		}
+
+		for (Task<Void> worker : workers) {
+			// workers that did not start yet have nothing left to do
+			if (worker.cancel()) {
+				continue;
+			}
+			try {
+				worker.join();
+			} catch (RuntimeException | Error e) {
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+
+		if (failure != null) {
+			Throwables.throwIfUnchecked(failure);
+			throw new RuntimeException(failure);
+		}
+	}
+
+	/**
+	 * A unit of work that runs at most once, either on a worker of the shared pool or on the first thread that {@link #join() joins} it.
+	 *
+	 * @param <T> - the result type
+	 */
+	public static final class Task<T> implements Runnable {
+
+		private final Supplier<T> supplier;
+		private final AtomicBoolean claimed = new AtomicBoolean();
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+
+		private Task(Supplier<T> supplier) {
+			this.supplier = supplier;
+		}
+
+		private Task<T> fork() {
+			try {
+				EXECUTOR.execute(this);
+			} catch (RejectedExecutionException e) {
+				// the task runs on the first thread joining it
+			}
+			return this;
+		}
+
+		@Override
+		public void run() {
+			if (claimed.compareAndSet(false, true)) {
+				try {
+					result.complete(supplier.get());
+				} catch (Throwable e) {
+					result.completeExceptionally(e);
+				}
+			}
+		}
+
+		/**
+		 * Creates a task that applies the given function to the result of this task. The new task is scheduled on the shared worker pool
+		 * when this task completes.
+		 *
+		 * @param function - the function to apply
+		 * @return the dependent task
+		 */
+		public <U> Task<U> then(Function<? super T, ? extends U> function) {
+			final Task<U> next = new Task<>(() -> function.apply(join()));
+			result.whenComplete((value, failure) -> next.fork());
+			return next;
+		}
+
+		/**
+		 * Returns the result of this task. If no worker has started the task yet, it runs on the calling thread, otherwise the call waits for
+		 * the worker to complete it.
+		 *
+		 * @return the result of the task
+		 * @throws java.util.concurrent.CancellationException if the task was cancelled
+		 */
+		public T join() {
+			run();
+			try {
+				return result.join();
+			} catch (CompletionException e) {
+				Throwables.throwIfUnchecked(e.getCause());
+				throw e;
+			}
+		}
+
+		/**
+		 * Cancels this task if it has not started yet.
+		 *
+		 * @return <code>true</code> if the task will not run, <code>false</code> if it is running or has already completed
+		 */
+		public boolean cancel() {
+			if (claimed.compareAndSet(false, true)) {
+				result.cancel(false);
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @return <code>true</code> if the task has completed, failed or was cancelled
+		 */
+		public boolean isDone() {
+			return result.isDone();
+		}
+
+	}
+
+}
@@ -22,25 +22,35 @@ import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.b2international.commons.CompareUtils;
+import com.b2international.index.BulkUpdate;
 import com.b2international.index.Writer;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.snowowl.core.ComponentIdentifier;
 import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.authorization.BranchAccessControl;
+import com.b2international.snowowl.core.branch.Branch;
 import com.b2international.snowowl.core.codesystem.CodeSystem;
+import com.b2international.snowowl.core.commit.CommitInfo;
 import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.events.Request;
-import com.b2international.snowowl.core.events.util.Promise;
 import com.b2international.snowowl.core.identity.Permission;
+import com.b2international.snowowl.core.internal.validation.ValidationConfiguration;
+import com.b2international.snowowl.core.internal.validation.ValidationPoint;
 import com.b2international.snowowl.core.internal.validation.ValidationRepository;
 import com.b2international.snowowl.core.internal.validation.ValidationThreadPool;
 import com.b2international.snowowl.core.repository.RepositoryCodeSystemProvider;
+import com.b2international.snowowl.core.repository.RepositoryRequests;
 import com.b2international.snowowl.core.uri.CodeSystemURI;
 import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
 import com.b2international.snowowl.core.validation.issue.ValidationIssue;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueDetailExtension;
@@ -59,12 +69,13 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 	
 	private static final long serialVersionUID = -2254266211853070728L;
 	private static final Logger LOG = LoggerFactory.getLogger("validation");
-	private static final long POLL_INTERVAL_MAX = 1000L;
 	
 	Collection<String> ruleIds;
 
 	private Map<String, Object> ruleParameters;
 	
+	private boolean incremental;
+	
 	ValidateRequest() {}
 	
 	@Override
@@ -90,131 +101,306 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 		
 		final ValidationThreadPool pool = context.service(ValidationThreadPool.class);
 		final BlockingQueue<IssuesToPersist> issuesToPersistQueue = Queues.newLinkedBlockingDeque();
-		final List<Promise<Object>> validationPromises = Lists.newArrayList();
-		// evaluate selected rules
+		int pendingRules = 0;
+		
+		// incremental runs are only supported on the branch head, not on point-in-time or other branch path modifiers
+		final Branch branch = context.branch();
+		final Map<String, ValidationPoint> validationPoints = incremental && branchPath.equals(branch.path()) 
+				? fetchValidationPoints(index, codeSystemURI, rules) 
+				: Collections.emptyMap();
+		final Map<Long, Set<String>> changedComponentIdsByTimestamp = new HashMap<>();
+		
+		// evaluate selected rules, each evaluation reports its outcome to the persistence stage below, successful or not
 		for (ValidationRule rule : rules) {
 			checkArgument(rule.getCheckType() != null, "CheckType is missing for rule " + rule.getId());
 			final ValidationRuleEvaluator evaluator = ValidationRuleEvaluator.Registry.get(rule.getType());
 			if (evaluator != null) {
-				validationPromises.add(pool.submit(rule.getCheckType(), () -> {
+				final int configurationHash = Objects.hash(rule.getImplementation(), ruleParameters);
+				final ValidationPoint validationPoint = new ValidationPoint(rule.getId(), codeSystemURI.toString(), branch.baseTimestamp(), branch.headTimestamp(), configurationHash);
+				// null means that the rule has to be evaluated on the entire branch
+				final Set<String> scope = getIncrementalScope(context, evaluator, rule, validationPoints.get(rule.getId()), validationPoint, changedComponentIdsByTimestamp);
+				
+				pool.submit(rule.getCheckType(), () -> {
 					Stopwatch w = Stopwatch.createStarted();
 					
 					try {
-						LOG.info("Executing rule '{}'...", rule.getId());
-						final List<?> evaluationResponse = evaluator.eval(context, rule, ruleParameters);
-						issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), evaluationResponse));
+						final List<?> evaluationResponse;
+						if (scope == null) {
+							LOG.info("Executing rule '{}'...", rule.getId());
+							evaluationResponse = evaluator.eval(context, rule, ruleParameters);
+						} else if (scope.isEmpty()) {
+							LOG.info("Skipping rule '{}', no components changed since the last validation.", rule.getId());
+							evaluationResponse = Collections.emptyList();
+						} else {
+							LOG.info("Executing rule '{}' on '{}' changed components...", rule.getId(), scope.size());
+							evaluationResponse = evaluator.eval(context, rule, ruleParameters, scope);
+						}
+						issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), evaluationResponse, scope, validationPoint));
 						LOG.info("Execution of rule '{}' successfully completed in '{}'.", rule.getId(), w);
 						// TODO report successfully executed validation rule
 					} catch (Exception e) {
 						// TODO report failed validation rule
 						LOG.error("Execution of rule '{}' failed after '{}'.", rule.getId(), w, e);
+						issuesToPersistQueue.offer(IssuesToPersist.failed(rule.getId()));
 					}
-				}));
+				}).fail(e -> {
+					// the validation job itself failed or got cancelled before it could report the outcome of the evaluation
+					LOG.error("Execution of rule '{}' failed.", rule.getId(), e);
+					issuesToPersistQueue.offer(IssuesToPersist.failed(rule.getId()));
+					return null;
+				});
+				pendingRules++;
 			}
 		}
 		
 		final Set<String> ruleIds = rules.stream().map(ValidationRule::getId).collect(Collectors.toSet());
 		final Multimap<String, ComponentIdentifier> whiteListedEntries = fetchWhiteListEntries(context, ruleIds);
+		final int maxConcurrentIssueExtensions = context.optionalService(ValidationConfiguration.class)
+				.map(ValidationConfiguration::getMaxConcurrentIssueExtensions)
+				.orElse(1);
 		
-		final Promise<List<Object>> promise = Promise.all(validationPromises);
-		
-		while (!promise.isDone() || !issuesToPersistQueue.isEmpty()) {
-			if (!issuesToPersistQueue.isEmpty()) {
-				final Collection<IssuesToPersist> issuesToPersist = newArrayList(); 
+		try {
+			// persist the results as they arrive, everything that completed while the previous batch was being persisted forms the next batch
+			while (pendingRules > 0) {
+				final Collection<IssuesToPersist> issuesToPersist = newArrayList(issuesToPersistQueue.take());
 				issuesToPersistQueue.drainTo(issuesToPersist);
+				pendingRules -= issuesToPersist.size();
+				issuesToPersist.removeIf(ruleIssues -> ruleIssues.failed);
 				if (!issuesToPersist.isEmpty()) {
-					final List<String> rulesToPersist = issuesToPersist.stream().map(itp -> itp.ruleId).collect(Collectors.toList());
-					LOG.info("Persisting issues generated by rules '{}'...", rulesToPersist);
-					// persist new issues generated by rules so far, extending them using the Issue Extension API
-					int persistedIssues = 0;
-					
-					final Multimap<String, ValidationIssue> issuesToExtendWithDetailsByToolingId = HashMultimap.create();
-					for (IssuesToPersist ruleIssues : Iterables.consumingIterable(issuesToPersist)) {
-						final String ruleId = ruleIssues.ruleId;
-						final List<ValidationIssue> existingRuleIssues = ValidationRequests.issues().prepareSearch()
-								.all()
-								.filterByResourceUri(codeSystemURI)
-								.filterByRule(ruleId)
-								.build()
-								.execute(context)
-								.getItems();
-						
-						final Set<String> issueIdsToDelete = Sets.newHashSet();
-						
-						final Map<ComponentIdentifier, ValidationIssue> existingIsssuesByComponentIdentifier = new HashMap<>();
-						
-						for (ValidationIssue issue : existingRuleIssues) {
-							if (existingIsssuesByComponentIdentifier.containsKey(issue.getAffectedComponent())) {
-								issueIdsToDelete.add(issue.getId());
-							} else {
-								existingIsssuesByComponentIdentifier.put(issue.getAffectedComponent(), issue);
-							}
-						}
-						
-						// remove all processed whitelist entries 
-						final Collection<ComponentIdentifier> ruleWhiteListEntries = whiteListedEntries.removeAll(ruleId);
-						final String toolingId = rules.stream().filter(rule -> ruleId.equals(rule.getId())).findFirst().get().getToolingId();
-						for (ValidationIssueDetails issueDetails : ruleIssues.issueDetails) {
-							final ValidationIssue validationIssue;
-							ComponentIdentifier componentIdentifier = issueDetails.affectedComponentId;
-							
-							if (!existingIsssuesByComponentIdentifier.containsKey(componentIdentifier)) {
-								validationIssue = new ValidationIssue(
-										UUID.randomUUID().toString(),
-										ruleId,
-										ComponentURI.of(codeSystemURI, componentIdentifier),
-										ruleWhiteListEntries.contains(componentIdentifier));
-							} else {
-								final ValidationIssue issueToCopy = existingIsssuesByComponentIdentifier.get(componentIdentifier);
-								validationIssue = new ValidationIssue(
-									issueToCopy.getId(),
-									issueToCopy.getRuleId(),
-									ComponentURI.of(codeSystemURI, issueToCopy.getAffectedComponent()),
-									ruleWhiteListEntries.contains(issueToCopy.getAffectedComponent()));	
-								existingIsssuesByComponentIdentifier.remove(componentIdentifier);
-							}
-							validationIssue.setDetails(ValidationIssueDetails.HIGHLIGHT_DETAILS, issueDetails.stylingDetails);
-							issuesToExtendWithDetailsByToolingId.put(toolingId, validationIssue);
-							persistedIssues++; 
-						}
-						
-						existingRuleIssues
-							.stream()
-							.filter(issue -> existingIsssuesByComponentIdentifier.containsKey(issue.getAffectedComponent()))
-							.forEach(issue -> issueIdsToDelete.add(issue.getId()));
-						
-						if (!issueIdsToDelete.isEmpty()) {
-							index.removeAll(Collections.singletonMap(ValidationIssue.class, issueIdsToDelete));
-						}
-						
-					}
-					
-					for (String toolingId : issuesToExtendWithDetailsByToolingId.keySet()) {
-						final ValidationIssueDetailExtension extensions = context.service(ValidationIssueDetailExtensionProvider.class).getExtensions(toolingId);
-						final Collection<ValidationIssue> issues = issuesToExtendWithDetailsByToolingId.removeAll(toolingId);
-						extensions.extendIssues(context, issues, ruleParameters);
-						for (ValidationIssue issue : issues) {
-							index.put(issue.getId(), issue);
-						}
-					}
-					
-					index.commit();
-					LOG.info("Persisted '{}' issues generated by rules '{}'.", persistedIssues, rulesToPersist);
-				}
-			} else {
-				try {
-					// wait at least number of rules * 50ms for the next responses
-					Thread.sleep(Math.min(((long) ruleIds.size()) * 100, POLL_INTERVAL_MAX));
-				} catch (InterruptedException e) {
-					throw new SnowowlRuntimeException(e);
+					persistIssues(context, index, codeSystemURI, rules, whiteListedEntries, issuesToPersist, maxConcurrentIssueExtensions);
 				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException(e);
 		}
 		
 		// TODO return ValidationResult object with status and new issue IDs as set
 		return new ValidationResult(context.id(), context.path());
 	}
 
+	private void persistIssues(BranchContext context, 
+			Writer index, 
+			CodeSystemURI codeSystemURI, 
+			ValidationRules rules, 
+			Multimap<String, ComponentIdentifier> whiteListedEntries, 
+			Collection<IssuesToPersist> issuesToPersist,
+			int maxConcurrentIssueExtensions) throws IOException {
+		
+		final List<String> rulesToPersist = issuesToPersist.stream().map(itp -> itp.ruleId).collect(Collectors.toList());
+		LOG.info("Persisting issues generated by rules '{}'...", rulesToPersist);
+		// persist new issues generated by rules so far, extending them using the Issue Extension API
+		int persistedIssues = 0;
+		
+		final Multimap<String, ValidationIssue> issuesToExtendWithDetailsByToolingId = HashMultimap.create();
+		final Set<String> issueIdsToDelete = Sets.newHashSet();
+		final Map<String, ValidationPoint> validationPointsToPut = new HashMap<>();
+		final List<BulkUpdate<ValidationIssue>> whitelistUpdates = newArrayList();
+		
+		for (IssuesToPersist ruleIssues : issuesToPersist) {
+			final String ruleId = ruleIssues.ruleId;
+			final List<ValidationIssue> existingRuleIssues;
+			if (ruleIssues.scope != null && ruleIssues.scope.isEmpty()) {
+				existingRuleIssues = Collections.emptyList();
+			} else {
+				// incremental runs reconcile the issues of the re-evaluated components only
+				existingRuleIssues = ValidationRequests.issues().prepareSearch()
+						.all()
+						.filterByResourceUri(codeSystemURI)
+						.filterByRule(ruleId)
+						.filterByAffectedComponentId(ruleIssues.scope)
+						.build()
+						.execute(context)
+						.getItems();
+			}
+			
+			final Map<ComponentIdentifier, ValidationIssue> existingIsssuesByComponentIdentifier = new HashMap<>();
+			
+			for (ValidationIssue issue : existingRuleIssues) {
+				if (existingIsssuesByComponentIdentifier.containsKey(issue.getAffectedComponent())) {
+					issueIdsToDelete.add(issue.getId());
+				} else {
+					existingIsssuesByComponentIdentifier.put(issue.getAffectedComponent(), issue);
+				}
+			}
+			
+			// remove all processed whitelist entries 
+			final Collection<ComponentIdentifier> ruleWhiteListEntries = whiteListedEntries.removeAll(ruleId);
+			final String toolingId = rules.stream().filter(rule -> ruleId.equals(rule.getId())).findFirst().get().getToolingId();
+			for (ValidationIssueDetails issueDetails : ruleIssues.issueDetails) {
+				final ValidationIssue validationIssue;
+				ComponentIdentifier componentIdentifier = issueDetails.affectedComponentId;
+				
+				if (!existingIsssuesByComponentIdentifier.containsKey(componentIdentifier)) {
+					validationIssue = new ValidationIssue(
+							UUID.randomUUID().toString(),
+							ruleId,
+							ComponentURI.of(codeSystemURI, componentIdentifier),
+							ruleWhiteListEntries.contains(componentIdentifier));
+				} else {
+					final ValidationIssue issueToCopy = existingIsssuesByComponentIdentifier.get(componentIdentifier);
+					validationIssue = new ValidationIssue(
+						issueToCopy.getId(),
+						issueToCopy.getRuleId(),
+						ComponentURI.of(codeSystemURI, issueToCopy.getAffectedComponent()),
+						ruleWhiteListEntries.contains(issueToCopy.getAffectedComponent()));	
+					existingIsssuesByComponentIdentifier.remove(componentIdentifier);
+				}
+				validationIssue.setDetails(ValidationIssueDetails.HIGHLIGHT_DETAILS, issueDetails.stylingDetails);
+				issuesToExtendWithDetailsByToolingId.put(toolingId, validationIssue);
+				persistedIssues++; 
+			}
+			
+			existingRuleIssues
+				.stream()
+				.filter(issue -> existingIsssuesByComponentIdentifier.containsKey(issue.getAffectedComponent()))
+				.forEach(issue -> issueIdsToDelete.add(issue.getId()));
+			
+			validationPointsToPut.put(ruleIssues.validationPoint.getId(), ruleIssues.validationPoint);
+			
+			if (ruleIssues.scope != null) {
+				// issues outside of the incremental scope are not rewritten, bring their whitelist flags up to date in place
+				whitelistUpdates.addAll(getWhitelistUpdates(ruleId, codeSystemURI, ruleWhiteListEntries));
+			}
+		}
+		
+		final Map<String, ValidationIssue> issuesToPut = new HashMap<>();
+		for (String toolingId : issuesToExtendWithDetailsByToolingId.keySet()) {
+			final ValidationIssueDetailExtension extensions = context.service(ValidationIssueDetailExtensionProvider.class).getExtensions(toolingId);
+			final Collection<ValidationIssue> issues = issuesToExtendWithDetailsByToolingId.get(toolingId);
+			extendIssues(context, extensions, issues, maxConcurrentIssueExtensions);
+			for (ValidationIssue issue : issues) {
+				issuesToPut.put(issue.getId(), issue);
+			}
+		}
+		
+		// write the entire batch with a single commit
+		if (!issueIdsToDelete.isEmpty()) {
+			index.removeAll(Collections.singletonMap(ValidationIssue.class, issueIdsToDelete));
+		}
+		index.putAll(issuesToPut);
+		index.putAll(validationPointsToPut);
+		whitelistUpdates.forEach(index::bulkUpdate);
+		index.commit();
+		LOG.info("Persisted '{}' issues generated by rules '{}'.", persistedIssues, rulesToPersist);
+	}
+	
+	/*
+	 * Returns the updates that set the whitelist flag of each issue reported by the rule to match the current set of whitelisted components.
+	 * Only issues with a stale flag are touched.
+	 */
+	private List<BulkUpdate<ValidationIssue>> getWhitelistUpdates(String ruleId, CodeSystemURI codeSystemURI, Collection<ComponentIdentifier> ruleWhiteListEntries) {
+		final Set<String> whitelistedComponentIds = ruleWhiteListEntries.stream()
+				.map(ComponentIdentifier::getComponentId)
+				.collect(Collectors.toSet());
+		
+		final Expression ruleIssues = Expressions.builder()
+				.filter(Expressions.exactMatch(ValidationIssue.Fields.RULE_ID, ruleId))
+				.filter(Expressions.exactMatch(ValidationIssue.Fields.RESOURCE_URI, codeSystemURI.toString()))
+				.build();
+		
+		final List<BulkUpdate<ValidationIssue>> updates = newArrayList();
+		
+		if (!whitelistedComponentIds.isEmpty()) {
+			final Expression toWhitelist = Expressions.builder()
+					.filter(ruleIssues)
+					.filter(Expressions.matchAny(ValidationIssue.Fields.AFFECTED_COMPONENT_ID, whitelistedComponentIds))
+					.filter(Expressions.match(ValidationIssue.Fields.WHITELISTED, false))
+					.build();
+			updates.add(new BulkUpdate<>(ValidationIssue.class, toWhitelist, ValidationIssue.Scripts.WHITELIST, ImmutableMap.of("whitelisted", true)));
+		}
+		
+		final ExpressionBuilder toRemoveFromWhitelist = Expressions.builder()
+				.filter(ruleIssues)
+				.filter(Expressions.match(ValidationIssue.Fields.WHITELISTED, true));
+		if (!whitelistedComponentIds.isEmpty()) {
+			toRemoveFromWhitelist.mustNot(Expressions.matchAny(ValidationIssue.Fields.AFFECTED_COMPONENT_ID, whitelistedComponentIds));
+		}
+		updates.add(new BulkUpdate<>(ValidationIssue.class, toRemoveFromWhitelist.build(), ValidationIssue.Scripts.WHITELIST, ImmutableMap.of("whitelisted", false)));
+		
+		return updates;
+	}
+	
+	/*
+	 * Extends the issues with additional details, splitting them into equal parts that are extended at the same time on the shared task pool.
+	 */
+	private void extendIssues(BranchContext context, 
+			ValidationIssueDetailExtension extensions, 
+			Collection<ValidationIssue> issues,
+			int maxConcurrentIssueExtensions) {
+		
+		final int partitionSize = (issues.size() + maxConcurrentIssueExtensions - 1) / maxConcurrentIssueExtensions;
+		if (partitionSize >= issues.size()) {
+			extensions.extendIssues(context, issues, ruleParameters);
+			return;
+		}
+		
+		final List<Runnable> extensionTasks = Streams.stream(Iterables.partition(issues, partitionSize))
+				.<Runnable>map(partition -> () -> extensions.extendIssues(context, partition, ruleParameters))
+				.collect(Collectors.toList());
+		
+		ConcurrentTasks.runAll(extensionTasks, maxConcurrentIssueExtensions);
+	}
+
+	private Map<String, ValidationPoint> fetchValidationPoints(Writer index, CodeSystemURI codeSystemURI, ValidationRules rules) throws IOException {
+		final Set<String> validationPointIds = rules.stream()
+				.map(rule -> ValidationPoint.toId(codeSystemURI.toString(), rule.getId()))
+				.collect(Collectors.toSet());
+		return Maps.uniqueIndex(index.searcher().get(ValidationPoint.class, validationPointIds), ValidationPoint::getRuleId);
+	}
+	
+	/*
+	 * Returns the IDs of the components the rule has to be re-evaluated for, or null if the rule has to be evaluated on the entire branch. That
+	 * is the case when the rule has not been evaluated on the branch yet, when the rule or its parameters have changed since, when the branch
+	 * has been rebased since or when the rule is not component-scoped.
+	 */
+	private Set<String> getIncrementalScope(BranchContext context, 
+			ValidationRuleEvaluator evaluator, 
+			ValidationRule rule, 
+			ValidationPoint lastValidationPoint, 
+			ValidationPoint currentValidationPoint,
+			Map<Long, Set<String>> changedComponentIdsByTimestamp) {
+		
+		if (lastValidationPoint == null
+				|| lastValidationPoint.getConfigurationHash() != currentValidationPoint.getConfigurationHash()
+				|| lastValidationPoint.getBaseTimestamp() != currentValidationPoint.getBaseTimestamp()
+				|| lastValidationPoint.getHeadTimestamp() > currentValidationPoint.getHeadTimestamp()) {
+			return null;
+		}
+		
+		try {
+			if (!evaluator.isComponentScoped(context, rule)) {
+				return null;
+			}
+		} catch (Exception e) {
+			LOG.warn("Couldn't determine whether rule '{}' is component-scoped, evaluating it on the entire branch.", rule.getId(), e);
+			return null;
+		}
+		
+		return changedComponentIdsByTimestamp.computeIfAbsent(lastValidationPoint.getHeadTimestamp(), 
+				lastHeadTimestamp -> getChangedComponentIds(context, lastHeadTimestamp, currentValidationPoint.getHeadTimestamp()));
+	}
+	
+	private Set<String> getChangedComponentIds(BranchContext context, long fromTimestamp, long toTimestamp) {
+		if (fromTimestamp == toTimestamp) {
+			return Collections.emptySet();
+		}
+		
+		// both the changed components and the components containing them (eg. the concept of a changed description) are re-evaluated
+		return RepositoryRequests.commitInfos()
+				.prepareSearchCommitInfo()
+				.all()
+				.filterByBranch(context.branch().path())
+				.filterByTimestamp(fromTimestamp + 1, toTimestamp)
+				.setExpand(CommitInfo.Expand.DETAILS + "()")
+				.build()
+				.execute(context)
+				.stream()
+				.flatMap(commit -> commit.getDetails().stream())
+				.flatMap(detail -> detail.getValueType() == null ? Stream.of(detail.getObject()) : Stream.of(detail.getObject(), detail.getValue()))
+				.collect(Collectors.toSet());
+	}
+	
 	private Multimap<String, ComponentIdentifier> fetchWhiteListEntries(BranchContext context, final Set<String> ruleIds) {
 		// fetch all white list entries to determine whether an issue is whitelisted already or not
 		final Multimap<String, ComponentIdentifier> whiteListedEntries = HashMultimap.create();
@@ -243,14 +429,24 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 		this.ruleParameters = ruleParameters;
 	}
 	
+	void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+	
 	private static final class IssuesToPersist {
 		
 		public final String ruleId;
 		public final Collection<ValidationIssueDetails> issueDetails;
+		public final Set<String> scope;
+		public final ValidationPoint validationPoint;
+		public final boolean failed;
 		
 		@SuppressWarnings("unchecked")
-		public IssuesToPersist(String ruleId, Collection<?> evaluationResult) {
+		public IssuesToPersist(String ruleId, Collection<?> evaluationResult, Set<String> scope, ValidationPoint validationPoint) {
 			this.ruleId = ruleId;
+			this.failed = false;
+			this.scope = scope;
+			this.validationPoint = validationPoint;
 			if (evaluationResult.iterator().hasNext() && evaluationResult.iterator().next() instanceof ValidationIssueDetails) {
 				this.issueDetails = (Collection<ValidationIssueDetails>) evaluationResult;
 			} else {
@@ -261,6 +457,21 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 			}
 		}
 		
+		private IssuesToPersist(String ruleId) {
+			this.ruleId = ruleId;
+			this.issueDetails = Collections.emptyList();
+			this.scope = null;
+			this.validationPoint = null;
+			this.failed = true;
+		}
+		
+		/*
+		 * Marks a rule that could not be evaluated, its existing issues and validation point are kept as is.
+		 */
+		public static IssuesToPersist failed(String ruleId) {
+			return new IssuesToPersist(ruleId);
+		}
+		
 	}
 
 	@Override
@@ -36,6 +36,8 @@ public final class ValidateRequestBuilder
 	
 	private Map<String, Object> ruleParameters = Map.of();
 	
+	private boolean incremental;
+	
 	public ValidateRequestBuilder setRuleIds(Collection<String> ruleIds) {
 		this.ruleIds = ruleIds;
 		return getSelf();
@@ -46,11 +48,25 @@ public final class ValidateRequestBuilder
 		return getSelf();
 	}
 	
+	/**
+	 * Enables incremental validation. Component-scoped rules that have already been evaluated on the branch with the same parameters are only
+	 * re-evaluated for the components that have changed since, and only the issues of those components are reconciled. All other rules are
+	 * evaluated on the entire branch.
+	 * 
+	 * @param incremental
+	 * @return
+	 */
+	public ValidateRequestBuilder setIncremental(boolean incremental) {
+		this.incremental = incremental;
+		return getSelf();
+	}
+	
 	@Override
 	protected Request<BranchContext, ValidationResult> doBuild() {
 		ValidateRequest validateRequest = new ValidateRequest();
 		validateRequest.setRuleIds(ruleIds);
 		validateRequest.setRuleParameters(ruleParameters);
+		validateRequest.setIncremental(incremental);
 		return validateRequest;
 	}
 
@@ -21,8 +21,11 @@ import static com.google.common.collect.Maps.newHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import com.b2international.snowowl.core.ComponentIdentifier;
 import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.validation.ValidationIssueDetails;
 import com.b2international.snowowl.core.validation.rule.ValidationRule;
 import com.google.common.collect.ImmutableSet;
 
@@ -87,6 +90,53 @@ public interface ValidationRuleEvaluator {
 	 */
 	List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> params) throws Exception;
 
+	/**
+	 * Returns whether the given rule is component-scoped. Issues reported by a component-scoped rule only depend on the state of the affected
+	 * component and the components it contains, so after a change it is sufficient to re-evaluate the rule for the changed components only.
+	 * 
+	 * @param context
+	 *            - the branch context where the evaluation should run
+	 * @param rule
+	 *            - the rule to check
+	 * @return <code>true</code> if the issues of the rule can be reconciled incrementally using
+	 *         {@link #eval(BranchContext, ValidationRule, Map, Set)}, <code>false</code> otherwise
+	 * @throws Exception
+	 */
+	default boolean isComponentScoped(BranchContext context, ValidationRule rule) throws Exception {
+		return false;
+	}
+
+	/**
+	 * Evaluate the given component-scoped rule for the given components only. The default implementation evaluates the rule on the entire
+	 * branch and keeps the results affecting the given components; evaluators should override it if they can restrict the evaluation itself.
+	 * 
+	 * @param context
+	 *            - the branch context where the evaluation should run
+	 * @param rule
+	 *            - the rule to evaluate
+	 * @param params
+	 *            - parameters for the rule evaluators
+	 * @param componentIds
+	 *            - the identifiers of the components to evaluate the rule for
+	 * @return
+	 * @throws Exception
+	 * @see #isComponentScoped(BranchContext, ValidationRule)
+	 */
+	default List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> params, Set<String> componentIds) throws Exception {
+		return eval(context, rule, params)
+				.stream()
+				.filter(result -> componentIds.contains(getAffectedComponentId(result)))
+				.collect(Collectors.toList());
+	}
+
+	private static String getAffectedComponentId(Object evaluationResult) {
+		if (evaluationResult instanceof ValidationIssueDetails) {
+			return ((ValidationIssueDetails) evaluationResult).affectedComponentId.getComponentId();
+		} else {
+			return ((ComponentIdentifier) evaluationResult).getComponentId();
+		}
+	}
+
 	/**
 	 * Unique type identifier of this validation rule evaluator. The type should represent the kind of rules that this evaluator can evaluate using
 	 * the {@link #eval(BranchContext, ValidationRule)} method.
@@ -25,6 +25,7 @@ import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.internal.validation.ValidationPoint;
 import com.b2international.snowowl.core.internal.validation.ValidationRepository;
 import com.b2international.snowowl.core.uri.CodeSystemURI;
 import com.b2international.snowowl.core.uri.ResourceURIPathResolver;
@@ -55,6 +56,8 @@ final class ValidationIssueDeleteRequest implements Request<ServiceProvider, Boo
 	@Override
 	public Boolean execute(ServiceProvider context) {
 		ExpressionBuilder query = Expressions.builder();
+		// validation points of the affected rules are removed as well, so the next incremental validation run evaluates them fully
+		ExpressionBuilder validationPointQuery = Expressions.builder();
 		
 		if (!CompareUtils.isEmpty(resourceURIs)) {
 			List<String> branchPaths = context.service(ResourceURIPathResolver.class).resolve(context, resourceURIs.stream().map(CodeSystemURI::new).collect(Collectors.toList()));
@@ -64,6 +67,7 @@ final class ValidationIssueDeleteRequest implements Request<ServiceProvider, Boo
 					.should(Expressions.matchAny(ValidationIssue.Fields.BRANCH_PATH, branchPaths))
 					.build()
 			);
+			validationPointQuery.filter(Expressions.matchAny(ValidationPoint.Fields.RESOURCE_URI, resourceURIs));
 		}
 		
 		if (!CompareUtils.isEmpty(toolingIds)) {
@@ -76,11 +80,13 @@ final class ValidationIssueDeleteRequest implements Request<ServiceProvider, Boo
 				.map(ValidationRule::getId)
 				.collect(Collectors.toSet());
 			query.filter(Expressions.matchAny(ValidationIssue.Fields.RULE_ID, rulesToDelete));
+			validationPointQuery.filter(Expressions.matchAny(ValidationPoint.Fields.RULE_ID, rulesToDelete));
 		}
 		
 		return context.service(ValidationRepository.class).write(writer -> {
 			
 			writer.bulkDelete(new BulkDelete<>(ValidationIssue.class, query.build()));
+			writer.bulkDelete(new BulkDelete<>(ValidationPoint.class, validationPointQuery.build()));
 			writer.commit();
 			
 			new ValidationDeleteNotification(resourceURIs, toolingIds).publish(context.service(IEventBus.class));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package com.b2international.snowowl.snomed.core.rest;
 
 import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.http.HttpStatus;
@@ -108,10 +109,13 @@ public class SnomedClassificationRestService extends AbstractRestService {
 		value = "Start a classification on a branch",
 		notes = "Classification runs are async jobs. The call to this method immediately returns with a unique URL "
 				+ "pointing to the classification run.<p>The URL can be used to fetch the state of the classification "
-				+ "to determine whether it's completed or not."
+				+ "to determine whether it's completed or not.<p>When reuse is requested and a classification of the current "
+				+ "state of the branch using the same reasoner is already scheduled, running or completed, the call redirects "
+				+ "to that run instead of starting a new one."
 	)
 	@ApiResponses({
 		@ApiResponse(code = 201, message = "Created"),
+		@ApiResponse(code = 303, message = "See Other (an existing classification run is reused)"),
 		@ApiResponse(code = 404, message = "Branch not found", response=RestApiError.class)
 	})
 	@PostMapping(consumes = { AbstractRestService.JSON_MEDIA_TYPE })
@@ -121,21 +125,32 @@ public class SnomedClassificationRestService extends AbstractRestService {
 			@RequestBody 
 			final ClassificationRunRestInput request,
 
+			@ApiParam(value = "Whether to reuse an existing classification run of the current branch state", defaultValue = "false")
+			@RequestParam(value="reuseExisting", defaultValue="false", required=false)
+			final boolean reuseExisting,
+
 			@RequestHeader(value = X_AUTHOR, required = false)
 			final String author) {
 		
 		ApiValidation.checkInput(request);
 		
 		final UriComponentsBuilder linkTo = MvcUriComponentsBuilder.fromController(SnomedClassificationRestService.class);
+		final String classificationId = UUID.randomUUID().toString();
 		
 		return ClassificationRequests.prepareCreateClassification()
+				.setClassificationId(classificationId)
 				.setReasonerId(request.getReasonerId())
 				.setUserId(author)
+				.setReuseExistingRun(reuseExisting)
 				.build(SnomedDatastoreActivator.REPOSITORY_UUID, request.getBranch())
 				.execute(getBus())
 				.then(id -> {
 					final URI resourceUri = linkTo.pathSegment(id).build().toUri();
-					return ResponseEntity.created(resourceUri).build();
+					if (classificationId.equals(id)) {
+						return ResponseEntity.created(resourceUri).build();
+					} else {
+						return ResponseEntity.status(HttpStatus.SEE_OTHER).location(resourceUri).build();
+					}
 				});
 	}
 
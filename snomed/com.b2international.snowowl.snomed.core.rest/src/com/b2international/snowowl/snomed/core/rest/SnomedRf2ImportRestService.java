@@ -91,6 +91,11 @@ public class SnomedRf2ImportRestService extends AbstractSnomedRestService {
 			@RequestParam(name = "dryRun", defaultValue = "false")
 			final Boolean dryRun,
 			
+			@ApiParam(value = "The number of workers reading the component batches of an effective time from the temporary store ahead of their commit. "
+					+ "Batches are still committed one by one, in import plan order.", defaultValue = "1")
+			@RequestParam(name = "parallelism", defaultValue = "1")
+			final Integer parallelism,
+			
 			@ApiParam(value = "Import file", required = true)
 			@RequestPart("file") 
 			final MultipartFile file) throws IOException {
@@ -106,6 +111,7 @@ public class SnomedRf2ImportRestService extends AbstractSnomedRestService {
 			.setCreateVersions(createVersions)
 			.setIgnoreMissingReferencesIn(ignoreMissingReferencesIn)
 			.setDryRun(dryRun)
+			.setParallelism(parallelism)
 			.build(SnomedDatastoreActivator.REPOSITORY_UUID, branchPath)
 			.runAsJobWithRestart(importJobId, String.format("Importing SNOMED CT RF2 file '%s'", file.getOriginalFilename()))
 			.execute(getBus())
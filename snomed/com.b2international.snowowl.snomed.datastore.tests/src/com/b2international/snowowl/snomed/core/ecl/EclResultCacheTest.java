@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.concept;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.validation.IResourceValidator;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.index.Index;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snomed.ecl.EclStandaloneSetup;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.core.request.RevisionIndexReadRequest;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.tree.Trees;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+
+/**
+ * @since 7.17
+ */
+public class EclResultCacheTest extends BaseRevisionIndexTest {
+
+	private static final Injector INJECTOR = new EclStandaloneSetup().createInjectorAndDoEMFRegistration();
+
+	private static final String ROOT_ID = Concepts.ROOT_CONCEPT;
+	private static final String CHILD_ID = Concepts.MODULE_ROOT;
+
+	private BranchContext context;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableSet.of(SnomedConceptDocument.class, SnomedDescriptionIndexEntry.class, SnomedRelationshipIndexEntry.class, SnomedRefSetMemberIndexEntry.class);
+	}
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Before
+	public void setup() {
+		context = TestBranchContext.on(MAIN)
+				.with(EclParser.class, new DefaultEclParser(INJECTOR.getInstance(IParser.class), INJECTOR.getInstance(IResourceValidator.class)))
+				.with(EclSerializer.class, new DefaultEclSerializer(INJECTOR.getInstance(ISerializer.class)))
+				.with(Index.class, rawIndex())
+				.with(RevisionIndex.class, index())
+				.with(SnomedCoreConfiguration.class, new SnomedCoreConfiguration())
+				.with(EclResultCache.class, new EclResultCache(1_000L))
+				.build();
+
+		indexRevision(MAIN,
+				concept(ROOT_ID).build(),
+				concept(CHILD_ID)
+					.parents(Long.parseLong(ROOT_ID))
+					.ancestors(IComponent.ROOT_IDL)
+					.build());
+	}
+
+	@Test
+	public void differentlyFormattedExpressionsShareResult() throws Exception {
+		final Set<String> ids = resolveOnIndex("<< " + ROOT_ID);
+		assertThat(ids).containsOnly(ROOT_ID, CHILD_ID);
+
+		// the cached result is returned without evaluating the expression on the index
+		final Set<String> cachedIds = EclExpression.of("<<" + ROOT_ID, Trees.INFERRED_FORM)
+				.resolve(context)
+				.getSync();
+		assertThat(cachedIds).isEqualTo(ids);
+	}
+
+	@Test
+	public void differentExpressionsDoNotShareResult() throws Exception {
+		assertThat(resolveOnIndex("<< " + ROOT_ID)).containsOnly(ROOT_ID, CHILD_ID);
+		assertThat(resolveOnIndex("< " + ROOT_ID)).containsOnly(CHILD_ID);
+	}
+
+	private Set<String> resolveOnIndex(String ecl) {
+		return new RevisionIndexReadRequest<Promise<Set<String>>>(EclExpression.of(ecl, Trees.INFERRED_FORM)::resolve)
+				.execute(context)
+				.getSync();
+	}
+
+}
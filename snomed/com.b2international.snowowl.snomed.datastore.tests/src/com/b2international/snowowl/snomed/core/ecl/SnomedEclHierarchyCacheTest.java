@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.concept;
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.relationship;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.validation.IResourceValidator;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.index.Index;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snomed.ecl.EclStandaloneSetup;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.domain.DelegatingBranchContext;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.core.request.RevisionIndexReadRequest;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.tree.Trees;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+
+/**
+ * @since 7.17
+ */
+public class SnomedEclHierarchyCacheTest extends BaseRevisionIndexTest {
+
+	private static final Injector INJECTOR = new EclStandaloneSetup().createInjectorAndDoEMFRegistration();
+
+	private static final String ROOT = Concepts.ROOT_CONCEPT;
+	private static final String CHILD1 = "100005";
+	private static final String CHILD2 = "200003";
+
+	private BranchContext context;
+	private long firstCommitTimestamp;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableSet.of(SnomedConceptDocument.class, SnomedDescriptionIndexEntry.class, SnomedRelationshipIndexEntry.class, SnomedRefSetMemberIndexEntry.class);
+	}
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Before
+	public void setup() {
+		context = TestBranchContext.on(MAIN)
+				.with(EclParser.class, new DefaultEclParser(INJECTOR.getInstance(IParser.class), INJECTOR.getInstance(IResourceValidator.class)))
+				.with(EclSerializer.class, new DefaultEclSerializer(INJECTOR.getInstance(ISerializer.class)))
+				.with(Index.class, rawIndex())
+				.with(RevisionIndex.class, index())
+				.with(SnomedCoreConfiguration.class, new SnomedCoreConfiguration())
+				.with(SnomedEclHierarchyCache.class, new SnomedEclHierarchyCache(2))
+				.build();
+
+		firstCommitTimestamp = commit(MAIN, List.of(
+				concept(ROOT).build(),
+				child(CHILD1),
+				relationship(CHILD1, Concepts.IS_A, ROOT).build()))
+			.getTimestamp();
+
+		// the second commit changes the hierarchy, the branch context still points to the same (current) branch head
+		commit(MAIN, List.of(
+				child(CHILD2),
+				relationship(CHILD2, Concepts.IS_A, ROOT).build()));
+	}
+
+	private static SnomedConceptDocument child(String id) {
+		return concept(id)
+				.parents(PrimitiveSets.newLongSortedSet(Long.parseLong(ROOT)))
+				.ancestors(PrimitiveSets.newLongSortedSet(IComponent.ROOT_IDL))
+				.build();
+	}
+
+	@Test
+	public void pointInTimeQueryDoesNotUseHeadHierarchy() throws Exception {
+		assertThat(resolve(context, "< " + ROOT)).containsOnly(CHILD1, CHILD2);
+		assertThat(resolve(atFirstCommit(), "< " + ROOT)).containsOnly(CHILD1);
+	}
+
+	@Test
+	public void pointInTimeQueryDoesNotReplaceHeadHierarchy() throws Exception {
+		assertThat(resolve(atFirstCommit(), "< " + ROOT)).containsOnly(CHILD1);
+		assertThat(resolve(context, "< " + ROOT)).containsOnly(CHILD1, CHILD2);
+		assertThat(resolve(atFirstCommit(), "< " + ROOT)).containsOnly(CHILD1);
+	}
+
+	private BranchContext atFirstCommit() {
+		final String path = RevisionIndex.toBranchAtPath(MAIN, firstCommitTimestamp);
+		return new DelegatingBranchContext(context) {
+			@Override
+			public String path() {
+				return path;
+			}
+		};
+	}
+
+	private static Set<String> resolve(BranchContext context, String ecl) {
+		return new RevisionIndexReadRequest<Promise<Set<String>>>(EclExpression.of(ecl, Trees.INFERRED_FORM)::resolve)
+				.execute(context)
+				.getSync();
+	}
+
+}
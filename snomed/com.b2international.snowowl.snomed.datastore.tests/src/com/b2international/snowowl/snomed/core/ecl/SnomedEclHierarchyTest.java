@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * @since 7.17
+ */
+public class SnomedEclHierarchyTest {
+
+	private static final long ROOT = 138875005L;
+	private static final long A = 100L;
+	private static final long B = 200L;
+	private static final long C = 300L;
+	private static final long D = 400L;
+	private static final long INACTIVE = 500L;
+
+	private SnomedEclHierarchy hierarchy;
+
+	@Before
+	public void setup() {
+		// ROOT <- A <- B <- D, ROOT <- C <- D
+		hierarchy = new SnomedEclHierarchy(new long[] { D, C, B, A, ROOT, INACTIVE }, List.of(
+			new Object[] { "1", A, new long[] { ROOT } },
+			new Object[] { "2", B, new long[] { A } },
+			new Object[] { "3", C, new long[] { ROOT } },
+			new Object[] { "4", D, new long[] { B, C } },
+			// destination is not a known concept
+			new Object[] { "5", D, new long[] { 999L } }
+		));
+	}
+
+	@Test
+	public void descendants() throws Exception {
+		assertThat(ids(hierarchy.descendants(bits(A), false, false))).containsOnly("200", "400");
+		assertThat(ids(hierarchy.descendants(bits(A), true, false))).containsOnly("100", "200", "400");
+		assertThat(ids(hierarchy.descendants(bits(ROOT), false, true))).containsOnly("100", "300");
+		assertThat(ids(hierarchy.descendants(bits(ROOT), true, true))).containsOnly("138875005", "100", "300");
+	}
+
+	@Test
+	public void descendantsOfRelatedConcepts() throws Exception {
+		// A is a descendant of ROOT, so it is part of the strict descendant set
+		assertThat(ids(hierarchy.descendants(bits(ROOT, A), false, false))).containsOnly("100", "200", "300", "400");
+	}
+
+	@Test
+	public void ancestors() throws Exception {
+		assertThat(ids(hierarchy.ancestors(bits(D), false, false))).containsOnly("138875005", "100", "200", "300");
+		assertThat(ids(hierarchy.ancestors(bits(D), false, true))).containsOnly("200", "300");
+		assertThat(ids(hierarchy.ancestors(bits(D), true, true))).containsOnly("200", "300", "400");
+	}
+
+	@Test
+	public void allExceptRoot() throws Exception {
+		assertThat(ids(hierarchy.allExceptRoot())).containsOnly("100", "200", "300", "400", "500");
+	}
+
+	@Test
+	public void firstIdsInStringOrder() throws Exception {
+		assertThat(hierarchy.firstIds(hierarchy.all(), 3)).containsExactly("100", "138875005", "200");
+		assertThat(hierarchy.firstIds(hierarchy.descendants(bits(ROOT), false, false), 10)).containsExactly("100", "200", "300", "400");
+		assertThat(hierarchy.firstIds(hierarchy.all(), 0)).isEmpty();
+	}
+
+	@Test
+	public void unknownIdsAreRejected() throws Exception {
+		assertThatThrownBy(() -> hierarchy.toBitSet(ImmutableSet.of("100", "999")))
+			.isInstanceOf(SnomedEclHierarchy.UnknownConceptException.class);
+		assertThatThrownBy(() -> hierarchy.toBitSet(ImmutableSet.of("invalid")))
+			.isInstanceOf(SnomedEclHierarchy.UnknownConceptException.class);
+	}
+
+	@Test
+	public void patch() throws Exception {
+		final long E = 600L;
+		
+		// B is removed, D is moved under A, new concept E is added under D
+		final LongSet changedConceptIds = PrimitiveSets.newLongOpenHashSet(B, D, E);
+		hierarchy = hierarchy.patch(changedConceptIds, new long[] { D, E }, List.of(
+			new Object[] { "6", D, new long[] { A, C } },
+			new Object[] { "7", E, new long[] { D } }
+		));
+		
+		assertThat(hierarchy.contains("200")).isFalse();
+		assertThat(ids(hierarchy.descendants(bits(A), false, false))).containsOnly("400", "600");
+		assertThat(ids(hierarchy.ancestors(bits(E), false, false))).containsOnly("138875005", "100", "300", "400");
+		assertThat(ids(hierarchy.allExceptRoot())).containsOnly("100", "300", "400", "500", "600");
+	}
+
+	private BitSet bits(long... conceptIds) {
+		final ImmutableSet.Builder<String> ids = ImmutableSet.builder();
+		for (long conceptId : conceptIds) {
+			ids.add(Long.toString(conceptId));
+		}
+		return hierarchy.toBitSet(ids.build());
+	}
+
+	private Set<String> ids(BitSet bits) {
+		return hierarchy.toIds(bits);
+	}
+
+}
@@ -19,13 +19,18 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.b2international.snowowl.snomed.core.ecl.EclResultCacheTest;
 import com.b2international.snowowl.snomed.core.ecl.SnomedEclEvaluationRequestTest;
+import com.b2international.snowowl.snomed.core.ecl.SnomedEclHierarchyCacheTest;
+import com.b2international.snowowl.snomed.core.ecl.SnomedEclHierarchyTest;
 import com.b2international.snowowl.snomed.core.ecl.SnomedEclRewriterTest;
 import com.b2international.snowowl.snomed.core.ecl.SnomedEclShortcutTest;
 import com.b2international.snowowl.snomed.core.ecl.SnomedStatedEclEvaluationTest;
 import com.b2international.snowowl.snomed.core.ql.SnomedQueryEvaluationRequestTest;
 import com.b2international.snowowl.snomed.core.ql.SnomedQueryLabelerRequestTest;
 import com.b2international.snowowl.snomed.core.tree.TerminologyTreeTest;
+import com.b2international.snowowl.snomed.datastore.converter.ConcurrentExpansionsTest;
+import com.b2international.snowowl.snomed.datastore.converter.SnomedDescendantsExpanderTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceRegressionTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceTest;
 import com.b2international.snowowl.snomed.datastore.index.change.ConceptChangeProcessorAxiomTest;
@@ -40,9 +45,13 @@ import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConstraint
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntrySerializationTest;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberDocumentSerializationTest;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntrySerializationTest;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilderTest;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomySnapshotsTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.SnomedIdentifierTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.reservations.ReservationImplTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.reservations.SnomedIdentifierReservationServiceImplTest;
+import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2ComponentEffectiveTimeSetTest;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyCacheTest;
 import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEvaluatorTest;
 
 /**
@@ -75,11 +84,23 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	SnomedEclEvaluationRequestTest.class,
 	SnomedStatedEclEvaluationTest.class,
 	SnomedEclRewriterTest.class,
+	SnomedEclHierarchyTest.class,
+	SnomedEclHierarchyCacheTest.class,
+	EclResultCacheTest.class,
 	// QL test cases
 	SnomedQueryEvaluationRequestTest.class,
 	SnomedQueryLabelerRequestTest.class,
 	SnomedEclShortcutTest.class,
 	SnomedDescriptionUtilsTest.class,
+	// converter test cases
+	ConcurrentExpansionsTest.class,
+	SnomedDescendantsExpanderTest.class,
+	// reasoner taxonomy test cases
+	ReasonerTaxonomySnapshotsTest.class,
+	ReasonerTaxonomyBuilderTest.class,
+	TaxonomyCacheTest.class,
+	// RF2 test cases
+	Rf2ComponentEffectiveTimeSetTest.class,
 	// Validate Rule Evaluators
 	SnomedQueryValidationRuleEvaluatorTest.class,
 })
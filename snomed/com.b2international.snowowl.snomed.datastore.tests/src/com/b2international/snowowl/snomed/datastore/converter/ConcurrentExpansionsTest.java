@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.b2international.commons.options.Options;
+import com.b2international.commons.options.OptionsBuilder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @since 7.17
+ */
+public class ConcurrentExpansionsTest {
+
+	private final Options expand = OptionsBuilder.newBuilder()
+			.put("pt", true)
+			.put("fsn", true)
+			.put("descendants", true)
+			.build();
+
+	@Test
+	public void runRequestedExpansionsOnly() throws Exception {
+		final List<String> completed = new CopyOnWriteArrayList<>();
+		final ConcurrentExpansions expansions = new ConcurrentExpansions(expand, 1)
+				.add("pt", () -> completed.add("pt"))
+				.add("ancestors", () -> completed.add("ancestors"))
+				.add("descendants", () -> completed.add("descendants"));
+
+		expansions.run();
+
+		assertThat(completed).containsExactly("pt", "descendants");
+		assertThat(expansions.getElapsedMillis()).containsOnlyKeys("pt", "descendants");
+	}
+
+	@Test
+	public void recordExpansionTimes() throws Exception {
+		final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		new ConcurrentExpansions(expand, 2, registry)
+				.add("pt", () -> {})
+				.add("fsn", () -> {})
+				.add("ancestors", () -> {})
+				.run();
+
+		assertThat(registry.find(ConcurrentExpansions.EXPANSION_TIME_METRIC).tag(ConcurrentExpansions.EXPAND_TAG, "pt").timer().count()).isEqualTo(1L);
+		assertThat(registry.find(ConcurrentExpansions.EXPANSION_TIME_METRIC).tag(ConcurrentExpansions.EXPAND_TAG, "fsn").timer().count()).isEqualTo(1L);
+		assertThat(registry.find(ConcurrentExpansions.EXPANSION_TIME_METRIC).tag(ConcurrentExpansions.EXPAND_TAG, "ancestors").timer()).isNull();
+	}
+
+	@Test
+	public void runExpansionsConcurrently() throws Exception {
+		// each expansion waits for the others to start, so this only completes if all three run at the same time
+		final CountDownLatch started = new CountDownLatch(3);
+		final List<String> completed = new CopyOnWriteArrayList<>();
+		final ConcurrentExpansions expansions = new ConcurrentExpansions(expand, 3)
+				.add("pt", () -> awaitOthers(started, completed, "pt"))
+				.add("fsn", () -> awaitOthers(started, completed, "fsn"))
+				.add("descendants", () -> awaitOthers(started, completed, "descendants"));
+
+		expansions.run();
+
+		assertThat(completed).containsExactlyInAnyOrder("pt", "fsn", "descendants");
+	}
+
+	@Test
+	public void skipRemainingExpansionsOnFailure() throws Exception {
+		final List<String> completed = new CopyOnWriteArrayList<>();
+		final ConcurrentExpansions expansions = new ConcurrentExpansions(expand, 1)
+				.add("pt", () -> { throw new IllegalStateException("pt failed"); })
+				.add("fsn", () -> completed.add("fsn"));
+
+		assertThatThrownBy(expansions::run)
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("pt failed");
+		assertThat(completed).isEmpty();
+	}
+
+	private static void awaitOthers(CountDownLatch started, List<String> completed, String expandKey) {
+		started.countDown();
+		try {
+			if (started.await(10, TimeUnit.SECONDS)) {
+				completed.add(expandKey);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
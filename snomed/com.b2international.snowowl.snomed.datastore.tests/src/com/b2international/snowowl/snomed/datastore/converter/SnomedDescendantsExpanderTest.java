@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.converter;
+
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.concept;
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.relationship;
+import static com.google.common.collect.Maps.newHashMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSortedSet;
+import com.b2international.commons.options.Options;
+import com.b2international.index.Index;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.Revision;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.ecl.SnomedEclHierarchyCache;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * @since 7.17
+ */
+public class SnomedDescendantsExpanderTest extends BaseRevisionIndexTest {
+
+	private static final String ROOT = Concepts.ROOT_CONCEPT;
+	private static final String PARENT = "100005";
+	// IDs of different length, so that numeric and lexicographic order differ
+	private static final String CHILD1 = "900009";
+	private static final String CHILD2 = "1000004";
+	private static final String CHILD3 = "22000001";
+	private static final String GRANDCHILD = "3000007";
+	private static final String INACTIVE_CHILD = "4000000";
+
+	private static final Set<String> CONCEPT_IDS = ImmutableSet.of(ROOT, PARENT, CHILD1, GRANDCHILD, "5000003");
+
+	private BranchContext context;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.of(SnomedConceptDocument.class, SnomedDescriptionIndexEntry.class, SnomedRelationshipIndexEntry.class, SnomedRefSetMemberIndexEntry.class);
+	}
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Before
+	public void setup() {
+		context = TestBranchContext.on(MAIN)
+				.with(Index.class, rawIndex())
+				.with(RevisionIndex.class, index())
+				.build();
+
+		final ImmutableList.Builder<Revision> revisions = ImmutableList.builder();
+		revisions.add(concept(ROOT).build());
+		revisions.add(child(PARENT, ROOT));
+		revisions.add(child(CHILD1, PARENT, ROOT));
+		revisions.add(child(CHILD2, PARENT, ROOT));
+		revisions.add(child(CHILD3, PARENT, ROOT));
+		revisions.add(child(GRANDCHILD, CHILD1, PARENT, ROOT));
+		// an inactive concept that still has an active IS A relationship should not be returned by any of the evaluation methods
+		revisions.add(SnomedConceptDocument.builder(child(INACTIVE_CHILD, PARENT, ROOT)).active(false).build());
+
+		revisions.add(relationship(PARENT, Concepts.IS_A, ROOT).build());
+		revisions.add(relationship(CHILD1, Concepts.IS_A, PARENT).build());
+		revisions.add(relationship(CHILD2, Concepts.IS_A, PARENT).build());
+		revisions.add(relationship(CHILD3, Concepts.IS_A, PARENT).build());
+		revisions.add(relationship(GRANDCHILD, Concepts.IS_A, CHILD1).build());
+		revisions.add(relationship(INACTIVE_CHILD, Concepts.IS_A, PARENT).build());
+		commit(MAIN, revisions.build());
+	}
+
+	private static SnomedConceptDocument child(String id, String parentId, String... ancestorIds) {
+		final LongSortedSet ancestors = PrimitiveSets.newLongSortedSet(IComponent.ROOT_IDL);
+		for (String ancestorId : ancestorIds) {
+			ancestors.add(Long.parseLong(ancestorId));
+		}
+		return concept(id)
+				.parents(PrimitiveSets.newLongSortedSet(Long.parseLong(parentId)))
+				.ancestors(ancestors)
+				.build();
+	}
+
+	@Test
+	public void hierarchyAndIndexReturnSameDescendants() throws Exception {
+		for (boolean direct : new boolean[] { true, false }) {
+			for (int limit : new int[] { 0, 2, 50 }) {
+				assertSameDescendants(direct, limit);
+			}
+		}
+	}
+
+	@Test
+	public void descendantsAreSortedAsStrings() throws Exception {
+		final ListMultimap<String, String> descendants = ArrayListMultimap.create();
+		index().read(MAIN, searcher -> {
+			expander(searcher).collectFromHierarchy(new SnomedEclHierarchyCache(1), Set.of(PARENT), true, 50, newHashMap(), descendants);
+			return null;
+		});
+		assertThat(descendants.get(PARENT)).containsExactly(CHILD2, CHILD3, CHILD1);
+	}
+
+	private void assertSameDescendants(boolean direct, int limit) {
+		final SnomedEclHierarchyCache hierarchies = new SnomedEclHierarchyCache(1);
+		final Map<String, Integer> totalsFromHierarchy = newHashMap();
+		final ListMultimap<String, String> descendantsFromHierarchy = ArrayListMultimap.create();
+		final Map<String, Integer> totalsFromIndex = newHashMap();
+		final ListMultimap<String, String> descendantsFromIndex = ArrayListMultimap.create();
+
+		index().read(MAIN, searcher -> {
+			final SnomedDescendantsExpander expander = expander(searcher);
+			expander.collectFromHierarchy(hierarchies, CONCEPT_IDS, direct, limit, totalsFromHierarchy, descendantsFromHierarchy);
+			expander.collectFromIndex(CONCEPT_IDS, direct, limit, totalsFromIndex, descendantsFromIndex);
+			return null;
+		});
+
+		for (String conceptId : CONCEPT_IDS) {
+			final String description = String.format("descendants of %s (direct: %s, limit: %s)", conceptId, direct, limit);
+			assertThat(totalsFromHierarchy.get(conceptId)).as(description).isEqualTo(totalsFromIndex.get(conceptId));
+			assertThat(descendantsFromHierarchy.get(conceptId)).as(description).containsExactlyElementsOf(descendantsFromIndex.get(conceptId));
+			assertThat(descendantsFromHierarchy.get(conceptId)).as(description).doesNotContain(INACTIVE_CHILD);
+		}
+
+		assertThat(totalsFromIndex.get(PARENT)).isEqualTo(direct ? 3 : 4);
+	}
+
+	private SnomedDescendantsExpander expander(RevisionSearcher searcher) {
+		final BranchContext searcherContext = context.inject().bind(RevisionSearcher.class, searcher).build();
+		return new SnomedDescendantsExpander(searcherContext, Options.builder().build(), Collections.emptyList(), SnomedConcept.Expand.DESCENDANTS);
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.taxonomy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.Revision;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.snomed.core.domain.refset.DataType;
+import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry.Fields;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * @since 7.17
+ */
+public class ReasonerTaxonomyBuilderTest extends BaseRevisionIndexTest {
+
+	private static final String ROOT = Concepts.ROOT_CONCEPT;
+
+	// enough concepts with statements, so that each ID range of a concurrent build has some content
+	private final List<String> conceptIds = ImmutableList.of("100005", "200008", "300001", "400004", "500007", "600000", "700003", "800006", "900009");
+
+	private int nextRelationshipId = 1;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.<Class<?>>of(
+			SnomedConceptDocument.class,
+			SnomedDescriptionIndexEntry.class,
+			SnomedRelationshipIndexEntry.class,
+			SnomedRefSetMemberIndexEntry.class
+		);
+	}
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Before
+	public void setup() {
+		final ImmutableList.Builder<Revision> revisions = ImmutableList.builder();
+		revisions.add(concept(ROOT, true));
+		revisions.add(concept(Concepts.PART_OF, true));
+		revisions.add(owlAxiom(Concepts.PART_OF, "TransitiveObjectProperty(:" + Concepts.PART_OF + ")").build());
+
+		for (String conceptId : conceptIds) {
+			// every third concept is fully defined
+			revisions.add(concept(conceptId, conceptIds.indexOf(conceptId) % 3 != 0));
+			revisions.add(relationship(conceptId, Concepts.IS_A, ROOT, Concepts.STATED_RELATIONSHIP, 0));
+			revisions.add(relationship(conceptId, Concepts.FINDING_SITE, ROOT, Concepts.STATED_RELATIONSHIP, 1));
+			revisions.add(relationship(conceptId, Concepts.IS_A, ROOT, Concepts.INFERRED_RELATIONSHIP, 0));
+			revisions.add(relationship(conceptId, Concepts.FINDING_SITE, ROOT, Concepts.ADDITIONAL_RELATIONSHIP, 1));
+			revisions.add(owlAxiom(conceptId, "SubClassOf(:" + conceptId + " :" + ROOT + ")").build());
+			revisions.add(concreteDomainMember(conceptId, Concepts.STATED_RELATIONSHIP, "stated-" + conceptId));
+			revisions.add(concreteDomainMember(conceptId, Concepts.INFERRED_RELATIONSHIP, "inferred-" + conceptId));
+		}
+
+		commit(MAIN, revisions.build());
+	}
+
+	@Test
+	public void concurrentBuildEqualsSequentialBuild() throws Exception {
+		final ReasonerTaxonomy sequential = build(1);
+		final ReasonerTaxonomy concurrent = build(4);
+
+		assertThat(concurrent.getConceptMap().size()).isEqualTo(sequential.getConceptMap().size());
+		assertThat(concurrent.getPropertyChains()).isEqualTo(sequential.getPropertyChains()).isNotEmpty();
+		assertThat(concurrent.getDefiningConcepts().toLongList().toArray())
+			.containsOnly(sequential.getDefiningConcepts().toLongList().toArray())
+			.isNotEmpty();
+
+		for (String conceptId : conceptIds) {
+			assertThat(concurrent.getStatedAncestors().getDestinations(conceptId, false))
+				.isEqualTo(sequential.getStatedAncestors().getDestinations(conceptId, false))
+				.containsOnly(ROOT);
+
+			assertSameElements(concurrent.getStatedRelationships().get(conceptId), sequential.getStatedRelationships().get(conceptId), 2);
+			assertSameElements(concurrent.getExistingInferredRelationships().get(conceptId), sequential.getExistingInferredRelationships().get(conceptId), 1);
+			assertSameElements(concurrent.getAdditionalGroupedRelationships().get(conceptId), sequential.getAdditionalGroupedRelationships().get(conceptId), 1);
+			assertThat(concurrent.getAxioms().get(conceptId)).containsExactlyElementsOf(sequential.getAxioms().get(conceptId)).hasSize(1);
+			assertSameElements(concurrent.getStatedConcreteDomainMembers().get(conceptId), sequential.getStatedConcreteDomainMembers().get(conceptId), 1);
+			assertSameElements(concurrent.getInferredConcreteDomainMembers().get(conceptId), sequential.getInferredConcreteDomainMembers().get(conceptId), 1);
+		}
+	}
+
+	private ReasonerTaxonomy build(int maxConcurrentScans) {
+		return index().read(MAIN, searcher -> new ReasonerTaxonomyBuilder()
+				.addActiveConceptIds(searcher)
+				.finishConcepts()
+				.addActiveComponents(searcher, true, maxConcurrentScans)
+				.build());
+	}
+
+	private static <T> void assertSameElements(Collection<T> actual, Collection<T> expected, int expectedSize) {
+		assertThat(actual)
+			.usingFieldByFieldElementComparator()
+			.containsExactlyInAnyOrderElementsOf(expected)
+			.hasSize(expectedSize);
+	}
+
+	private SnomedConceptDocument concept(String id, boolean primitive) {
+		return SnomedConceptDocument.builder()
+				.id(id)
+				.active(true)
+				.primitive(primitive)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.exhaustive(false)
+				.iconId(Concepts.ROOT_CONCEPT)
+				.parents(IComponent.ROOT_IDL)
+				.ancestors(PrimitiveSets.newLongSortedSet())
+				.statedParents(IComponent.ROOT_IDL)
+				.statedAncestors(PrimitiveSets.newLongSortedSet())
+				.build();
+	}
+
+	private SnomedRelationshipIndexEntry relationship(String sourceId, String typeId, String destinationId, String characteristicTypeId, int group) {
+		return SnomedRelationshipIndexEntry.builder()
+				.id(Integer.toString(nextRelationshipId++) + "022")
+				.active(true)
+				.group(group)
+				.unionGroup(0)
+				.modifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.typeId(typeId)
+				.sourceId(sourceId)
+				.destinationId(destinationId)
+				.characteristicTypeId(characteristicTypeId)
+				.build();
+	}
+
+	private SnomedRefSetMemberIndexEntry.Builder owlAxiom(String referencedComponentId, String owlExpression) {
+		return SnomedRefSetMemberIndexEntry.builder()
+				.id(UUID.randomUUID().toString())
+				.active(true)
+				.owlExpression(owlExpression)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.referencedComponentId(referencedComponentId)
+				.referencedComponentType(SnomedTerminologyComponentConstants.CONCEPT_NUMBER)
+				.referenceSetId(Concepts.REFSET_OWL_AXIOM)
+				.referenceSetType(SnomedRefSetType.OWL_AXIOM);
+	}
+
+	private SnomedRefSetMemberIndexEntry concreteDomainMember(String referencedComponentId, String characteristicTypeId, String value) {
+		return SnomedRefSetMemberIndexEntry.builder()
+				.id(UUID.randomUUID().toString())
+				.active(true)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.referencedComponentId(referencedComponentId)
+				.referencedComponentType(SnomedTerminologyComponentConstants.CONCEPT_NUMBER)
+				.referenceSetId(Concepts.REFSET_B2I_EXAMPLE)
+				.referenceSetType(SnomedRefSetType.CONCRETE_DATA_TYPE)
+				.field(Fields.DATA_TYPE, DataType.STRING)
+				.field(SnomedRf2Headers.FIELD_VALUE, value)
+				.field(Fields.TYPE_ID, Concepts.FINDING_SITE)
+				.field(Fields.RELATIONSHIP_GROUP, 0)
+				.field(Fields.CHARACTERISTIC_TYPE_ID, characteristicTypeId)
+				.build();
+	}
+
+}
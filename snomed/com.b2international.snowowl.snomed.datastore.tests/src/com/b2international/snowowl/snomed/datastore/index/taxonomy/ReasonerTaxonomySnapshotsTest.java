@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.taxonomy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+
+/**
+ * @since 7.17
+ */
+public class ReasonerTaxonomySnapshotsTest {
+
+	private static final String ROOT = Concepts.ROOT_CONCEPT;
+	private static final String PARENT = "404684003";
+	private static final String CHILD = "64572001";
+	private static final String DEFINED = "73211009";
+
+	@Test
+	public void writeAndReadStatedTaxonomy() throws Exception {
+		final ReasonerTaxonomy taxonomy = createTaxonomy();
+		final ReasonerTaxonomy snapshot = ReasonerTaxonomySnapshots.read(ByteBuffer.wrap(write(taxonomy)));
+
+		final InternalIdMap conceptMap = snapshot.getConceptMap();
+		assertThat(conceptMap.size()).isEqualTo(taxonomy.getConceptMap().size());
+		for (int i = 0; i < conceptMap.size(); i++) {
+			assertThat(conceptMap.getSctId(i)).isEqualTo(taxonomy.getConceptMap().getSctId(i));
+		}
+
+		assertThat(snapshot.getFullySpecifiedNames()).isNull();
+		assertThat(snapshot.getStatedAncestors().getDestinations(DEFINED, false)).containsOnly(PARENT, ROOT);
+		assertThat(snapshot.getStatedDescendants().getDestinations(ROOT, true)).containsOnly(PARENT);
+		assertThat(snapshot.getDefiningConcepts().toLongList().toArray()).containsOnly(Long.parseLong(DEFINED));
+		assertThat(snapshot.getExhaustiveConcepts().isEmpty()).isTrue();
+
+		assertThat(snapshot.getStatedRelationships().get(DEFINED))
+			.usingFieldByFieldElementComparator()
+			.containsExactlyElementsOf(taxonomy.getStatedRelationships().get(DEFINED));
+		assertThat(snapshot.getStatedRelationships().get(ROOT)).isEmpty();
+		assertThat(snapshot.getAxioms().valueStream()).isEmpty();
+		assertThat(snapshot.getPropertyChains()).isEmpty();
+	}
+
+	@Test
+	public void rejectUnknownContent() throws Exception {
+		assertThatThrownBy(() -> ReasonerTaxonomySnapshots.read(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 })))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static ReasonerTaxonomy createTaxonomy() {
+		final ReasonerTaxonomyBuilder builder = new ReasonerTaxonomyBuilder();
+
+		final SnomedConcept definedConcept = concept(DEFINED);
+		definedConcept.setDefinitionStatusId(Concepts.FULLY_DEFINED);
+
+		final List<SnomedConcept> concepts = List.of(concept(ROOT), concept(PARENT), concept(CHILD), definedConcept);
+		builder.addActiveConceptIds(concepts.stream());
+		builder.finishConcepts();
+		builder.addConceptFlags(concepts.stream());
+
+		final SnomedRelationship valueRelationship = relationship("3", DEFINED, "1142135004", null);
+		valueRelationship.setValue("#5");
+
+		final List<SnomedRelationship> relationships = List.of(
+				relationship("1", PARENT, Concepts.IS_A, ROOT),
+				relationship("2", DEFINED, Concepts.IS_A, PARENT),
+				valueRelationship,
+				relationship("4", CHILD, Concepts.IS_A, PARENT));
+
+		builder.addActiveStatedEdges(relationships.stream());
+		builder.addActiveStatedRelationships(relationships.stream());
+
+		return builder.build();
+	}
+
+	private static SnomedConcept concept(final String id) {
+		final SnomedConcept concept = new SnomedConcept(id);
+		concept.setActive(true);
+		concept.setModuleId(Concepts.MODULE_SCT_CORE);
+		concept.setDefinitionStatusId(Concepts.PRIMITIVE);
+		return concept;
+	}
+
+	private static SnomedRelationship relationship(final String id, final String sourceId, final String typeId, final String destinationId) {
+		final SnomedRelationship relationship = new SnomedRelationship(id);
+		relationship.setActive(true);
+		relationship.setModuleId(Concepts.MODULE_SCT_CORE);
+		relationship.setSourceId(sourceId);
+		relationship.setTypeId(typeId);
+		relationship.setDestinationId(destinationId);
+		relationship.setGroup(0);
+		relationship.setUnionGroup(0);
+		relationship.setCharacteristicTypeId(Concepts.STATED_RELATIONSHIP);
+		relationship.setModifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER);
+		return relationship;
+	}
+
+	private static byte[] write(final ReasonerTaxonomy taxonomy) throws Exception {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			ReasonerTaxonomySnapshots.write(taxonomy, out);
+		}
+		return bytes.toByteArray();
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * @since 7.17
+ */
+public class Rf2ComponentEffectiveTimeSetTest {
+
+	private final Rf2ComponentEffectiveTimeSet visited = new Rf2ComponentEffectiveTimeSet();
+
+	@Test
+	public void componentIds() throws Exception {
+		assertThat(visited.add("138875005", "20200131")).isTrue();
+		assertThat(visited.add("138875005", "20200131")).isFalse();
+		assertThat(visited.add("138875005", "20200731")).isTrue();
+		assertThat(visited.add("404684003", "20200131")).isTrue();
+	}
+
+	@Test
+	public void memberIds() throws Exception {
+		assertThat(visited.add("2f0e8f2c-7f4b-4b0a-8d6a-1a2b3c4d5e6f", "20200131")).isTrue();
+		assertThat(visited.add("2f0e8f2c-7f4b-4b0a-8d6a-1a2b3c4d5e6f", "20200131")).isFalse();
+		assertThat(visited.add("2f0e8f2c-7f4b-4b0a-8d6a-1a2b3c4d5e6f", "")).isTrue();
+	}
+
+	@Test
+	public void memberIdsWithSameMostSignificantBits() throws Exception {
+		assertThat(visited.add("2f0e8f2c-7f4b-4b0a-8d6a-1a2b3c4d5e6f", "20200131")).isTrue();
+		assertThat(visited.add("2f0e8f2c-7f4b-4b0a-8d6a-000000000000", "20200131")).isTrue();
+		assertThat(visited.add("2f0e8f2c-7f4b-4b0a-8d6a-000000000000", "20200131")).isFalse();
+		assertThat(visited.add("2f0e8f2c-7f4b-4b0a-8d6a-1a2b3c4d5e6f", "20200131")).isFalse();
+	}
+
+	@Test
+	public void otherIds() throws Exception {
+		assertThat(visited.add("0138875005", "20200131")).isTrue();
+		assertThat(visited.add("138875005", "20200131")).isTrue();
+		assertThat(visited.add("not-an-id", "20200131")).isTrue();
+		assertThat(visited.add("not-an-id", "20200131")).isFalse();
+	}
+
+}
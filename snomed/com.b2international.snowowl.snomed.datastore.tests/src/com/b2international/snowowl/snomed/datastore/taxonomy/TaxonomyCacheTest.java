@@ -0,0 +1,186 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.taxonomy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.revision.RevisionBranch;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.index.revision.StagingArea;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.index.change.BaseChangeProcessorTest;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedOWLRelationshipDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.snomed.datastore.request.SnomedOWLExpressionConverter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+/**
+ * @since 7.17
+ */
+public class TaxonomyCacheTest extends BaseChangeProcessorTest {
+
+	private final TaxonomyCache cache = new TaxonomyCache(10);
+	private final LongSet conceptIds = PrimitiveSets.newLongOpenHashSet();
+
+	private SnomedConceptDocument concept1;
+	private SnomedConceptDocument concept2;
+	private SnomedConceptDocument concept3;
+	private SnomedRelationshipIndexEntry statedIsa1;
+	private SnomedRelationshipIndexEntry inferredIsa1;
+	private SnomedRelationshipIndexEntry statedIsa2;
+	private SnomedRelationshipIndexEntry inferredIsa2;
+
+	@Before
+	public void init() {
+		cache.attach(index());
+
+		concept1 = concept().build();
+		concept2 = concept().build();
+		concept3 = concept().build();
+		statedIsa1 = createStatedRelationship(concept1.getId(), Concepts.IS_A, Concepts.ROOT_CONCEPT);
+		inferredIsa1 = createInferredRelationship(concept1.getId(), Concepts.IS_A, Concepts.ROOT_CONCEPT);
+		statedIsa2 = createStatedRelationship(concept2.getId(), Concepts.IS_A, concept1.getId());
+		inferredIsa2 = createInferredRelationship(concept2.getId(), Concepts.IS_A, concept1.getId());
+
+		conceptIds.add(ROOT_CONCEPTL);
+		conceptIds.add(Long.parseLong(concept1.getId()));
+		conceptIds.add(Long.parseLong(concept2.getId()));
+		conceptIds.add(Long.parseLong(concept3.getId()));
+
+		initRevisions(concept(Concepts.ROOT_CONCEPT).build(), concept1, concept2, concept3, statedIsa1, inferredIsa1);
+		
+		// a single commit needing the statements does not load them
+		commitWithCache(MAIN, staging -> staging.stageNew(statedIsa2));
+		cache.awaitLoads();
+		assertNotCached(MAIN);
+		
+		// the second one loads them in the background
+		commitWithCache(MAIN, staging -> staging.stageNew(inferredIsa2));
+		cache.awaitLoads();
+		assertCachedEqualsIndexed(MAIN);
+	}
+
+	@After
+	public void detach() {
+		index().hooks().removeHook(cache);
+	}
+
+	@Test
+	public void addRelationships() throws Exception {
+		commitWithCache(MAIN, staging -> {
+			staging.stageNew(createStatedRelationship(concept3.getId(), Concepts.IS_A, concept2.getId()));
+			staging.stageNew(createInferredRelationship(concept3.getId(), Concepts.IS_A, concept1.getId()));
+		});
+		assertCachedEqualsIndexed(MAIN);
+	}
+
+	@Test
+	public void removeRelationships() throws Exception {
+		commitWithCache(MAIN, staging -> {
+			staging.stageRemove(statedIsa2);
+			staging.stageRemove(inferredIsa1);
+		});
+		assertCachedEqualsIndexed(MAIN);
+	}
+
+	@Test
+	public void inactivateRelationship() throws Exception {
+		commitWithCache(MAIN, staging -> {
+			staging.stageChange(statedIsa1, SnomedRelationshipIndexEntry.builder(statedIsa1).active(false).build());
+		});
+		assertCachedEqualsIndexed(MAIN);
+	}
+
+	@Test
+	public void addAxiom() throws Exception {
+		commitWithCache(MAIN, staging -> {
+			staging.stageNew(createOwlAxiom(concept3.getId(), String.format("SubClassOf(:%s :%s)", concept3.getId(), concept2.getId()))
+					.classAxiomRelationships(ImmutableList.of(SnomedOWLRelationshipDocument.create(Concepts.IS_A, concept2.getId(), 0)))
+					.build());
+		});
+		// statements of OWL axioms are returned with the UUID of their member
+		assertCachedEqualsIndexed(MAIN);
+	}
+
+	@Test
+	public void childBranchSharesParentStatements() throws Exception {
+		final String child = createBranch(MAIN, "a");
+		assertCachedEqualsIndexed(child);
+
+		// changes on either branch should not be visible on the other one
+		commitWithCache(child, staging -> staging.stageRemove(statedIsa2));
+		commitWithCache(MAIN, staging -> staging.stageNew(createStatedRelationship(concept3.getId(), Concepts.IS_A, concept1.getId())));
+		commitWithCache(child, staging -> staging.stageChange(statedIsa1, SnomedRelationshipIndexEntry.builder(statedIsa1).active(false).build()));
+
+		assertCachedEqualsIndexed(child);
+		assertCachedEqualsIndexed(MAIN);
+	}
+
+	private void commitWithCache(String branchPath, Consumer<StagingArea> changes) {
+		final StagingArea staging = index().prepareCommit(branchPath);
+		changes.accept(staging);
+		index().read(branchPath, searcher -> {
+			final SnomedOWLExpressionConverter expressionConverter = new SnomedOWLExpressionConverter(context().inject().bind(RevisionSearcher.class, searcher).build());
+			Taxonomies.inferred(searcher, expressionConverter, staging, conceptIds, true, cache);
+			Taxonomies.stated(searcher, expressionConverter, staging, conceptIds, true, cache);
+			return null;
+		});
+		staging.commit(currentTime(), USER_ID, "Commit");
+	}
+
+	private void assertNotCached(String branchPath) {
+		index().read(branchPath, searcher -> {
+			final RevisionBranch branch = searcher.get(RevisionBranch.class, branchPath);
+			for (String characteristicTypeId : new String[] { Concepts.STATED_RELATIONSHIP, Concepts.INFERRED_RELATIONSHIP }) {
+				assertThat(cache.getStatements(searcher, branch, characteristicTypeId, conceptIds)).isNull();
+			}
+			return null;
+		});
+	}
+
+	private void assertCachedEqualsIndexed(String branchPath) {
+		index().read(branchPath, searcher -> {
+			final RevisionBranch branch = searcher.get(RevisionBranch.class, branchPath);
+			for (String characteristicTypeId : new String[] { Concepts.STATED_RELATIONSHIP, Concepts.INFERRED_RELATIONSHIP }) {
+				final Collection<Object[]> cached = cache.getStatements(searcher, branch, characteristicTypeId, conceptIds);
+				assertThat(cached).isNotNull();
+				assertThat(toEdges(cached)).isEqualTo(toEdges(Taxonomies.getAllStatements(searcher, characteristicTypeId)));
+			}
+			return null;
+		});
+	}
+
+	private static Map<String, Edges> toEdges(Collection<Object[]> statements) {
+		final Map<String, Edges> edges = Maps.newHashMap();
+		for (Object[] statement : statements) {
+			edges.put((String) statement[0], new Edges((long) statement[1], ((long[]) statement[2]).clone()));
+		}
+		return edges;
+	}
+
+}
@@ -23,6 +23,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.eclipse.xtext.parser.IParser;
 import org.eclipse.xtext.serializer.ISerializer;
@@ -30,10 +33,17 @@ import org.eclipse.xtext.validation.IResourceValidator;
 import org.junit.Test;
 
 import com.b2international.snowowl.core.ComponentIdentifier;
+import com.b2international.snowowl.core.internal.validation.ValidationPoint;
+import com.b2international.snowowl.core.request.RevisionIndexReadRequest;
+import com.b2international.snowowl.core.uri.CodeSystemURI;
+import com.b2international.snowowl.core.validation.ValidateRequestBuilder;
 import com.b2international.snowowl.core.validation.ValidationRequests;
 import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
+import com.b2international.snowowl.core.validation.issue.ValidationIssue;
 import com.b2international.snowowl.core.validation.issue.ValidationIssues;
+import com.b2international.snowowl.core.validation.rule.ValidationRule;
 import com.b2international.snowowl.core.validation.rule.ValidationRule.Severity;
+import com.b2international.snowowl.core.validation.whitelist.ValidationWhiteList;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
 import com.b2international.snowowl.snomed.core.ecl.DefaultEclParser;
@@ -63,6 +73,8 @@ public class SnomedQueryValidationRuleEvaluatorTest extends BaseValidationTest {
 	
 	private SnomedQueryValidationRuleEvaluator evaluator;
 	
+	private boolean incremental;
+	
 	@Override
 	protected Collection<Class<?>> getAdditionalTypes() {
 		return List.of(
@@ -85,6 +97,12 @@ public class SnomedQueryValidationRuleEvaluatorTest extends BaseValidationTest {
 		}
 	}
 	
+	@Override
+	protected void configureValidationRequest(ValidateRequestBuilder req) {
+		super.configureValidationRequest(req);
+		req.setIncremental(incremental);
+	}
+	
 	@Override
 	protected Map<String, String> getTestCodeSystemPathMap() {
 		return Map.of(SnomedTerminologyComponentConstants.SNOMED_SHORT_NAME, MAIN);
@@ -222,12 +240,149 @@ public class SnomedQueryValidationRuleEvaluatorTest extends BaseValidationTest {
 		assertThat(issues.getItems().get(0).getAffectedComponent()).isEqualTo(ComponentIdentifier.of(SnomedTerminologyComponentConstants.DESCRIPTION_NUMBER, description1));
 	}
 	
+	@Test
+	public void conceptRuleComponentScopedChangedComponentsOnly() throws Exception {
+		final String concept1 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept2 = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, 
+			concept(concept1).build(),
+			concept(concept2).build()
+		);
+		
+		final Map<String, Object> ruleQuery = ImmutableMap.<String, Object>builder()
+				.put("componentType", "concept")
+				.put("active", true)
+				.put("componentScoped", true)
+				.build();
+		
+		final ValidationRule rule = ValidationRequests.rules().prepareGet(createSnomedQueryRule(ruleQuery)).build().execute(context());
+		assertThat(evaluator.isComponentScoped(context(), rule)).isTrue();
+		
+		final List<?> issues = new RevisionIndexReadRequest<List<?>>(context -> {
+			try {
+				return evaluator.eval(context, rule, Map.of(), Set.of(concept2));
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}).execute(context());
+		
+		assertThat(issues).containsOnly(ComponentIdentifier.of(SnomedTerminologyComponentConstants.CONCEPT_NUMBER, concept2));
+	}
+	
+	@Test
+	public void incrementalValidationEqualsFullValidation() throws Exception {
+		final String concept1 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept2 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept3 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept4 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final SnomedConceptDocument activeConcept = concept(concept2).build();
+		final SnomedConceptDocument inactiveConcept = concept(concept3).active(false).build();
+		indexRevision(MAIN, concept(concept1).build(), activeConcept, inactiveConcept);
+		
+		final Map<String, Object> ruleQuery = ImmutableMap.<String, Object>builder()
+				.put("componentType", "concept")
+				.put("active", true)
+				.put("componentScoped", true)
+				.build();
+		
+		final String ruleId = createSnomedQueryRule(ruleQuery);
+		
+		// the first incremental run has no validation point to start from, so it evaluates the rule on the entire branch
+		incremental = true;
+		assertAffectedComponents(validate(ruleId), conceptIdentifier(concept1), conceptIdentifier(concept2));
+		assertThat(getValidationPoint(ruleId).getHeadTimestamp()).isEqualTo(getBranch(MAIN).getHeadTimestamp());
+		
+		// nothing changed since the last run, the existing issues are kept
+		assertAffectedComponents(validate(ruleId), conceptIdentifier(concept1), conceptIdentifier(concept2));
+		
+		indexChange(MAIN, activeConcept, SnomedConceptDocument.builder(activeConcept).active(false).build());
+		indexChange(MAIN, inactiveConcept, SnomedConceptDocument.builder(inactiveConcept).active(true).build());
+		indexRevision(MAIN, concept(concept4).build());
+		
+		final ValidationIssues incrementalIssues = validate(ruleId);
+		assertThat(getValidationPoint(ruleId).getHeadTimestamp()).isEqualTo(getBranch(MAIN).getHeadTimestamp());
+		
+		incremental = false;
+		final ValidationIssues fullIssues = validate(ruleId);
+		assertAffectedComponents(fullIssues, conceptIdentifier(concept1), conceptIdentifier(concept3), conceptIdentifier(concept4));
+		assertAffectedComponents(incrementalIssues, fullIssues.stream().map(ValidationIssue::getAffectedComponent).collect(Collectors.toSet()));
+	}
+	
+	@Test
+	public void incrementalValidationRefreshesWhitelistFlags() throws Exception {
+		final String concept1 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept2 = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, concept(concept1).build(), concept(concept2).build());
+		
+		final Map<String, Object> ruleQuery = ImmutableMap.<String, Object>builder()
+				.put("componentType", "concept")
+				.put("active", true)
+				.put("componentScoped", true)
+				.build();
+		
+		final String ruleId = createSnomedQueryRule(ruleQuery);
+		
+		incremental = true;
+		assertThat(validate(ruleId)).noneMatch(ValidationIssue::isWhitelisted);
+		
+		// index the whitelist entry directly, so the flag of the already persisted issue is not updated along with it
+		final String whiteListId = UUID.randomUUID().toString();
+		indexDocument(whiteListId, new ValidationWhiteList(whiteListId, ruleId, "test", System.currentTimeMillis(), conceptIdentifier(concept1), List.of()));
+		
+		// nothing changed on the branch, the issue of concept1 is outside of the incremental scope
+		final ValidationIssues issues = validate(ruleId);
+		assertAffectedComponents(issues, conceptIdentifier(concept1), conceptIdentifier(concept2));
+		assertThat(issues.stream().filter(ValidationIssue::isWhitelisted).map(ValidationIssue::getAffectedComponent)).containsOnly(conceptIdentifier(concept1));
+		
+		rawIndex().write(writer -> {
+			writer.removeAll(Map.of(ValidationWhiteList.class, Set.of(whiteListId)));
+			writer.commit();
+			return null;
+		});
+		
+		assertThat(validate(ruleId)).noneMatch(ValidationIssue::isWhitelisted);
+	}
+	
+	@Test(timeout = 60_000L)
+	public void failedRuleDoesNotPreventPersistingOtherRules() throws Exception {
+		final String concept1 = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, concept(concept1).build());
+		
+		final Map<String, Object> ruleQuery = ImmutableMap.<String, Object>builder()
+				.put("componentType", "concept")
+				.put("ecl", concept1)
+				.build();
+		
+		final String ruleId = createSnomedQueryRule(ruleQuery);
+		// the implementation of this rule can not be read, its evaluation fails
+		final String failingRuleId = createSnomedQueryRule("{ \"componentType\": ");
+		
+		// validate runs every rule and has to return even though one of them failed
+		assertAffectedComponents(validate(ruleId), conceptIdentifier(concept1));
+		assertThat(ValidationRequests.issues().prepareSearch().all().filterByRule(failingRuleId).build().execute(context())).isEmpty();
+	}
+	
+	private ValidationPoint getValidationPoint(final String ruleId) {
+		final String validationPointId = ValidationPoint.toId(new CodeSystemURI(SnomedTerminologyComponentConstants.SNOMED_SHORT_NAME).toString(), ruleId);
+		final ValidationPoint validationPoint = rawIndex().read(searcher -> searcher.get(ValidationPoint.class, validationPointId));
+		assertThat(validationPoint).isNotNull();
+		return validationPoint;
+	}
+	
+	private static ComponentIdentifier conceptIdentifier(final String conceptId) {
+		return ComponentIdentifier.of(SnomedTerminologyComponentConstants.CONCEPT_NUMBER, conceptId);
+	}
+	
 	private String createSnomedQueryRule(final Map<String, Object> ruleQuery) throws JsonProcessingException {
+		return createSnomedQueryRule(context().service(ObjectMapper.class).writeValueAsString(ruleQuery));
+	}
+	
+	private String createSnomedQueryRule(final String implementation) {
 		return ValidationRequests.rules().prepareCreate()
 			.setType(evaluator.type())
 			.setMessageTemplate("Error")
 			.setSeverity(Severity.ERROR)
-			.setImplementation(context().service(ObjectMapper.class).writeValueAsString(ruleQuery))
+			.setImplementation(implementation)
 			.setToolingId(SnomedTerminologyComponentConstants.TERMINOLOGY_ID)
 			.build()
 			.execute(context());
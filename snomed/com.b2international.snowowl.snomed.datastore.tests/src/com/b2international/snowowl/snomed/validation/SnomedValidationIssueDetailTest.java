@@ -43,6 +43,7 @@ import com.b2international.snowowl.core.branch.Branch;
 import com.b2international.snowowl.core.date.EffectiveTimes;
 import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.id.IDs;
+import com.b2international.snowowl.core.internal.validation.ValidationPoint;
 import com.b2international.snowowl.core.internal.validation.ValidationRepository;
 import com.b2international.snowowl.core.internal.validation.ValidationThreadPool;
 import com.b2international.snowowl.core.plugin.ClassPathScanner;
@@ -105,7 +106,7 @@ public class SnomedValidationIssueDetailTest extends BaseRevisionIndexTest {
 	
 	@Before
 	public void setup() {
-		final Index index = Indexes.createIndex(UUID.randomUUID().toString(), getMapper(), new Mappings(ValidationRule.class, ValidationIssue.class, ValidationWhiteList.class));
+		final Index index = Indexes.createIndex(UUID.randomUUID().toString(), getMapper(), new Mappings(ValidationRule.class, ValidationIssue.class, ValidationWhiteList.class, ValidationPoint.class));
 		repository = new ValidationRepository(index);
 		ClassPathScanner scanner = new ClassPathScanner("com.b2international");
 		context = TestBranchContext.on(MAIN)
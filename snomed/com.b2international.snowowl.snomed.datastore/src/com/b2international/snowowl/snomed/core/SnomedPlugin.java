@@ -23,8 +23,10 @@ import org.eclipse.xtext.validation.IResourceValidator;
 import org.slf4j.Logger;
 
 import com.b2international.index.revision.Hooks.PreCommitHook;
+import com.b2international.index.revision.RevisionIndex;
 import com.b2international.snomed.ecl.EclStandaloneSetup;
 import com.b2international.snomed.ql.QLStandaloneSetup;
+import com.b2international.snowowl.core.RepositoryManager;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.codesystem.version.VersioningRequestBuilder;
 import com.b2international.snowowl.core.config.SnowOwlConfiguration;
@@ -52,7 +54,9 @@ import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetM
 import com.b2international.snowowl.snomed.core.ecl.DefaultEclParser;
 import com.b2international.snowowl.snomed.core.ecl.DefaultEclSerializer;
 import com.b2international.snowowl.snomed.core.ecl.EclParser;
+import com.b2international.snowowl.snomed.core.ecl.EclResultCache;
 import com.b2international.snowowl.snomed.core.ecl.EclSerializer;
+import com.b2international.snowowl.snomed.core.ecl.SnomedEclHierarchyCache;
 import com.b2international.snowowl.snomed.core.merge.SnomedComponentRevisionConflictProcessor;
 import com.b2international.snowowl.snomed.core.mrcm.io.MrcmExporter;
 import com.b2international.snowowl.snomed.core.mrcm.io.MrcmExporterImpl;
@@ -75,16 +79,21 @@ import com.b2international.snowowl.snomed.datastore.request.SnomedConceptMapSear
 import com.b2international.snowowl.snomed.datastore.request.SnomedMemberSearchRequestEvaluator;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.b2international.snowowl.snomed.datastore.request.Synonyms;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyCache;
 import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEvaluator;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Injector;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * @since 7.0
  */
 @Component
 public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 
+	private TaxonomyCache taxonomyCache;
+
 	@Override
 	public void addConfigurations(ConfigurationRegistry registry) {
 		registry.add("snomed", SnomedCoreConfiguration.class);
@@ -95,6 +104,15 @@ public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 		final SnomedCoreConfiguration coreConfig = configuration.getModuleConfig(SnomedCoreConfiguration.class);
 		env.services().registerService(SnomedCoreConfiguration.class, coreConfig);
 		
+		// IS A statements are cached for commits processed on the server only
+		if (env.isServer() && coreConfig.getMaxCachedTaxonomies() > 0) {
+			taxonomyCache = new TaxonomyCache(coreConfig.getMaxCachedTaxonomies());
+		}
+		
+		if (coreConfig.getMaxCachedEclHierarchies() > 0) {
+			env.services().registerService(SnomedEclHierarchyCache.class, new SnomedEclHierarchyCache(coreConfig.getMaxCachedEclHierarchies()));
+		}
+		
 		final Injector injector = new EclStandaloneSetup().createInjectorAndDoEMFRegistration();
 		env.services().registerService(EclParser.class, new DefaultEclParser(injector.getInstance(IParser.class), injector.getInstance(IResourceValidator.class)));
 		env.services().registerService(EclSerializer.class, new DefaultEclSerializer(injector.getInstance(ISerializer.class)));
@@ -109,8 +127,15 @@ public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 	
 	@Override
 	public void preRun(SnowOwlConfiguration configuration, Environment env) throws Exception {
-		// initialize MRCM Import-Export API
 		if (env.isServer()) {
+			final SnomedCoreConfiguration coreConfig = configuration.getModuleConfig(SnomedCoreConfiguration.class);
+			if (coreConfig.getMaxCachedEclResults() > 0) {
+				final EclResultCache eclResultCache = new EclResultCache(coreConfig.getMaxCachedEclResults());
+				eclResultCache.bindTo(env.service(MeterRegistry.class));
+				env.services().registerService(EclResultCache.class, eclResultCache);
+			}
+			
+			// initialize MRCM Import-Export API
 			env.services().registerService(MrcmExporter.class, new MrcmExporterImpl(env.provider(IEventBus.class)));
 			RpcUtil.getInitialServerSession(env.container()).registerClassLoader(MrcmExporter.class, MrcmExporterImpl.class.getClassLoader());
 			env.services().registerService(MrcmImporter.class, new MrcmJsonImporter(env.provider(IEventBus.class)));
@@ -121,6 +146,16 @@ public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 		}
 	}
 	
+	@Override
+	protected void afterRun(SnowOwlConfiguration configuration, Environment env) throws Exception {
+		if (taxonomyCache != null) {
+			// move cached IS A statements forward after each successful commit
+			taxonomyCache.attach(env.service(RepositoryManager.class)
+				.get(getRepositoryId())
+				.service(RevisionIndex.class));
+		}
+	}
+	
 	@Override
 	protected ContentAvailabilityInfoProvider getContentAvailabilityInfoProvider() {
 		return context -> {
@@ -217,7 +252,7 @@ public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 	
 	@Override
 	protected PreCommitHook getTerminologyRepositoryPreCommitHook(Logger log) {
-		return new SnomedRepositoryPreCommitHook(log);
+		return new SnomedRepositoryPreCommitHook(log, taxonomyCache);
 	}
 	
 	@Override
@@ -20,11 +20,14 @@ import static com.google.common.collect.Sets.newHashSet;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
 import com.b2international.commons.options.Options;
 import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
@@ -72,6 +75,7 @@ public final class EclExpression {
 	@NotNull
 	private final String expressionForm;
 	
+	private ExpressionConstraint parsedExpressionConstraint;
 	private Promise<Set<String>> promise;
 	private Promise<Expression> expressionPromise;
 	private Promise<SnomedConcepts> conceptPromise;
@@ -103,8 +107,27 @@ public final class EclExpression {
 	
 	public Promise<Set<String>> resolve(final BranchContext context) {
 		if (promise == null) {
-			RevisionSearcher searcher = context.service(RevisionSearcher.class);
-			promise = resolveToExpression(context)
+			final Optional<EclResultCache> cache = context.optionalService(EclResultCache.class);
+			final ExpressionConstraint constraint = cache.isPresent() ? getExpressionConstraint(context) : null;
+			if (constraint != null) {
+				// serialize a copy without the parser's node model, so differences in whitespace and comments do not result in different keys
+				final String cacheKey = context.service(EclSerializer.class).serialize(EcoreUtil.copy(constraint));
+				final Set<String> cachedIds = cache.get().get(context, expressionForm, cacheKey);
+				if (cachedIds != null) {
+					promise = Promise.immediate(cachedIds);
+				} else {
+					promise = resolveIds(context).then(ids -> cache.get().put(context, expressionForm, cacheKey, ids));
+				}
+			} else {
+				promise = resolveIds(context);
+			}
+		}
+		return promise;
+	}
+	
+	private Promise<Set<String>> resolveIds(final BranchContext context) {
+		RevisionSearcher searcher = context.service(RevisionSearcher.class);
+		return resolveToExpression(context)
 				.then(expression -> {
 					// shortcut to extract IDs from the query itself if possible 
 					if (SnomedEclEvaluationRequest.canExtractIds(expression)) {
@@ -122,8 +145,6 @@ public final class EclExpression {
 						throw new SnowowlRuntimeException(e);
 					}
 				});
-		}
-		return promise;
 	}
 	
 	public Promise<SnomedConcepts> resolveConcepts(final BranchContext context) {
@@ -147,16 +168,21 @@ public final class EclExpression {
 		if (expressionPromise == null) {
 			SnomedEclEvaluationRequest req = new SnomedEclEvaluationRequest();
 			req.setExpressionForm(expressionForm);
-			if (ecl != null) {
-				req.setExpression(ecl);
-				expressionPromise = req.execute(context);
-			} else {
-				expressionPromise = req.doEval(context, expressionConstraint);				
-			}
+			expressionPromise = req.doEval(context, getExpressionConstraint(context));
 		}
 		return expressionPromise;
 	}
 	
+	private ExpressionConstraint getExpressionConstraint(final BranchContext context) {
+		if (expressionConstraint != null) {
+			return expressionConstraint;
+		}
+		if (parsedExpressionConstraint == null) {
+			parsedExpressionConstraint = context.service(EclParser.class).parse(ecl);
+		}
+		return parsedExpressionConstraint;
+	}
+	
 	public static EclExpression of(String ecl, String expressionForm) {
 		return new EclExpression(ecl, null, expressionForm);
 	}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import java.util.Set;
+
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Caches the concept ID sets of evaluated ECL expressions. Entries are keyed by the branch path, the head timestamp of the branch, the expression
+ * form and the normalized (parsed and serialized) ECL expression, so they remain valid until the next commit on the branch.
+ * <p>
+ * The size of the cache is limited by the total number of cached concept IDs.
+ *
+ * @since 7.17
+ */
+public final class EclResultCache {
+
+	private static final String CACHE_NAME = "ecl.results";
+
+	private final Cache<String, Set<String>> results;
+
+	public EclResultCache(long maxConceptIds) {
+		this.results = CacheBuilder.newBuilder()
+				.maximumWeight(maxConceptIds)
+				.weigher((String key, Set<String> ids) -> ids.size() + 1)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Registers hit, miss, eviction and size metrics of this cache in the given {@link MeterRegistry}.
+	 *
+	 * @param registry
+	 */
+	public void bindTo(MeterRegistry registry) {
+		GuavaCacheMetrics.monitor(registry, results, CACHE_NAME);
+	}
+
+	Set<String> get(BranchContext context, String expressionForm, String ecl) {
+		return results.getIfPresent(toKey(context, expressionForm, ecl));
+	}
+
+	Set<String> put(BranchContext context, String expressionForm, String ecl, Set<String> ids) {
+		final Set<String> immutableIds = ImmutableSet.copyOf(ids);
+		results.put(toKey(context, expressionForm, ecl), immutableIds);
+		return immutableIds;
+	}
+
+	/**
+	 * Drops all cached results.
+	 */
+	public void invalidateAll() {
+		results.invalidateAll();
+	}
+
+	private static String toKey(BranchContext context, String expressionForm, String ecl) {
+		return String.join("#", context.path(), Long.toString(context.branch().headTimestamp()), expressionForm, ecl);
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import static com.b2international.snowowl.snomed.core.ecl.EclExpression.isAnyExpression;
+import static com.b2international.snowowl.snomed.core.ecl.EclExpression.isEclConceptReference;
+
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.util.PolymorphicDispatcher;
+
+import com.b2international.snomed.ecl.ecl.*;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.util.Promise;
+
+/**
+ * Evaluates ECL hierarchy (<code>&lt;, &lt;&lt;, &lt;!, &lt;&lt;!, &gt;, &gt;&gt;, &gt;!, &gt;&gt;!</code>) and set (<code>AND, OR, MINUS</code>)
+ * operators on {@link BitSet}s over a {@link SnomedEclHierarchy}. Any other constraint (member of, refinements, dotted attributes, filters) is
+ * evaluated by the index and its result is converted to a {@link BitSet}.
+ *
+ * @since 7.17
+ */
+final class SnomedEclBitmapEvaluator {
+
+	private final PolymorphicDispatcher<Promise<BitSet>> dispatcher = PolymorphicDispatcher.createForSingleTarget("eval", 2, 2, this);
+
+	private final SnomedEclHierarchy hierarchy;
+	private final String expressionForm;
+
+	SnomedEclBitmapEvaluator(SnomedEclHierarchy hierarchy, String expressionForm) {
+		this.hierarchy = hierarchy;
+		this.expressionForm = expressionForm;
+	}
+
+	/**
+	 * Decides whether it is worth evaluating the given expression in memory. Hierarchy operators on a single concept (or any concept) and
+	 * boolean expressions without hierarchy operators are cheaper to express as a single index query, every other hierarchy and set operator
+	 * expression is evaluated in memory.
+	 *
+	 * @param expression - the expression to check
+	 * @return
+	 */
+	static boolean canEvaluate(EObject expression) {
+		if (expression instanceof DescendantOf
+				|| expression instanceof DescendantOrSelfOf
+				|| expression instanceof ChildOf
+				|| expression instanceof ChildOrSelfOf) {
+			final ExpressionConstraint inner = getInnerConstraint(expression);
+			return !isAnyExpression(inner) && !isEclConceptReference(inner);
+		} else if (expression instanceof ParentOf
+				|| expression instanceof ParentOrSelfOf
+				|| expression instanceof AncestorOf
+				|| expression instanceof AncestorOrSelfOf) {
+			// ancestor operators would need to load the matching concepts otherwise
+			return !isAnyExpression(getInnerConstraint(expression));
+		} else if (expression instanceof AndExpressionConstraint
+				|| expression instanceof OrExpressionConstraint
+				|| expression instanceof ExclusionExpressionConstraint) {
+			final TreeIterator<EObject> it = expression.eAllContents();
+			while (it.hasNext()) {
+				final EObject content = it.next();
+				if (isHierarchyOperator(content)) {
+					return true;
+				} else if (!isSetOperand(content)) {
+					it.prune();
+				}
+			}
+			return false;
+		} else {
+			return false;
+		}
+	}
+
+	private static boolean isHierarchyOperator(EObject expression) {
+		return expression instanceof DescendantOf
+				|| expression instanceof DescendantOrSelfOf
+				|| expression instanceof ChildOf
+				|| expression instanceof ChildOrSelfOf
+				|| expression instanceof ParentOf
+				|| expression instanceof ParentOrSelfOf
+				|| expression instanceof AncestorOf
+				|| expression instanceof AncestorOrSelfOf;
+	}
+
+	private static boolean isSetOperand(EObject expression) {
+		return expression instanceof AndExpressionConstraint
+				|| expression instanceof OrExpressionConstraint
+				|| expression instanceof ExclusionExpressionConstraint
+				|| expression instanceof NestedExpression;
+	}
+
+	private static ExpressionConstraint getInnerConstraint(EObject expression) {
+		if (expression instanceof DescendantOf) {
+			return ((DescendantOf) expression).getConstraint();
+		} else if (expression instanceof DescendantOrSelfOf) {
+			return ((DescendantOrSelfOf) expression).getConstraint();
+		} else if (expression instanceof ChildOf) {
+			return ((ChildOf) expression).getConstraint();
+		} else if (expression instanceof ChildOrSelfOf) {
+			return ((ChildOrSelfOf) expression).getConstraint();
+		} else if (expression instanceof ParentOf) {
+			return ((ParentOf) expression).getConstraint();
+		} else if (expression instanceof ParentOrSelfOf) {
+			return ((ParentOrSelfOf) expression).getConstraint();
+		} else if (expression instanceof AncestorOf) {
+			return ((AncestorOf) expression).getConstraint();
+		} else if (expression instanceof AncestorOrSelfOf) {
+			return ((AncestorOrSelfOf) expression).getConstraint();
+		} else {
+			throw new IllegalArgumentException("Not a hierarchy operator: " + expression);
+		}
+	}
+
+	Promise<BitSet> evaluate(BranchContext context, EObject expression) {
+		try {
+			return dispatcher.invoke(context, expression);
+		} catch (SnomedEclHierarchy.UnknownConceptException e) {
+			// report unknown concept references the same way as unknown IDs in index results
+			return Promise.fail(e);
+		}
+	}
+
+	/**
+	 * Falls back to index based evaluation for constraints without an in-memory implementation.
+	 */
+	protected Promise<BitSet> eval(BranchContext context, EObject eObject) {
+		if (eObject instanceof ExpressionConstraint) {
+			return EclExpression.of((ExpressionConstraint) eObject, expressionForm)
+					.resolve(context)
+					.then(hierarchy::toBitSet);
+		} else {
+			return SnomedEclEvaluationRequest.throwUnsupported(eObject);
+		}
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, Any any) {
+		return Promise.immediate(hierarchy.all());
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, EclConceptReference concept) {
+		return Promise.immediate(hierarchy.toBitSet(Collections.singleton(concept.getId())));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, NestedExpression nested) {
+		return evaluate(context, nested.getNested());
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, DescendantOf descendantOf) {
+		// <* matches everything, except the root concept
+		if (isAnyExpression(descendantOf.getConstraint())) {
+			return Promise.immediate(hierarchy.allExceptRoot());
+		}
+		return evaluate(context, descendantOf.getConstraint()).then(concepts -> hierarchy.descendants(concepts, false, false));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, DescendantOrSelfOf descendantOrSelfOf) {
+		return evaluate(context, descendantOrSelfOf.getConstraint()).then(concepts -> hierarchy.descendants(concepts, true, false));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, ChildOf childOf) {
+		// <!* matches everything, except the root concept
+		if (isAnyExpression(childOf.getConstraint())) {
+			return Promise.immediate(hierarchy.allExceptRoot());
+		}
+		return evaluate(context, childOf.getConstraint()).then(concepts -> hierarchy.descendants(concepts, false, true));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, ChildOrSelfOf childOrSelfOf) {
+		return evaluate(context, childOrSelfOf.getConstraint()).then(concepts -> hierarchy.descendants(concepts, true, true));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, ParentOf parentOf) {
+		return evaluate(context, parentOf.getConstraint()).then(concepts -> hierarchy.ancestors(concepts, false, true));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, ParentOrSelfOf parentOrSelfOf) {
+		return evaluate(context, parentOrSelfOf.getConstraint()).then(concepts -> hierarchy.ancestors(concepts, true, true));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, AncestorOf ancestorOf) {
+		return evaluate(context, ancestorOf.getConstraint()).then(concepts -> hierarchy.ancestors(concepts, false, false));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, AncestorOrSelfOf ancestorOrSelfOf) {
+		return evaluate(context, ancestorOrSelfOf.getConstraint()).then(concepts -> hierarchy.ancestors(concepts, true, false));
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, AndExpressionConstraint and) {
+		return Promise.all(evaluate(context, and.getLeft()), evaluate(context, and.getRight()))
+				.then(results -> {
+					final BitSet left = (BitSet) results.get(0);
+					final BitSet right = (BitSet) results.get(1);
+					left.and(right);
+					return left;
+				});
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, OrExpressionConstraint or) {
+		return Promise.all(evaluate(context, or.getLeft()), evaluate(context, or.getRight()))
+				.then(results -> {
+					final BitSet left = (BitSet) results.get(0);
+					final BitSet right = (BitSet) results.get(1);
+					left.or(right);
+					return left;
+				});
+	}
+
+	protected Promise<BitSet> eval(BranchContext context, ExclusionExpressionConstraint exclusion) {
+		return Promise.all(evaluate(context, exclusion.getLeft()), evaluate(context, exclusion.getRight()))
+				.then(results -> {
+					final BitSet left = (BitSet) results.get(0);
+					final BitSet right = (BitSet) results.get(1);
+					left.andNot(right);
+					return left;
+				});
+	}
+
+}
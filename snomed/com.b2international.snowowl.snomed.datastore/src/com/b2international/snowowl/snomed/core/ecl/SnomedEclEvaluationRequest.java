@@ -26,6 +26,7 @@ import static com.google.common.collect.Sets.newHashSet;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -96,6 +97,22 @@ final class SnomedEclEvaluationRequest implements Request<BranchContext, Promise
 	}
 	
 	private Promise<Expression> evaluate(BranchContext context, EObject expression) {
+		final Optional<SnomedEclHierarchyCache> hierarchies = context.optionalService(SnomedEclHierarchyCache.class);
+		if (hierarchies.isPresent() && hierarchies.get().canServe(context) && SnomedEclBitmapEvaluator.canEvaluate(expression)) {
+			// answer hierarchy and set operators in memory, when enabled and the request reads the head of the branch
+			final SnomedEclHierarchy hierarchy = hierarchies.get().get(context, expressionForm);
+			return new SnomedEclBitmapEvaluator(hierarchy, expressionForm)
+					.evaluate(context, expression)
+					.then(hierarchy::toIds)
+					.then(matchIdsOrNone())
+					.failWith(e -> {
+						// operands referring to IDs outside of the hierarchy are evaluated by the index
+						if (e instanceof SnomedEclHierarchy.UnknownConceptException) {
+							return dispatcher.invoke(context, expression);
+						}
+						return Promise.fail(e);
+					});
+		}
 		return dispatcher.invoke(context, expression);
 	}
 
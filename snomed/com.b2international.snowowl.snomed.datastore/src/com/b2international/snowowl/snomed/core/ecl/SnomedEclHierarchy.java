@@ -0,0 +1,451 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
+import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.longs.LongCollection;
+import com.b2international.collections.longs.LongList;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.commons.collect.LongSets;
+import com.b2international.index.Hits;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.tree.Trees;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.taxonomy.Taxonomies;
+
+/**
+ * In-memory representation of the IS A hierarchy of a branch in a single (inferred or stated) form. Concepts are mapped to dense integer
+ * ordinals (their position in the sorted concept ID array), so sets of concepts can be represented as {@link BitSet}s and the ECL hierarchy
+ * and set operators can be computed without sending large ID sets to the index.
+ * <p>
+ * Concept IDs are sorted the way the index sorts them (as strings, eg. <code>1000004</code> comes before <code>900009</code>), so iterating
+ * over a {@link BitSet} returns the IDs in index order.
+ * <p>
+ * Parent and child ordinals are stored in compressed sparse row format (an offset array and a target array per direction).
+ *
+ * @since 7.17
+ */
+final class SnomedEclHierarchy {
+
+	private static final int PAGE_SIZE = 10_000;
+
+	// powers of ten that fit into a long value, used for comparing IDs as strings
+	private static final long[] POWERS_OF_TEN = new long[19];
+
+	static {
+		POWERS_OF_TEN[0] = 1L;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+		}
+	}
+
+	private final long[] conceptIds;
+
+	private final int[] childOffsets;
+	private final int[] children;
+
+	private final int[] parentOffsets;
+	private final int[] parents;
+
+	/**
+	 * Creates a new hierarchy from the given concept IDs and IS A statements.
+	 *
+	 * @param conceptIds - the IDs of all concepts on the branch
+	 * @param statements - IS A statements in the format returned by {@link Taxonomies#getAllStatements(RevisionSearcher, String)}
+	 */
+	SnomedEclHierarchy(long[] conceptIds, Collection<Object[]> statements) {
+		// SCTIDs are never negative
+		this.conceptIds = sortAsStrings(Arrays.stream(conceptIds).filter(id -> id >= 0L).sorted().distinct().toArray());
+
+		final int size = this.conceptIds.length;
+		final LongList edges = PrimitiveLists.newLongArrayList();
+		final int[] childCounts = new int[size];
+		final int[] parentCounts = new int[size];
+
+		for (Object[] statement : statements) {
+			final int source = ordinal((long) statement[1]);
+			if (source < 0) {
+				continue;
+			}
+			for (long destinationId : (long[]) statement[2]) {
+				final int destination = ordinal(destinationId);
+				if (destination < 0) {
+					continue;
+				}
+				// encode the (child, parent) ordinal pair into a single long value
+				edges.add(((long) source << 32) | destination);
+				childCounts[destination]++;
+				parentCounts[source]++;
+			}
+		}
+
+		this.childOffsets = toOffsets(childCounts);
+		this.parentOffsets = toOffsets(parentCounts);
+		this.children = new int[edges.size()];
+		this.parents = new int[edges.size()];
+
+		// reuse the count arrays as insert positions
+		for (int i = 0; i < edges.size(); i++) {
+			final long edge = edges.get(i);
+			final int source = (int) (edge >>> 32);
+			final int destination = (int) edge;
+			children[childOffsets[destination] + --childCounts[destination]] = source;
+			parents[parentOffsets[source] + --parentCounts[source]] = destination;
+		}
+	}
+
+	/*
+	 * Numeric and string order are the same for IDs with the same number of digits, so the numerically sorted IDs form a sorted run for each
+	 * length; the runs are merged into a single array in string order.
+	 */
+	private static long[] sortAsStrings(long[] sortedIds) {
+		final int[] runStarts = new int[POWERS_OF_TEN.length + 2];
+		int runCount = 0;
+		for (int i = 0; i < sortedIds.length; i++) {
+			if (i == 0 || digits(sortedIds[i]) != digits(sortedIds[i - 1])) {
+				runStarts[runCount++] = i;
+			}
+		}
+		runStarts[runCount] = sortedIds.length;
+
+		if (runCount < 2) {
+			return sortedIds;
+		}
+
+		final int[] positions = Arrays.copyOf(runStarts, runCount);
+		final long[] result = new long[sortedIds.length];
+		for (int i = 0; i < result.length; i++) {
+			int next = -1;
+			for (int run = 0; run < runCount; run++) {
+				if (positions[run] < runStarts[run + 1] && (next < 0 || compareAsStrings(sortedIds[positions[run]], sortedIds[positions[next]]) < 0)) {
+					next = run;
+				}
+			}
+			result[i] = sortedIds[positions[next]++];
+		}
+		return result;
+	}
+
+	/*
+	 * Compares two non-negative IDs the same way their decimal string representations would compare, without creating the strings. The shorter
+	 * ID is padded with zeros to the length of the longer one; if the padded values are equal, the shorter ID is a prefix of the longer one.
+	 */
+	private static int compareAsStrings(long id1, long id2) {
+		final int digits1 = digits(id1);
+		final int digits2 = digits(id2);
+		if (digits1 == digits2) {
+			return Long.compare(id1, id2);
+		} else if (digits1 < digits2) {
+			// padded values are below 10^19, which fits into an unsigned long
+			final int result = Long.compareUnsigned(id1 * POWERS_OF_TEN[digits2 - digits1], id2);
+			return result != 0 ? result : -1;
+		} else {
+			final int result = Long.compareUnsigned(id1, id2 * POWERS_OF_TEN[digits1 - digits2]);
+			return result != 0 ? result : 1;
+		}
+	}
+
+	private static int digits(long id) {
+		int digits = 1;
+		while (digits < POWERS_OF_TEN.length && id >= POWERS_OF_TEN[digits]) {
+			digits++;
+		}
+		return digits;
+	}
+
+	private static int[] toOffsets(int[] counts) {
+		final int[] offsets = new int[counts.length + 1];
+		for (int i = 0; i < counts.length; i++) {
+			offsets[i + 1] = offsets[i] + counts[i];
+		}
+		return offsets;
+	}
+
+	/**
+	 * Loads all concept IDs and active IS A statements of the given form from the branch of the searcher.
+	 *
+	 * @param searcher
+	 * @param expressionForm - inferred or stated form
+	 * @return
+	 * @throws IOException
+	 */
+	static SnomedEclHierarchy load(RevisionSearcher searcher, String expressionForm) throws IOException {
+		final long[] conceptIds = getConceptIds(searcher, Expressions.matchAll());
+		final String characteristicTypeId = Trees.INFERRED_FORM.equals(expressionForm) ? Concepts.INFERRED_RELATIONSHIP : Concepts.STATED_RELATIONSHIP;
+		return new SnomedEclHierarchy(conceptIds, Taxonomies.getAllStatements(searcher, characteristicTypeId));
+	}
+
+	/**
+	 * Creates a new hierarchy from this one, replacing the concepts and IS A statements of the given concepts. Statements of all other concepts
+	 * are kept, except the ones pointing to concepts that no longer exist.
+	 *
+	 * @param changedConceptIds - the IDs of concepts that were added, changed or removed since this hierarchy was created
+	 * @param existingConceptIds - the IDs of changed concepts that currently exist
+	 * @param statements - the current active IS A statements of the changed concepts
+	 * @return the patched hierarchy
+	 */
+	SnomedEclHierarchy patch(LongSet changedConceptIds, long[] existingConceptIds, Collection<Object[]> statements) {
+		final LongList newConceptIds = PrimitiveLists.newLongArrayListWithExpectedSize(conceptIds.length + existingConceptIds.length);
+		final List<Object[]> newStatements = newArrayListWithExpectedSize(conceptIds.length + statements.size());
+
+		for (int ordinal = 0; ordinal < conceptIds.length; ordinal++) {
+			final long conceptId = conceptIds[ordinal];
+			if (changedConceptIds.contains(conceptId)) {
+				continue;
+			}
+
+			newConceptIds.add(conceptId);
+			final int parentCount = parentOffsets[ordinal + 1] - parentOffsets[ordinal];
+			if (parentCount > 0) {
+				final long[] parentIds = new long[parentCount];
+				for (int i = 0; i < parentCount; i++) {
+					parentIds[i] = conceptIds[parents[parentOffsets[ordinal] + i]];
+				}
+				newStatements.add(new Object[] { null, conceptId, parentIds });
+			}
+		}
+
+		newConceptIds.addAll(PrimitiveLists.newLongArrayList(existingConceptIds));
+		newStatements.addAll(statements);
+
+		// statements pointing to removed concepts are dropped by the constructor
+		return new SnomedEclHierarchy(newConceptIds.toArray(), newStatements);
+	}
+
+	/**
+	 * Returns which of the given concepts exist on the branch of the searcher.
+	 *
+	 * @param searcher
+	 * @param conceptIds - the concept IDs to check
+	 * @return the IDs of the existing concepts
+	 * @throws IOException
+	 */
+	static long[] getConceptIds(RevisionSearcher searcher, LongCollection conceptIds) throws IOException {
+		return getConceptIds(searcher, SnomedConceptDocument.Expressions.ids(LongSets.toStringSet(conceptIds)));
+	}
+
+	private static long[] getConceptIds(RevisionSearcher searcher, Expression where) throws IOException {
+		final Query<long[]> conceptIdQuery = Query.select(long[].class)
+				.from(SnomedConceptDocument.class)
+				.fields(SnomedConceptDocument.Fields.ID)
+				.where(where)
+				.limit(PAGE_SIZE)
+				.build();
+
+		return searcher.stream(conceptIdQuery)
+				.flatMap(Hits::stream)
+				.mapToLong(conceptId -> conceptId[0])
+				.toArray();
+	}
+
+	int size() {
+		return conceptIds.length;
+	}
+
+	private int ordinal(long conceptId) {
+		if (conceptId < 0L) {
+			return -1;
+		}
+
+		int low = 0;
+		int high = conceptIds.length - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int result = compareAsStrings(conceptIds[mid], conceptId);
+			if (result < 0) {
+				low = mid + 1;
+			} else if (result > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return a new {@link BitSet} with all known concepts set
+	 */
+	BitSet all() {
+		final BitSet all = new BitSet(size());
+		all.set(0, size());
+		return all;
+	}
+
+	/**
+	 * @return a new {@link BitSet} with all known concepts set, except the SNOMED CT root concept
+	 */
+	BitSet allExceptRoot() {
+		final BitSet all = all();
+		final int root = ordinal(Long.parseLong(Concepts.ROOT_CONCEPT));
+		if (root >= 0) {
+			all.clear(root);
+		}
+		return all;
+	}
+
+	/**
+	 * @param conceptId
+	 * @return <code>true</code> if the given concept is known by this hierarchy, <code>false</code> otherwise
+	 */
+	boolean contains(String conceptId) {
+		try {
+			return ordinal(Long.parseLong(conceptId)) >= 0;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Converts the given concept IDs to a {@link BitSet}.
+	 * 
+	 * @throws UnknownConceptException - if any of the IDs is not known by this hierarchy, as the result of any further operation would differ
+	 *         from the index based evaluation
+	 */
+	BitSet toBitSet(Collection<String> ids) {
+		final BitSet bits = new BitSet(size());
+		for (String id : ids) {
+			if (!contains(id)) {
+				throw new UnknownConceptException(id);
+			}
+			bits.set(ordinal(Long.parseLong(id)));
+		}
+		return bits;
+	}
+
+	/**
+	 * Converts the given {@link BitSet} back to concept IDs.
+	 */
+	Set<String> toIds(BitSet bits) {
+		final Set<String> ids = newHashSetWithExpectedSize(bits.cardinality());
+		for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+			ids.add(Long.toString(conceptIds[ordinal]));
+		}
+		return ids;
+	}
+
+	/**
+	 * Removes the given concepts from the given {@link BitSet}. IDs not known by this hierarchy are ignored.
+	 */
+	void removeAll(BitSet bits, Collection<String> ids) {
+		for (String id : ids) {
+			if (contains(id)) {
+				bits.clear(ordinal(Long.parseLong(id)));
+			}
+		}
+	}
+
+	/**
+	 * Returns the first <code>limit</code> concept IDs of the given {@link BitSet} in the order the index sorts them (as strings). Only the
+	 * returned IDs are converted, the rest of the set is not visited.
+	 */
+	List<String> firstIds(BitSet bits, int limit) {
+		final List<String> ids = newArrayListWithExpectedSize(Math.min(limit, bits.cardinality()));
+		for (int ordinal = bits.nextSetBit(0); ordinal >= 0 && ids.size() < limit; ordinal = bits.nextSetBit(ordinal + 1)) {
+			ids.add(Long.toString(conceptIds[ordinal]));
+		}
+		return ids;
+	}
+
+	/**
+	 * Computes the descendants (or the direct children) of the given concepts.
+	 *
+	 * @param concepts - the concepts to start from
+	 * @param includeSelf - whether the given concepts should be part of the result
+	 * @param directOnly - <code>true</code> if only the direct children should be returned, <code>false</code> if all descendants
+	 * @return
+	 */
+	BitSet descendants(BitSet concepts, boolean includeSelf, boolean directOnly) {
+		return traverse(concepts, includeSelf, directOnly, childOffsets, children);
+	}
+
+	/**
+	 * Computes the ancestors (or the direct parents) of the given concepts.
+	 *
+	 * @param concepts - the concepts to start from
+	 * @param includeSelf - whether the given concepts should be part of the result
+	 * @param directOnly - <code>true</code> if only the direct parents should be returned, <code>false</code> if all ancestors
+	 * @return
+	 */
+	BitSet ancestors(BitSet concepts, boolean includeSelf, boolean directOnly) {
+		return traverse(concepts, includeSelf, directOnly, parentOffsets, parents);
+	}
+
+	private BitSet traverse(BitSet concepts, boolean includeSelf, boolean directOnly, int[] offsets, int[] targets) {
+		final BitSet result = new BitSet(size());
+		// the result set doubles as the visited set, so each concept is enqueued at most once
+		final int[] queue = new int[size()];
+		int head = 0;
+		int tail = 0;
+
+		for (int ordinal = concepts.nextSetBit(0); ordinal >= 0; ordinal = concepts.nextSetBit(ordinal + 1)) {
+			for (int i = offsets[ordinal]; i < offsets[ordinal + 1]; i++) {
+				final int target = targets[i];
+				if (!result.get(target)) {
+					result.set(target);
+					queue[tail++] = target;
+				}
+			}
+		}
+
+		if (!directOnly) {
+			while (head < tail) {
+				final int ordinal = queue[head++];
+				for (int i = offsets[ordinal]; i < offsets[ordinal + 1]; i++) {
+					final int target = targets[i];
+					if (!result.get(target)) {
+						result.set(target);
+						queue[tail++] = target;
+					}
+				}
+			}
+		}
+
+		if (includeSelf) {
+			result.or(concepts);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Thrown when an ID can not be represented in the hierarchy; the expression should be evaluated by the index instead.
+	 */
+	static final class UnknownConceptException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		UnknownConceptException(String id) {
+			super("Concept '" + id + "' is not part of the hierarchy.", null, false, false);
+		}
+
+	}
+
+}
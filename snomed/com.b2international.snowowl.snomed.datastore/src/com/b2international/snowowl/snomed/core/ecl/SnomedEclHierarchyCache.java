@@ -0,0 +1,221 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.Hits;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.repository.RepositoryRequests;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.tree.Trees;
+import com.b2international.snowowl.snomed.datastore.taxonomy.Taxonomies;
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the in-memory {@link SnomedEclHierarchy IS A hierarchies} of recently used branches. When this service is registered, the ECL
+ * evaluation request answers hierarchy and set operators in memory instead of sending the intermediate ID sets to the index, and concept
+ * descendant expansions are counted in memory as well.
+ * <p>
+ * A single hierarchy is kept for each branch and expression form. When the branch moves to a new head, the cached hierarchy is patched using
+ * the concepts recorded as changed in the commits made since, instead of loading the entire hierarchy again. A child branch can start from the
+ * hierarchy of its parent the same way. The hierarchy is loaded from scratch if no suitable starting point exists (eg. after a rebase), or the
+ * commits in between include merges without change details.
+ * <p>
+ * Hierarchies always reflect the head of a branch, so requests on point-in-time, base and range paths (eg. <code>MAIN@1234</code>) can not be
+ * answered from this cache, see {@link #canServe(BranchContext)}.
+ *
+ * @since 7.17
+ */
+public final class SnomedEclHierarchyCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("ecl");
+	
+	// patching is not worth it above this number of commits, loading the hierarchy again is cheaper
+	private static final int MAX_PATCHED_COMMITS = 100;
+
+	private static final class Entry {
+
+		private final long branchId;
+		private final long baseTimestamp;
+		private final long headTimestamp;
+		private final SnomedEclHierarchy hierarchy;
+
+		private Entry(Branch branch, SnomedEclHierarchy hierarchy) {
+			this.branchId = branch.branchId();
+			this.baseTimestamp = branch.baseTimestamp();
+			this.headTimestamp = branch.headTimestamp();
+			this.hierarchy = hierarchy;
+		}
+
+		private boolean isSameBranch(Branch branch) {
+			return branchId == branch.branchId() && baseTimestamp == branch.baseTimestamp();
+		}
+
+	}
+
+	private final Cache<String, Entry> hierarchies;
+
+	public SnomedEclHierarchyCache(int maxHierarchies) {
+		this.hierarchies = CacheBuilder.newBuilder()
+				.maximumSize(maxHierarchies)
+				.build();
+	}
+
+	/**
+	 * @param context - the branch to use
+	 * @return <code>true</code> if the request path of the given context is the head of its branch, so a cached hierarchy can be used for it,
+	 *         <code>false</code> if the request reads the branch at an earlier point in time
+	 */
+	public boolean canServe(BranchContext context) {
+		return context.path().equals(context.branch().path());
+	}
+
+	SnomedEclHierarchy get(BranchContext context, String expressionForm) {
+		checkArgument(canServe(context), "Hierarchies are only available for the head of a branch, got '%s'.", context.path());
+		final Branch branch = context.branch();
+		final String key = toKey(branch.path(), expressionForm);
+		final Entry entry = hierarchies.getIfPresent(key);
+		if (entry != null && entry.isSameBranch(branch) && entry.headTimestamp == branch.headTimestamp()) {
+			return entry.hierarchy;
+		}
+
+		try {
+
+			final Stopwatch w = Stopwatch.createStarted();
+			final RevisionSearcher searcher = context.service(RevisionSearcher.class);
+			SnomedEclHierarchy hierarchy = patch(context, searcher, branch, expressionForm, entry);
+			if (hierarchy != null) {
+				LOGGER.info("Patched {} hierarchy of {} concepts on branch '{}' in {}.", expressionForm, hierarchy.size(), branch.path(), w);
+			} else {
+				hierarchy = SnomedEclHierarchy.load(searcher, expressionForm);
+				LOGGER.info("Loaded {} hierarchy of {} concepts on branch '{}' in {}.", expressionForm, hierarchy.size(), branch.path(), w);
+			}
+
+			// keep the hierarchy of the most recent head, if another request for the same branch finished in the meantime
+			hierarchies.asMap().merge(key, new Entry(branch, hierarchy), (existing, created) -> {
+				return existing.isSameBranch(branch) && existing.headTimestamp > created.headTimestamp ? existing : created;
+			});
+			return hierarchy;
+
+		} catch (IOException e) {
+			throw new SnowowlRuntimeException(e);
+		}
+	}
+
+	private SnomedEclHierarchy patch(BranchContext context, RevisionSearcher searcher, Branch branch, String expressionForm, Entry entry) throws IOException {
+		final LongSet changedConceptIds = PrimitiveSets.newLongOpenHashSet();
+
+		// A later head of the same branch
+		if (entry != null && entry.isSameBranch(branch) && entry.headTimestamp < branch.headTimestamp()) {
+			if (!Taxonomies.collectChangedConcepts(searcher, branch.path(), entry.headTimestamp, branch.headTimestamp(), MAX_PATCHED_COMMITS, changedConceptIds)) {
+				return null;
+			}
+			return patch(searcher, entry.hierarchy, changedConceptIds, expressionForm);
+		}
+
+		// The state of the parent branch at or before the base of this branch
+		if (Branch.MAIN_PATH.equals(branch.path())) {
+			return null;
+		}
+
+		final Entry parentEntry = hierarchies.getIfPresent(toKey(branch.parentPath(), expressionForm));
+		if (parentEntry == null || parentEntry.headTimestamp > branch.baseTimestamp()) {
+			return null;
+		}
+
+		final Branch parent = RepositoryRequests.branching()
+				.prepareGet(branch.parentPath())
+				.build()
+				.execute(context);
+
+		if (!parentEntry.isSameBranch(parent)
+				|| !Taxonomies.collectChangedConcepts(searcher, parent.path(), parentEntry.headTimestamp, branch.baseTimestamp(), MAX_PATCHED_COMMITS, changedConceptIds)
+				|| !Taxonomies.collectChangedConcepts(searcher, branch.path(), branch.baseTimestamp(), branch.headTimestamp(), MAX_PATCHED_COMMITS, changedConceptIds)) {
+			return null;
+		}
+
+		return patch(searcher, parentEntry.hierarchy, changedConceptIds, expressionForm);
+	}
+
+	private static SnomedEclHierarchy patch(RevisionSearcher searcher, SnomedEclHierarchy hierarchy, LongSet changedConceptIds, String expressionForm) throws IOException {
+		if (changedConceptIds.isEmpty()) {
+			return hierarchy;
+		}
+
+		final long[] existingConceptIds = SnomedEclHierarchy.getConceptIds(searcher, changedConceptIds);
+		final String characteristicTypeId = Trees.INFERRED_FORM.equals(expressionForm) ? Concepts.INFERRED_RELATIONSHIP : Concepts.STATED_RELATIONSHIP;
+		return hierarchy.patch(changedConceptIds, existingConceptIds, Taxonomies.getStatementsBySource(searcher, changedConceptIds, characteristicTypeId));
+	}
+
+	private static String toKey(String branchPath, String expressionForm) {
+		return String.join("#", branchPath, expressionForm);
+	}
+
+	/**
+	 * Returns the descendants (or direct children) of a concept, the same way a search for the concepts having the given concept as their
+	 * ancestor (or parent) and sorted by ID would. Only the first <code>limit</code> descendant IDs are converted, the rest of them are only
+	 * counted.
+	 *
+	 * @param context - the branch to use
+	 * @param expressionForm - inferred or stated form
+	 * @param conceptId - the concept to start from
+	 * @param direct - <code>true</code> if only the direct children should be returned, <code>false</code> if all descendants
+	 * @param excludedIds - concepts to leave out of the result (eg. inactive ones)
+	 * @param limit - the maximum number of descendant IDs to return
+	 * @return the first <code>limit</code> descendant IDs in ascending order and the total number of descendants, or an empty result if the
+	 *         concept is not known on the branch
+	 * @see #canServe(BranchContext)
+	 */
+	public Hits<String> getDescendants(BranchContext context, String expressionForm, String conceptId, boolean direct, Collection<String> excludedIds, int limit) {
+		final SnomedEclHierarchy hierarchy = get(context, expressionForm);
+		final BitSet descendants = descendants(hierarchy, conceptId, direct);
+		hierarchy.removeAll(descendants, excludedIds);
+		final List<String> hits = limit > 0 ? hierarchy.firstIds(descendants, limit) : Collections.emptyList();
+		return new Hits<>(hits, null, null, limit, descendants.cardinality());
+	}
+
+	private static BitSet descendants(SnomedEclHierarchy hierarchy, String conceptId, boolean direct) {
+		if (!hierarchy.contains(conceptId)) {
+			return new BitSet();
+		}
+		return hierarchy.descendants(hierarchy.toBitSet(Collections.singleton(conceptId)), false, direct);
+	}
+
+	/**
+	 * Drops all cached hierarchies.
+	 */
+	public void invalidateAll() {
+		hierarchies.invalidateAll();
+	}
+
+}
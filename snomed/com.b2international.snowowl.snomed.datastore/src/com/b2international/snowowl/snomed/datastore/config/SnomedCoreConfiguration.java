@@ -44,6 +44,15 @@ public class SnomedCoreConfiguration {
 	public static final int DEFAULT_MAXIMUM_REASONER_COUNT = 2;
 	public static final int DEFAULT_MAXIMUM_REASONER_RESULTS = 10;
 	public static final int DEFAULT_MAXIMUM_REASONER_RUNS = 1000;
+	public static final int DEFAULT_MAXIMUM_CACHED_TAXONOMIES = 0;
+	public static final int DEFAULT_MAXIMUM_CACHED_ECL_HIERARCHIES = 0;
+	public static final int DEFAULT_MAXIMUM_CACHED_ECL_RESULTS = 0;
+	public static final int DEFAULT_MAXIMUM_EXPORT_WORKERS = 1;
+	public static final int DEFAULT_MAXIMUM_CONCURRENT_EXPANSIONS = 1;
+	public static final int DEFAULT_MAXIMUM_REASONER_SESSIONS = 0;
+	public static final int DEFAULT_MAXIMUM_CONCURRENT_TAXONOMY_SCANS = 1;
+	public static final int DEFAULT_MAXIMUM_TAXONOMY_SNAPSHOTS = 0;
+	public static final int DEFAULT_MAXIMUM_NORMAL_FORM_WORKERS = 1;
 	
 	@Min(1)
 	@Max(3)
@@ -57,6 +66,41 @@ public class SnomedCoreConfiguration {
 	@Max(1_000_000)
 	private int maxReasonerRuns = DEFAULT_MAXIMUM_REASONER_RUNS;
 	
+	@Min(0)
+	@Max(1000)
+	private int maxCachedTaxonomies = DEFAULT_MAXIMUM_CACHED_TAXONOMIES;
+	
+	@Min(0)
+	@Max(100)
+	private int maxCachedEclHierarchies = DEFAULT_MAXIMUM_CACHED_ECL_HIERARCHIES;
+	
+	@Min(0)
+	private int maxCachedEclResults = DEFAULT_MAXIMUM_CACHED_ECL_RESULTS;
+	
+	@Min(1)
+	@Max(64)
+	private int maxExportWorkers = DEFAULT_MAXIMUM_EXPORT_WORKERS;
+	
+	@Min(1)
+	@Max(16)
+	private int maxConcurrentExpansions = DEFAULT_MAXIMUM_CONCURRENT_EXPANSIONS;
+	
+	@Min(0)
+	@Max(10)
+	private int maxReasonerSessions = DEFAULT_MAXIMUM_REASONER_SESSIONS;
+	
+	@Min(1)
+	@Max(16)
+	private int maxConcurrentTaxonomyScans = DEFAULT_MAXIMUM_CONCURRENT_TAXONOMY_SCANS;
+	
+	@Min(0)
+	@Max(100)
+	private int maxTaxonomySnapshots = DEFAULT_MAXIMUM_TAXONOMY_SNAPSHOTS;
+	
+	@Min(1)
+	@Max(16)
+	private int maxNormalFormWorkers = DEFAULT_MAXIMUM_NORMAL_FORM_WORKERS;
+	
 	@NotEmpty
 	private String defaultReasoner = DEFAULT_REASONER;
 	
@@ -147,6 +191,137 @@ public class SnomedCoreConfiguration {
 		this.maxReasonerRuns = maxReasonerRuns;
 	}
 	
+	/**
+	 * @return the number of branches for which the active IS A statements should be kept in memory to speed up taxonomy computation during
+	 *         commits. Each cached branch holds all active IS A statements of both characteristic types in memory (branches without own
+	 *         changes share them with their parent), and statements are loaded in the background after the first commit on a branch. Setting
+	 *         this value to <code>0</code> (the default) disables the cache.
+	 */
+	@JsonProperty
+	public int getMaxCachedTaxonomies() {
+		return maxCachedTaxonomies;
+	}
+	
+	@JsonProperty
+	public void setMaxCachedTaxonomies(int maxCachedTaxonomies) {
+		this.maxCachedTaxonomies = maxCachedTaxonomies;
+	}
+	
+	/**
+	 * @return the number of in-memory IS A hierarchies (per branch head and expression form) to keep for evaluating ECL hierarchy and set
+	 *         operators without the index. Setting this value to <code>0</code> (the default) disables in-memory ECL evaluation.
+	 */
+	@JsonProperty
+	public int getMaxCachedEclHierarchies() {
+		return maxCachedEclHierarchies;
+	}
+	
+	@JsonProperty
+	public void setMaxCachedEclHierarchies(int maxCachedEclHierarchies) {
+		this.maxCachedEclHierarchies = maxCachedEclHierarchies;
+	}
+	
+	/**
+	 * @return the maximum number of concept IDs to keep in the cache of evaluated ECL expressions (summed over all cached expressions). Setting
+	 *         this value to <code>0</code> disables the cache (default).
+	 */
+	@JsonProperty
+	public int getMaxCachedEclResults() {
+		return maxCachedEclResults;
+	}
+	
+	@JsonProperty
+	public void setMaxCachedEclResults(int maxCachedEclResults) {
+		this.maxCachedEclResults = maxCachedEclResults;
+	}
+	
+	/**
+	 * @return the maximum number of RF2 release files written concurrently during an RF2 export. Setting this value to <code>1</code> exports
+	 *         the files one after the other.
+	 */
+	@JsonProperty
+	public int getMaxExportWorkers() {
+		return maxExportWorkers;
+	}
+	
+	@JsonProperty
+	public void setMaxExportWorkers(int maxExportWorkers) {
+		this.maxExportWorkers = maxExportWorkers;
+	}
+	
+	/**
+	 * @return the maximum number of concept expansions (eg. <code>pt()</code>, <code>descriptions()</code>, <code>descendants()</code>) computed
+	 *         concurrently for a single request. Setting this value to <code>1</code> computes them one after the other.
+	 */
+	@JsonProperty
+	public int getMaxConcurrentExpansions() {
+		return maxConcurrentExpansions;
+	}
+	
+	@JsonProperty
+	public void setMaxConcurrentExpansions(int maxConcurrentExpansions) {
+		this.maxConcurrentExpansions = maxConcurrentExpansions;
+	}
+	
+	/**
+	 * @return the number of branches for which a reasoner should be kept in memory between classification runs, so subsequent runs only have
+	 *         to process the axioms changed since the previous one. Setting this value to <code>0</code> (the default) disables reasoner
+	 *         sessions. Each session holds a full copy of the branch's logical axioms along with the reasoner's saturated internal state,
+	 *         which takes several gigabytes of heap for the International Edition; size the JVM heap accordingly.
+	 */
+	@JsonProperty
+	public int getMaxReasonerSessions() {
+		return maxReasonerSessions;
+	}
+	
+	@JsonProperty
+	public void setMaxReasonerSessions(int maxReasonerSessions) {
+		this.maxReasonerSessions = maxReasonerSessions;
+	}
+	
+	/**
+	 * @return the maximum number of index scans running concurrently while the ontology snapshot of a classification is collected. Setting
+	 *         this value to <code>1</code> (the default) runs the scans one after the other.
+	 */
+	@JsonProperty
+	public int getMaxConcurrentTaxonomyScans() {
+		return maxConcurrentTaxonomyScans;
+	}
+	
+	@JsonProperty
+	public void setMaxConcurrentTaxonomyScans(int maxConcurrentTaxonomyScans) {
+		this.maxConcurrentTaxonomyScans = maxConcurrentTaxonomyScans;
+	}
+	
+	/**
+	 * @return the number of branches for which the ontology snapshot collected for the last classification run should be kept on disk, so that
+	 *         classifying the same branch head (or an unchanged child branch) again does not have to collect it from the index. Setting this
+	 *         value to <code>0</code> (the default) disables taxonomy snapshots.
+	 */
+	@JsonProperty
+	public int getMaxTaxonomySnapshots() {
+		return maxTaxonomySnapshots;
+	}
+	
+	@JsonProperty
+	public void setMaxTaxonomySnapshots(int maxTaxonomySnapshots) {
+		this.maxTaxonomySnapshots = maxTaxonomySnapshots;
+	}
+	
+	/**
+	 * @return the maximum number of threads computing the distribution normal form of concepts on the same depth of the inferred hierarchy
+	 *         concurrently. Setting this value to <code>1</code> (the default) processes concepts one after the other.
+	 */
+	@JsonProperty
+	public int getMaxNormalFormWorkers() {
+		return maxNormalFormWorkers;
+	}
+	
+	@JsonProperty
+	public void setMaxNormalFormWorkers(int maxNormalFormWorkers) {
+		this.maxNormalFormWorkers = maxNormalFormWorkers;
+	}
+	
 	/**
 	 * @return the currently set default reasoner ID 
 	 */
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.converter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.commons.options.Options;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
+import com.google.common.base.Stopwatch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs the expansions requested for a page of resources, at most <code>maxConcurrency</code> of them at the same time. Expansions are
+ * registered with their expand key and are skipped if the key is not present in the expand options.
+ * <p>
+ * Expansions must be independent of each other: they may only update the properties of the resources that belong to their expand key. The
+ * calling thread takes part in running the expansions (see {@link ConcurrentTasks}), so nested expansions (eg. the expand options of expanded
+ * descendants) can not exhaust the shared worker pool.
+ * <p>
+ * The time spent in each expansion is recorded in the <code>{@value #EXPANSION_TIME_METRIC}</code> timer of the given {@link MeterRegistry}
+ * (if any), tagged with the expand key.
+ *
+ * @since 7.17
+ */
+final class ConcurrentExpansions {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ConcurrentExpansions.class);
+
+	static final String EXPANSION_TIME_METRIC = "expansion_time";
+	static final String EXPAND_TAG = "expand";
+
+	private final Options expand;
+	private final int maxConcurrency;
+	private final MeterRegistry registry;
+	private final Map<String, Runnable> expansions = new LinkedHashMap<>();
+	private final Map<String, Long> elapsedMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+
+	/**
+	 * @param expand - the expand options of the request
+	 * @param maxConcurrency - the maximum number of expansions to run at the same time, <code>1</code> runs them one after the other on the
+	 *            calling thread
+	 */
+	ConcurrentExpansions(Options expand, int maxConcurrency) {
+		this(expand, maxConcurrency, null);
+	}
+
+	/**
+	 * @param expand - the expand options of the request
+	 * @param maxConcurrency - the maximum number of expansions to run at the same time, <code>1</code> runs them one after the other on the
+	 *            calling thread
+	 * @param registry - the registry to record expansion times in, or <code>null</code> if they should not be recorded
+	 */
+	ConcurrentExpansions(Options expand, int maxConcurrency, MeterRegistry registry) {
+		checkArgument(maxConcurrency > 0, "Maximum concurrency should be greater than zero, got '%s'.", maxConcurrency);
+		this.expand = expand;
+		this.maxConcurrency = maxConcurrency;
+		this.registry = registry;
+	}
+
+	/**
+	 * Registers an expansion, if the given expand key is requested.
+	 *
+	 * @param expandKey - the expand key the expansion belongs to
+	 * @param expansion - the expansion to run
+	 * @return this instance for method chaining
+	 */
+	ConcurrentExpansions add(String expandKey, Runnable expansion) {
+		if (expand.containsKey(expandKey)) {
+			expansions.put(expandKey, expansion);
+		}
+		return this;
+	}
+
+	/**
+	 * Runs all registered expansions and waits for their completion. If any of the expansions fail, the ones not yet started are skipped and the
+	 * failure is rethrown after the running ones have completed.
+	 */
+	void run() {
+		final List<Entry<String, Runnable>> entries = new ArrayList<>(expansions.entrySet());
+		ConcurrentTasks.runAll(entries.size(), i -> {
+			final Entry<String, Runnable> next = entries.get(i);
+			final Stopwatch w = Stopwatch.createStarted();
+			next.getValue().run();
+			final long elapsedNanos = w.elapsed(TimeUnit.NANOSECONDS);
+			elapsedMillis.put(next.getKey(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+			if (registry != null) {
+				registry.timer(EXPANSION_TIME_METRIC, EXPAND_TAG, next.getKey()).record(elapsedNanos, TimeUnit.NANOSECONDS);
+			}
+		}, maxConcurrency);
+
+		if (LOG.isDebugEnabled() && !elapsedMillis.isEmpty()) {
+			LOG.debug("Expansion times (ms) with at most {} worker(s): {}", Math.min(maxConcurrency, entries.size()), elapsedMillis);
+		}
+	}
+
+	/**
+	 * @return the time spent in each of the expansions that completed in the last {@link #run()}, keyed by expand key
+	 */
+	Map<String, Long> getElapsedMillis() {
+		return Collections.unmodifiableMap(elapsedMillis);
+	}
+
+}
@@ -34,7 +34,9 @@ import com.b2international.snowowl.core.request.DescendantsExpander;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.core.domain.Acceptability;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedComponent;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedCoreComponent;
 import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
 import com.b2international.snowowl.snomed.core.domain.SnomedDescriptions;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
@@ -42,6 +44,7 @@ import com.b2international.snowowl.snomed.core.domain.SnomedRelationships;
 import com.b2international.snowowl.snomed.core.domain.SubclassDefinitionStatus;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSet;
 import com.b2international.snowowl.snomed.datastore.SnomedDescriptionUtils;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.base.Functions;
@@ -52,6 +55,8 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.TreeMultimap;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * @since 4.5
  */
@@ -135,24 +140,27 @@ final class SnomedConceptConverter extends BaseRevisionResourceConverter<SnomedC
 		
 		final Set<String> conceptIds = FluentIterable.from(results).transform(SnomedConcept::getId).toSet();
 		
-		expandReferenceSet(results);
-		new InactivationPropertiesExpander(context(), expand(), locales(), Concepts.REFSET_CONCEPT_INACTIVITY_INDICATOR).expand(results, conceptIds);
-		new MembersExpander(context(), expand(), locales()).expand(results, conceptIds);
-		new ModuleExpander(context(), expand(), locales()).expand(results);
-		expandDefinitionStatus(results);
-		
-		expandPreferredTerm(results, conceptIds);
-		expandFullySpecifiedName(results, conceptIds);
-		expandDescriptions(results, conceptIds);
-		
-		expandRelationships(results, conceptIds);
-		expandInboundRelationships(results, conceptIds);
-		
-		new SnomedDescendantsExpander(context(), expand(), locales(), SnomedConcept.Expand.DESCENDANTS).expand(results, conceptIds);
-		new SnomedDescendantsExpander(context(), expand(), locales(), SnomedConcept.Expand.STATED_DESCENDANTS).expand(results, conceptIds);
-		expandAncestors(results, conceptIds, SnomedConcept.Expand.ANCESTORS, false);
-		expandAncestors(results, conceptIds, SnomedConcept.Expand.STATED_ANCESTORS, true);
-		
+		final int maxConcurrentExpansions = context().optionalService(SnomedCoreConfiguration.class)
+				.map(SnomedCoreConfiguration::getMaxConcurrentExpansions)
+				.orElse(SnomedCoreConfiguration.DEFAULT_MAXIMUM_CONCURRENT_EXPANSIONS);
+		
+		// expansions update different properties of the results, so they can be computed independently of each other
+		new ConcurrentExpansions(expand(), maxConcurrentExpansions, context().optionalService(MeterRegistry.class).orElse(null))
+			.add(SnomedConcept.Expand.REFERENCE_SET, () -> expandReferenceSet(results))
+			.add(SnomedCoreComponent.Expand.INACTIVATION_PROPERTIES, () -> new InactivationPropertiesExpander(context(), expand(), locales(), Concepts.REFSET_CONCEPT_INACTIVITY_INDICATOR).expand(results, conceptIds))
+			.add(SnomedCoreComponent.Expand.REFERRING_MEMBERS, () -> new MembersExpander(context(), expand(), locales()).expand(results, conceptIds))
+			.add(SnomedComponent.Expand.MODULE, () -> new ModuleExpander(context(), expand(), locales()).expand(results))
+			.add(SnomedConcept.Expand.DEFINITION_STATUS, () -> expandDefinitionStatus(results))
+			.add(SnomedConcept.Expand.PREFERRED_TERM, () -> expandPreferredTerm(results, conceptIds))
+			.add(SnomedConcept.Expand.FULLY_SPECIFIED_NAME, () -> expandFullySpecifiedName(results, conceptIds))
+			.add(SnomedConcept.Expand.DESCRIPTIONS, () -> expandDescriptions(results, conceptIds))
+			.add(SnomedConcept.Expand.RELATIONSHIPS, () -> expandRelationships(results, conceptIds))
+			.add(SnomedConcept.Expand.INBOUND_RELATIONSHIPS, () -> expandInboundRelationships(results, conceptIds))
+			.add(SnomedConcept.Expand.DESCENDANTS, () -> new SnomedDescendantsExpander(context(), expand(), locales(), SnomedConcept.Expand.DESCENDANTS).expand(results, conceptIds))
+			.add(SnomedConcept.Expand.STATED_DESCENDANTS, () -> new SnomedDescendantsExpander(context(), expand(), locales(), SnomedConcept.Expand.STATED_DESCENDANTS).expand(results, conceptIds))
+			.add(SnomedConcept.Expand.ANCESTORS, () -> expandAncestors(results, conceptIds, SnomedConcept.Expand.ANCESTORS, false))
+			.add(SnomedConcept.Expand.STATED_ANCESTORS, () -> expandAncestors(results, conceptIds, SnomedConcept.Expand.STATED_ANCESTORS, true))
+			.run();
 		
 		// XXX make sure we set the preferred descriptions field to null if the client did not explicitly request it
 		// it is necessary to expand this field for pt and fsn expand, but do not increase the payload unnecessarily
@@ -24,37 +24,51 @@ import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
-import com.b2international.commons.collect.LongSets;
 import com.b2international.commons.http.ExtendedLocale;
 import com.b2international.commons.options.Options;
 import com.b2international.index.Hits;
+import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.index.query.Query;
+import com.b2international.index.query.SortBy;
+import com.b2international.index.query.SortBy.Order;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.request.DescendantsExpander;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcepts;
+import com.b2international.snowowl.snomed.core.ecl.SnomedEclHierarchyCache;
+import com.b2international.snowowl.snomed.core.tree.Trees;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Functions;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.TreeMultimap;
 
 /**
  * @since 7.7
  */
 public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedConcept> {
 
+	private static final int PAGE_SIZE = 10_000;
+	
+	private static final int MAX_CONCURRENT_SEARCHES = 4;
+	
 	private final boolean stated;
 
 	public SnomedDescendantsExpander(BranchContext context, Options expand, List<ExtendedLocale> locales, String descendantExpandKey) {
@@ -66,82 +80,23 @@ public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedC
 	protected void expand(List<SnomedConcept> results, final Set<String> conceptIds, Options descendantExpandOptions, boolean direct) {
 		try {
 			
-			final ExpressionBuilder expression = Expressions.builder();
-			expression.filter(active());
-			final ExpressionBuilder descendantFilter = Expressions.builder();
-			if (stated) {
-				descendantFilter.should(statedParents(conceptIds));
-				if (!direct) {
-					descendantFilter.should(statedAncestors(conceptIds));
-				}
-			} else {
-				descendantFilter.should(parents(conceptIds));
-				if (!direct) {
-					descendantFilter.should(ancestors(conceptIds));
-				}
-			}
-			expression.filter(descendantFilter.build());
-			
-			final Query<SnomedConceptDocument> query = Query.select(SnomedConceptDocument.class)
-					.where(expression.build())
-					.limit(Integer.MAX_VALUE)
-					.build();
-			
-			final RevisionSearcher searcher = context().service(RevisionSearcher.class);
-			final Hits<SnomedConceptDocument> hits = searcher.search(query);
-			
-			if (hits.getTotal() < 1) {
-				final SnomedConcepts descendants = new SnomedConcepts(0, 0);
-				for (SnomedConcept concept : results) {
-					if (stated) {
-						concept.setStatedDescendants(descendants);
-					} else {
-						concept.setDescendants(descendants);
-					}
-				}
-				return;
-			}
-			
-			// in case of only one match and limit zero, use shortcut instead of loading all IDs and components
-			// XXX won't work if number of results is greater than one, either use custom ConceptSearch or figure out how to expand descendants effectively
+			// descendants are never loaded as documents, only the first "limit" concepts of each result are fetched
 			final int limit = getLimit(descendantExpandOptions);
-			if (conceptIds.size() == 1 && limit == 0) {
-				for (SnomedConcept concept : results) {
-					final SnomedConcepts descendants = new SnomedConcepts(0, hits.getTotal());
-					if (stated) {
-						concept.setStatedDescendants(descendants);
-					} else {
-						concept.setDescendants(descendants);
-					}
-				}
-				return;
-			}
+			final Map<String, Integer> totalsByConcept = newHashMap();
+			final ListMultimap<String, String> descendantsByAncestor = ArrayListMultimap.create();
 			
-			final Multimap<String, String> descendantsByAncestor = TreeMultimap.create();
-			for (SnomedConceptDocument hit : hits) {
-				final Set<String> parentsAndAncestors = newHashSet();
-				if (stated) {
-					parentsAndAncestors.addAll(LongSets.toStringSet(hit.getStatedParents()));
-					if (!direct) {
-						parentsAndAncestors.addAll(LongSets.toStringSet(hit.getStatedAncestors()));
-					}
-				} else {
-					parentsAndAncestors.addAll(LongSets.toStringSet(hit.getParents()));
-					if (!direct) {
-						parentsAndAncestors.addAll(LongSets.toStringSet(hit.getAncestors()));
-					}
-				}
-				
-				parentsAndAncestors.retainAll(conceptIds);
-				for (String ancestor : parentsAndAncestors) {
-					descendantsByAncestor.put(ancestor, hit.getId());
-				}
+			final Optional<SnomedEclHierarchyCache> hierarchies = context().optionalService(SnomedEclHierarchyCache.class);
+			// cached hierarchies reflect the branch head, point-in-time requests are answered by the index
+			if (hierarchies.isPresent() && hierarchies.get().canServe(context())) {
+				collectFromHierarchy(hierarchies.get(), conceptIds, direct, limit, totalsByConcept, descendantsByAncestor);
+			} else {
+				collectFromIndex(conceptIds, direct, limit, totalsByConcept, descendantsByAncestor);
 			}
 			
 			final Collection<String> componentIds = newHashSet(descendantsByAncestor.values());
+			final Map<String, SnomedConcept> descendantsById = newHashMap();
 			
-			if (limit > 0 && !componentIds.isEmpty()) {
-				// query descendants again
+			if (!componentIds.isEmpty()) {
 				final SnomedConcepts descendants = SnomedRequests.prepareSearchConcept()
 						.all()
 						.filterByIds(componentIds)
@@ -150,27 +105,25 @@ public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedC
 						.build()
 						.execute(context());
 				
-				final Map<String, SnomedConcept> descendantsById = newHashMap();
 				descendantsById.putAll(Maps.uniqueIndex(descendants, SnomedConcept::getId));
-				for (SnomedConcept concept : results) {
-					final Collection<String> descendantIds = descendantsByAncestor.get(concept.getId());
-					final List<SnomedConcept> currentDescendants = FluentIterable.from(descendantIds).limit(limit).transform(Functions.forMap(descendantsById)).toList();
-					final SnomedConcepts descendantConcepts = new SnomedConcepts(currentDescendants, null, limit, descendantIds.size());
-					if (stated) {
-						concept.setStatedDescendants(descendantConcepts);
-					} else {
-						concept.setDescendants(descendantConcepts);
-					}
+			}
+			
+			for (SnomedConcept concept : results) {
+				final int total = totalsByConcept.getOrDefault(concept.getId(), 0);
+				final SnomedConcepts descendantConcepts;
+				if (limit > 0) {
+					final List<SnomedConcept> currentDescendants = FluentIterable.from(descendantsByAncestor.get(concept.getId()))
+							.filter(descendantsById::containsKey)
+							.transform(Functions.forMap(descendantsById))
+							.toList();
+					descendantConcepts = new SnomedConcepts(currentDescendants, null, limit, total);
+				} else {
+					descendantConcepts = new SnomedConcepts(limit, total);
 				}
-			} else {
-				for (SnomedConcept concept : results) {
-					final Collection<String> descendantIds = descendantsByAncestor.get(concept.getId());
-					final SnomedConcepts descendants = new SnomedConcepts(limit, descendantIds.size());
-					if (stated) {
-						concept.setStatedDescendants(descendants);
-					} else {
-						concept.setDescendants(descendants);
-					}
+				if (stated) {
+					concept.setStatedDescendants(descendantConcepts);
+				} else {
+					concept.setDescendants(descendantConcepts);
 				}
 			}
 			
@@ -179,4 +132,76 @@ public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedC
 		}
 	}
 	
+	@VisibleForTesting
+	void collectFromHierarchy(SnomedEclHierarchyCache hierarchies, Set<String> conceptIds, boolean direct, int limit, 
+			Map<String, Integer> totalsByConcept, ListMultimap<String, String> descendantsByAncestor) throws IOException {
+		final String expressionForm = stated ? Trees.STATED_FORM : Trees.INFERRED_FORM;
+		// the hierarchy does not know the status of concepts, look up inactive descendants (usually none or only a few) with a single query
+		final Set<String> inactiveDescendantIds = context().service(RevisionSearcher.class)
+				.stream(Query.select(String.class)
+						.from(SnomedConceptDocument.class)
+						.fields(SnomedConceptDocument.Fields.ID)
+						.where(descendantsOf(conceptIds, direct, false))
+						.limit(PAGE_SIZE)
+						.build())
+				.flatMap(Hits::stream)
+				.collect(Collectors.toSet());
+		
+		for (String conceptId : conceptIds) {
+			final Hits<String> descendants = hierarchies.getDescendants(context(), expressionForm, conceptId, direct, inactiveDescendantIds, limit);
+			totalsByConcept.put(conceptId, descendants.getTotal());
+			descendantsByAncestor.putAll(conceptId, descendants.getHits());
+		}
+	}
+	
+	@VisibleForTesting
+	void collectFromIndex(Set<String> conceptIds, boolean direct, int limit, 
+			Map<String, Integer> totalsByConcept, ListMultimap<String, String> descendantsByAncestor) throws IOException {
+		final RevisionSearcher searcher = context().service(RevisionSearcher.class);
+		final List<String> ancestorIds = List.copyOf(conceptIds);
+		final List<Hits<String>> descendants = new ArrayList<>(Collections.nCopies(ancestorIds.size(), null));
+		
+		// the index can not return the top hits and total of each ancestor in a single search, run the ID-only searches concurrently instead
+		ConcurrentTasks.runAll(ancestorIds.size(), i -> {
+			final Query<String> query = Query.select(String.class)
+					.from(SnomedConceptDocument.class)
+					.fields(SnomedConceptDocument.Fields.ID)
+					.where(descendantsOf(Set.of(ancestorIds.get(i)), direct, true))
+					.sortBy(SortBy.field(SnomedConceptDocument.Fields.ID, Order.ASC))
+					.limit(limit)
+					.build();
+			
+			try {
+				descendants.set(i, searcher.search(query));
+			} catch (IOException e) {
+				throw SnowowlRuntimeException.wrap(e);
+			}
+		}, MAX_CONCURRENT_SEARCHES);
+		
+		for (int i = 0; i < ancestorIds.size(); i++) {
+			final Hits<String> hits = descendants.get(i);
+			totalsByConcept.put(ancestorIds.get(i), hits.getTotal());
+			descendantsByAncestor.putAll(ancestorIds.get(i), hits.getHits());
+		}
+	}
+	
+	private Expression descendantsOf(Set<String> conceptIds, boolean direct, boolean active) {
+		final ExpressionBuilder descendantFilter = Expressions.builder();
+		if (stated) {
+			descendantFilter.should(statedParents(conceptIds));
+			if (!direct) {
+				descendantFilter.should(statedAncestors(conceptIds));
+			}
+		} else {
+			descendantFilter.should(parents(conceptIds));
+			if (!direct) {
+				descendantFilter.should(ancestors(conceptIds));
+			}
+		}
+		return Expressions.builder()
+				.filter(active(active))
+				.filter(descendantFilter.build())
+				.build();
+	}
+	
 }
@@ -51,6 +51,7 @@ import com.b2international.snowowl.snomed.datastore.request.rf2.importer.Rf2Impo
 import com.b2international.snowowl.snomed.datastore.request.rf2.importer.Rf2TransactionContext;
 import com.b2international.snowowl.snomed.datastore.taxonomy.Taxonomies;
 import com.b2international.snowowl.snomed.datastore.taxonomy.Taxonomy;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyCache;
 import com.b2international.snowowl.snomed.icons.SnomedIconProvider;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
@@ -63,8 +64,15 @@ public final class SnomedRepositoryPreCommitHook extends BaseRepositoryPreCommit
 
 	private static final Set<String> ACTIVE_AND_TERM_FIELDS = Set.of(SnomedDescriptionIndexEntry.Fields.ACTIVE, SnomedDescriptionIndexEntry.Fields.TERM);
 
+	private final TaxonomyCache taxonomyCache;
+
 	public SnomedRepositoryPreCommitHook(Logger log) {
+		this(log, null);
+	}
+	
+	public SnomedRepositoryPreCommitHook(Logger log, TaxonomyCache taxonomyCache) {
 		super(log);
+		this.taxonomyCache = taxonomyCache;
 	}
 	
 	@Override
@@ -237,8 +245,13 @@ public final class SnomedRepositoryPreCommitHook extends BaseRepositoryPreCommit
 
 		final boolean checkCycles = !(context instanceof Rf2TransactionContext);
 		
-		final Taxonomy inferredTaxonomy = Taxonomies.inferred(index, expressionConverter, staging, inferredConceptIds, checkCycles);
-		final Taxonomy statedTaxonomy = Taxonomies.stated(index, expressionConverter, staging, statedConceptIds, checkCycles);
+		if (taxonomyCache != null && staging.isMerge()) {
+			// merges and rebases are not applied incrementally to the cached IS A statements of the target branch
+			taxonomyCache.invalidate(staging.getBranchPath());
+		}
+		
+		final Taxonomy inferredTaxonomy = Taxonomies.inferred(index, expressionConverter, staging, inferredConceptIds, checkCycles, taxonomyCache);
+		final Taxonomy statedTaxonomy = Taxonomies.stated(index, expressionConverter, staging, statedConceptIds, checkCycles, taxonomyCache);
 
 		// XXX change processor execution order is important!!!
 		return List.of(
@@ -27,6 +27,7 @@ import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
 import com.b2international.collections.ints.IntKeyMap;
 import com.b2international.collections.ints.IntSet;
+import com.b2international.collections.longs.LongList;
 import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.collect.LongSets;
 
@@ -55,28 +56,41 @@ public final class InternalIdEdges {
 			this.edges = new IntSet[internalIdMap.size()];
 		}
 
-		public Builder addEdges(final List<String> sourceSctIds, final List<String> destinationSctIds) {
+		public synchronized Builder addEdges(final List<String> sourceSctIds, final List<String> destinationSctIds) {
 			checkArgument(sourceSctIds.size() == destinationSctIds.size(), 
 					"Lists are not of equal size (sources: %s, destinations: %s)", sourceSctIds.size(), destinationSctIds.size());
 
 			for (int i = 0; i < sourceSctIds.size(); i++) {
-				final long sourceSctId = Long.parseLong(sourceSctIds.get(i));
-				final long destinationSctId = Long.parseLong(destinationSctIds.get(i));
-				final int sourceId = internalIdMap.getInternalIdChecked(sourceSctId);
-				final int destinationId = internalIdMap.getInternalIdChecked(destinationSctId);
-
-				IntSet destinationsForSource = edges[sourceId];
-				if (destinationsForSource == null) {
-					destinationsForSource = PrimitiveSets.newIntOpenHashSet();
-					edges[sourceId] = destinationsForSource;
-				}
+				addEdge(Long.parseLong(sourceSctIds.get(i)), Long.parseLong(destinationSctIds.get(i)));
+			}
+
+			return this;
+		}
+
+		public synchronized Builder addEdges(final LongList sourceSctIds, final LongList destinationSctIds) {
+			checkArgument(sourceSctIds.size() == destinationSctIds.size(), 
+					"Lists are not of equal size (sources: %s, destinations: %s)", sourceSctIds.size(), destinationSctIds.size());
 
-				destinationsForSource.add(destinationId);
+			for (int i = 0; i < sourceSctIds.size(); i++) {
+				addEdge(sourceSctIds.get(i), destinationSctIds.get(i));
 			}
 
 			return this;
 		}
 
+		private void addEdge(final long sourceSctId, final long destinationSctId) {
+			final int sourceId = internalIdMap.getInternalIdChecked(sourceSctId);
+			final int destinationId = internalIdMap.getInternalIdChecked(destinationSctId);
+
+			IntSet destinationsForSource = edges[sourceId];
+			if (destinationsForSource == null) {
+				destinationsForSource = PrimitiveSets.newIntOpenHashSet();
+				edges[sourceId] = destinationsForSource;
+			}
+
+			destinationsForSource.add(destinationId);
+		}
+
 		public InternalIdEdges build() {
 			// Convert IntLists to arrays
 			final int[][] builtEdges = Arrays.asList(edges)
@@ -101,13 +115,17 @@ public final class InternalIdEdges {
 	private final IntKeyMap<LongSet> directDestinationIdsCache;
 	private final IntKeyMap<LongSet> indirectDestinationIdsCache;
 
-	private InternalIdEdges(final InternalIdMap internalIdMap, final int[][] edges) {
+	/*package*/ InternalIdEdges(final InternalIdMap internalIdMap, final int[][] edges) {
 		this.internalIdMap = internalIdMap;
 		this.edges = edges;
 		this.directDestinationIdsCache = PrimitiveMaps.newIntKeyOpenHashMapWithExpectedSize(internalIdMap.size());
 		this.indirectDestinationIdsCache = PrimitiveMaps.newIntKeyOpenHashMapWithExpectedSize(internalIdMap.size());
 	}
 
+	/*package*/ int[] getInternalDestinations(final int internalId) {
+		return edges[internalId];
+	}
+
 	public Set<String> getDestinations(final String source, final boolean direct) {
 		return LongSets.toStringSet(getDestinations(Long.parseLong(source), direct));
 	}
@@ -118,19 +136,42 @@ public final class InternalIdEdges {
 			return PrimitiveSets.emptyLongSet();
 		}
 
+		/*
+		 * Edges are queried concurrently during normal form generation; destination sets are computed outside of the lock, so two threads
+		 * might compute the same set, but both will return an equal result.
+		 */
 		if (direct) {
-			if (!directDestinationIdsCache.containsKey(internalId)) {
+			LongSet destinationIds = getCachedDestinations(directDestinationIdsCache, internalId);
+			if (destinationIds == null) {
 				final int[] destinations = edges[internalId];
-				directDestinationIdsCache.put(internalId, toSctIds(destinations));
+				destinationIds = cacheDestinations(directDestinationIdsCache, internalId, toSctIds(destinations));
 			}
-			return directDestinationIdsCache.get(internalId);
+			return destinationIds;
 		} else {
-			if (!indirectDestinationIdsCache.containsKey(internalId)) {
+			LongSet destinationIds = getCachedDestinations(indirectDestinationIdsCache, internalId);
+			if (destinationIds == null) {
 				final BitSet destinations = new BitSet(internalIdMap.size());
 				collectIndirectDestinations(internalId, destinations);
-				indirectDestinationIdsCache.put(internalId, toSctIds(destinations));
+				destinationIds = cacheDestinations(indirectDestinationIdsCache, internalId, toSctIds(destinations));
+			}
+			return destinationIds;
+		}
+	}
+
+	private static LongSet getCachedDestinations(final IntKeyMap<LongSet> cache, final int internalId) {
+		synchronized (cache) {
+			return cache.get(internalId);
+		}
+	}
+
+	private static LongSet cacheDestinations(final IntKeyMap<LongSet> cache, final int internalId, final LongSet destinationIds) {
+		synchronized (cache) {
+			final LongSet existingIds = cache.get(internalId);
+			if (existingIds != null) {
+				return existingIds;
 			}
-			return indirectDestinationIdsCache.get(internalId);
+			cache.put(internalId, destinationIds);
+			return destinationIds;
 		}
 	}
 
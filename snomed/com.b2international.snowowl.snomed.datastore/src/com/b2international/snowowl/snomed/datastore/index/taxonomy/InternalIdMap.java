@@ -60,7 +60,7 @@ public final class InternalIdMap {
 			return addAll(longSctIds);
 		}
 
-		private Builder addAll(final LongSet sctIdsToAdd) {
+		public Builder addAll(final LongSet sctIdsToAdd) {
 			sctIdsToAdd.removeAll(sctIdToInternal.keySet());
 
 			for (final LongIterator itr = sctIdsToAdd.iterator(); itr.hasNext(); /*empty*/) {
@@ -80,7 +80,7 @@ public final class InternalIdMap {
 	private final LongKeyIntMap sctIdToInternal;
 	private final LongList internalToSctId;
 
-	private InternalIdMap(final LongKeyIntMap sctIdToInternal, final LongList internalToSctId) {
+	/*package*/ InternalIdMap(final LongKeyIntMap sctIdToInternal, final LongList internalToSctId) {
 		this.sctIdToInternal = sctIdToInternal;
 		this.internalToSctId = internalToSctId;
 	}
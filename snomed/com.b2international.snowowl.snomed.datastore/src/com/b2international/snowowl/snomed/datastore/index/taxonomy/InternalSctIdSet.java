@@ -79,11 +79,15 @@ public final class InternalSctIdSet implements IInternalSctIdSet {
 	private final InternalIdMap internalIdMap;
 	private final int[] internalIdArray;
 
-	private InternalSctIdSet(final InternalIdMap internalIdMap, final int[] internalIdArray) {
+	/*package*/ InternalSctIdSet(final InternalIdMap internalIdMap, final int[] internalIdArray) {
 		this.internalIdMap = internalIdMap;
 		this.internalIdArray = internalIdArray;
 	}
 
+	/*package*/ int[] getInternalIds() {
+		return internalIdArray;
+	}
+
 	@Override
 	public boolean contains(final String sctId) {
 		return contains(Long.parseLong(sctId));
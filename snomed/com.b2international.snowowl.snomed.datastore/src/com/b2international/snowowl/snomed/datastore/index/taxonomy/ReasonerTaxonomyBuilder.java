@@ -24,6 +24,7 @@ import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedRel
 import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry.Expressions.characteristicTypeIds;
 import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry.Expressions.group;
 import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry.Expressions.typeId;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
@@ -40,6 +41,7 @@ import com.b2international.collections.PrimitiveLists;
 import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
 import com.b2international.collections.longs.LongCollections;
+import com.b2international.collections.longs.LongIterator;
 import com.b2international.collections.longs.LongKeyMap;
 import com.b2international.collections.longs.LongList;
 import com.b2international.collections.longs.LongSet;
@@ -53,6 +55,7 @@ import com.b2international.index.query.Query;
 import com.b2international.index.query.SortBy;
 import com.b2international.index.query.SortBy.Order;
 import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.*;
@@ -62,6 +65,7 @@ import com.b2international.snowowl.snomed.datastore.*;
 import com.b2international.snowowl.snomed.datastore.index.entry.*;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdMultimap.Builder;
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
@@ -82,6 +86,24 @@ public final class ReasonerTaxonomyBuilder {
 			Concepts.INFERRED_RELATIONSHIP);
 	
 	private static final int SCROLL_LIMIT = 50_000;
+	
+	/*
+	 * A range of component IDs in lexicographic order (the order of the keyword fields storing them), lower bound inclusive, upper bound
+	 * exclusive. A null bound leaves the range open on that side.
+	 */
+	private static final class IdRange {
+		
+		private static final IdRange ALL = new IdRange(null, null);
+		
+		private final String from;
+		private final String to;
+		
+		private IdRange(final String from, final String to) {
+			this.from = from;
+			this.to = to;
+		}
+		
+	}
 
 	private final Stopwatch stopwatch;
 	private final Set<String> excludedModuleIds;
@@ -139,16 +161,16 @@ public final class ReasonerTaxonomyBuilder {
 			whereExpressionBuilder.mustNot(modules(excludedModuleIds));
 		}
 		
-		final Query<String[]> query = Query.select(String[].class)
+		final Query<long[]> query = Query.select(long[].class)
 				.from(SnomedConceptDocument.class)
 				.fields(SnomedConceptDocument.Fields.ID)
 				.where(whereExpressionBuilder.build())
 				.limit(SCROLL_LIMIT)
 				.build();
 
-		final List<String> conceptIds = new ArrayList<>(SCROLL_LIMIT);
-		for (final Hits<String[]> hits : searcher.scroll(query)) {
-			for (String[] hit : hits) {
+		final LongSet conceptIds = PrimitiveSets.newLongOpenHashSetWithExpectedSize(SCROLL_LIMIT);
+		for (final Hits<long[]> hits : searcher.scroll(query)) {
+			for (long[] hit : hits) {
 				conceptIds.add(hit[0]);
 			}
 			conceptMapBuilder.addAll(conceptIds);
@@ -263,7 +285,7 @@ public final class ReasonerTaxonomyBuilder {
 			whereExpressionBuilder.mustNot(modules(excludedModuleIds));
 		}
 		
-		final Query<String[]> query = Query.select(String[].class)
+		final Query<long[]> query = Query.select(long[].class)
 				.from(SnomedRelationshipIndexEntry.class)
 				.fields(SnomedRelationshipIndexEntry.Fields.SOURCE_ID, // 0
 						SnomedRelationshipIndexEntry.Fields.DESTINATION_ID) // 1
@@ -271,10 +293,10 @@ public final class ReasonerTaxonomyBuilder {
 				.limit(SCROLL_LIMIT)
 				.build();
 
-		final List<String> sourceIds = new ArrayList<>(SCROLL_LIMIT);
-		final List<String> destinationIds = new ArrayList<>(SCROLL_LIMIT);
-		for (final Hits<String[]> hits : searcher.scroll(query)) {
-			for (final String[] relationship : hits) {
+		final LongList sourceIds = PrimitiveLists.newLongArrayListWithExpectedSize(SCROLL_LIMIT);
+		final LongList destinationIds = PrimitiveLists.newLongArrayListWithExpectedSize(SCROLL_LIMIT);
+		for (final Hits<long[]> hits : searcher.scroll(query)) {
+			for (final long[] relationship : hits) {
 				if (conceptMap.containsKey(relationship[0]) && conceptMap.containsKey(relationship[1])) {
 					sourceIds.add(relationship[0]);
 					destinationIds.add(relationship[1]);
@@ -348,21 +370,16 @@ public final class ReasonerTaxonomyBuilder {
 			whereExpressionBuilder.mustNot(modules(excludedModuleIds));
 		}
 		
-		final Query<String[]> query = Query.select(String[].class)
+		final Query<long[]> query = Query.select(long[].class)
 				.from(SnomedConceptDocument.class)
 				.fields(SnomedConceptDocument.Fields.ID)
 				.where(whereExpressionBuilder.build())
 				.limit(SCROLL_LIMIT)
 				.build();
 
-		/*
-		 * XXX: For HashSets, Guava's factory method over-allocates by the expected
-		 * amount so that the expected number of elements can be inserted without
-		 * expanding the backing data structure.
-		 */
-		final Set<String> sctIds = newHashSetWithExpectedSize(SCROLL_LIMIT);
-		for (final Hits<String[]> hits : searcher.scroll(query)) {
-			for (final String[] concept : hits) {
+		final LongSet sctIds = PrimitiveSets.newLongOpenHashSetWithExpectedSize(SCROLL_LIMIT);
+		for (final Hits<long[]> hits : searcher.scroll(query)) {
+			for (final long[] concept : hits) {
 				sctIds.add(concept[0]);
 			}
 
@@ -409,6 +426,13 @@ public final class ReasonerTaxonomyBuilder {
 	public ReasonerTaxonomyBuilder addActiveStatedRelationships(final RevisionSearcher searcher) {
 		entering("Registering active stated relationships using revision searcher");
 
+		addActiveStatedRelationships(searcher, IdRange.ALL);
+
+		leaving("Registering active stated relationships using revision searcher");
+		return this;
+	}
+
+	private void addActiveStatedRelationships(final RevisionSearcher searcher, final IdRange sourceIdRange) {
 		final ExpressionBuilder whereExpressionBuilder = Expressions.builder()
 				.filter(active())
 				.filter(characteristicTypeId(Concepts.STATED_RELATIONSHIP));
@@ -417,10 +441,7 @@ public final class ReasonerTaxonomyBuilder {
 			whereExpressionBuilder.mustNot(modules(excludedModuleIds));
 		}
 		
-		addRelationships(searcher, whereExpressionBuilder, statedRelationships);
-
-		leaving("Registering active stated relationships using revision searcher");
-		return this;
+		addRelationships(searcher, whereExpressionBuilder, sourceIdRange, statedRelationships);
 	}
 
 	public ReasonerTaxonomyBuilder addActiveStatedRelationships(final Stream<SnomedRelationship> sortedRelationships) {
@@ -438,7 +459,14 @@ public final class ReasonerTaxonomyBuilder {
 
 	public ReasonerTaxonomyBuilder addActiveAdditionalGroupedRelationships(final RevisionSearcher searcher) {
 		entering("Registering active additional grouped relationships using revision searcher");
-	
+
+		addActiveAdditionalGroupedRelationships(searcher, IdRange.ALL);
+
+		leaving("Registering active additional grouped relationships using revision searcher");
+		return this;
+	}
+
+	private void addActiveAdditionalGroupedRelationships(final RevisionSearcher searcher, final IdRange sourceIdRange) {
 		final ExpressionBuilder whereExpressionBuilder = Expressions.builder()
 				.filter(active())
 				.filter(group(1, Integer.MAX_VALUE))
@@ -448,10 +476,7 @@ public final class ReasonerTaxonomyBuilder {
 			whereExpressionBuilder.mustNot(modules(excludedModuleIds));
 		}
 		
-		addRelationships(searcher, whereExpressionBuilder, additionalGroupedRelationships);
-	
-		leaving("Registering active additional grouped relationships using revision searcher");
-		return this;
+		addRelationships(searcher, whereExpressionBuilder, sourceIdRange, additionalGroupedRelationships);
 	}
 
 	public ReasonerTaxonomyBuilder addActiveAdditionalGroupedRelationships(final Stream<SnomedRelationship> sortedRelationships) {
@@ -470,7 +495,14 @@ public final class ReasonerTaxonomyBuilder {
 
 	public ReasonerTaxonomyBuilder addActiveInferredRelationships(final RevisionSearcher searcher) {
 		entering("Registering active inferred relationships using revision searcher");
-		
+
+		addActiveInferredRelationships(searcher, IdRange.ALL);
+
+		leaving("Registering active inferred relationships using revision searcher");
+		return this;
+	}
+
+	private void addActiveInferredRelationships(final RevisionSearcher searcher, final IdRange sourceIdRange) {
 		final ExpressionBuilder whereExpressionBuilder = Expressions.builder()
 				.filter(active())
 				.filter(characteristicTypeId(Concepts.INFERRED_RELATIONSHIP));
@@ -479,10 +511,7 @@ public final class ReasonerTaxonomyBuilder {
 			whereExpressionBuilder.mustNot(modules(excludedModuleIds));
 		}
 		
-		addRelationships(searcher, whereExpressionBuilder, existingInferredRelationships);
-				
-		leaving("Registering active inferred relationships using revision searcher");
-		return this;
+		addRelationships(searcher, whereExpressionBuilder, sourceIdRange, existingInferredRelationships);
 	}
 
 	public ReasonerTaxonomyBuilder addActiveInferredRelationships(final Stream<SnomedRelationship> sortedRelationships) {
@@ -498,6 +527,40 @@ public final class ReasonerTaxonomyBuilder {
 		return this;
 	}
 
+	private static void filterPartition(final ExpressionBuilder whereExpressionBuilder, final String field, final IdRange partition) {
+		if (partition.from != null || partition.to != null) {
+			whereExpressionBuilder.filter(Expressions.matchRange(field, partition.from, partition.to, true, false));
+		}
+	}
+	
+	/*
+	 * Splits the ID space into (at most) the given number of ranges, each holding the same number of concepts of the taxonomy. The first and
+	 * the last range are open, so that the ranges cover all IDs, including the ones of components referring to unknown concepts.
+	 */
+	private List<IdRange> getConceptIdRanges(final int count) {
+		final int rangeCount = Math.min(count, conceptMap.size());
+		if (rangeCount <= 1) {
+			return ImmutableList.of(IdRange.ALL);
+		}
+		
+		final String[] conceptIds = new String[conceptMap.size()];
+		final LongIterator sctIds = conceptMap.getSctIds();
+		for (int i = 0; sctIds.hasNext(); i++) {
+			conceptIds[i] = Long.toString(sctIds.next());
+		}
+		Arrays.sort(conceptIds);
+		
+		final List<IdRange> ranges = new ArrayList<>(rangeCount);
+		String from = null;
+		for (int i = 1; i < rangeCount; i++) {
+			final String to = conceptIds[(int) ((long) conceptIds.length * i / rangeCount)];
+			ranges.add(new IdRange(from, to));
+			from = to;
+		}
+		ranges.add(new IdRange(from, null));
+		return ranges;
+	}
+
 	private static <T, U> U ifNotNull(final T value, final Function<T, U> mapper) {
 		if (value != null) {
 			return mapper.apply(value);
@@ -506,7 +569,12 @@ public final class ReasonerTaxonomyBuilder {
 		}
 	}
 
-	private void addRelationships(final RevisionSearcher searcher, final ExpressionBuilder whereExpressionBuilder, final Builder<StatementFragment> fragmentBuilder) {
+	private void addRelationships(final RevisionSearcher searcher, 
+			final ExpressionBuilder whereExpressionBuilder, 
+			final IdRange sourceIdRange, 
+			final Builder<StatementFragment> fragmentBuilder) {
+		
+		filterPartition(whereExpressionBuilder, SnomedRelationshipIndexEntry.Fields.SOURCE_ID, sourceIdRange);
 		
 		final Query<String[]> query = Query.select(String[].class)
 				.from(SnomedRelationshipIndexEntry.class)
@@ -656,7 +724,14 @@ public final class ReasonerTaxonomyBuilder {
 	
 	public ReasonerTaxonomyBuilder addActiveAxioms(final RevisionSearcher searcher) {
 		entering("Registering active stated OWL axioms using revision searcher");
-
+		
+		addActiveAxioms(searcher, IdRange.ALL);
+		
+		leaving("Registering active stated OWL axioms using revision searcher");
+		return this;
+	}
+	
+	private void addActiveAxioms(final RevisionSearcher searcher, final IdRange referencedComponentIdRange) {
 		final ExpressionBuilder whereExpressionBuilder = Expressions.builder()
 				.filter(SnomedRefSetMemberIndexEntry.Expressions.active())
 				.filter(SnomedRefSetMemberIndexEntry.Expressions.refSetTypes(Collections.singleton(SnomedRefSetType.OWL_AXIOM)));
@@ -665,6 +740,8 @@ public final class ReasonerTaxonomyBuilder {
 			whereExpressionBuilder.mustNot(modules(excludedModuleIds));
 		}
 		
+		filterPartition(whereExpressionBuilder, SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID, referencedComponentIdRange);
+		
 		final Query<SnomedRefSetMemberIndexEntry> query = Query.select(SnomedRefSetMemberIndexEntry.class)
 				.from(SnomedRefSetMemberIndexEntry.class)
 				.where(whereExpressionBuilder.build())
@@ -732,14 +809,14 @@ public final class ReasonerTaxonomyBuilder {
 					final String firstToken = tok.nextToken();
 					if ("transitiveobjectproperty".equals(firstToken)) {
 						long propertyId = Long.parseLong(tok.nextToken());
-						propertyChains.add(new PropertyChain(propertyId, propertyId, propertyId));
+						addPropertyChain(new PropertyChain(propertyId, propertyId, propertyId));
 					} else if ("subobjectpropertyof".equals(firstToken)) {
 						String nextToken = tok.nextToken();
 						if ("objectpropertychain".equals(nextToken)) {
 							long sourceType = Long.parseLong(tok.nextToken());
 							long destinationType = Long.parseLong(tok.nextToken());
 							long inferredType = Long.parseLong(tok.nextToken());
-							propertyChains.add(new PropertyChain(sourceType, destinationType, inferredType));
+							addPropertyChain(new PropertyChain(sourceType, destinationType, inferredType));
 						} else {
 							isSubPropertyOf = true;
 						}
@@ -817,9 +894,13 @@ public final class ReasonerTaxonomyBuilder {
 			sourceIds.clear();
 			destinationIds.clear();
 		}
-		
-		leaving("Registering active stated OWL axioms using revision searcher");
-		return this;
+	}
+	
+	private void addPropertyChain(final PropertyChain propertyChain) {
+		// OWL axiom scans of different partitions may register property chains at the same time
+		synchronized (propertyChains) {
+			propertyChains.add(propertyChain);
+		}
 	}
 	
 	public ReasonerTaxonomyBuilder addNeverGroupedTypeIds(final RevisionSearcher searcher) {
@@ -861,7 +942,14 @@ public final class ReasonerTaxonomyBuilder {
 	
 	public ReasonerTaxonomyBuilder addActiveConcreteDomainMembers(final RevisionSearcher searcher) {
 		entering("Registering active concrete domain members using revision searcher");
-
+		
+		addActiveConcreteDomainMembers(searcher, IdRange.ALL);
+		
+		leaving("Registering active concrete domain members using revision searcher");
+		return this;
+	}
+	
+	private void addActiveConcreteDomainMembers(final RevisionSearcher searcher, final IdRange referencedComponentIdRange) {
 		final ExpressionBuilder whereExpressionBuilder = Expressions.builder()
 				.filter(active())
 				.filter(refSetTypes(Collections.singleton(SnomedRefSetType.CONCRETE_DATA_TYPE)))
@@ -870,6 +958,8 @@ public final class ReasonerTaxonomyBuilder {
 		if (!excludedModuleIds.isEmpty()) {
 			whereExpressionBuilder.mustNot(modules(excludedModuleIds));
 		}
+		
+		filterPartition(whereExpressionBuilder, SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID, referencedComponentIdRange);
 
 		final Query<SnomedRefSetMemberIndexEntry> query = Query.select(SnomedRefSetMemberIndexEntry.class)
 				.where(whereExpressionBuilder.build())
@@ -941,9 +1031,6 @@ public final class ReasonerTaxonomyBuilder {
 			inferredFragments.clear();
 			additionalGroupedFragments.clear();
 		}
-
-		leaving("Registering active concrete domain members using revision searcher");
-		return this;
 	}
 
 	/*
@@ -1025,6 +1112,65 @@ public final class ReasonerTaxonomyBuilder {
 		return this;
 	}
 
+	/**
+	 * Registers concept flags, stated IS A edges, relationships, OWL axioms, "never grouped" type IDs and optionally concrete domain members
+	 * using the given revision searcher, running at most <code>maxConcurrentScans</code> index scans at the same time.
+	 * <p>
+	 * If scans are allowed to run concurrently, relationship, OWL axiom and concrete domain member scans are also split into
+	 * <code>maxConcurrentScans</code> partitions by ranges of the source (referenced component) ID, so that all statements of a concept are
+	 * still collected by the same scan. Each range holds the same number of concepts.
+	 * 
+	 * @param searcher - the revision searcher to use
+	 * @param concreteDomainSupported - whether concrete domain members should be collected
+	 * @param maxConcurrentScans - the maximum number of scans to run at the same time, <code>1</code> runs them one after the other on the
+	 *            calling thread
+	 * @return this builder instance for method chaining
+	 */
+	public ReasonerTaxonomyBuilder addActiveComponents(final RevisionSearcher searcher, final boolean concreteDomainSupported, final int maxConcurrentScans) {
+		checkArgument(maxConcurrentScans > 0, "Maximum number of concurrent scans should be greater than zero, got '%s'.", maxConcurrentScans);
+		
+		if (maxConcurrentScans == 1) {
+			addConceptFlags(searcher);
+			addActiveStatedEdges(searcher);
+			addActiveStatedRelationships(searcher);
+			addActiveInferredRelationships(searcher);
+			addActiveAdditionalGroupedRelationships(searcher);
+			addNeverGroupedTypeIds(searcher);
+			addActiveAxioms(searcher);
+			
+			if (concreteDomainSupported) {
+				addActiveConcreteDomainMembers(searcher);
+			}
+			
+			return this;
+		}
+		
+		final String taskName = String.format("Registering active components using revision searcher with %s concurrent scans", maxConcurrentScans);
+		entering(taskName);
+		
+		// Partitioned scans come first, as they make up the bulk of the work
+		final List<Runnable> scans = new ArrayList<>();
+		for (final IdRange partition : getConceptIdRanges(maxConcurrentScans)) {
+			scans.add(() -> addActiveStatedRelationships(searcher, partition));
+			scans.add(() -> addActiveInferredRelationships(searcher, partition));
+			scans.add(() -> addActiveAdditionalGroupedRelationships(searcher, partition));
+			scans.add(() -> addActiveAxioms(searcher, partition));
+			
+			if (concreteDomainSupported) {
+				scans.add(() -> addActiveConcreteDomainMembers(searcher, partition));
+			}
+		}
+		
+		scans.add(() -> addConceptFlags(searcher));
+		scans.add(() -> addActiveStatedEdges(searcher));
+		scans.add(() -> addNeverGroupedTypeIds(searcher));
+		
+		ConcurrentTasks.runAll(scans, maxConcurrentScans);
+		
+		leaving(taskName);
+		return this;
+	}
+	
 	public ReasonerTaxonomy build() {
 		checkState(conceptMap != null, "finishConcepts() method was not called on taxonomy builder.");
 		
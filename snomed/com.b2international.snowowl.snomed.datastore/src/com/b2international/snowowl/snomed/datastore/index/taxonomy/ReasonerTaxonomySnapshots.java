@@ -0,0 +1,392 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.taxonomy;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyIntMap;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongList;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragmentWithDestination;
+import com.b2international.snowowl.snomed.datastore.StatementFragmentWithValue;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Writes and reads a compact binary representation of a {@link ReasonerTaxonomy}, as returned by {@link ReasonerTaxonomyBuilder#build()}.
+ * Inferred parts of the taxonomy (inferred ancestors, equivalences, unsatisfiable concepts) are not part of the snapshot.
+ * <p>
+ * Concept SCTIDs are stored in internal ID order, so that the edge arrays and concept flag sets can be written and read back as-is, without
+ * having to map them from and to SCTIDs. Snapshots are read from a {@link ByteBuffer}, which is expected to be a memory-mapped view of the
+ * snapshot file.
+ *
+ * @since 7.17
+ */
+public final class ReasonerTaxonomySnapshots {
+
+	private static final int MAGIC = 0x534E5458; // "SNTX"
+	private static final int VERSION = 1;
+
+	private static final int[] EMPTY_ARRAY = new int[0];
+
+	private static final byte STATEMENT_WITH_DESTINATION = 0;
+	private static final byte STATEMENT_WITH_VALUE = 1;
+
+	@FunctionalInterface
+	private interface ValueWriter<T> {
+		void write(DataOutput out, T value) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface ValueReader<T> {
+		T read(ByteBuffer in);
+	}
+
+	private ReasonerTaxonomySnapshots() {}
+
+	/**
+	 * Writes the given taxonomy to the specified output.
+	 *
+	 * @param taxonomy - the taxonomy to write
+	 * @param out - the output to write to
+	 * @throws IOException - if writing to the output fails
+	 */
+	public static void write(final ReasonerTaxonomy taxonomy, final DataOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		final InternalIdMap conceptMap = taxonomy.getConceptMap();
+		final int conceptCount = conceptMap.size();
+		out.writeInt(conceptCount);
+		for (int i = 0; i < conceptCount; i++) {
+			out.writeLong(conceptMap.getSctId(i));
+		}
+
+		final LongKeyMap<String> fullySpecifiedNames = taxonomy.getFullySpecifiedNames();
+		out.writeBoolean(fullySpecifiedNames != null);
+		if (fullySpecifiedNames != null) {
+			out.writeInt(fullySpecifiedNames.size());
+			for (final LongIterator itr = fullySpecifiedNames.keySet().iterator(); itr.hasNext(); /* empty */) {
+				final long conceptId = itr.next();
+				out.writeLong(conceptId);
+				writeString(out, fullySpecifiedNames.get(conceptId));
+			}
+		}
+
+		writeEdges(out, conceptCount, taxonomy.getStatedAncestors());
+		writeEdges(out, conceptCount, taxonomy.getStatedDescendants());
+
+		writeInts(out, taxonomy.getDefiningConcepts().getInternalIds());
+		writeInts(out, taxonomy.getExhaustiveConcepts().getInternalIds());
+
+		writeMultimap(out, conceptMap, taxonomy.getStatedRelationships(), ReasonerTaxonomySnapshots::writeStatement);
+		writeMultimap(out, conceptMap, taxonomy.getAxiomNonIsARelationships(), ReasonerTaxonomySnapshots::writeStatement);
+		writeMultimap(out, conceptMap, taxonomy.getExistingInferredRelationships(), ReasonerTaxonomySnapshots::writeStatement);
+		writeMultimap(out, conceptMap, taxonomy.getAdditionalGroupedRelationships(), ReasonerTaxonomySnapshots::writeStatement);
+
+		writeMultimap(out, conceptMap, taxonomy.getAxioms(), ReasonerTaxonomySnapshots::writeString);
+
+		final LongSet neverGroupedTypeIds = taxonomy.getNeverGroupedTypeIds();
+		out.writeInt(neverGroupedTypeIds.size());
+		for (final LongIterator itr = neverGroupedTypeIds.iterator(); itr.hasNext(); /* empty */) {
+			out.writeLong(itr.next());
+		}
+
+		final Set<PropertyChain> propertyChains = taxonomy.getPropertyChains();
+		out.writeInt(propertyChains.size());
+		for (final PropertyChain propertyChain : propertyChains) {
+			out.writeLong(propertyChain.getSourceType());
+			out.writeLong(propertyChain.getDestinationType());
+			out.writeLong(propertyChain.getInferredType());
+		}
+
+		writeMultimap(out, conceptMap, taxonomy.getStatedConcreteDomainMembers(), ReasonerTaxonomySnapshots::writeConcreteDomainMember);
+		writeMultimap(out, conceptMap, taxonomy.getInferredConcreteDomainMembers(), ReasonerTaxonomySnapshots::writeConcreteDomainMember);
+		writeMultimap(out, conceptMap, taxonomy.getAdditionalGroupedConcreteDomainMembers(), ReasonerTaxonomySnapshots::writeConcreteDomainMember);
+	}
+
+	/**
+	 * Reads a taxonomy from the specified buffer, starting at the buffer's current position.
+	 *
+	 * @param in - the buffer to read from
+	 * @return the taxonomy read from the buffer
+	 * @throws IllegalArgumentException - if the buffer does not contain a snapshot in the current format
+	 */
+	public static ReasonerTaxonomy read(final ByteBuffer in) {
+		checkArgument(in.getInt() == MAGIC, "Buffer does not contain a reasoner taxonomy snapshot.");
+		final int version = in.getInt();
+		checkArgument(version == VERSION, "Unsupported reasoner taxonomy snapshot version '%s'.", version);
+
+		final int conceptCount = in.getInt();
+		final LongKeyIntMap sctIdToInternal = PrimitiveMaps.newLongKeyIntOpenHashMapWithExpectedSize(conceptCount);
+		final LongList internalToSctId = PrimitiveLists.newLongArrayListWithExpectedSize(conceptCount);
+		for (int i = 0; i < conceptCount; i++) {
+			final long sctId = in.getLong();
+			sctIdToInternal.put(sctId, i);
+			internalToSctId.add(sctId);
+		}
+		final InternalIdMap conceptMap = new InternalIdMap(sctIdToInternal, internalToSctId);
+
+		LongKeyMap<String> fullySpecifiedNames = null;
+		if (in.get() != 0) {
+			final int nameCount = in.getInt();
+			fullySpecifiedNames = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(nameCount);
+			for (int i = 0; i < nameCount; i++) {
+				final long conceptId = in.getLong();
+				fullySpecifiedNames.put(conceptId, readString(in));
+			}
+		}
+
+		final InternalIdEdges statedAncestors = readEdges(in, conceptMap);
+		final InternalIdEdges statedDescendants = readEdges(in, conceptMap);
+
+		final InternalSctIdSet definingConcepts = new InternalSctIdSet(conceptMap, readInts(in));
+		final InternalSctIdSet exhaustiveConcepts = new InternalSctIdSet(conceptMap, readInts(in));
+
+		final InternalIdMultimap<StatementFragment> statedRelationships = readMultimap(in, conceptMap, ReasonerTaxonomySnapshots::readStatement);
+		final InternalIdMultimap<StatementFragment> axiomNonIsARelationships = readMultimap(in, conceptMap, ReasonerTaxonomySnapshots::readStatement);
+		final InternalIdMultimap<StatementFragment> existingInferredRelationships = readMultimap(in, conceptMap, ReasonerTaxonomySnapshots::readStatement);
+		final InternalIdMultimap<StatementFragment> additionalGroupedRelationships = readMultimap(in, conceptMap, ReasonerTaxonomySnapshots::readStatement);
+
+		final InternalIdMultimap<String> axioms = readMultimap(in, conceptMap, ReasonerTaxonomySnapshots::readString);
+
+		final int neverGroupedTypeIdCount = in.getInt();
+		final LongSet neverGroupedTypeIds = PrimitiveSets.newLongOpenHashSetWithExpectedSize(neverGroupedTypeIdCount);
+		for (int i = 0; i < neverGroupedTypeIdCount; i++) {
+			neverGroupedTypeIds.add(in.getLong());
+		}
+
+		final int propertyChainCount = in.getInt();
+		final ImmutableSet.Builder<PropertyChain> propertyChains = ImmutableSet.builder();
+		for (int i = 0; i < propertyChainCount; i++) {
+			propertyChains.add(new PropertyChain(in.getLong(), in.getLong(), in.getLong()));
+		}
+
+		final InternalIdMultimap<ConcreteDomainFragment> statedConcreteDomainMembers = readMultimap(in, conceptMap, ReasonerTaxonomySnapshots::readConcreteDomainMember);
+		final InternalIdMultimap<ConcreteDomainFragment> inferredConcreteDomainMembers = readMultimap(in, conceptMap, ReasonerTaxonomySnapshots::readConcreteDomainMember);
+		final InternalIdMultimap<ConcreteDomainFragment> additionalGroupedConcreteDomainMembers = readMultimap(in, conceptMap, ReasonerTaxonomySnapshots::readConcreteDomainMember);
+
+		return new ReasonerTaxonomy(
+				conceptMap,
+				fullySpecifiedNames,
+
+				statedAncestors,
+				statedDescendants,
+
+				definingConcepts,
+				exhaustiveConcepts,
+
+				statedRelationships,
+				axiomNonIsARelationships,
+				existingInferredRelationships,
+				additionalGroupedRelationships,
+
+				axioms,
+				neverGroupedTypeIds,
+				propertyChains.build(),
+
+				statedConcreteDomainMembers,
+				inferredConcreteDomainMembers,
+				additionalGroupedConcreteDomainMembers,
+
+				null,
+				null,
+				null,
+				null);
+	}
+
+	private static void writeEdges(final DataOutput out, final int conceptCount, final InternalIdEdges edges) throws IOException {
+		for (int i = 0; i < conceptCount; i++) {
+			writeInts(out, edges.getInternalDestinations(i));
+		}
+	}
+
+	private static InternalIdEdges readEdges(final ByteBuffer in, final InternalIdMap conceptMap) {
+		final int[][] edges = new int[conceptMap.size()][];
+		for (int i = 0; i < edges.length; i++) {
+			edges[i] = readInts(in);
+		}
+		return new InternalIdEdges(conceptMap, edges);
+	}
+
+	private static void writeInts(final DataOutput out, final int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (final int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	private static int[] readInts(final ByteBuffer in) {
+		final int length = in.getInt();
+		if (length == 0) {
+			return EMPTY_ARRAY;
+		}
+
+		final int[] values = new int[length];
+		in.asIntBuffer().get(values);
+		in.position(in.position() + length * Integer.BYTES);
+		return values;
+	}
+
+	private static <T> void writeMultimap(final DataOutput out,
+			final InternalIdMap conceptMap,
+			final InternalIdMultimap<T> multimap,
+			final ValueWriter<T> valueWriter) throws IOException {
+
+		// Keys are written as internal IDs, only for concepts that have at least one value
+		int keyCount = 0;
+		for (int i = 0; i < conceptMap.size(); i++) {
+			if (!multimap.get(conceptMap.getSctId(i)).isEmpty()) {
+				keyCount++;
+			}
+		}
+
+		out.writeInt(keyCount);
+		for (int i = 0; i < conceptMap.size(); i++) {
+			final Collection<T> values = multimap.get(conceptMap.getSctId(i));
+			if (values.isEmpty()) {
+				continue;
+			}
+
+			out.writeInt(i);
+			out.writeInt(values.size());
+			for (final T value : values) {
+				valueWriter.write(out, value);
+			}
+		}
+	}
+
+	private static <T> InternalIdMultimap<T> readMultimap(final ByteBuffer in, final InternalIdMap conceptMap, final ValueReader<T> valueReader) {
+		final int keyCount = in.getInt();
+		final InternalIdMultimap.Builder<T> builder = InternalIdMultimap.builder(conceptMap, keyCount);
+		for (int i = 0; i < keyCount; i++) {
+			final long sctId = conceptMap.getSctId(in.getInt());
+			final int valueCount = in.getInt();
+			final List<T> values = new ArrayList<>(valueCount);
+			for (int j = 0; j < valueCount; j++) {
+				values.add(valueReader.read(in));
+			}
+			builder.putAll(sctId, values);
+		}
+		return builder.build();
+	}
+
+	private static void writeStatement(final DataOutput out, final StatementFragment statement) throws IOException {
+		if (statement instanceof StatementFragmentWithDestination) {
+			out.writeByte(STATEMENT_WITH_DESTINATION);
+		} else {
+			out.writeByte(STATEMENT_WITH_VALUE);
+		}
+
+		out.writeLong(statement.getTypeId());
+		out.writeInt(statement.getGroup());
+		out.writeInt(statement.getUnionGroup());
+		out.writeBoolean(statement.isUniversal());
+		out.writeLong(statement.getStatementId());
+		out.writeLong(statement.getModuleId());
+		out.writeBoolean(statement.isReleased());
+
+		if (statement instanceof StatementFragmentWithDestination) {
+			final StatementFragmentWithDestination statementWithDestination = (StatementFragmentWithDestination) statement;
+			out.writeLong(statementWithDestination.getDestinationId());
+			out.writeBoolean(statementWithDestination.isDestinationNegated());
+		} else {
+			writeString(out, ((StatementFragmentWithValue) statement).getValue());
+		}
+	}
+
+	private static StatementFragment readStatement(final ByteBuffer in) {
+		final byte kind = in.get();
+		final long typeId = in.getLong();
+		final int group = in.getInt();
+		final int unionGroup = in.getInt();
+		final boolean universal = in.get() != 0;
+		final long statementId = in.getLong();
+		final long moduleId = in.getLong();
+		final boolean released = in.get() != 0;
+
+		if (kind == STATEMENT_WITH_DESTINATION) {
+			final long destinationId = in.getLong();
+			final boolean destinationNegated = in.get() != 0;
+			return new StatementFragmentWithDestination(
+				typeId, group, unionGroup, universal, statementId, moduleId, released, destinationId, destinationNegated);
+		} else {
+			final String value = readString(in);
+			return new StatementFragmentWithValue(
+				typeId, group, unionGroup, universal, statementId, moduleId, released, value);
+		}
+	}
+
+	private static void writeConcreteDomainMember(final DataOutput out, final ConcreteDomainFragment member) throws IOException {
+		writeString(out, member.getMemberId());
+		out.writeLong(member.getRefSetId());
+		out.writeInt(member.getGroup());
+		writeString(out, member.getSerializedValue());
+		out.writeLong(member.getTypeId());
+		out.writeBoolean(member.isReleased());
+	}
+
+	private static ConcreteDomainFragment readConcreteDomainMember(final ByteBuffer in) {
+		final String memberId = readString(in);
+		final long refSetId = in.getLong();
+		final int group = in.getInt();
+		final String serializedValue = readString(in);
+		final long typeId = in.getLong();
+		final boolean released = in.get() != 0;
+		return new ConcreteDomainFragment(memberId, refSetId, group, serializedValue, typeId, released);
+	}
+
+	/*
+	 * XXX: DataOutput#writeUTF is limited to 64K bytes, which might not be enough for larger OWL axioms, so strings are written as a length
+	 * prefixed UTF-8 byte sequence instead (-1 indicates a null value)
+	 */
+	private static void writeString(final DataOutput out, final String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(final ByteBuffer in) {
+		final int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+
+		final byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
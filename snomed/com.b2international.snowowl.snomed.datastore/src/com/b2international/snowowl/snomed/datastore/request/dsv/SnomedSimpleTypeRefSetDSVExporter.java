@@ -37,8 +37,8 @@ import com.b2international.commons.http.ExtendedLocale;
 import com.b2international.snowowl.core.date.Dates;
 import com.b2international.snowowl.core.date.EffectiveTimes;
 import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.request.PrefetchingSearchResourceRequestIterator;
 import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
-import com.b2international.snowowl.core.request.SearchResourceRequestIterator;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
@@ -134,7 +134,7 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 	/*
 	 * Fetches members of the specified reference set
 	 */
-	private SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> getMemberConceptIterator(String expand) {
+	private PrefetchingSearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> getMemberConceptIterator(String expand) {
 		
 		SnomedConceptSearchRequestBuilder builder = SnomedRequests.prepareSearchConcept()
 			.setLocales(locales)
@@ -148,7 +148,7 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 			builder.isActiveMemberOf(refSetId);
 		}
 		
-		return new SearchResourceRequestIterator<>(builder, b -> b.build().execute(context));
+		return new PrefetchingSearchResourceRequestIterator<>(builder, b -> b.build().execute(context));
 	}
 
 	/*
@@ -158,9 +158,10 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		descriptionCount = newHashMap();
 		propertyCountByGroup = newHashMap();
 		
-		SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIterator = getMemberConceptIterator(HEADER_EXPAND);
-		while (conceptIterator.hasNext()) {
-			computeHeader(conceptIterator.next());
+		try (PrefetchingSearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIterator = getMemberConceptIterator(HEADER_EXPAND)) {
+			while (conceptIterator.hasNext()) {
+				computeHeader(conceptIterator.next());
+			}
 		}
 	}
 	
@@ -393,12 +394,12 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 	}
 
 	private void writeValues(IProgressMonitor monitor, BufferedWriter writer) throws IOException {
-		SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIterator = getMemberConceptIterator(DATA_EXPAND);
-		
-		while (conceptIterator.hasNext()) {
-			SnomedConcepts chunk = conceptIterator.next();
-			writeValues(writer, chunk);
-			monitor.worked(chunk.getItems().size());
+		try (PrefetchingSearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIterator = getMemberConceptIterator(DATA_EXPAND)) {
+			while (conceptIterator.hasNext()) {
+				SnomedConcepts chunk = conceptIterator.next();
+				writeValues(writer, chunk);
+				monitor.worked(chunk.getItems().size());
+			}
 		}
 	}
 		
@@ -21,9 +21,10 @@ import static com.google.common.collect.Sets.newTreeSet;
 import static java.util.Collections.singleton;
 import static java.util.stream.Collectors.toSet;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -33,6 +34,7 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -41,6 +43,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -77,6 +82,7 @@ import com.b2international.snowowl.core.request.RevisionIndexReadRequest;
 import com.b2international.snowowl.core.request.SearchResourceRequest;
 import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.core.uri.CodeSystemURI;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
@@ -90,14 +96,17 @@ import com.b2international.snowowl.snomed.core.domain.SnomedDescriptions;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSets;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
 import com.b2international.snowowl.snomed.datastore.request.SnomedConceptSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRefSetMemberSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2ComponentEffectiveTimeSet;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2ConceptExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2ConcreteValueExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2DescriptionExporter;
+import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2Exporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2LanguageRefSetExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2RefSetDescriptorRefSetExporter;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.Rf2RefSetExporter;
@@ -122,6 +131,9 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 	private static final String NON_STATED_CHARACTERISTIC_TYPES = "<<" + Concepts.CHARACTERISTIC_TYPE + " MINUS " + Concepts.STATED_RELATIONSHIP;
 
 	private static final long serialVersionUID = 2L;
+	
+	private static final int ARCHIVE_PIPE_SIZE = 1024 * 1024;
+	private static final int ARCHIVE_BUFFER_SIZE = 64 * 1024;
 
 	private static final Ordering<CodeSystemVersion> EFFECTIVE_DATE_ORDERING = Ordering.natural()
 			.onResultOf(CodeSystemVersion::getEffectiveTime);
@@ -262,6 +274,9 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		Multimap<String, String> availableLanguageCodes = getLanguageCodes(context, branchesToExport);
 		
 		Path exportDirectory = null;
+		
+		// independent release files are exported concurrently if enabled
+		final int maxExportWorkers = context.service(SnomedCoreConfiguration.class).getMaxExportWorkers();
 
 		try {
 			
@@ -277,7 +292,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			// create main folder including release status and archive effective date
 			final Path releaseDirectory = createReleaseDirectory(exportDirectory, archiveEffectiveDate);
 
-			final Set<String> visitedComponentEffectiveTimes = newHashSet();
+			final Rf2ComponentEffectiveTimeSet visitedComponentEffectiveTimes = new Rf2ComponentEffectiveTimeSet();
 			
 			final long effectiveTimeStart = startEffectiveTime != null ? EffectiveTimes.getEffectiveTime(startEffectiveTime) : 0;
 			final long effectiveTimeEnd =  endEffectiveTime != null ? EffectiveTimes.getEffectiveTime(endEffectiveTime) : Long.MAX_VALUE;
@@ -292,7 +307,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 						effectiveTimeStart,
 						effectiveTimeEnd,
 						visitedComponentEffectiveTimes,
-						availableLanguageCodes.get(branch));
+						availableLanguageCodes.get(branch),
+						maxExportWorkers);
 				
 			}
 			
@@ -306,7 +322,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 						EffectiveTimes.UNSET_EFFECTIVE_TIME,
 						EffectiveTimes.UNSET_EFFECTIVE_TIME,
 						visitedComponentEffectiveTimes,
-						availableLanguageCodes.get(referenceBranch));
+						availableLanguageCodes.get(referenceBranch),
+						maxExportWorkers);
 			}
 
 			// Step 6: compress to archive and upload to the file registry
@@ -602,71 +619,56 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final String archiveEffectiveTime, 
 			final long effectiveTimeFilterStart, 
 			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes,
-			final Collection<String> languageCodes) throws IOException {
+			final Rf2ComponentEffectiveTimeSet visitedComponentEffectiveTimes,
+			final Collection<String> languageCodes,
+			final int maxExportWorkers) throws IOException {
 
+		final List<Rf2Exporter<?, ?, ?>> exporters = newArrayList();
+		
 		for (final String componentToExport : componentTypes) {
 			switch (componentToExport) {
 				case SnomedTerminologyComponentConstants.CONCEPT:
-					exportConcepts(releaseDirectory, 
-							context,
+					exportConcepts(context,
 							branch,
 							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+							exporters);
 					break;
 	
 				case SnomedTerminologyComponentConstants.DESCRIPTION:
 					for (final String languageCode : languageCodes) {
-						exportDescriptions(releaseDirectory, 
-								context,
+						exportDescriptions(context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
 								languageCode,
-								visitedComponentEffectiveTimes);
+								exporters);
 					}
 					break;
 	
 				case SnomedTerminologyComponentConstants.RELATIONSHIP:
-					exportRelationships(releaseDirectory, 
-							context,
+					exportRelationships(context,
 							branch,
 							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+							exporters);
 					
-					exportConcreteValues(releaseDirectory, 
-							context,
+					exportConcreteValues(context,
 							branch,
 							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+							exporters);
 					break;
 	
 				case SnomedTerminologyComponentConstants.REFSET_MEMBER:
 					if (Rf2RefSetExportLayout.COMBINED.equals(refSetExportLayout)) {
-						exportCombinedRefSets(releaseDirectory,
-								context,
+						exportCombinedRefSets(context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
 								languageCodes,
-								visitedComponentEffectiveTimes);
+								exporters);
 					} else {
-						exportIndividualRefSets(releaseDirectory,
-								context,
+						exportIndividualRefSets(context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
 								languageCodes,
-								visitedComponentEffectiveTimes);
+								exporters);
 					}
 				break;
 
@@ -676,25 +678,45 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		}
 		
 		if (Boolean.valueOf(System.getProperty("so.snomed.refsetdescriptor_preview", "false"))) {
-			exportRefSetDescriptor(releaseDirectory,
-					context,
+			exportRefSetDescriptor(context,
 					branch,
 					archiveEffectiveTime,
-					effectiveTimeFilterStart,
-					effectiveTimeFilterEnd,
 					languageCodes,
-					visitedComponentEffectiveTimes);
+					exporters);
+		}
+		
+		if (maxExportWorkers <= 1) {
+			for (final Rf2Exporter<?, ?, ?> exporter : exporters) {
+				exporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+			}
+			return;
+		}
+		
+		// exporters writing to the same file run one after the other, in the original order, to keep the row order of each file deterministic
+		final List<List<Rf2Exporter<?, ?, ?>>> exportersByFile = ImmutableList.copyOf(exporters.stream()
+				.collect(Collectors.groupingBy(Rf2Exporter::getRelativePath, LinkedHashMap::new, Collectors.toList()))
+				.values());
+		
+		try {
+			ConcurrentTasks.runAll(exportersByFile.size(), i -> {
+				try {
+					for (final Rf2Exporter<?, ?, ?> exporter : exportersByFile.get(i)) {
+						exporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+					}
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, maxExportWorkers);
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
 		}
 	}
 
-	private void exportRefSetDescriptor(Path releaseDirectory, 
-			RepositoryContext context, 
+	private void exportRefSetDescriptor(RepositoryContext context, 
 			String branch, 
 			String archiveEffectiveTime, 
-			long effectiveTimeFilterStart, 
-			long effectiveTimeFilterEnd, 
 			Collection<String> languageCodes, 
-			Set<String> visitedComponentEffectiveTimes) throws IOException {
+			List<Rf2Exporter<?, ?, ?>> exporters) {
 		final Rf2RefSetDescriptorRefSetExporter exporter = new Rf2RefSetDescriptorRefSetExporter(releaseType, 
 				countryNamespaceElement, 
 				namespaceFilter,
@@ -702,16 +724,13 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				archiveEffectiveTime,
 				modules);
 		
-		exporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(exporter);
 	}
 
-	private void exportConcepts(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void exportConcepts(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Rf2ConceptExporter conceptExporter = new Rf2ConceptExporter(releaseType, 
 				countryNamespaceElement, 
@@ -721,17 +740,14 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				includePreReleaseContent,
 				modules);
 
-		conceptExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(conceptExporter);
 	}
 
-	private void exportDescriptions(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void exportDescriptions(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
 			final String languageCode,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Set<String> descriptionTypes = execute(context, getBranchOrRangeTarget(branch), SnomedRequests.prepareSearchConcept()
 			.all()
@@ -760,8 +776,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				ImmutableSet.of(Concepts.TEXT_DEFINITION),
 				languageCode);
 
-		descriptionExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
-		textDefinitionExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(descriptionExporter);
+		exporters.add(textDefinitionExporter);
 	}
 
 	private String getBranchOrRangeTarget(final String branch) {
@@ -772,13 +788,10 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		return new BranchRequest<>(branch, new RevisionIndexReadRequest<>(next)).execute(context);
 	}
 	
-	private void exportRelationships(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void exportRelationships(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Set<String> characteristicTypes = execute(context, getBranchOrRangeTarget(branch), SnomedRequests.prepareSearchConcept()
 				.all()
@@ -805,17 +818,14 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				modules, 
 				characteristicTypes);
 
-		statedRelationshipExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
-		relationshipExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(statedRelationshipExporter);
+		exporters.add(relationshipExporter);
 	}
 	
-	private void exportConcreteValues(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void exportConcreteValues(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 		
 		final Rf2ConcreteValueExporter concreteValueExporter = new Rf2ConcreteValueExporter(releaseType, 
 				countryNamespaceElement, 
@@ -824,17 +834,14 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				archiveEffectiveTime, 
 				modules);
 		
-		concreteValueExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(concreteValueExporter);
 	}
 
-	private void exportCombinedRefSets(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void exportCombinedRefSets(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,  
 			final Collection<String> languageCodes,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Multimap<SnomedRefSetType, SnomedConcept> referenceSetsByType = FluentIterable.from(getIdentifierConcepts(context, getBranchOrRangeTarget(branch)))
 				.index(c -> c.getReferenceSet().getType());
@@ -857,28 +864,22 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					refSetType,
 					referenceSetsByType.get(refSetType));
 
-			refSetExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+			exporters.add(refSetExporter);
 		}
 
-		exportLanguageRefSets(releaseDirectory, 
-				context, 
+		exportLanguageRefSets(context, 
 				branch, 
 				archiveEffectiveTime, 
-				effectiveTimeFilterStart, 
-				effectiveTimeFilterEnd, 
 				languageCodes, 
 				referenceSetsByType.get(SnomedRefSetType.LANGUAGE),
-				visitedComponentEffectiveTimes);
+				exporters);
 	}
 
-	private void exportIndividualRefSets(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void exportIndividualRefSets(final RepositoryContext context, 
 			final String revisionRange,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
 			final Collection<String> languageCodes,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Multimap<SnomedRefSetType, SnomedConcept> referenceSetsByType = FluentIterable.from(getIdentifierConcepts(context, getBranchOrRangeTarget(revisionRange)))
 				.index(c -> c.getReferenceSet().getType());
@@ -904,29 +905,23 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					entry.getKey(),
 					ImmutableSet.of(entry.getValue()));
 
-			refSetExporter.exportBranch(releaseDirectory, context, revisionRange, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+			exporters.add(refSetExporter);
 		}
 
-		exportLanguageRefSets(releaseDirectory, 
-				context, 
+		exportLanguageRefSets(context, 
 				revisionRange, 
 				archiveEffectiveTime, 
-				effectiveTimeFilterStart, 
-				effectiveTimeFilterEnd, 
 				languageCodes, 
 				referenceSetsByType.get(SnomedRefSetType.LANGUAGE),
-				visitedComponentEffectiveTimes);
+				exporters);
 	}
 
-	private void exportLanguageRefSets(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void exportLanguageRefSets(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
 			final Collection<String> languageCodes, 
 			final Collection<SnomedConcept> languageRefSets,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		if (languageRefSets.isEmpty()) {
 			return;
@@ -944,7 +939,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					languageRefSets,
 					languageCode);
 
-			languageExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+			exporters.add(languageExporter);
 		}
 	}
 
@@ -982,18 +977,40 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 	}
 
 	private void registerResult(final AttachmentRegistry fileRegistry, final UUID exportId, final Path exportDirectory) {
-		File archiveFile = null;
-
-		try {
-			archiveFile = exportDirectory.resolveSibling(exportDirectory.getFileName() + ".zip").toFile();
-			FileUtils.createZipArchive(exportDirectory.toFile(), archiveFile);
-			fileRegistry.upload(exportId, new FileInputStream(archiveFile)); // lgtm[java/input-resource-leak]
+		/*
+		 * The archive is compressed on a separate thread and streamed directly into the attachment registry, 
+		 * instead of writing a temporary zip file first and copying it afterwards.
+		 */
+		// the compressing thread blocks on the pipe until the registry reads from it, so it gets a thread of its own instead of a shared pool
+		final ExecutorService archiveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "rf2-export-archive");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		try (PipedInputStream in = new PipedInputStream(ARCHIVE_PIPE_SIZE)) {
+			final PipedOutputStream out = new PipedOutputStream(in);
+			final CompletableFuture<Void> archive = CompletableFuture.runAsync(() -> {
+				try (PipedOutputStream archiveOut = out) {
+					FileUtils.writeZipArchive(exportDirectory.toFile(), archiveOut, null, ARCHIVE_BUFFER_SIZE);
+				} catch (final IOException e) {
+					throw new SnowowlRuntimeException("Failed to compress export directory.", e);
+				}
+			}, archiveExecutor);
+			
+			try {
+				fileRegistry.upload(exportId, in);
+				archive.join();
+			} catch (final RuntimeException e) {
+				// closing the pipe stops the compressing thread if it is still running, then remove the incomplete attachment
+				in.close();
+				fileRegistry.delete(exportId);
+				throw e;
+			}
 		} catch (final IOException e) {
 			throw new SnowowlRuntimeException("Failed to register archive file from export directory.", e);
 		} finally {
-			if (archiveFile != null) {
-				archiveFile.delete();
-			}
+			archiveExecutor.shutdown();
 		}
 	}
 
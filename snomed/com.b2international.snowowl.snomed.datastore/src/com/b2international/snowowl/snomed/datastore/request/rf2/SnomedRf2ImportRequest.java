@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import org.mapdb.DB;
@@ -59,6 +61,7 @@ import com.b2international.snowowl.core.request.io.ImportDefectAcceptor;
 import com.b2international.snowowl.core.request.io.ImportDefectAcceptor.ImportDefectBuilder;
 import com.b2international.snowowl.core.request.io.ImportResponse;
 import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
@@ -67,16 +70,9 @@ import com.b2international.snowowl.snomed.datastore.request.rf2.importer.*;
 import com.b2international.snowowl.snomed.datastore.request.rf2.validation.Rf2GlobalValidator;
 import com.b2international.snowowl.snomed.datastore.request.rf2.validation.Rf2ValidationIssueReporter;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.MappingIterator;
-import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvParser;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
 
 /**
  * @since 6.0.0
@@ -108,6 +104,10 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 	
 	@JsonProperty
 	private boolean dryRun = false;
+	
+	@Min(1)
+	@JsonProperty
+	private int parallelism = 1;
 
 	SnomedRf2ImportRequest(UUID rf2ArchiveId) {
 		this.rf2ArchiveId = rf2ArchiveId;
@@ -129,9 +129,13 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 		this.dryRun = dryRun;
 	}
 	
+	void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	
 	@Override
 	public ImportResponse execute(BranchContext context) {
-		Rf2ImportConfiguration importConfig = new Rf2ImportConfiguration(releaseType, createVersions);
+		Rf2ImportConfiguration importConfig = new Rf2ImportConfiguration(releaseType, createVersions, parallelism);
 		validate(context, importConfig);
 		final InternalAttachmentRegistry fileReg = (InternalAttachmentRegistry) context.service(AttachmentRegistry.class);
 		final File rf2Archive = fileReg.getAttachment(rf2ArchiveId);
@@ -250,28 +254,32 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 	}
 	
 	private void read(File rf2Archive, Rf2EffectiveTimeSlices slices, Rf2ValidationIssueReporter reporter) {
-		final CsvMapper csvMapper = new CsvMapper();
-		csvMapper.enable(CsvParser.Feature.WRAP_AS_ARRAY);
-		final CsvSchema schema = CsvSchema.emptySchema()
-				.withoutQuoteChar()
-				.withColumnSeparator('\t')
-				.withLineSeparator("\r\n");
-		final ObjectReader oReader = csvMapper.readerFor(String[].class).with(schema);
-
-		final Stopwatch w = Stopwatch.createStarted();
 		try (final ZipFile zip = new ZipFile(rf2Archive)) {
-			for (ZipEntry entry : Collections.list(zip.entries())) {
-				final String fileName = Paths.get(entry.getName()).getFileName().toString().toLowerCase();
-				if (fileName.endsWith(TXT_EXT)) {
-					if (fileName.contains(releaseType.toString().toLowerCase())) {
-						w.reset().start();
-						try (final InputStream in = zip.getInputStream(entry)) {
-							readFile(entry, in, oReader, slices, reporter);
-						}
-						LOG.info("{} - {}", entry.getName(), w);
-					}
-				}
+			final List<ZipEntry> entries = Collections.list(zip.entries())
+				.stream()
+				.filter(entry -> {
+					final String fileName = Paths.get(entry.getName()).getFileName().toString().toLowerCase();
+					return fileName.endsWith(TXT_EXT) && fileName.contains(releaseType.toString().toLowerCase());
+				})
+				// start with the largest files, so they do not end up running alone at the end
+				.sorted(Comparator.comparingLong(ZipEntry::getSize).reversed())
+				.collect(Collectors.toList());
+			
+			if (entries.isEmpty()) {
+				return;
 			}
+			
+			// read each RF2 file on a worker of the shared pool, slices accept concurrent registrations
+			ConcurrentTasks.runAll(entries.size(), i -> {
+				final ZipEntry entry = entries.get(i);
+				final Stopwatch fileWatch = Stopwatch.createStarted();
+				try (final InputStream in = zip.getInputStream(entry)) {
+					readFile(entry, in, slices, reporter);
+				} catch (IOException e) {
+					throw new SnowowlRuntimeException(e);
+				}
+				LOG.info("{} - {}", entry.getName(), fileWatch);
+			}, ConcurrentTasks.MAX_WORKERS);
 		} catch (IOException e) {
 			throw new SnowowlRuntimeException(e);
 		}
@@ -279,8 +287,7 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 		slices.flushAll();
 	}
 
-	private void readFile(ZipEntry entry, final InputStream in, final ObjectReader oReader, Rf2EffectiveTimeSlices effectiveTimeSlices, Rf2ValidationIssueReporter reporter)
-			throws IOException, JsonProcessingException {
+	private void readFile(ZipEntry entry, final InputStream in, Rf2EffectiveTimeSlices effectiveTimeSlices, Rf2ValidationIssueReporter reporter) throws IOException {
 		
 		final String entryName = entry.getName();
 		final ImportDefectAcceptor defectAcceptor = reporter.getDefectAcceptor(entryName);
@@ -289,31 +296,32 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 		Rf2ContentType<?> resolver = null;
 		int lineNumber = 1;
 		
-		MappingIterator<String[]> mi = oReader.readValues(in);
-		while (mi.hasNext()) {
-			String[] line = mi.next();
-			
-			if (header) {
-				for (Rf2ContentType<?> contentType : Rf2Format.getContentTypes()) {
-					if (contentType.canResolve(line)) {
-						resolver = contentType;
+		try (final Rf2LineReader reader = new Rf2LineReader(in)) {
+			String[] line;
+			while ((line = reader.readLine()) != null) {
+				
+				if (header) {
+					for (Rf2ContentType<?> contentType : Rf2Format.getContentTypes()) {
+						if (contentType.canResolve(line)) {
+							resolver = contentType;
+							break;
+						}
+					}
+					
+					if (resolver == null) {
+						LOG.warn("Unrecognized RF2 file: {}", entryName);
 						break;
 					}
-				}
-
-				if (resolver == null) {
-					LOG.warn("Unrecognized RF2 file: {}", entryName);
-					break;
+					
+					header = false;
+				} else {
+					final String effectiveTimeKey = getEffectiveTimeKey(line[1]);
+					final ImportDefectBuilder defectBuilder = defectAcceptor.on(Integer.toString(lineNumber));
+					resolver.register(line, effectiveTimeSlices.getOrCreate(effectiveTimeKey), defectBuilder);
 				}
 				
-				header = false;
-			} else {
-				final String effectiveTimeKey = getEffectiveTimeKey(line[1]);
-				final ImportDefectBuilder defectBuilder = defectAcceptor.on(Integer.toString(lineNumber));
-				resolver.register(line, effectiveTimeSlices.getOrCreate(effectiveTimeKey), defectBuilder);
+				lineNumber++;
 			}
-
-			lineNumber++;
 		}
 	}
 
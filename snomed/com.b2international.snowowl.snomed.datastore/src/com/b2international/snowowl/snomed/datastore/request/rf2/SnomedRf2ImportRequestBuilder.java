@@ -38,6 +38,7 @@ public final class SnomedRf2ImportRequestBuilder
 	private boolean createVersions = true;
 	private Iterable<String> ignoreMissingReferencesIn;
 	private boolean dryRun = false;
+	private int parallelism = 1;
 	
 	SnomedRf2ImportRequestBuilder() {
 	}
@@ -67,6 +68,21 @@ public final class SnomedRf2ImportRequestBuilder
 		return getSelf();
 	}
 	
+	/**
+	 * Sets the number of workers that prepare the component batches of an effective time slice concurrently, while the previous batch is
+	 * being committed. Only the preparation is parallelized: workers read the components of a batch from the temporary (MapDB) import store,
+	 * attach their members and compute their dependencies. Building the index documents and committing them still happens one batch at a
+	 * time, in import plan order, on the importing thread. Defaults to <code>1</code> (batches are prepared sequentially on the importing
+	 * thread).
+	 * 
+	 * @param parallelism
+	 * @return
+	 */
+	public SnomedRf2ImportRequestBuilder setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+		return getSelf();
+	}
+	
 	@Override
 	protected Request<BranchContext, ImportResponse> doBuild() {
 		final SnomedRf2ImportRequest req = new SnomedRf2ImportRequest(rf2ArchiveId);
@@ -74,6 +90,7 @@ public final class SnomedRf2ImportRequestBuilder
 		req.setCreateVersions(createVersions);
 		req.setIgnoreMissingReferencesIn(Collections3.toImmutableSet(ignoreMissingReferencesIn));
 		req.setDryRun(dryRun);
+		req.setParallelism(parallelism);
 		return req;
 	}
 
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
+
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongKeyLongMap;
+import com.b2international.collections.longs.LongSet;
+import com.google.common.collect.Maps;
+
+/**
+ * Keeps track of the (component ID, effective time) pairs already written to an RF2 export, so rows of the same component version coming from
+ * multiple version branches are exported only once.
+ * <p>
+ * Instead of concatenated {@link String} keys, SNOMED CT identifiers are stored in primitive long sets and reference set member UUIDs as
+ * primitive (most significant bits, least significant bits) pairs, grouped by effective time. Identifiers in any other format are kept as
+ * {@link String}s.
+ * <p>
+ * Instances are thread-safe, so exporters writing different files concurrently can share a single instance.
+ *
+ * @since 7.17
+ */
+public final class Rf2ComponentEffectiveTimeSet {
+
+	// SCTIDs have at most 18 digits, so they always fit into a long
+	private static final int MAX_SCTID_LENGTH = 18;
+	private static final int UUID_LENGTH = 36;
+
+	private final Map<String, EffectiveTimeEntry> entriesByEffectiveTime = Maps.newHashMap();
+
+	/**
+	 * Registers the given component version.
+	 *
+	 * @param id - the component identifier
+	 * @param effectiveTime - the effective time of the component version as it appears in the RF2 file
+	 * @return <code>true</code> if the component version has not been registered before, <code>false</code> otherwise
+	 */
+	public synchronized boolean add(String id, String effectiveTime) {
+		return entriesByEffectiveTime.computeIfAbsent(effectiveTime, key -> new EffectiveTimeEntry()).add(id);
+	}
+
+	private static final class EffectiveTimeEntry {
+
+		private final LongSet componentIds = PrimitiveSets.newLongOpenHashSet();
+		private final LongKeyLongMap memberIds = PrimitiveMaps.newLongKeyLongOpenHashMap();
+		// UUIDs sharing their most significant bits with an already registered UUID
+		private final Set<UUID> collidingMemberIds = newHashSet();
+		private final Set<String> otherIds = newHashSet();
+
+		boolean add(String id) {
+			if (isNumeric(id)) {
+				return componentIds.add(Long.parseLong(id));
+			} else if (id.length() == UUID_LENGTH) {
+				final UUID uuid;
+				try {
+					uuid = UUID.fromString(id);
+				} catch (IllegalArgumentException e) {
+					return otherIds.add(id);
+				}
+				return add(uuid);
+			} else {
+				return otherIds.add(id);
+			}
+		}
+
+		private boolean add(UUID uuid) {
+			final long mostSigBits = uuid.getMostSignificantBits();
+			final long leastSigBits = uuid.getLeastSignificantBits();
+			if (!memberIds.containsKey(mostSigBits)) {
+				memberIds.put(mostSigBits, leastSigBits);
+				return true;
+			} else if (memberIds.get(mostSigBits) == leastSigBits) {
+				return false;
+			} else {
+				return collidingMemberIds.add(uuid);
+			}
+		}
+
+		private static boolean isNumeric(String id) {
+			// values with leading zeros would not survive a round-trip through long
+			if (id.isEmpty() || id.length() > MAX_SCTID_LENGTH || (id.length() > 1 && id.charAt(0) == '0')) {
+				return false;
+			}
+			for (int i = 0; i < id.length(); i++) {
+				final char c = id.charAt(i);
+				if (c < '0' || c > '9') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
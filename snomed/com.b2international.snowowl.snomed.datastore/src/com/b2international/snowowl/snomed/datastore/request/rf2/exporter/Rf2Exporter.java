@@ -15,16 +15,16 @@
  */
 package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -37,8 +37,8 @@ import com.b2international.snowowl.core.date.EffectiveTimes;
 import com.b2international.snowowl.core.domain.PageableCollectionResource;
 import com.b2international.snowowl.core.domain.RepositoryContext;
 import com.b2international.snowowl.core.request.BranchRequest;
+import com.b2international.snowowl.core.request.PrefetchingSearchResourceRequestIterator;
 import com.b2international.snowowl.core.request.RevisionIndexReadRequest;
-import com.b2international.snowowl.core.request.SearchResourceRequestIterator;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
 import com.b2international.snowowl.snomed.core.domain.SnomedComponent;
 import com.b2international.snowowl.snomed.datastore.request.SnomedSearchRequestBuilder;
@@ -56,6 +56,7 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 	private static final String CR_LF = "\r\n";
 
 	private static final int BATCH_SIZE = 10000;
+	private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
 	
 	// Parameters used for file name calculations
 	protected final Rf2ReleaseType releaseType;
@@ -84,6 +85,13 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 	protected abstract Path getRelativeDirectory();
 
 	protected abstract Path getFileName();
+	
+	/**
+	 * @return the path of the exported file, relative to the release directory
+	 */
+	public final Path getRelativePath() {
+		return getRelativeDirectory().resolve(getFileName());
+	}
 
 	protected abstract String[] getHeader();
 
@@ -114,7 +122,7 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 			final String branch, 
 			final long effectiveTimeStart, 
 			final long effectiveTimeEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final Rf2ComponentEffectiveTimeSet visitedComponentEffectiveTimes) throws IOException {
 
 		LOG.info("Exporting {} branch to '{}'", branch, getFileName());
 		
@@ -123,54 +131,54 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 		Files.createDirectories(exportFileDirectory);
 
 		final Path exportFile = exportFileDirectory.resolve(getFileName());
-		try (RandomAccessFile randomAccessFile = new RandomAccessFile(exportFile.toFile(), "rw")) {
-			try (FileChannel fileChannel = randomAccessFile.getChannel()) {
+		
+		// Add a header if the file is empty, otherwise we want to append rows to the existing file
+		final boolean writeHeader = !Files.exists(exportFile) || Files.size(exportFile) == 0L;
+		
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(exportFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND), Charsets.UTF_8), WRITE_BUFFER_SIZE)) {
 
-				// Add a header if the file is empty
-				if (randomAccessFile.length() == 0L) {
-					fileChannel.write(toByteBuffer(TAB_JOINER.join(getHeader())));
-					fileChannel.write(toByteBuffer(CR_LF));
-				}
+			if (writeHeader) {
+				TAB_JOINER.appendTo(writer, getHeader());
+				writer.write(CR_LF);
+			}
 
-				// We want to append rows, if the file already exists, so jump to the end
-				fileChannel.position(fileChannel.size());
-
-				/*
-				 * XXX: createSearchRequestBuilder() should handle namespace/language code
-				 * filtering, if applicable; we will only handle the effective time and module
-				 * filters here.
-				 * 
-				 * An effective time filter is always set, even if not in delta mode, to prevent
-				 * exporting unpublished content twice.
-				 */
-				final B requestBuilder = createSearchRequestBuilder()
-						.filterByModules(modules) // null value will be ignored
-						.filterByEffectiveTime(effectiveTimeStart, effectiveTimeEnd)
-						.setLimit(BATCH_SIZE);
-				
-				final SearchResourceRequestIterator<B, R> iterator = new SearchResourceRequestIterator<>(requestBuilder, scrolledBuilder -> {
-					return new BranchRequest<R>(
-						branch, 
-						new RevisionIndexReadRequest<>(scrolledBuilder.build())
-					)
-					.execute(context);
-				});
+			/*
+			 * XXX: createSearchRequestBuilder() should handle namespace/language code
+			 * filtering, if applicable; we will only handle the effective time and module
+			 * filters here.
+			 * 
+			 * An effective time filter is always set, even if not in delta mode, to prevent
+			 * exporting unpublished content twice.
+			 */
+			final B requestBuilder = createSearchRequestBuilder()
+					.filterByModules(modules) // null value will be ignored
+					.filterByEffectiveTime(effectiveTimeStart, effectiveTimeEnd)
+					.setLimit(BATCH_SIZE);
+			
+			try (PrefetchingSearchResourceRequestIterator<B, R> iterator = new PrefetchingSearchResourceRequestIterator<>(requestBuilder, scrolledBuilder -> {
+				return new BranchRequest<R>(
+					branch, 
+					new RevisionIndexReadRequest<>(scrolledBuilder.build())
+				)
+				.execute(context);
+			})) {
 				
 				while (iterator.hasNext()) {
 					final R hits = iterator.next();
-					
+				
 					getMappedStream(hits, context, branch)
 						.forEachOrdered(row -> {
 							String id = row.get(0);
 							String effectiveTime = row.get(1);
-							
-							if (!visitedComponentEffectiveTimes.add(String.join("_", id, effectiveTime))) {
+						
+							if (!visitedComponentEffectiveTimes.add(id, effectiveTime)) {
 								return;
 							}
-							
+						
 							try {
-								fileChannel.write(toByteBuffer(TAB_JOINER.join(row)));
-								fileChannel.write(toByteBuffer(CR_LF));
+								// rows are encoded into the writer's buffer directly, without creating an intermediate String for each row
+								TAB_JOINER.appendTo(writer, row);
+								writer.write(CR_LF);
 							} catch (final IOException e) {
 								throw new SnowowlRuntimeException("Failed to write contents for file '" + exportFile.getFileName() + "'.");
 							}
@@ -180,7 +188,4 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 		}
 	}
 
-	private static ByteBuffer toByteBuffer(final String s) {
-		return ByteBuffer.wrap(s.getBytes(Charsets.UTF_8));
-	}
 }
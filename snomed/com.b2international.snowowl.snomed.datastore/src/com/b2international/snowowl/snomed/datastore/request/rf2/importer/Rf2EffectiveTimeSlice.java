@@ -20,9 +20,11 @@ import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.google.common.collect.Sets.newHashSet;
 
 import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +54,8 @@ import com.b2international.snowowl.core.repository.RepositoryRequests;
 import com.b2international.snowowl.core.request.io.ImportDefectAcceptor.ImportDefectBuilder;
 import com.b2international.snowowl.core.terminology.ComponentCategory;
 import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
+import com.b2international.snowowl.core.util.ConcurrentTasks.Task;
 import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
 import com.b2international.snowowl.snomed.core.domain.SnomedComponent;
@@ -87,7 +91,7 @@ public final class Rf2EffectiveTimeSlice {
 	private final LongKeyMap<LongSet> dependenciesByComponent;
 	
 	// tmp map to quickly collect batch of items before flushing it to disk
-	private final Map<String, String[]> tmpComponentsById;
+	private Map<String, String[]> tmpComponentsById;
 	private final HTreeMap<String, String[]> componentsById;
 	private final boolean loadOnDemand;
 	
@@ -143,28 +147,34 @@ public final class Rf2EffectiveTimeSlice {
 		final String componentId = values[0];
 		final long containerIdL = Long.parseLong(containerId);
 
-		// track refset members via membersByReferencedComponent map
-		if (Rf2RefSetContentType.class.isAssignableFrom(type.getClass())) {
-			if (!membersByReferencedComponent.containsKey(containerIdL)) {
-				membersByReferencedComponent.put(containerIdL, newHashSet());
-			}
-			membersByReferencedComponent.get(containerIdL).add(componentId);
-		} else {
-			// register other non-concept components in the dependency graph to force strongly connected subgraphs
-			if (!IComponent.ROOT_ID.equals(containerId)) {
-				registerDependencies(containerIdL, PrimitiveSets.newLongOpenHashSet(Long.parseLong(componentId)));
+		// validation does not touch the state of the slice, run it outside of the lock
+		type.validate(defectBuilder, values);
+		
+		final Map<String, String[]> componentsToFlush;
+		synchronized (this) {
+			// track refset members via membersByReferencedComponent map
+			if (Rf2RefSetContentType.class.isAssignableFrom(type.getClass())) {
+				if (!membersByReferencedComponent.containsKey(containerIdL)) {
+					membersByReferencedComponent.put(containerIdL, newHashSet());
+				}
+				membersByReferencedComponent.get(containerIdL).add(componentId);
+			} else {
+				// register other non-concept components in the dependency graph to force strongly connected subgraphs
+				if (!IComponent.ROOT_ID.equals(containerId)) {
+					registerDependencies(containerIdL, PrimitiveSets.newLongOpenHashSet(Long.parseLong(componentId)));
+				}
 			}
+			
+			tmpComponentsById.put(componentId, valuesWithType);
+			componentsToFlush = tmpComponentsById.size() >= BATCH_SIZE ? swapTmpComponents() : null;
 		}
 		
-		type.validate(defectBuilder, values);
-		
-		tmpComponentsById.put(componentId, valuesWithType);
-		if (tmpComponentsById.size() >= BATCH_SIZE) {
-			flush();
+		if (componentsToFlush != null) {
+			componentsById.putAll(componentsToFlush);
 		}
 	}
 	
-	public void registerDependencies(long componentId, LongSet dependencies) {
+	public synchronized void registerDependencies(long componentId, LongSet dependencies) {
 		if (!dependenciesByComponent.containsKey(componentId)) {
 			dependenciesByComponent.put(componentId, dependencies);
 		} else {
@@ -172,7 +182,7 @@ public final class Rf2EffectiveTimeSlice {
 		}
 	}
 	
-	public void unregisterDependencies(String componentId) {
+	public synchronized void unregisterDependencies(String componentId) {
 		dependenciesByComponent.remove(Long.valueOf(componentId));
 	}
 	
@@ -185,10 +195,20 @@ public final class Rf2EffectiveTimeSlice {
 	}
 
 	public void flush() {
-		if (!tmpComponentsById.isEmpty()) {
-			componentsById.putAll(tmpComponentsById);
+		final Map<String, String[]> componentsToFlush;
+		synchronized (this) {
+			componentsToFlush = swapTmpComponents();
+		}
+		if (!componentsToFlush.isEmpty()) {
+			componentsById.putAll(componentsToFlush);
 		}
-		tmpComponentsById.clear();
+	}
+	
+	// the caller must hold the lock of this slice
+	private Map<String, String[]> swapTmpComponents() {
+		final Map<String, String[]> components = tmpComponentsById;
+		tmpComponentsById = newHashMapWithExpectedSize(BATCH_SIZE);
+		return components;
 	}
 
 	private List<LongSet> getImportPlan() {
@@ -205,44 +225,29 @@ public final class Rf2EffectiveTimeSlice {
 		final String importingMessage = isUnpublishedSlice() ? "Importing unpublished components" : String.format("Importing components from %s", effectiveTime);
 		final String commitMessage = isUnpublishedSlice() ? "Imported unpublished components" : String.format("Imported components from %s", effectiveTime);
 		final boolean doCreateVersion = !isUnpublishedSlice() && !isSnapshotSlice() && importConfig.isCreateVersions();
+		final int parallelism = importConfig.getParallelism();
 		
 		LOG.info(importingMessage);
+		// batches are prepared ahead on the shared task pool, but added and committed one by one in import plan order
+		final Deque<Task<Rf2ImportBatch>> preparedBatches = new ArrayDeque<>();
 		try (Rf2TransactionContext tx = new Rf2TransactionContext(context.openTransaction(context, DatastoreLockContextDescriptions.IMPORT), loadOnDemand, importConfig)) {
 			final Iterator<LongSet> importPlan = getImportPlan().iterator();
-			while (importPlan.hasNext()) {
-				LongSet componentsToImportInBatch = importPlan.next();
-				LongIterator it = componentsToImportInBatch.iterator();
-				final Collection<SnomedComponent> componentsToImport = newArrayListWithExpectedSize(componentsToImportInBatch.size());
-				while (it.hasNext()) {
-					long componentToImportL = it.next();
-					String componentToImport = Long.toString(componentToImportL);
-					final SnomedComponent component = getComponent(componentToImport);
-					if (component != null) {
-						componentsToImport.add(component);
-						
-						// Register container concept as visited component 
-						final String conceptId = getConceptId(codeSystem, component); 
-						visitedComponents.add(ComponentURI.of(codeSystem, SnomedTerminologyComponentConstants.CONCEPT_NUMBER, conceptId));
-					}
-					// add all members of this component to this batch as well
-					final Set<String> containerComponents = membersByReferencedComponent.remove(componentToImportL);
-					if (containerComponents != null) {
-						for (String containedComponentId : containerComponents) {
-							SnomedReferenceSetMember containedComponent = getComponent(containedComponentId);
-							if (containedComponent != null) {
-								componentsToImport.add(containedComponent);
-								
-								// Register reference set as visited component
-								final String refSetId = containedComponent.getReferenceSetId();
-								visitedComponents.add(ComponentURI.of(codeSystem, SnomedTerminologyComponentConstants.REFSET_NUMBER, refSetId));
-							}
-						}
+			while (importPlan.hasNext() || !preparedBatches.isEmpty()) {
+				final Rf2ImportBatch batch;
+				if (parallelism > 1) {
+					while (importPlan.hasNext() && preparedBatches.size() < parallelism) {
+						final LongSet componentsToImportInBatch = importPlan.next();
+						preparedBatches.add(ConcurrentTasks.fork(() -> prepareBatch(codeSystem, componentsToImportInBatch)));
 					}
+					batch = preparedBatches.removeFirst().join();
+				} else {
+					batch = prepareBatch(codeSystem, importPlan.next());
 				}
 				
-				tx.add(componentsToImport, getDependencies(componentsToImport));
+				visitedComponents.addAll(batch.visitedComponents);
+				tx.add(batch.components, batch.dependencies);
 				
-				if (doCreateVersion && !importPlan.hasNext()) {
+				if (doCreateVersion && !importPlan.hasNext() && preparedBatches.isEmpty()) {
 					tx.add(CodeSystemVersionEntry.builder()
 							.id(IDs.base64UUID())
 							.codeSystemShortName(codeSystem)
@@ -268,10 +273,53 @@ public final class Rf2EffectiveTimeSlice {
 					.build()
 					.execute(context);
 			}
+		} finally {
+			// batches not started yet are not needed when the import fails
+			preparedBatches.forEach(Task::cancel);
 		}
 		LOG.info("{} in {}", commitMessage, w);
 	}
-
+	
+	/*
+	 * Resolves the components of a single import plan batch (along with the members referencing them) from the temporary store. Batches of the
+	 * import plan are disjoint, so this method can be called concurrently for different batches.
+	 */
+	private Rf2ImportBatch prepareBatch(final String codeSystem, final LongSet componentsToImportInBatch) {
+		final LongIterator it = componentsToImportInBatch.iterator();
+		final Collection<SnomedComponent> componentsToImport = newArrayListWithExpectedSize(componentsToImportInBatch.size());
+		final Set<ComponentURI> visitedComponents = newHashSet();
+		while (it.hasNext()) {
+			long componentToImportL = it.next();
+			String componentToImport = Long.toString(componentToImportL);
+			final SnomedComponent component = getComponent(componentToImport);
+			if (component != null) {
+				componentsToImport.add(component);
+				
+				// Register container concept as visited component 
+				final String conceptId = getConceptId(codeSystem, component); 
+				visitedComponents.add(ComponentURI.of(codeSystem, SnomedTerminologyComponentConstants.CONCEPT_NUMBER, conceptId));
+			}
+			// add all members of this component to this batch as well
+			final Set<String> containerComponents;
+			synchronized (membersByReferencedComponent) {
+				containerComponents = membersByReferencedComponent.remove(componentToImportL);
+			}
+			if (containerComponents != null) {
+				for (String containedComponentId : containerComponents) {
+					SnomedReferenceSetMember containedComponent = getComponent(containedComponentId);
+					if (containedComponent != null) {
+						componentsToImport.add(containedComponent);
+						
+						// Register reference set as visited component
+						final String refSetId = containedComponent.getReferenceSetId();
+						visitedComponents.add(ComponentURI.of(codeSystem, SnomedTerminologyComponentConstants.REFSET_NUMBER, refSetId));
+					}
+				}
+			}
+		}
+		return new Rf2ImportBatch(componentsToImport, getDependencies(componentsToImport), visitedComponents);
+	}
+	
 	private String getConceptId(final String codeSystem, SnomedComponent component) {
 		if (component instanceof SnomedConcept) {
 			return component.getId();
@@ -324,4 +372,18 @@ public final class Rf2EffectiveTimeSlice {
 		}
 	}
 
-}
\ No newline at end of file
+	private static final class Rf2ImportBatch {
+		
+		private final Collection<SnomedComponent> components;
+		private final Multimap<Class<? extends SnomedDocument>, String> dependencies;
+		private final Set<ComponentURI> visitedComponents;
+		
+		Rf2ImportBatch(Collection<SnomedComponent> components, Multimap<Class<? extends SnomedDocument>, String> dependencies, Set<ComponentURI> visitedComponents) {
+			this.components = components;
+			this.dependencies = dependencies;
+			this.visitedComponents = visitedComponents;
+		}
+		
+	}
+	
+}
@@ -15,10 +15,9 @@
  */
 package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
 
-import static com.google.common.collect.Maps.newHashMap;
-
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.mapdb.DB;
@@ -43,7 +42,7 @@ public final class Rf2EffectiveTimeSlices {
 	}).onResultOf(Rf2EffectiveTimeSlice::getEffectiveTime);
 	
 	private final DB db;
-	private final Map<String, Rf2EffectiveTimeSlice> slices = newHashMap();
+	private final Map<String, Rf2EffectiveTimeSlice> slices = new ConcurrentHashMap<>();
 	private final boolean loadOnDemand;
 
 	public Rf2EffectiveTimeSlices(DB db, boolean loadOnDemand) {
@@ -52,10 +51,7 @@ public final class Rf2EffectiveTimeSlices {
 	}
 	
 	public Rf2EffectiveTimeSlice getOrCreate(String effectiveTime) {
-		if (!slices.containsKey(effectiveTime)) {
-			slices.put(effectiveTime, new Rf2EffectiveTimeSlice(db, effectiveTime, loadOnDemand));
-		}
-		return slices.get(effectiveTime);
+		return slices.computeIfAbsent(effectiveTime, key -> new Rf2EffectiveTimeSlice(db, key, loadOnDemand));
 	}
 	
 	public Iterable<Rf2EffectiveTimeSlice> slices() {
@@ -26,13 +26,20 @@ public final class Rf2ImportConfiguration {
 	
 	private final boolean createVersions;
 	private final Rf2ReleaseType releaseType;
+	private final int parallelism;
 
+	public Rf2ImportConfiguration(Rf2ReleaseType releaseType, boolean createVersions) {
+		this(releaseType, createVersions, 1);
+	}
+	
 	@JsonCreator
 	public Rf2ImportConfiguration(
 			@JsonProperty("releaseType") Rf2ReleaseType releaseType, 
-			@JsonProperty("createVersions") boolean createVersions) {
+			@JsonProperty("createVersions") boolean createVersions,
+			@JsonProperty("parallelism") int parallelism) {
 		this.releaseType = releaseType;
 		this.createVersions = createVersions;
+		this.parallelism = Math.max(1, parallelism);
 	}
 	
 	public boolean isCreateVersions() {
@@ -42,5 +49,13 @@ public final class Rf2ImportConfiguration {
 	public Rf2ReleaseType getReleaseType() {
 		return releaseType;
 	}
+	
+	/**
+	 * @return the number of workers preparing the batches of an effective time slice ahead of their commit, <code>1</code> if batches are
+	 *         prepared on the importing thread
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
 
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the rows of a tab-separated, CRLF (or LF) terminated RF2 release file into {@link String} arrays. Column values are not quoted in RF2
+ * files, so this reader simply splits each line at tab characters, keeping empty (including trailing empty) columns.
+ * <p>
+ * Instances are not thread-safe, each RF2 file should be read by its own reader.
+ *
+ * @since 7.17
+ */
+public final class Rf2LineReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final char SEPARATOR = '\t';
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	private final BufferedReader reader;
+
+	// reusable buffer of separator positions
+	private int[] separators = new int[16];
+	private boolean firstLine = true;
+
+	public Rf2LineReader(InputStream in) {
+		this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+
+	/**
+	 * @return the column values of the next non-empty line or <code>null</code> if the end of the stream has been reached
+	 * @throws IOException
+	 */
+	public String[] readLine() throws IOException {
+		String line;
+		do {
+			line = reader.readLine();
+		} while (line != null && line.isEmpty());
+
+		if (line == null) {
+			return null;
+		}
+		
+		if (firstLine) {
+			firstLine = false;
+			if (line.charAt(0) == BYTE_ORDER_MARK) {
+				line = line.substring(1);
+			}
+		}
+		
+		return split(line);
+	}
+
+	String[] split(String line) {
+		int numberOfSeparators = 0;
+		for (int i = line.indexOf(SEPARATOR); i >= 0; i = line.indexOf(SEPARATOR, i + 1)) {
+			if (numberOfSeparators == separators.length) {
+				separators = Arrays.copyOf(separators, separators.length * 2);
+			}
+			separators[numberOfSeparators++] = i;
+		}
+
+		final String[] values = new String[numberOfSeparators + 1];
+		int start = 0;
+		for (int i = 0; i < numberOfSeparators; i++) {
+			values[i] = line.substring(start, separators[i]);
+			start = separators[i] + 1;
+		}
+		values[numberOfSeparators] = line.substring(start);
+		return values;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
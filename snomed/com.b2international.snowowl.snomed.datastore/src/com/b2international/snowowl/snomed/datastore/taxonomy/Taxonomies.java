@@ -34,12 +34,18 @@ import org.slf4j.LoggerFactory;
 import com.b2international.collections.longs.LongCollection;
 import com.b2international.collections.longs.LongCollections;
 import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.CompareUtils;
 import com.b2international.commons.collect.LongSets;
 import com.b2international.index.Hits;
+import com.b2international.index.mapping.DocumentMapping;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.index.query.Query;
+import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.CommitDetail;
+import com.b2international.index.revision.ObjectId;
+import com.b2international.index.revision.RevisionBranch;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.index.revision.StagingArea;
 import com.b2international.index.revision.StagingArea.RevisionPropertyDiff;
@@ -63,20 +69,37 @@ public final class Taxonomies {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger("repository");
 	
+	// number of IS A statements loaded and converted in a single page
+	private static final int PAGE_SIZE = 10_000;
+	
 	private Taxonomies() {
 	}
 	
 	public static Taxonomy inferred(RevisionSearcher searcher, SnomedOWLExpressionConverter expressionConverter, StagingArea staging, LongCollection conceptIds, boolean checkCycles) {
-		return buildTaxonomy(searcher, expressionConverter, staging, conceptIds, Concepts.INFERRED_RELATIONSHIP, checkCycles);
+		return inferred(searcher, expressionConverter, staging, conceptIds, checkCycles, null);
+	}
+	
+	public static Taxonomy inferred(RevisionSearcher searcher, SnomedOWLExpressionConverter expressionConverter, StagingArea staging, LongCollection conceptIds, boolean checkCycles, TaxonomyCache cache) {
+		return buildTaxonomy(searcher, expressionConverter, staging, conceptIds, Concepts.INFERRED_RELATIONSHIP, checkCycles, cache);
 	}
 	
 	public static Taxonomy stated(RevisionSearcher searcher, SnomedOWLExpressionConverter expressionConverter, StagingArea staging, LongCollection conceptIds, boolean checkCycles) {
-		return buildTaxonomy(searcher, expressionConverter, staging, conceptIds, Concepts.STATED_RELATIONSHIP, checkCycles);
+		return stated(searcher, expressionConverter, staging, conceptIds, checkCycles, null);
+	}
+	
+	public static Taxonomy stated(RevisionSearcher searcher, SnomedOWLExpressionConverter expressionConverter, StagingArea staging, LongCollection conceptIds, boolean checkCycles, TaxonomyCache cache) {
+		return buildTaxonomy(searcher, expressionConverter, staging, conceptIds, Concepts.STATED_RELATIONSHIP, checkCycles, cache);
 	}
 
-	private static Taxonomy buildTaxonomy(RevisionSearcher searcher, SnomedOWLExpressionConverter expressionConverter, StagingArea staging, LongCollection conceptIds, String characteristicTypeId, boolean checkCycles) {
+	private static Taxonomy buildTaxonomy(RevisionSearcher searcher, SnomedOWLExpressionConverter expressionConverter, StagingArea staging, LongCollection conceptIds, String characteristicTypeId, boolean checkCycles, TaxonomyCache cache) {
 		try {
-			Collection<Object[]> isaStatements = getStatements(searcher, conceptIds, characteristicTypeId, true);
+			// merges can bring in arbitrary changes from another branch, use the cached IS A statements for regular commits only
+			final RevisionBranch branch = cache != null && !staging.isMerge() ? searcher.get(RevisionBranch.class, staging.getBranchPath()) : null;
+			
+			Collection<Object[]> isaStatements = branch != null ? cache.getStatements(searcher, branch, characteristicTypeId, conceptIds) : null;
+			if (isaStatements == null) {
+				isaStatements = getStatements(searcher, conceptIds, characteristicTypeId, true);
+			}
 			
 			final TaxonomyGraph oldTaxonomy = new TaxonomyGraph(conceptIds.size(), isaStatements.size());
 			oldTaxonomy.setCheckCycles(checkCycles);
@@ -124,7 +147,13 @@ public final class Taxonomies {
 			// detached edges
 			final Set<String> detachedEdges = Sets.difference(oldKeys, newKeys);
 			
-			return new Taxonomy(newTaxonomy, oldTaxonomy, status, newEdges, changedEdges, detachedEdges);
+			final Taxonomy taxonomy = new Taxonomy(newTaxonomy, oldTaxonomy, status, newEdges, changedEdges, detachedEdges);
+			
+			if (branch != null) {
+				cache.stageChanges(branch, characteristicTypeId, taxonomy);
+			}
+			
+			return taxonomy;
 		} catch (IOException e) {
 			throw new SnowowlRuntimeException(e);
 		}
@@ -198,7 +227,7 @@ public final class Taxonomies {
 			});
 		
 		if (!conceptWithPossibleMissingRelationships.isEmpty()) {
-			Hits<String[]> possibleMissingRelationships = searcher.search(Query.select(String[].class)
+			Hits<long[]> possibleMissingRelationships = searcher.search(Query.select(long[].class)
 					.from(SnomedRelationshipIndexEntry.class)
 					.fields(SnomedRelationshipIndexEntry.Fields.ID, SnomedRelationshipIndexEntry.Fields.SOURCE_ID, SnomedRelationshipIndexEntry.Fields.DESTINATION_ID)
 					.where(Expressions.builder()
@@ -212,9 +241,9 @@ public final class Taxonomies {
 					.limit(Integer.MAX_VALUE)
 					.build());
 			
-			for (String[] relationship : possibleMissingRelationships) {
+			for (long[] relationship : possibleMissingRelationships) {
 				graphToUpdate.addNode(relationship[2]);
-				graphToUpdate.addEdge(relationship[0], Long.parseLong(relationship[1]), new long[] { Long.parseLong(relationship[2]) });
+				graphToUpdate.addEdge(Long.toString(relationship[0]), relationship[1], new long[] { relationship[2] });
 			}
 		}
 		
@@ -267,6 +296,10 @@ public final class Taxonomies {
 	}
 
 	private static Collection<Object[]> getStatements(RevisionSearcher searcher, LongCollection conceptIds, String characteristicTypeId, boolean filterByConceptIds) throws IOException {
+		return getStatements(searcher, conceptIds, characteristicTypeId, filterByConceptIds, filterByConceptIds);
+	}
+	
+	private static Collection<Object[]> getStatements(RevisionSearcher searcher, LongCollection conceptIds, String characteristicTypeId, boolean filterBySourceIds, boolean filterByDestinationIds) throws IOException {
 		// merge stated relationships and OWL axiom relationships into a single array
 		ImmutableList.Builder<Object[]> isaStatementsBuilder = ImmutableList.builder();
 		
@@ -277,68 +310,64 @@ public final class Taxonomies {
 				.filter(typeId(Concepts.IS_A))
 				.filter(characteristicTypeId(characteristicTypeId));
 
-		if (filterByConceptIds) {
-			activeIsaRelationshipQuery
-				.filter(sourceIds(concepts))
-				.filter(destinationIds(concepts));
+		if (filterBySourceIds) {
+			activeIsaRelationshipQuery.filter(sourceIds(concepts));
 		}
 		
-		final Query<String[]> activeStatedISARelationshipsQuery = Query.select(String[].class)
+		if (filterByDestinationIds) {
+			activeIsaRelationshipQuery.filter(destinationIds(concepts));
+		}
+		
+		final Query<long[]> activeStatedISARelationshipsQuery = Query.select(long[].class)
 				.from(SnomedRelationshipIndexEntry.class)
 				.fields(SnomedRelationshipIndexEntry.Fields.ID, SnomedRelationshipIndexEntry.Fields.SOURCE_ID, SnomedRelationshipIndexEntry.Fields.DESTINATION_ID)
 				.where(activeIsaRelationshipQuery.build())
-				.limit(Integer.MAX_VALUE)
+				.limit(PAGE_SIZE)
 				.build();
-		Hits<String[]> activeIsaRelationships = searcher.search(activeStatedISARelationshipsQuery);
-		activeIsaRelationships.forEach(activeIsaRelationship -> {
-			isaStatementsBuilder.add(new Object[] { activeIsaRelationship[0], Long.parseLong(activeIsaRelationship[1]), new long[] { Long.parseLong(activeIsaRelationship[2]) } });
-		});
-		activeIsaRelationships = null;
+		searcher.stream(activeStatedISARelationshipsQuery)
+			.flatMap(Hits::stream)
+			.forEach(activeIsaRelationship -> {
+				isaStatementsBuilder.add(new Object[] { Long.toString(activeIsaRelationship[0]), activeIsaRelationship[1], new long[] { activeIsaRelationship[2] } });
+			});
 		
 		if (Concepts.STATED_RELATIONSHIP.equals(characteristicTypeId)) {
 			// search existing axioms defined for the given set of conceptIds
 			ExpressionBuilder activeOwlAxiomMemberQuery = Expressions.builder()
 					.filter(active());
 			
-			if (filterByConceptIds) {
-				activeOwlAxiomMemberQuery
-					.filter(SnomedRefSetMemberIndexEntry.Expressions.referencedComponentIds(concepts))
-					.filter(
-						Expressions.nestedMatch(SnomedRefSetMemberIndexEntry.Fields.CLASS_AXIOM_RELATIONSHIP, 
-							Expressions.builder()
-								.filter(typeId(Concepts.IS_A))
-								.filter(destinationIds(concepts))
-							.build()
-						)
-					);
-			} else {
-				activeOwlAxiomMemberQuery.filter(
-					Expressions.nestedMatch(SnomedRefSetMemberIndexEntry.Fields.CLASS_AXIOM_RELATIONSHIP, 
-						Expressions.builder()
-							.filter(typeId(Concepts.IS_A))
-						.build()
-					)
-				);
+			if (filterBySourceIds) {
+				activeOwlAxiomMemberQuery.filter(SnomedRefSetMemberIndexEntry.Expressions.referencedComponentIds(concepts));
 			}
 			
+			final ExpressionBuilder axiomIsaRelationshipQuery = Expressions.builder()
+					.filter(typeId(Concepts.IS_A));
+			
+			if (filterByDestinationIds) {
+				axiomIsaRelationshipQuery.filter(destinationIds(concepts));
+			}
+			
+			activeOwlAxiomMemberQuery.filter(
+				Expressions.nestedMatch(SnomedRefSetMemberIndexEntry.Fields.CLASS_AXIOM_RELATIONSHIP, axiomIsaRelationshipQuery.build())
+			);
+			
 			final Query<SnomedRefSetMemberIndexEntry> activeAxiomISARelationshipsQuery = Query.select(SnomedRefSetMemberIndexEntry.class)
 					.where(activeOwlAxiomMemberQuery.build())
-					.limit(Integer.MAX_VALUE)
+					.limit(PAGE_SIZE)
 					.build();
-			Hits<SnomedRefSetMemberIndexEntry> activeAxiomISARelationships = searcher.search(activeAxiomISARelationshipsQuery);
-			activeAxiomISARelationships.forEach(owlMember -> {
-				if (!CompareUtils.isEmpty(owlMember.getClassAxiomRelationships())) {
-					// XXX: breaks with a NumberFormatException if any of the IS A relationships has a value
-					long[] destinationIds = owlMember.getClassAxiomRelationships()
-						.stream()
-						.filter(classAxiom -> Concepts.IS_A.equals(classAxiom.getTypeId()))
-						.map(SnomedOWLRelationshipDocument::getDestinationId)
-						.mapToLong(Long::parseLong)
-						.toArray();
-					isaStatementsBuilder.add(new Object[] { owlMember.getId(), Long.parseLong(owlMember.getReferencedComponentId()), destinationIds });
-				}
-			});
-			activeAxiomISARelationships = null;
+			searcher.stream(activeAxiomISARelationshipsQuery)
+				.flatMap(Hits::stream)
+				.forEach(owlMember -> {
+					if (!CompareUtils.isEmpty(owlMember.getClassAxiomRelationships())) {
+						// XXX: breaks with a NumberFormatException if any of the IS A relationships has a value
+						long[] destinationIds = owlMember.getClassAxiomRelationships()
+							.stream()
+							.filter(classAxiom -> Concepts.IS_A.equals(classAxiom.getTypeId()))
+							.map(SnomedOWLRelationshipDocument::getDestinationId)
+							.mapToLong(Long::parseLong)
+							.toArray();
+						isaStatementsBuilder.add(new Object[] { owlMember.getId(), Long.parseLong(owlMember.getReferencedComponentId()), destinationIds });
+					}
+				});
 		}
 		
 		return isaStatementsBuilder.build();
@@ -348,4 +377,86 @@ public final class Taxonomies {
 		return getStatements(searcher, LongCollections.emptySet(), characteristicTypeId, false);
 	}
 	
+	/**
+	 * Returns the active IS A statements of the given concepts, regardless of their destination.
+	 * 
+	 * @param searcher
+	 * @param sourceIds - the concepts to return outgoing IS A statements for
+	 * @param characteristicTypeId - the characteristic type of the statements (OWL axioms are included for the stated form)
+	 * @return IS A statements in the same format as {@link #getAllStatements(RevisionSearcher, String)}
+	 * @throws IOException
+	 */
+	public static Collection<Object[]> getStatementsBySource(RevisionSearcher searcher, LongCollection sourceIds, String characteristicTypeId) throws IOException {
+		return getStatements(searcher, sourceIds, characteristicTypeId, true, false);
+	}
+	
+	/**
+	 * Collects the concepts affected by commits made on the given branch in the (from, to] time range. Components are registered in commit
+	 * details with their containers, so changes of relationships and reference set members (eg. OWL axioms) show up as changes of their
+	 * source or referenced concept.
+	 * 
+	 * @param searcher
+	 * @param branchPath - the branch to collect changes from
+	 * @param from - the exclusive start of the time range
+	 * @param to - the inclusive end of the time range
+	 * @param maxCommits - the maximum number of commits to process
+	 * @param changedConceptIds - the set to add the affected concept IDs to
+	 * @return <code>false</code> if the changes can not be determined from the commits (there are more than <code>maxCommits</code> of them
+	 *         or some of them are merges without change details), <code>true</code> otherwise
+	 * @throws IOException
+	 */
+	public static boolean collectChangedConcepts(RevisionSearcher searcher, String branchPath, long from, long to, int maxCommits, LongSet changedConceptIds) throws IOException {
+		if (from >= to) {
+			return true;
+		}
+
+		final Hits<Commit> commits = searcher.searcher().search(Query.select(Commit.class)
+				.where(Expressions.builder()
+						.filter(Commit.Expressions.branches(branchPath))
+						.filter(Commit.Expressions.timestampRange(from + 1, to))
+						.build())
+				.limit(maxCommits)
+				.build());
+
+		if (commits.getTotal() > maxCommits) {
+			return false;
+		}
+
+		final String conceptType = DocumentMapping.getType(SnomedConceptDocument.class);
+		try {
+
+			for (Commit commit : commits) {
+				// regular merges do not record change details
+				if (commit.isMergeCommit() && commit.getDetails().isEmpty()) {
+					return false;
+				}
+
+				for (CommitDetail detail : commit.getDetails()) {
+					if (!conceptType.equals(detail.getObjectType())) {
+						continue;
+					}
+
+					for (String objectId : detail.getObjects()) {
+						if (!ObjectId.ROOT.equals(objectId)) {
+							changedConceptIds.add(Long.parseLong(objectId));
+						}
+					}
+
+					if (conceptType.equals(detail.getComponentType())) {
+						for (Set<String> componentIds : detail.getComponents()) {
+							for (String componentId : componentIds) {
+								changedConceptIds.add(Long.parseLong(componentId));
+							}
+						}
+					}
+				}
+			}
+
+		} catch (NumberFormatException e) {
+			return false;
+		}
+
+		return true;
+	}
+	
 }
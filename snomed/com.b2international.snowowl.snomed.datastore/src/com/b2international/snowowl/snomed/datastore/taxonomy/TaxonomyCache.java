@@ -0,0 +1,533 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.taxonomy;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongCollection;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.Hooks.PostCommitHook;
+import com.b2international.index.revision.RevisionBranch;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
+import com.b2international.snowowl.core.util.ConcurrentTasks.Task;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Keeps the active IS A statements (IS A relationships and OWL axiom subclass statements) of recently committed branches in memory, so
+ * {@link Taxonomies} do not have to read them again from the index on each commit.
+ * <p>
+ * Entries are keyed by branch path and are valid for a single branch head timestamp only. After a successful commit the entry of the branch is
+ * moved to the new head timestamp by applying the IS A changes of the commit (registered via {@link #stageChanges(RevisionBranch, String, Taxonomy)}
+ * by the pre-commit hook), merges and rebases invalidate it. A new branch without any commits shares the statements of its parent, if they
+ * are available; both branches record their own changes on top of the shared state from that point on.
+ * <p>
+ * Statements of a branch are never loaded from the index while a commit is in progress: a commit without a cached entry reads the statements
+ * it needs from the index. The full set of statements is loaded in the background only after {@value #UNCACHED_COMMITS_BEFORE_LOAD} commits
+ * needed them on the same branch, so branches receiving a single commit only (or none at all) do not pay for loading all statements.
+ * <p>
+ * Edges are keyed by the ID of the relationship they were created from. OWL axiom members have UUIDs instead of SCTIDs, these are mapped to
+ * negative keys that are unique within this cache.
+ *
+ * @since 7.17
+ */
+public final class TaxonomyCache implements PostCommitHook {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("repository");
+
+	private static final List<String> CHARACTERISTIC_TYPE_IDS = ImmutableList.of(Concepts.STATED_RELATIONSHIP, Concepts.INFERRED_RELATIONSHIP);
+
+	private static final int UNCACHED_COMMITS_BEFORE_LOAD = 2;
+
+	private final Cache<String, BranchStatements> branches;
+
+	// IS A changes of commits that are being processed, keyed by branch path
+	private final Map<String, PendingChanges> pendingChanges = new ConcurrentHashMap<>();
+
+	// background loads of IS A statements, keyed by branch path
+	private final Map<String, Task<Void>> loads = new ConcurrentHashMap<>();
+
+	// number of commits since the last load that needed the IS A statements of a branch while they were not cached, keyed by branch path
+	private final Map<String, Integer> uncachedCommits = new ConcurrentHashMap<>();
+
+	private final EdgeKeys edgeKeys = new EdgeKeys();
+
+	private volatile RevisionIndex index;
+
+	public TaxonomyCache(int maxBranches) {
+		this.branches = CacheBuilder.newBuilder()
+				.maximumSize(maxBranches)
+				.build();
+	}
+
+	/**
+	 * Registers this cache as a post-commit hook of the given index. The IS A statements of committed branches are loaded from the same index.
+	 *
+	 * @param index - the revision index of the repository
+	 */
+	public void attach(RevisionIndex index) {
+		this.index = index;
+		index.hooks().addHook(this);
+	}
+
+	/**
+	 * Returns the active IS A statements of the given characteristic type where the source and at least one of the destinations are part of the
+	 * given concept ID set, in the same format as they would be loaded from the index by {@link Taxonomies}.
+	 *
+	 * @param searcher - the searcher to use for reading the parent branch
+	 * @param branch - the branch document representing the current state of the branch
+	 * @param characteristicTypeId - stated or inferred characteristic type
+	 * @param conceptIds - the concepts to return the IS A statements for
+	 * @return the matching statements, or <code>null</code> if the statements of the branch are not available in the cache
+	 * @throws IOException
+	 */
+	Collection<Object[]> getStatements(RevisionSearcher searcher, RevisionBranch branch, String characteristicTypeId, LongCollection conceptIds) throws IOException {
+		final String path = branch.getPath();
+		final BranchStatements entry = branches.getIfPresent(path);
+		if (entry != null) {
+			synchronized (entry) {
+				final StatementSet statements = entry.headTimestamp == branch.getHeadTimestamp() ? entry.statementsByCharacteristicType.get(characteristicTypeId) : null;
+				if (statements != null) {
+					return statements.filter(conceptIds, edgeKeys);
+				}
+			}
+		}
+
+		// a branch without any commits has the same content as its parent had at the time of the branch creation
+		if (!branch.isMain() && branch.isEmpty()) {
+			final StatementSet statements = forkParent(searcher, branch, characteristicTypeId);
+			if (statements != null) {
+				final BranchStatements newEntry = getEntry(path, branch.getHeadTimestamp());
+				synchronized (newEntry) {
+					newEntry.statementsByCharacteristicType.putIfAbsent(characteristicTypeId, statements);
+					return newEntry.statementsByCharacteristicType.get(characteristicTypeId).filter(conceptIds, edgeKeys);
+				}
+			}
+		}
+
+		return null;
+	}
+
+	private BranchStatements getEntry(String path, long headTimestamp) {
+		synchronized (branches) {
+			BranchStatements entry = branches.getIfPresent(path);
+			if (entry == null || entry.headTimestamp != headTimestamp) {
+				entry = new BranchStatements(headTimestamp);
+				branches.put(path, entry);
+			}
+			return entry;
+		}
+	}
+
+	private StatementSet forkParent(RevisionSearcher searcher, RevisionBranch branch, String characteristicTypeId) throws IOException {
+		final BranchStatements parentEntry = branches.getIfPresent(branch.getParentPath());
+		if (parentEntry == null || parentEntry.headTimestamp > branch.getBaseTimestamp()) {
+			return null;
+		}
+
+		final RevisionBranch parent = searcher.get(RevisionBranch.class, branch.getParentPath());
+		synchronized (parentEntry) {
+			final StatementSet parentStatements = parentEntry.statementsByCharacteristicType.get(characteristicTypeId);
+			if (parent == null || parentStatements == null || parent.getHeadTimestamp() != parentEntry.headTimestamp) {
+				return null;
+			}
+
+			LOGGER.trace("Sharing IS A statements of '{}' with parent branch '{}'.", branch.getPath(), parent.getPath());
+			// the current state of the parent becomes read-only, both branches continue with their own layer on top of it
+			final StatementSet shared = parentStatements.freeze();
+			parentEntry.statementsByCharacteristicType.put(characteristicTypeId, shared.fork());
+			return shared.fork();
+		}
+	}
+
+	/**
+	 * Registers the IS A statement changes of an ongoing commit on the given branch. The changes will be applied to the cached statements of the
+	 * branch when the commit succeeds.
+	 *
+	 * @param branch - the branch document representing the state of the branch before the commit
+	 * @param characteristicTypeId - stated or inferred characteristic type
+	 * @param taxonomy - the taxonomy computed for the commit
+	 */
+	void stageChanges(RevisionBranch branch, String characteristicTypeId, Taxonomy taxonomy) {
+		final PendingChanges changes = pendingChanges.compute(branch.getPath(), (path, existingChanges) -> {
+			if (existingChanges == null || existingChanges.headTimestamp != branch.getHeadTimestamp()) {
+				return new PendingChanges(branch.getHeadTimestamp());
+			} else {
+				return existingChanges;
+			}
+		});
+
+		final TaxonomyGraph newTaxonomy = taxonomy.getNewTaxonomy();
+		final LongKeyMap<Edges> upserts = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(taxonomy.getNewEdges().size() + taxonomy.getChangedEdges().size());
+		taxonomy.getNewEdges().forEach(edgeId -> upserts.put(edgeKeys.toKey(edgeId), newTaxonomy.getEdge(edgeId)));
+		taxonomy.getChangedEdges().forEach(edgeId -> upserts.put(edgeKeys.toKey(edgeId), newTaxonomy.getEdge(edgeId)));
+
+		final LongSet removals = PrimitiveSets.newLongOpenHashSetWithExpectedSize(taxonomy.getDetachedEdges().size());
+		taxonomy.getDetachedEdges().forEach(edgeId -> removals.add(edgeKeys.toKey(edgeId)));
+
+		changes.upsertsByCharacteristicType.put(characteristicTypeId, upserts);
+		changes.removalsByCharacteristicType.put(characteristicTypeId, removals);
+	}
+
+	/**
+	 * Drops the cached statements and pending changes of the given branch.
+	 *
+	 * @param branchPath
+	 */
+	public void invalidate(String branchPath) {
+		pendingChanges.remove(branchPath);
+		uncachedCommits.remove(branchPath);
+		branches.invalidate(branchPath);
+	}
+
+	@Override
+	public void run(Commit commit) {
+		if (commit == null) {
+			return;
+		}
+
+		final String branchPath = commit.getBranch();
+		final PendingChanges changes = pendingChanges.remove(branchPath);
+		final BranchStatements entry = branches.getIfPresent(branchPath);
+
+		if (entry != null) {
+			synchronized (entry) {
+				if (changes != null && changes.headTimestamp == entry.headTimestamp && commit.getMergeSource() == null) {
+					entry.statementsByCharacteristicType.entrySet().removeIf(statementsByCharacteristicType -> {
+						final String characteristicTypeId = statementsByCharacteristicType.getKey();
+						final LongKeyMap<Edges> upserts = changes.upsertsByCharacteristicType.get(characteristicTypeId);
+						final LongSet removals = changes.removalsByCharacteristicType.get(characteristicTypeId);
+						if (upserts == null || removals == null) {
+							// the taxonomy of this characteristic type was not computed for the commit, drop the statements
+							return true;
+						}
+
+						final StatementSet statements = statementsByCharacteristicType.getValue();
+						final LongIterator removedKeys = removals.iterator();
+						while (removedKeys.hasNext()) {
+							statements.remove(removedKeys.next());
+						}
+						final LongIterator upsertedKeys = upserts.keySet().iterator();
+						while (upsertedKeys.hasNext()) {
+							final long edgeKey = upsertedKeys.next();
+							statements.put(edgeKey, upserts.get(edgeKey));
+						}
+						return false;
+					});
+
+					entry.headTimestamp = commit.getTimestamp();
+					if (entry.statementsByCharacteristicType.size() == CHARACTERISTIC_TYPE_IDS.size()) {
+						uncachedCommits.remove(branchPath);
+						return;
+					}
+				}
+			}
+		}
+
+		// the cached state cannot be moved forward to the new head, load it again in the background if commits on the branch keep needing it
+		branches.invalidate(branchPath);
+		if (changes != null && uncachedCommits.merge(branchPath, 1, Integer::sum) >= UNCACHED_COMMITS_BEFORE_LOAD) {
+			uncachedCommits.remove(branchPath);
+			scheduleLoad(branchPath, commit.getTimestamp());
+		}
+	}
+
+	private void scheduleLoad(String branchPath, long headTimestamp) {
+		if (index == null) {
+			return;
+		}
+
+		// at most one load runs for a branch at the same time, commits in the meantime are picked up by the next commit's load
+		loads.computeIfAbsent(branchPath, path -> ConcurrentTasks.fork(() -> load(path, headTimestamp)));
+	}
+
+	private Void load(String branchPath, long headTimestamp) {
+		try {
+			final Stopwatch w = Stopwatch.createStarted();
+			final Map<String, StatementSet> statementsByCharacteristicType = index.read(RevisionIndex.toBranchAtPath(branchPath, headTimestamp), searcher -> {
+				final Map<String, StatementSet> loadedStatements = newHashMap();
+				for (String characteristicTypeId : CHARACTERISTIC_TYPE_IDS) {
+					final Collection<Object[]> allStatements = Taxonomies.getAllStatements(searcher, characteristicTypeId);
+					final StatementSet statements = new StatementSet(null, allStatements.size());
+					for (Object[] statement : allStatements) {
+						statements.put(edgeKeys.toKey((String) statement[0]), new Edges((long) statement[1], (long[]) statement[2]));
+					}
+					loadedStatements.put(characteristicTypeId, statements);
+				}
+				return loadedStatements;
+			});
+
+			synchronized (branches) {
+				final BranchStatements entry = branches.getIfPresent(branchPath);
+				if (entry == null || entry.headTimestamp <= headTimestamp) {
+					final BranchStatements newEntry = new BranchStatements(headTimestamp);
+					newEntry.statementsByCharacteristicType.putAll(statementsByCharacteristicType);
+					branches.put(branchPath, newEntry);
+				}
+			}
+
+			LOGGER.info("Loaded IS A statements of branch '{}' in {}.", branchPath, w);
+		} catch (RuntimeException e) {
+			LOGGER.warn("Failed to load IS A statements of branch '{}'.", branchPath, e);
+		} finally {
+			loads.remove(branchPath);
+		}
+		return null;
+	}
+
+	/**
+	 * Waits for all background loads to complete.
+	 */
+	@VisibleForTesting
+	void awaitLoads() {
+		ImmutableList.copyOf(loads.values()).forEach(Task::join);
+	}
+
+	/*
+	 * Cached IS A statements of a single branch, valid for a single head timestamp.
+	 */
+	private static final class BranchStatements {
+
+		private volatile long headTimestamp;
+		private final Map<String, StatementSet> statementsByCharacteristicType = newHashMap();
+
+		BranchStatements(long headTimestamp) {
+			this.headTimestamp = headTimestamp;
+		}
+
+	}
+
+	/*
+	 * IS A statement changes of a single commit, registered before the commit and applied after it.
+	 */
+	private static final class PendingChanges {
+
+		private final long headTimestamp;
+		private final Map<String, LongKeyMap<Edges>> upsertsByCharacteristicType = new ConcurrentHashMap<>();
+		private final Map<String, LongSet> removalsByCharacteristicType = new ConcurrentHashMap<>();
+
+		PendingChanges(long headTimestamp) {
+			this.headTimestamp = headTimestamp;
+		}
+
+	}
+
+	/*
+	 * Maps edge IDs to long keys and back. Relationship IDs are used as is, OWL axiom member UUIDs get a negative key on first use. Keys of
+	 * axioms are not released, their number is bounded by the number of distinct axioms seen by the cache.
+	 */
+	private static final class EdgeKeys {
+
+		private final Map<String, Long> keysByAxiomId = newHashMap();
+		private final LongKeyMap<String> axiomIdsByKey = PrimitiveMaps.newLongKeyOpenHashMap();
+
+		long toKey(String edgeId) {
+			if (isRelationshipId(edgeId)) {
+				return Long.parseLong(edgeId);
+			}
+
+			synchronized (this) {
+				Long key = keysByAxiomId.get(edgeId);
+				if (key == null) {
+					key = -(keysByAxiomId.size() + 1L);
+					keysByAxiomId.put(edgeId, key);
+					axiomIdsByKey.put(key, edgeId);
+				}
+				return key;
+			}
+		}
+
+		String toEdgeId(long key) {
+			if (key > 0L) {
+				return Long.toString(key);
+			}
+
+			synchronized (this) {
+				return axiomIdsByKey.get(key);
+			}
+		}
+
+		private static boolean isRelationshipId(String edgeId) {
+			// SCTIDs have at most 18 digits and always fit into a long
+			if (edgeId.isEmpty() || edgeId.length() > 18 || edgeId.charAt(0) == '0') {
+				return false;
+			}
+			for (int i = 0; i < edgeId.length(); i++) {
+				final char c = edgeId.charAt(i);
+				if (c < '0' || c > '9') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	/*
+	 * IS A statements of a single characteristic type indexed by their edge key and by their source concept ID. A set either holds all statements
+	 * (when it has no parent) or the changes made on top of a read-only parent set, where the REMOVED marker stands for a removed statement.
+	 * Edges indexed by source ID may be stale in both cases, the current source of the edge is checked when filtering.
+	 */
+	private static final class StatementSet {
+
+		// maximum number of layers before a forked set is flattened into a single one
+		private static final int MAX_DEPTH = 8;
+
+		private static final Edges REMOVED = new Edges(-1L, new long[0]);
+
+		private final StatementSet parent;
+		private final int depth;
+		private final LongKeyMap<Edges> edges;
+		private final LongKeyMap<LongSet> edgeKeysBySourceId;
+		private boolean frozen;
+
+		StatementSet(StatementSet parent, int expectedSize) {
+			this.parent = parent;
+			this.depth = parent == null ? 0 : parent.depth + 1;
+			this.edges = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(expectedSize);
+			this.edgeKeysBySourceId = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(expectedSize);
+		}
+
+		StatementSet freeze() {
+			frozen = true;
+			return this;
+		}
+
+		StatementSet fork() {
+			checkState(frozen, "Only read-only statement sets can be shared.");
+			if (depth < MAX_DEPTH) {
+				return new StatementSet(this, 16);
+			}
+
+			final LongKeyMap<Edges> allEdges = PrimitiveMaps.newLongKeyOpenHashMap();
+			collectEdges(allEdges);
+			final StatementSet flattened = new StatementSet(null, allEdges.size());
+			final LongIterator edgeKeys = allEdges.keySet().iterator();
+			while (edgeKeys.hasNext()) {
+				final long edgeKey = edgeKeys.next();
+				flattened.put(edgeKey, allEdges.get(edgeKey));
+			}
+			return flattened;
+		}
+
+		private void collectEdges(LongKeyMap<Edges> allEdges) {
+			if (parent != null) {
+				parent.collectEdges(allEdges);
+			}
+			final LongIterator edgeKeys = edges.keySet().iterator();
+			while (edgeKeys.hasNext()) {
+				final long edgeKey = edgeKeys.next();
+				final Edges edge = edges.get(edgeKey);
+				if (edge == REMOVED) {
+					allEdges.remove(edgeKey);
+				} else {
+					allEdges.put(edgeKey, edge);
+				}
+			}
+		}
+
+		void put(long edgeKey, Edges edge) {
+			checkState(!frozen, "Statement set is read-only.");
+			edges.put(edgeKey, edge);
+			LongSet edgeKeys = edgeKeysBySourceId.get(edge.sourceId);
+			if (edgeKeys == null) {
+				edgeKeys = PrimitiveSets.newLongOpenHashSetWithExpectedSize(2);
+				edgeKeysBySourceId.put(edge.sourceId, edgeKeys);
+			}
+			edgeKeys.add(edgeKey);
+		}
+
+		void remove(long edgeKey) {
+			checkState(!frozen, "Statement set is read-only.");
+			if (parent == null) {
+				edges.remove(edgeKey);
+			} else {
+				edges.put(edgeKey, REMOVED);
+			}
+		}
+
+		private Edges get(long edgeKey) {
+			for (StatementSet set = this; set != null; set = set.parent) {
+				final Edges edge = set.edges.get(edgeKey);
+				if (edge != null) {
+					return edge == REMOVED ? null : edge;
+				}
+			}
+			return null;
+		}
+
+		Collection<Object[]> filter(LongCollection conceptIds, EdgeKeys keys) {
+			final LongSet concepts = conceptIds instanceof LongSet ? (LongSet) conceptIds : PrimitiveSets.newLongOpenHashSet(conceptIds);
+			final List<Object[]> statements = Lists.newArrayList();
+			final LongSet edgeKeys = PrimitiveSets.newLongOpenHashSet();
+			final LongIterator it = concepts.iterator();
+			while (it.hasNext()) {
+				final long sourceId = it.next();
+
+				edgeKeys.clear();
+				for (StatementSet set = this; set != null; set = set.parent) {
+					final LongSet sourceEdgeKeys = set.edgeKeysBySourceId.get(sourceId);
+					if (sourceEdgeKeys != null) {
+						edgeKeys.addAll(sourceEdgeKeys);
+					}
+				}
+
+				final LongIterator edgeKeyIt = edgeKeys.iterator();
+				while (edgeKeyIt.hasNext()) {
+					final long edgeKey = edgeKeyIt.next();
+					final Edges edge = get(edgeKey);
+					if (edge != null && edge.sourceId == sourceId && containsAny(concepts, edge.destinationIds)) {
+						statements.add(new Object[] { keys.toEdgeId(edgeKey), edge.sourceId, edge.destinationIds });
+					}
+				}
+			}
+			return statements;
+		}
+
+		private static boolean containsAny(LongSet concepts, long[] destinationIds) {
+			for (long destinationId : destinationIds) {
+				if (concepts.contains(destinationId)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
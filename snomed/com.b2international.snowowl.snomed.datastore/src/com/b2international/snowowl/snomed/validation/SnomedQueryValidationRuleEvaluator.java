@@ -18,9 +18,11 @@ package com.b2international.snowowl.snomed.validation;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -62,12 +64,33 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 	private static final int RULE_LIMIT = 25_000;
 	private static final TypeReference<SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent>> TYPE_REF = new TypeReference<SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent>>() {};
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	@Override
 	public List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> params) throws Exception {
+		return eval(context, rule, params, readQuery(context, rule), null);
+	}
+	
+	@Override
+	public boolean isComponentScoped(BranchContext context, ValidationRule rule) throws Exception {
+		return Boolean.TRUE.equals(readQuery(context, rule).componentScoped);
+	}
+	
+	@Override
+	public List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> params, Set<String> componentIds) throws Exception {
+		return eval(context, rule, params, readQuery(context, rule), componentIds);
+	}
+	
+	private SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> readQuery(BranchContext context, ValidationRule rule) throws IOException {
 		checkArgument(type().equals(rule.getType()), "'%s' is not recognizable by this evaluator (accepts: %s)", rule, type());
-		SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> validationQuery = context.service(ObjectMapper.class)
+		return context.service(ObjectMapper.class)
 				.<SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent>>readValue(rule.getImplementation(), TYPE_REF);
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private List<?> eval(BranchContext context, 
+			ValidationRule rule, 
+			Map<String, Object> params, 
+			SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> validationQuery, 
+			Set<String> componentIds) throws IOException {
 		
 		SnomedSearchRequestBuilder<?, PageableCollectionResource<SnomedComponent>> req = validationQuery
 				.prepareSearch();
@@ -90,6 +113,10 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 			expressionBuilder.filter(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME));
 		}
 		
+		if (componentIds != null) {
+			expressionBuilder.filter(SnomedDocument.Expressions.ids(componentIds));
+		}
+		
 		Expression where = expressionBuilder.build();
 		
 		// TODO check if the expression contains only the ID list, then skip scrolling and just report them
@@ -138,6 +165,8 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 		@JsonProperty private String module;
 		@JsonProperty private Boolean extensionScope = Boolean.FALSE;
 		@JsonProperty private Boolean released;
+		// the query only filters on properties of the matching component itself, it can be evaluated for changed components only
+		@JsonProperty private Boolean componentScoped = Boolean.FALSE;
 
 		public final SB prepareSearch() {
 			return prepareSearch(createSearch());
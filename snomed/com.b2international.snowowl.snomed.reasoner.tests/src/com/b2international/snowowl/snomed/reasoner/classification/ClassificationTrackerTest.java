@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.snowowl.snomed.reasoner.index.ClassificationTaskDocument;
+import com.b2international.snowowl.snomed.reasoner.index.ConcreteDomainChangeDocument;
+import com.b2international.snowowl.snomed.reasoner.index.EquivalentConceptSetDocument;
+import com.b2international.snowowl.snomed.reasoner.index.RelationshipChangeDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * @since 7.17
+ */
+public class ClassificationTrackerTest extends BaseRevisionIndexTest {
+
+	private static final String BRANCH = "MAIN/a";
+	private static final String REASONER = "reasonerId";
+	private static final String USER = "user@host.domain";
+	private static final long HEAD = 1234L;
+	private static final Set<String> NO_EXCLUDED_MODULES = Collections.emptySet();
+
+	private ClassificationTracker tracker;
+
+	@Override
+	protected void configureMapper(final ObjectMapper mapper) {
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.of(
+				ClassificationTaskDocument.class,
+				EquivalentConceptSetDocument.class,
+				RelationshipChangeDocument.class,
+				ConcreteDomainChangeDocument.class);
+	}
+
+	@Before
+	public void setup() {
+		tracker = new ClassificationTracker(rawIndex(), 10, TimeUnit.HOURS.toMillis(1L));
+	}
+
+	@After
+	public void dispose() {
+		tracker.dispose();
+	}
+
+	@Test
+	public void reuseScheduledRun() throws Exception {
+		final String firstId = schedule(HEAD);
+		assertEquals(firstId, schedule(HEAD));
+	}
+
+	@Test
+	public void reuseRunningRun() throws Exception {
+		final String firstId = schedule(HEAD);
+		tracker.classificationRunning(firstId, HEAD);
+		assertEquals(firstId, schedule(HEAD));
+	}
+
+	@Test
+	public void noReuseAfterCommit() throws Exception {
+		final String firstId = schedule(HEAD);
+		assertNotEquals(firstId, schedule(HEAD + 1));
+	}
+
+	@Test
+	public void noReuseWhenRunStartsOnNewerHead() throws Exception {
+		final String firstId = schedule(HEAD);
+		// a commit arrived between scheduling and running the classification
+		tracker.classificationRunning(firstId, HEAD + 1);
+		assertNotEquals(firstId, schedule(HEAD));
+	}
+
+	@Test
+	public void noReuseAfterSave() throws Exception {
+		final String firstId = schedule(HEAD);
+		tracker.classificationSaved(firstId, HEAD + 1);
+		assertNotEquals(firstId, schedule(HEAD));
+	}
+
+	@Test
+	public void noReuseAfterCancel() throws Exception {
+		final String firstId = schedule(HEAD);
+		tracker.classificationCancelled(firstId);
+		assertNotEquals(firstId, schedule(HEAD));
+	}
+
+	@Test
+	public void noReuseAfterFailure() throws Exception {
+		final String firstId = schedule(HEAD);
+		tracker.classificationFailed(firstId);
+		assertNotEquals(firstId, schedule(HEAD));
+	}
+
+	@Test
+	public void noReuseAfterDelete() throws Exception {
+		final String firstId = schedule(HEAD);
+		tracker.classificationDeleted(firstId);
+		assertNotEquals(firstId, schedule(HEAD));
+	}
+
+	@Test
+	public void noReuseWithDifferentConfiguration() throws Exception {
+		final String firstId = schedule(HEAD);
+		assertNotEquals(firstId, tracker.classificationScheduledOrReused(randomUUID(), REASONER, USER, BRANCH, HEAD, NO_EXCLUDED_MODULES, false));
+		assertNotEquals(firstId, tracker.classificationScheduledOrReused(randomUUID(), REASONER, USER, BRANCH, HEAD, ImmutableSet.of("900000000000012004"), true));
+		assertNotEquals(firstId, tracker.classificationScheduledOrReused(randomUUID(), "otherReasonerId", USER, BRANCH, HEAD, NO_EXCLUDED_MODULES, true));
+	}
+
+	@Test
+	public void noReuseOfRunWithAdditionalConcepts() throws Exception {
+		// runs with additional concepts are scheduled without registering them for reuse
+		final String firstId = randomUUID();
+		tracker.classificationScheduled(firstId, REASONER, USER, BRANCH);
+		tracker.classificationRunning(firstId, HEAD);
+		assertNotEquals(firstId, schedule(HEAD));
+	}
+
+	private String schedule(final long headTimestamp) {
+		final String classificationId = randomUUID();
+		final String scheduledId = tracker.classificationScheduledOrReused(classificationId, REASONER, USER, BRANCH, headTimestamp, NO_EXCLUDED_MODULES, true);
+		if (scheduledId.equals(classificationId)) {
+			final ClassificationTaskDocument document = rawIndex().read(searcher -> searcher.get(ClassificationTaskDocument.class, classificationId));
+			assertNotNull(document);
+			assertEquals(headTimestamp, document.getTimestamp());
+		}
+		return scheduledId;
+	}
+
+	private static String randomUUID() {
+		return UUID.randomUUID().toString();
+	}
+
+}
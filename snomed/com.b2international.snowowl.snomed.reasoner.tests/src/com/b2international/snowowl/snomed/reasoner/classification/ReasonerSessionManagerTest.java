@@ -0,0 +1,301 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.RevisionBranch;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
+import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntologyFactory;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * @since 7.17
+ */
+public class ReasonerSessionManagerTest extends BaseRevisionIndexTest {
+
+	private static final String REASONER = "reasonerId";
+	private static final int CONFIGURATION = 1;
+	private static final LongSet NO_ADDITIONAL_CONCEPTS = PrimitiveSets.newLongOpenHashSet();
+
+	private static final String ROOT = Concepts.ROOT_CONCEPT;
+	private static final String ATTRIBUTE = Concepts.CONCEPT_MODEL_ATTRIBUTE;
+	private static final String OBJECT_ATTRIBUTE = Concepts.CONCEPT_MODEL_OBJECT_ATTRIBUTE;
+	private static final String FINDING_SITE = Concepts.FINDING_SITE;
+	private static final String PART_OF = Concepts.PART_OF;
+
+	private static final String BODY_STRUCTURE = "100005";
+	private static final String HEART = "200004";
+	private static final String VALVE = "300007";
+	private static final String DISORDER = "400008";
+	private static final String HEART_DISORDER = "500001";
+	private static final String EXHAUSTIVE = "600002";
+	private static final String EXHAUSTIVE_CHILD = "700006";
+
+	private final AtomicInteger createdReasoners = new AtomicInteger();
+	private ReasonerSessionManager sessionManager;
+	private int nextRelationshipId = 1;
+
+	private SnomedConceptDocument heartDisorder;
+	private SnomedRelationshipIndexEntry heartDisorderFindingSite;
+	private SnomedRelationshipIndexEntry valveIsa;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.<Class<?>>of(
+			SnomedConceptDocument.class,
+			SnomedDescriptionIndexEntry.class,
+			SnomedRelationshipIndexEntry.class,
+			SnomedRefSetMemberIndexEntry.class
+		);
+	}
+
+	@Override
+	protected void configureMapper(final ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Before
+	public void setup() {
+		sessionManager = new ReasonerSessionManager(2, (reasonerId, ontology) -> {
+			createdReasoners.incrementAndGet();
+			return new StructuralReasonerFactory().createReasoner(ontology);
+		});
+
+		heartDisorder = concept(HEART_DISORDER, false, false);
+		heartDisorderFindingSite = relationship(HEART_DISORDER, FINDING_SITE, HEART, 1);
+		valveIsa = relationship(VALVE, Concepts.IS_A, HEART, 0);
+
+		commit(MAIN, ImmutableList.of(
+				concept(ROOT, true, false),
+				concept(ATTRIBUTE, true, false),
+				concept(OBJECT_ATTRIBUTE, true, false),
+				concept(FINDING_SITE, true, false),
+				concept(PART_OF, true, false),
+				concept(BODY_STRUCTURE, true, false),
+				concept(HEART, true, false),
+				concept(VALVE, true, false),
+				concept(DISORDER, true, false),
+				heartDisorder,
+				concept(EXHAUSTIVE, true, true),
+				concept(EXHAUSTIVE_CHILD, true, false),
+				relationship(ATTRIBUTE, Concepts.IS_A, ROOT, 0),
+				relationship(OBJECT_ATTRIBUTE, Concepts.IS_A, ATTRIBUTE, 0),
+				relationship(FINDING_SITE, Concepts.IS_A, OBJECT_ATTRIBUTE, 0),
+				relationship(PART_OF, Concepts.IS_A, OBJECT_ATTRIBUTE, 0),
+				relationship(BODY_STRUCTURE, Concepts.IS_A, ROOT, 0),
+				relationship(HEART, Concepts.IS_A, BODY_STRUCTURE, 0),
+				valveIsa,
+				relationship(DISORDER, Concepts.IS_A, ROOT, 0),
+				relationship(HEART_DISORDER, Concepts.IS_A, DISORDER, 0),
+				heartDisorderFindingSite,
+				relationship(EXHAUSTIVE, Concepts.IS_A, BODY_STRUCTURE, 0),
+				relationship(EXHAUSTIVE_CHILD, Concepts.IS_A, EXHAUSTIVE, 0),
+				owlAxiom(PART_OF, "TransitiveObjectProperty(:" + PART_OF + ")")));
+	}
+
+	@Test
+	public void incrementalUpdateMatchesNewOntology() throws Exception {
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS);
+
+		// a new concept which also changes the disjoint union axiom of its (unchanged) exhaustive parent
+		final String newChild = "800000";
+		commit(MAIN, ImmutableList.of(
+				concept(newChild, true, false),
+				relationship(newChild, Concepts.IS_A, EXHAUSTIVE, 0),
+				relationship(newChild, PART_OF, HEART, 0)));
+
+		// a changed definition
+		indexChange(MAIN, heartDisorder, SnomedConceptDocument.builder(heartDisorder).primitive(true).build());
+		indexChange(MAIN, heartDisorderFindingSite, SnomedRelationshipIndexEntry.builder(heartDisorderFindingSite).destinationId(VALVE).build());
+
+		// a new attribute, which changes the property hierarchy
+		final String newAttribute = "900007";
+		commit(MAIN, ImmutableList.of(
+				concept(newAttribute, true, false),
+				relationship(newAttribute, Concepts.IS_A, PART_OF, 0)));
+
+		// a removed relationship
+		indexRemove(MAIN, valveIsa);
+
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS);
+		assertEquals(1, createdReasoners.get());
+	}
+
+	@Test
+	public void inactivatedConceptIsRemoved() throws Exception {
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS);
+
+		indexChange(MAIN, heartDisorder, SnomedConceptDocument.builder(heartDisorder).active(false).build());
+
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS);
+		assertEquals(1, createdReasoners.get());
+	}
+
+	@Test
+	public void changedConfigurationComparesAllAxioms() throws Exception {
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS);
+		indexChange(MAIN, heartDisorder, SnomedConceptDocument.builder(heartDisorder).primitive(true).build());
+		assertSessionEqualsOntology(MAIN, CONFIGURATION + 1, NO_ADDITIONAL_CONCEPTS);
+		assertEquals(1, createdReasoners.get());
+	}
+
+	@Test
+	public void additionalConceptsAreUpdated() throws Exception {
+		final LongSet additionalConceptIds = PrimitiveSets.newLongOpenHashSet(Long.parseLong(HEART_DISORDER));
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, additionalConceptIds);
+		// the axioms of additional concepts from the previous run are compared again in the next one
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS);
+		assertEquals(1, createdReasoners.get());
+	}
+
+	@Test
+	public void failedClassificationDiscardsSession() throws Exception {
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS);
+
+		try {
+			withReasoner(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS, createOntology(MAIN), reasoner -> {
+				throw new IllegalStateException("Classification failed");
+			});
+			fail("Expected exception from classification");
+		} catch (final IllegalStateException expected) {
+			// expected
+		}
+
+		assertSessionEqualsOntology(MAIN, CONFIGURATION, NO_ADDITIONAL_CONCEPTS);
+		assertEquals(2, createdReasoners.get());
+	}
+
+	private void assertSessionEqualsOntology(final String branchPath, final int configurationHash, final LongSet additionalConceptIds) throws Exception {
+		final DelegateOntology ontology = createOntology(branchPath);
+		final Set<OWLAxiom> expected = new HashSet<>(ontology.getLogicalAxioms());
+		assertFalse(expected.isEmpty());
+
+		final Set<OWLAxiom> actual = withReasoner(branchPath, configurationHash, additionalConceptIds, ontology,
+				reasoner -> new HashSet<>(reasoner.getRootOntology().getLogicalAxioms()));
+		assertEquals(expected, actual);
+	}
+
+	private <T> T withReasoner(final String branchPath,
+			final int configurationHash,
+			final LongSet additionalConceptIds,
+			final DelegateOntology ontology,
+			final Function<OWLReasoner, T> function) {
+
+		final RevisionBranch branch = getBranch(branchPath);
+		return index().read(branchPath, searcher -> sessionManager.withReasoner(searcher,
+				branchPath,
+				branch.getBaseTimestamp(),
+				branch.getHeadTimestamp(),
+				REASONER,
+				configurationHash,
+				additionalConceptIds,
+				ontology,
+				function));
+	}
+
+	private DelegateOntology createOntology(final String branchPath) throws Exception {
+		final ReasonerTaxonomy taxonomy = index().read(branchPath, searcher -> new ReasonerTaxonomyBuilder()
+				.addActiveConceptIds(searcher)
+				.finishConcepts()
+				.addActiveComponents(searcher, false, 1)
+				.build());
+
+		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
+		ontologyManager.getOntologyFactories().add(new DelegateOntologyFactory(taxonomy));
+		return (DelegateOntology) ontologyManager.createOntology(IRI.create(DelegateOntology.NAMESPACE_SCTM + Concepts.MODULE_SCT_CORE));
+	}
+
+	private static SnomedConceptDocument concept(final String id, final boolean primitive, final boolean exhaustive) {
+		return SnomedConceptDocument.builder()
+				.id(id)
+				.active(true)
+				.primitive(primitive)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.exhaustive(exhaustive)
+				.iconId(Concepts.ROOT_CONCEPT)
+				.parents(IComponent.ROOT_IDL)
+				.ancestors(PrimitiveSets.newLongSortedSet())
+				.statedParents(IComponent.ROOT_IDL)
+				.statedAncestors(PrimitiveSets.newLongSortedSet())
+				.build();
+	}
+
+	private SnomedRelationshipIndexEntry relationship(final String sourceId, final String typeId, final String destinationId, final int group) {
+		return SnomedRelationshipIndexEntry.builder()
+				.id(Integer.toString(nextRelationshipId++) + "022")
+				.active(true)
+				.group(group)
+				.unionGroup(0)
+				.modifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.typeId(typeId)
+				.sourceId(sourceId)
+				.destinationId(destinationId)
+				.characteristicTypeId(Concepts.STATED_RELATIONSHIP)
+				.build();
+	}
+
+	private static SnomedRefSetMemberIndexEntry owlAxiom(final String referencedComponentId, final String owlExpression) {
+		return SnomedRefSetMemberIndexEntry.builder()
+				.id(UUID.randomUUID().toString())
+				.active(true)
+				.owlExpression(owlExpression)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.referencedComponentId(referencedComponentId)
+				.referencedComponentType(SnomedTerminologyComponentConstants.CONCEPT_NUMBER)
+				.referenceSetId(Concepts.REFSET_OWL_AXIOM)
+				.referenceSetType(SnomedRefSetType.OWL_AXIOM)
+				.build();
+	}
+
+}
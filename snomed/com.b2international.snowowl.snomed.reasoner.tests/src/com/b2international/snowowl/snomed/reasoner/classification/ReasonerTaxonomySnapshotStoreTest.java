@@ -0,0 +1,240 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+
+/**
+ * @since 7.17
+ */
+public class ReasonerTaxonomySnapshotStoreTest {
+
+	private static final String ROOT = Concepts.ROOT_CONCEPT;
+	private static final String CHILD = "404684003";
+
+	private static final String CHILD_BRANCH = Branch.MAIN_PATH + Branch.SEPARATOR + "a";
+	private static final String OTHER_BRANCH = Branch.MAIN_PATH + Branch.SEPARATOR + "b";
+	private static final int CONFIGURATION = 1;
+
+	private static final LongSupplier NO_PARENT_LOOKUP = () -> {
+		fail("The parent branch should not be looked up.");
+		return -1L;
+	};
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private Path directory;
+	private ReasonerTaxonomySnapshotStore store;
+	private ReasonerTaxonomy taxonomy;
+
+	@Before
+	public void setup() throws Exception {
+		directory = folder.getRoot().toPath().resolve("snapshots");
+		store = new ReasonerTaxonomySnapshotStore(directory, 2);
+		taxonomy = createTaxonomy();
+	}
+
+	@After
+	public void after() {
+		store.dispose();
+	}
+
+	@Test
+	public void writeAndRead() throws Exception {
+		store.write(Branch.MAIN_PATH, 10L, CONFIGURATION, taxonomy).get();
+
+		final Optional<ReasonerTaxonomy> snapshot = store.read(Branch.MAIN_PATH, 10L, CONFIGURATION);
+		assertTrue(snapshot.isPresent());
+		assertEquals(taxonomy.getConceptMap().size(), snapshot.get().getConceptMap().size());
+		assertEquals(Set.of(ROOT), snapshot.get().getStatedAncestors().getDestinations(CHILD, false));
+	}
+
+	@Test
+	public void writeAfterDisposeIsSkipped() throws Exception {
+		final Future<?> submitted = store.write(Branch.MAIN_PATH, 10L, CONFIGURATION, taxonomy);
+		store.dispose();
+		assertTrue(store.isDisposed());
+		store.write(CHILD_BRANCH, 20L, CONFIGURATION, taxonomy).get();
+
+		// writes submitted before disposal still complete
+		submitted.get();
+		assertTrue(store.read(Branch.MAIN_PATH, 10L, CONFIGURATION).isPresent());
+		assertFalse(store.read(CHILD_BRANCH, 20L, CONFIGURATION).isPresent());
+	}
+
+	@Test
+	public void headTimestampOrConfigurationMismatch() throws Exception {
+		store.write(Branch.MAIN_PATH, 10L, CONFIGURATION, taxonomy).get();
+
+		assertFalse(store.read(Branch.MAIN_PATH, 11L, CONFIGURATION).isPresent());
+		assertFalse(store.read(Branch.MAIN_PATH, 10L, CONFIGURATION + 1).isPresent());
+		assertFalse(store.read(CHILD_BRANCH, 10L, CONFIGURATION).isPresent());
+
+		// a mismatch does not remove the snapshot
+		assertTrue(store.read(Branch.MAIN_PATH, 10L, CONFIGURATION).isPresent());
+	}
+
+	@Test
+	public void corruptSnapshotIsRemoved() throws Exception {
+		store.write(Branch.MAIN_PATH, 10L, CONFIGURATION, taxonomy).get();
+		final Path snapshotPath = getSnapshotPaths().get(0);
+
+		// keep the header intact, so the contents are read
+		final ByteBuffer contents = ByteBuffer.allocate(20).putLong(10L).putInt(CONFIGURATION).putLong(0xDEADBEEFL);
+		Files.write(snapshotPath, contents.array());
+
+		assertFalse(store.read(Branch.MAIN_PATH, 10L, CONFIGURATION).isPresent());
+		assertFalse(Files.exists(snapshotPath));
+	}
+
+	@Test
+	public void truncatedSnapshotIsRemoved() throws Exception {
+		store.write(Branch.MAIN_PATH, 10L, CONFIGURATION, taxonomy).get();
+		final Path snapshotPath = getSnapshotPaths().get(0);
+		Files.write(snapshotPath, new byte[] { 0, 0, 0 });
+
+		assertFalse(store.read(Branch.MAIN_PATH, 10L, CONFIGURATION).isPresent());
+		assertFalse(Files.exists(snapshotPath));
+	}
+
+	@Test
+	public void leastRecentlyUsedSnapshotIsEvicted() throws Exception {
+		store.write(Branch.MAIN_PATH, 10L, CONFIGURATION, taxonomy).get();
+		store.write(CHILD_BRANCH, 20L, CONFIGURATION, taxonomy).get();
+
+		// make the order of use independent of the file system's timestamp resolution
+		final List<Path> snapshotPaths = getSnapshotPaths();
+		for (final Path snapshotPath : snapshotPaths) {
+			Files.setLastModifiedTime(snapshotPath, FileTime.fromMillis(1_000L));
+		}
+
+		// reading the snapshot of MAIN marks it as used, the snapshot of the child branch becomes the least recently used one
+		assertTrue(store.read(Branch.MAIN_PATH, 10L, CONFIGURATION).isPresent());
+		store.write(OTHER_BRANCH, 30L, CONFIGURATION, taxonomy).get();
+
+		assertEquals(2, getSnapshotPaths().size());
+		assertTrue(store.read(Branch.MAIN_PATH, 10L, CONFIGURATION).isPresent());
+		assertTrue(store.read(OTHER_BRANCH, 30L, CONFIGURATION).isPresent());
+		assertFalse(store.read(CHILD_BRANCH, 20L, CONFIGURATION).isPresent());
+	}
+
+	@Test
+	public void childBranchWithoutCommitsUsesParentSnapshot() throws Exception {
+		store.write(Branch.MAIN_PATH, 10L, CONFIGURATION, taxonomy).get();
+
+		assertTrue(store.read(CHILD_BRANCH, Branch.MAIN_PATH, 15L, 15L, () -> 10L, CONFIGURATION).isPresent());
+	}
+
+	@Test
+	public void childBranchOfChangedParentDoesNotUseParentSnapshot() throws Exception {
+		store.write(Branch.MAIN_PATH, 20L, CONFIGURATION, taxonomy).get();
+
+		assertFalse(store.read(CHILD_BRANCH, Branch.MAIN_PATH, 15L, 15L, () -> 20L, CONFIGURATION).isPresent());
+	}
+
+	@Test
+	public void childBranchWithCommitsDoesNotUseParentSnapshot() throws Exception {
+		store.write(Branch.MAIN_PATH, 10L, CONFIGURATION, taxonomy).get();
+
+		assertFalse(store.read(CHILD_BRANCH, Branch.MAIN_PATH, 15L, 16L, NO_PARENT_LOOKUP, CONFIGURATION).isPresent());
+	}
+
+	@Test
+	public void childBranchPrefersOwnSnapshot() throws Exception {
+		store.write(CHILD_BRANCH, 15L, CONFIGURATION, taxonomy).get();
+
+		assertTrue(store.read(CHILD_BRANCH, Branch.MAIN_PATH, 15L, 15L, NO_PARENT_LOOKUP, CONFIGURATION).isPresent());
+	}
+
+	@Test
+	public void mainBranchHasNoParentSnapshot() throws Exception {
+		assertFalse(store.read(Branch.MAIN_PATH, "", 10L, 10L, NO_PARENT_LOOKUP, CONFIGURATION).isPresent());
+	}
+
+	private List<Path> getSnapshotPaths() throws IOException {
+		try (Stream<Path> paths = Files.list(directory)) {
+			return paths.filter(path -> path.getFileName().toString().endsWith(".taxonomy")).collect(Collectors.toList());
+		}
+	}
+
+	private static ReasonerTaxonomy createTaxonomy() {
+		final ReasonerTaxonomyBuilder builder = new ReasonerTaxonomyBuilder();
+
+		final List<SnomedConcept> concepts = List.of(concept(ROOT), concept(CHILD));
+		builder.addActiveConceptIds(concepts.stream());
+		builder.finishConcepts();
+		builder.addConceptFlags(concepts.stream());
+
+		final List<SnomedRelationship> relationships = List.of(relationship("1", CHILD, Concepts.IS_A, ROOT));
+		builder.addActiveStatedEdges(relationships.stream());
+		builder.addActiveStatedRelationships(relationships.stream());
+
+		return builder.build();
+	}
+
+	private static SnomedConcept concept(final String id) {
+		final SnomedConcept concept = new SnomedConcept(id);
+		concept.setActive(true);
+		concept.setModuleId(Concepts.MODULE_SCT_CORE);
+		concept.setDefinitionStatusId(Concepts.PRIMITIVE);
+		return concept;
+	}
+
+	private static SnomedRelationship relationship(final String id, final String sourceId, final String typeId, final String destinationId) {
+		final SnomedRelationship relationship = new SnomedRelationship(id);
+		relationship.setActive(true);
+		relationship.setModuleId(Concepts.MODULE_SCT_CORE);
+		relationship.setSourceId(sourceId);
+		relationship.setTypeId(typeId);
+		relationship.setDestinationId(destinationId);
+		relationship.setGroup(0);
+		relationship.setUnionGroup(0);
+		relationship.setCharacteristicTypeId(Concepts.STATED_RELATIONSHIP);
+		relationship.setModifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER);
+		return relationship;
+	}
+
+}
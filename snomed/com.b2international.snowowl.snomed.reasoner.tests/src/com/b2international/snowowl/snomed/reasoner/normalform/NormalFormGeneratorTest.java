@@ -0,0 +1,302 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.normalform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongList;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.Revision;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.snomed.core.domain.refset.DataType;
+import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry.Fields;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdEdges;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalSctIdMultimap;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalSctIdSet;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
+import com.b2international.snowowl.snomed.reasoner.diff.OntologyChangeProcessor;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * @since 7.17
+ */
+public class NormalFormGeneratorTest extends BaseRevisionIndexTest {
+
+	private static final String ROOT = Concepts.ROOT_CONCEPT;
+
+	// layer sizes are above the threshold for concurrent processing
+	private static final int TOP_LEVEL_COUNT = 4;
+	private static final int SECOND_LEVEL_COUNT = 100;
+	private static final int DEFERRED_COUNT = 80;
+	private static final int THIRD_LEVEL_COUNT = 70;
+
+	private static final class RecordingProcessor<T extends Serializable> extends OntologyChangeProcessor<T> {
+
+		private final List<String> changes = Lists.newArrayList();
+
+		@Override
+		protected void handleAddedSubject(final String conceptId, final T addedSubject) {
+			changes.add("+ " + conceptId + " " + addedSubject);
+		}
+
+		@Override
+		protected void handleRemovedSubject(final String conceptId, final T removedSubject) {
+			changes.add("- " + conceptId + " " + removedSubject);
+		}
+	}
+
+	private final List<String> topLevel = Lists.newArrayList();
+	private final List<String> secondLevel = Lists.newArrayList();
+	private final List<String> deferred = Lists.newArrayList();
+	private final List<String> thirdLevel = Lists.newArrayList();
+
+	private int nextConceptId = 1;
+	private int nextRelationshipId = 1;
+	private InternalIdEdges.Builder inferredAncestors;
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.<Class<?>>of(
+			SnomedConceptDocument.class,
+			SnomedDescriptionIndexEntry.class,
+			SnomedRelationshipIndexEntry.class,
+			SnomedRefSetMemberIndexEntry.class
+		);
+	}
+
+	@Override
+	protected void configureMapper(final ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Before
+	public void setup() {
+		final ImmutableList.Builder<Revision> revisions = ImmutableList.builder();
+		revisions.add(concept(ROOT));
+		revisions.add(concept(Concepts.PART_OF));
+		revisions.add(owlAxiom(Concepts.PART_OF, "TransitiveObjectProperty(:" + Concepts.PART_OF + ")"));
+
+		for (int i = 0; i < TOP_LEVEL_COUNT; i++) {
+			final String conceptId = addConcept(revisions, topLevel);
+			revisions.add(relationship(conceptId, Concepts.FINDING_SITE, ROOT, Concepts.STATED_RELATIONSHIP, 1));
+			revisions.add(concreteDomainMember(conceptId, Concepts.STATED_RELATIONSHIP, "top-" + i));
+		}
+
+		for (int i = 0; i < SECOND_LEVEL_COUNT; i++) {
+			final String conceptId = addConcept(revisions, secondLevel);
+			final String parentId = topLevel.get(i % TOP_LEVEL_COUNT);
+			revisions.add(relationship(conceptId, Concepts.IS_A, parentId, Concepts.STATED_RELATIONSHIP, 0));
+			revisions.add(relationship(conceptId, Concepts.FINDING_SITE, parentId, Concepts.STATED_RELATIONSHIP, 1));
+			if (i > 0) {
+				revisions.add(relationship(conceptId, Concepts.PART_OF, secondLevel.get(i - 1), Concepts.STATED_RELATIONSHIP, 0));
+			}
+			if (i % 3 == 0) {
+				revisions.add(concreteDomainMember(conceptId, Concepts.STATED_RELATIONSHIP, "second-" + i));
+			}
+			if (i % 5 == 0) {
+				// existing inferred relationships and members which are either kept, renumbered or removed
+				revisions.add(relationship(conceptId, Concepts.FINDING_SITE, parentId, Concepts.INFERRED_RELATIONSHIP, 2));
+				revisions.add(relationship(conceptId, Concepts.PART_OF, ROOT, Concepts.INFERRED_RELATIONSHIP, 0));
+				revisions.add(concreteDomainMember(conceptId, Concepts.INFERRED_RELATIONSHIP, "second-" + i));
+			}
+		}
+
+		for (int i = 0; i < DEFERRED_COUNT; i++) {
+			final String conceptId = addConcept(revisions, deferred);
+			revisions.add(relationship(conceptId, Concepts.PART_OF, secondLevel.get(SECOND_LEVEL_COUNT - 1 - i), Concepts.STATED_RELATIONSHIP, 0));
+			revisions.add(concreteDomainMember(conceptId, Concepts.STATED_RELATIONSHIP, "deferred-" + i));
+		}
+
+		for (int i = 0; i < THIRD_LEVEL_COUNT; i++) {
+			final String conceptId = addConcept(revisions, thirdLevel);
+			revisions.add(relationship(conceptId, Concepts.PART_OF, secondLevel.get(0), Concepts.STATED_RELATIONSHIP, 0));
+			if (i % 2 == 0) {
+				revisions.add(relationship(conceptId, Concepts.FINDING_SITE, ROOT, Concepts.INFERRED_RELATIONSHIP, 1));
+			}
+		}
+
+		commit(MAIN, revisions.build());
+	}
+
+	@Test
+	public void concurrentEqualsSequential() throws Exception {
+		final ReasonerTaxonomy taxonomy = buildTaxonomy();
+		assertFalse(taxonomy.getPropertyChains().isEmpty());
+
+		final RecordingProcessor<StatementFragment> sequentialStatements = new RecordingProcessor<>();
+		final RecordingProcessor<ConcreteDomainFragment> sequentialMembers = new RecordingProcessor<>();
+		new NormalFormGenerator(taxonomy, 1).computeChanges(new NullProgressMonitor(), sequentialStatements, sequentialMembers);
+
+		final RecordingProcessor<StatementFragment> concurrentStatements = new RecordingProcessor<>();
+		final RecordingProcessor<ConcreteDomainFragment> concurrentMembers = new RecordingProcessor<>();
+		new NormalFormGenerator(taxonomy, 4).computeChanges(new NullProgressMonitor(), concurrentStatements, concurrentMembers);
+
+		assertFalse(sequentialStatements.changes.isEmpty());
+		assertFalse(sequentialMembers.changes.isEmpty());
+		assertTrue(sequentialStatements.changes.stream().anyMatch(change -> change.startsWith("-")));
+		assertEquals(sequentialStatements.changes, concurrentStatements.changes);
+		assertEquals(sequentialMembers.changes, concurrentMembers.changes);
+	}
+
+	private ReasonerTaxonomy buildTaxonomy() {
+		final ReasonerTaxonomy taxonomy = index().read(MAIN, searcher -> new ReasonerTaxonomyBuilder()
+				.addActiveConceptIds(searcher)
+				.finishConcepts()
+				.addActiveComponents(searcher, true, 1)
+				.build());
+
+		inferredAncestors = InternalIdEdges.builder(taxonomy.getConceptMap());
+		final LongList iterationOrder = PrimitiveLists.newLongArrayList();
+
+		addToIterationOrder(iterationOrder, ROOT);
+		addToIterationOrder(iterationOrder, Concepts.PART_OF, ROOT);
+		iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+
+		for (final String conceptId : topLevel) {
+			addToIterationOrder(iterationOrder, conceptId, ROOT);
+		}
+		iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+
+		for (int i = 0; i < SECOND_LEVEL_COUNT; i++) {
+			addToIterationOrder(iterationOrder, secondLevel.get(i), topLevel.get(i % TOP_LEVEL_COUNT));
+		}
+
+		/*
+		 * Concepts with a parent on the same layer are deferred by the inferrer, and the depth change marker is not emitted for this layer. The
+		 * generator has to recognize these concepts on its own and wait for the normal form of their parents.
+		 */
+		for (int i = 0; i < DEFERRED_COUNT; i++) {
+			addToIterationOrder(iterationOrder, deferred.get(i), secondLevel.get(i), topLevel.get((i + 1) % TOP_LEVEL_COUNT));
+		}
+		iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+
+		for (int i = 0; i < THIRD_LEVEL_COUNT; i++) {
+			addToIterationOrder(iterationOrder, thirdLevel.get(i), deferred.get(i), secondLevel.get(SECOND_LEVEL_COUNT - 1 - i));
+		}
+		iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+
+		return taxonomy.withInferences(inferredAncestors.build(),
+				InternalSctIdSet.builder(taxonomy.getConceptMap()).build(),
+				InternalSctIdMultimap.builder(taxonomy.getConceptMap()).build(),
+				iterationOrder);
+	}
+
+	private void addToIterationOrder(final LongList iterationOrder, final String conceptId, final String... parentIds) {
+		iterationOrder.add(Long.parseLong(conceptId));
+		inferredAncestors.addEdges(Collections.nCopies(parentIds.length, conceptId), Arrays.asList(parentIds));
+	}
+
+	private String addConcept(final ImmutableList.Builder<Revision> revisions, final List<String> conceptIds) {
+		final String conceptId = Integer.toString(nextConceptId++) + "005";
+		conceptIds.add(conceptId);
+		revisions.add(concept(conceptId));
+		return conceptId;
+	}
+
+	private SnomedConceptDocument concept(final String id) {
+		return SnomedConceptDocument.builder()
+				.id(id)
+				.active(true)
+				.primitive(true)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.exhaustive(false)
+				.iconId(Concepts.ROOT_CONCEPT)
+				.parents(IComponent.ROOT_IDL)
+				.ancestors(PrimitiveSets.newLongSortedSet())
+				.statedParents(IComponent.ROOT_IDL)
+				.statedAncestors(PrimitiveSets.newLongSortedSet())
+				.build();
+	}
+
+	private SnomedRelationshipIndexEntry relationship(final String sourceId, final String typeId, final String destinationId, final String characteristicTypeId, final int group) {
+		return SnomedRelationshipIndexEntry.builder()
+				.id(Integer.toString(nextRelationshipId++) + "022")
+				.active(true)
+				.group(group)
+				.unionGroup(0)
+				.modifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.typeId(typeId)
+				.sourceId(sourceId)
+				.destinationId(destinationId)
+				.characteristicTypeId(characteristicTypeId)
+				.build();
+	}
+
+	private SnomedRefSetMemberIndexEntry owlAxiom(final String referencedComponentId, final String owlExpression) {
+		return SnomedRefSetMemberIndexEntry.builder()
+				.id(UUID.randomUUID().toString())
+				.active(true)
+				.owlExpression(owlExpression)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.referencedComponentId(referencedComponentId)
+				.referencedComponentType(SnomedTerminologyComponentConstants.CONCEPT_NUMBER)
+				.referenceSetId(Concepts.REFSET_OWL_AXIOM)
+				.referenceSetType(SnomedRefSetType.OWL_AXIOM)
+				.build();
+	}
+
+	private SnomedRefSetMemberIndexEntry concreteDomainMember(final String referencedComponentId, final String characteristicTypeId, final String value) {
+		return SnomedRefSetMemberIndexEntry.builder()
+				.id(UUID.randomUUID().toString())
+				.active(true)
+				.moduleId(Concepts.MODULE_SCT_CORE)
+				.referencedComponentId(referencedComponentId)
+				.referencedComponentType(SnomedTerminologyComponentConstants.CONCEPT_NUMBER)
+				.referenceSetId(Concepts.REFSET_B2I_EXAMPLE)
+				.referenceSetType(SnomedRefSetType.CONCRETE_DATA_TYPE)
+				.field(Fields.DATA_TYPE, DataType.STRING)
+				.field(SnomedRf2Headers.FIELD_VALUE, value)
+				.field(Fields.TYPE_ID, Concepts.FINDING_SITE)
+				.field(Fields.RELATIONSHIP_GROUP, 0)
+				.field(Fields.CHARACTERISTIC_TYPE_ID, characteristicTypeId)
+				.build();
+	}
+
+}
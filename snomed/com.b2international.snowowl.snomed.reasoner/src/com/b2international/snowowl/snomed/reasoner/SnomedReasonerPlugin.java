@@ -31,6 +31,8 @@ import com.b2international.snowowl.snomed.datastore.SnomedDatastoreActivator;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.constraint.SnomedConstraintDocument;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerSessionManager;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomySnapshotStore;
 import com.b2international.snowowl.snomed.reasoner.index.ClassificationTaskDocument;
 import com.b2international.snowowl.snomed.reasoner.index.ConceptChangeDocument;
 import com.b2international.snowowl.snomed.reasoner.index.ConcreteDomainChangeDocument;
@@ -45,6 +47,8 @@ import com.google.common.collect.ImmutableList;
 @Component
 public final class SnomedReasonerPlugin extends Plugin implements TerminologyRepositoryConfigurer {
 
+	private static final String TAXONOMY_SNAPSHOTS_FOLDER = "taxonomies";
+
 	@Override
 	public void run(final SnowOwlConfiguration configuration, final Environment env) throws Exception {
 		if (env.isServer()) {
@@ -55,6 +59,15 @@ public final class SnomedReasonerPlugin extends Plugin implements TerminologyRep
 			final ClassificationTracker classificationTracker = new ClassificationTracker(repositoryIndex, maximumReasonerRuns, cleanUpInterval);
 			
 			env.services().registerService(ClassificationTracker.class, classificationTracker);
+			
+			if (snomedConfig.getMaxReasonerSessions() > 0) {
+				env.services().registerService(ReasonerSessionManager.class, new ReasonerSessionManager(snomedConfig.getMaxReasonerSessions()));
+			}
+			
+			if (snomedConfig.getMaxTaxonomySnapshots() > 0) {
+				env.services().registerService(ReasonerTaxonomySnapshotStore.class, 
+						new ReasonerTaxonomySnapshotStore(env.getDataPath().resolve(TAXONOMY_SNAPSHOTS_FOLDER), snomedConfig.getMaxTaxonomySnapshots()));
+			}
 		}
 	}
 	
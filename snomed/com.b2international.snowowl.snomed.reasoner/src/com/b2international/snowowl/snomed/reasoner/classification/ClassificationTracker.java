@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -60,6 +61,8 @@ import com.b2international.snowowl.snomed.reasoner.index.ClassificationTaskDocum
 import com.b2international.snowowl.snomed.reasoner.index.ConcreteDomainChangeDocument;
 import com.b2international.snowowl.snomed.reasoner.index.EquivalentConceptSetDocument;
 import com.b2international.snowowl.snomed.reasoner.index.RelationshipChangeDocument;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
@@ -70,6 +73,11 @@ import com.google.common.collect.Iterables;
 public final class ClassificationTracker implements IDisposableService {
 
 	private static final Logger LOG = LoggerFactory.getLogger("classification");
+	
+	private static final Set<ClassificationStatus> REUSABLE_STATUSES = ImmutableSet.of(
+			ClassificationStatus.SCHEDULED, 
+			ClassificationStatus.RUNNING, 
+			ClassificationStatus.COMPLETED);
 
 	private static class Holder {
 		private static final Timer CLEANUP_TIMER = new Timer("Classification task cleanup", true);
@@ -173,6 +181,9 @@ public final class ClassificationTracker implements IDisposableService {
 	private final Index index;
 	private final ClassificationJobListener listener;
 	private final CleanUpTask cleanUp;
+	
+	// Classification runs without additional concepts, keyed by branch path, head timestamp, reasoner and reasoner configuration
+	private final Cache<String, String> reusableRuns;
 
 	public ClassificationTracker(final Index index, final int maximumReasonerRuns, final long cleanUpInterval) {
 		this.index = index;
@@ -196,6 +207,9 @@ public final class ClassificationTracker implements IDisposableService {
 		this.listener = new ClassificationJobListener();
 		Job.getJobManager().addJobChangeListener(listener);
 		this.cleanUp = new CleanUpTask(maximumReasonerRuns);
+		this.reusableRuns = CacheBuilder.newBuilder()
+				.maximumSize(maximumReasonerRuns)
+				.build();
 		Holder.CLEANUP_TIMER.schedule(cleanUp, cleanUpInterval, cleanUpInterval);
 	}
 
@@ -240,6 +254,76 @@ public final class ClassificationTracker implements IDisposableService {
 		});
 	}
 
+	/**
+	 * Checks if a classification of the given branch head using the same reasoner and reasoner configuration has already been scheduled, is
+	 * running or has completed (without being saved, cancelled or deleted). If such a run exists, its identifier is returned, otherwise the
+	 * given classification is recorded as scheduled and can be reused by subsequent calls.
+	 * <p>
+	 * Only runs that do not classify additional concepts should be registered using this method.
+	 * 
+	 * @param classificationId - the identifier of the classification to schedule if no existing run can be reused
+	 * @param reasonerId - the unique identifier of the reasoner extension to use
+	 * @param userId - the user requesting the classification
+	 * @param branch - the path of the branch to classify
+	 * @param headTimestamp - the current head timestamp of the branch
+	 * @param excludedModuleIds - the modules excluded from classification
+	 * @param concreteDomainSupported - whether concrete domain members take part in classification
+	 * @return the identifier of the existing classification run, or the given classification identifier if a new run should be started
+	 */
+	public synchronized String classificationScheduledOrReused(final String classificationId, 
+			final String reasonerId, 
+			final String userId, 
+			final String branch,
+			final long headTimestamp,
+			final Set<String> excludedModuleIds,
+			final boolean concreteDomainSupported) {
+		
+		final String key = String.join("#", 
+				branch, 
+				Long.toString(headTimestamp), 
+				reasonerId, 
+				Boolean.toString(concreteDomainSupported), 
+				String.join(",", new TreeSet<>(excludedModuleIds)));
+		final String existingId = reusableRuns.getIfPresent(key);
+		
+		if (existingId != null) {
+			if (isReusable(existingId, headTimestamp)) {
+				LOG.info("Reusing classification run '{}' of branch '{}' at {}.", existingId, branch, headTimestamp);
+				return existingId;
+			}
+			reusableRuns.invalidate(key);
+		}
+		
+		index.write(writer -> {
+			final ClassificationTaskDocument classificationRun = ClassificationTaskDocument.builder()
+					.id(classificationId)
+					.reasonerId(reasonerId)
+					.userId(userId)
+					.branch(branch)
+					.timestamp(headTimestamp)
+					.creationDate(new Date())
+					.status(ClassificationStatus.SCHEDULED)
+					.build();
+
+			writer.put(classificationId, classificationRun);
+			writer.commit();
+			return null;
+		});
+		
+		reusableRuns.put(key, classificationId);
+		return classificationId;
+	}
+
+	private boolean isReusable(final String classificationId, final long headTimestamp) {
+		final ClassificationTaskDocument document = index.read(searcher -> searcher.get(ClassificationTaskDocument.class, classificationId));
+		if (document == null || document.isDeleted()) {
+			return false;
+		}
+		
+		// The timestamp is updated when the run starts, it should still point to the same branch head
+		return REUSABLE_STATUSES.contains(document.getStatus()) && document.getTimestamp() == headTimestamp;
+	}
+
 	public void classificationRunning(final String classificationId, final long timestamp) {
 		index.write(writer -> {
 			writer.bulkUpdate(new BulkUpdate<>(
@@ -369,7 +453,7 @@ public final class ClassificationTracker implements IDisposableService {
 		});
 	}
 	
-	private void classificationCancelled(final String classificationId) {
+	/*package*/ void classificationCancelled(final String classificationId) {
 		index.write(writer -> {
 			writer.bulkUpdate(new BulkUpdate<>(ClassificationTaskDocument.class, 
 					ClassificationTaskDocument.Expressions.id(classificationId), 
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLLogicalAxiom;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.snomed.datastore.taxonomy.Taxonomies;
+import com.b2international.snowowl.snomed.reasoner.exceptions.ReasonerApiException;
+import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
+
+/**
+ * Keeps a warm, buffering reasoner for recently classified branches. Subsequent classifications of the same branch only send the logical
+ * axioms added and removed since the previous run to the reasoner, which reasoners supporting incremental mode (eg. ELK) can process without
+ * saturating the entire ontology again.
+ * <p>
+ * The axioms to update are determined from the concepts recorded as changed in the commits made on the branch since the previous run. The
+ * session ontology is compared to the new one axiom by axiom if the branch was rebased, the configuration changed or the commits in between
+ * do not carry change details (eg. regular merges).
+ * <p>
+ * Sessions are evicted in least recently used order when the configured number of sessions is exceeded. A session is taken out of the manager
+ * for the duration of a classification, so concurrent classifications of the same branch never share a reasoner; the one finishing last keeps
+ * its session.
+ *
+ * @since 7.17
+ */
+public final class ReasonerSessionManager {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("reasoner");
+
+	// comparing the full set of axioms is cheaper than looking up the changes of this many commits
+	private static final int MAX_TRACKED_COMMITS = 1000;
+
+	private final Cache<String, ReasonerSession> sessions;
+	private final BiFunction<String, OWLOntology, OWLReasoner> reasonerFactory;
+
+	public ReasonerSessionManager(final int maxSessions) {
+		this(maxSessions, (reasonerId, ontology) -> ReasonerTaxonomyInferrer.createReasoner(reasonerId, ontology, true));
+	}
+
+	@VisibleForTesting
+	ReasonerSessionManager(final int maxSessions, final BiFunction<String, OWLOntology, OWLReasoner> reasonerFactory) {
+		this.reasonerFactory = reasonerFactory;
+		this.sessions = CacheBuilder.newBuilder()
+				.maximumSize(maxSessions)
+				.removalListener((RemovalNotification<String, ReasonerSession> notification) -> {
+					if (notification.wasEvicted()) {
+						LOGGER.info("Evicting reasoner session of branch '{}'.", notification.getKey());
+						notification.getValue().dispose();
+					}
+				})
+				.build();
+	}
+
+	/**
+	 * Brings the reasoner session of the given branch in sync with the given ontology, then applies the given function to the session's
+	 * reasoner. A new session is started if the branch does not have one yet or it was created for a different reasoner. If the function fails,
+	 * the session is discarded.
+	 *
+	 * @param context - the branch the ontology was created from
+	 * @param reasonerId - the unique identifier of the reasoner extension to use
+	 * @param configurationHash - the hash of configuration settings that affect the contents of the ontology (eg. excluded modules)
+	 * @param additionalConceptIds - the IDs of concepts added to the ontology in addition to the contents of the branch
+	 * @param ontology - the current state of the ontology
+	 * @param function - the function to apply, must not dispose the reasoner
+	 * @return the result of the function
+	 */
+	public <T> T withReasoner(final BranchContext context,
+			final String reasonerId,
+			final int configurationHash,
+			final LongSet additionalConceptIds,
+			final DelegateOntology ontology,
+			final Function<OWLReasoner, T> function) {
+
+		final Branch branch = context.branch();
+		return withReasoner(context.service(RevisionSearcher.class),
+				branch.path(),
+				branch.baseTimestamp(),
+				branch.headTimestamp(),
+				reasonerId,
+				configurationHash,
+				additionalConceptIds,
+				ontology,
+				function);
+	}
+
+	@VisibleForTesting
+	<T> T withReasoner(final RevisionSearcher searcher,
+			final String branchPath,
+			final long baseTimestamp,
+			final long headTimestamp,
+			final String reasonerId,
+			final int configurationHash,
+			final LongSet additionalConceptIds,
+			final DelegateOntology ontology,
+			final Function<OWLReasoner, T> function) {
+
+		ReasonerSession session = sessions.asMap().remove(branchPath);
+		if (session != null && !session.reasonerId.equals(reasonerId)) {
+			session.dispose();
+			session = null;
+		}
+
+		boolean successful = false;
+		try {
+
+			if (session == null) {
+				session = ReasonerSession.create(reasonerId, ontology, reasonerFactory);
+			} else {
+				final LongSet changedConceptIds = session.getChangedConceptIds(searcher, branchPath, baseTimestamp, headTimestamp, configurationHash, ontology);
+				if (changedConceptIds != null) {
+					changedConceptIds.addAll(additionalConceptIds);
+					session.update(branchPath, ontology, changedConceptIds);
+				} else {
+					session.replace(branchPath, ontology);
+				}
+			}
+
+			session.synced(baseTimestamp, headTimestamp, configurationHash, additionalConceptIds, ontology);
+			final T result = function.apply(session.reasoner);
+			successful = true;
+			return result;
+
+		} finally {
+			if (session != null) {
+				if (successful) {
+					checkIn(branchPath, session);
+				} else {
+					session.dispose();
+				}
+			}
+		}
+	}
+
+	private void checkIn(final String branchPath, final ReasonerSession session) {
+		final ReasonerSession existingSession = sessions.asMap().putIfAbsent(branchPath, session);
+		if (existingSession == null) {
+			return;
+		}
+
+		// another classification of the same branch finished in the meantime, keep the session that has seen the more recent state
+		if (existingSession.headTimestamp <= session.headTimestamp && sessions.asMap().replace(branchPath, existingSession, session)) {
+			existingSession.dispose();
+		} else {
+			session.dispose();
+		}
+	}
+
+	/**
+	 * Discards the reasoner session of the given branch, if any.
+	 *
+	 * @param branchPath
+	 */
+	public void invalidate(final String branchPath) {
+		final ReasonerSession session = sessions.asMap().remove(branchPath);
+		if (session != null) {
+			session.dispose();
+		}
+	}
+
+	private static final class ReasonerSession {
+
+		private final String reasonerId;
+		private final OWLOntology ontology;
+		private final OWLReasoner reasoner;
+
+		// the state of the branch and the ontology-wide settings the session ontology was last synced with
+		private long baseTimestamp;
+		private long headTimestamp;
+		private int configurationHash;
+		private LongSet additionalConceptIds;
+		private LongSet attributeConceptIds;
+		private LongSet neverGroupedTypeIds;
+		private LongSet exhaustiveConceptIds;
+
+		private ReasonerSession(final String reasonerId, final OWLOntology ontology, final OWLReasoner reasoner) {
+			this.reasonerId = reasonerId;
+			this.ontology = ontology;
+			this.reasoner = reasoner;
+		}
+
+		static ReasonerSession create(final String reasonerId, final DelegateOntology source, final BiFunction<String, OWLOntology, OWLReasoner> reasonerFactory) {
+			final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+			final Set<OWLAxiom> axioms = new HashSet<>(source.getLogicalAxioms());
+			try {
+				final OWLOntology ontology = manager.createOntology(axioms);
+				return new ReasonerSession(reasonerId, ontology, reasonerFactory.apply(reasonerId, ontology));
+			} catch (final OWLOntologyCreationException e) {
+				throw new ReasonerApiException("Exception caught while creating ontology instance for reasoner session.", e);
+			}
+		}
+
+		void synced(final long baseTimestamp, final long headTimestamp, final int configurationHash, final LongSet additionalConceptIds, final DelegateOntology source) {
+			this.baseTimestamp = baseTimestamp;
+			this.headTimestamp = headTimestamp;
+			this.configurationHash = configurationHash;
+			this.additionalConceptIds = PrimitiveSets.newLongOpenHashSet(additionalConceptIds);
+			this.attributeConceptIds = source.getAttributeConceptIds();
+			this.neverGroupedTypeIds = source.getNeverGroupedTypeIds();
+			this.exhaustiveConceptIds = source.getExhaustiveConceptIds();
+		}
+
+		/*
+		 * Returns the concepts whose axioms have to be updated to bring the session ontology in sync with the given one, or null if all axioms
+		 * have to be compared.
+		 */
+		LongSet getChangedConceptIds(final RevisionSearcher searcher,
+				final String branchPath,
+				final long baseTimestamp,
+				final long headTimestamp,
+				final int configurationHash,
+				final DelegateOntology source) {
+
+			// the definition of every concept depends on the set of "never grouped" attributes
+			if (this.baseTimestamp != baseTimestamp
+					|| this.headTimestamp > headTimestamp
+					|| this.configurationHash != configurationHash
+					|| !neverGroupedTypeIds.equals(source.getNeverGroupedTypeIds())) {
+				return null;
+			}
+
+			final LongSet changedConceptIds = PrimitiveSets.newLongOpenHashSet();
+			try {
+				if (!Taxonomies.collectChangedConcepts(searcher, branchPath, this.headTimestamp, headTimestamp, MAX_TRACKED_COMMITS, changedConceptIds)) {
+					return null;
+				}
+			} catch (final IOException e) {
+				throw new SnowowlRuntimeException(e);
+			}
+
+			changedConceptIds.addAll(additionalConceptIds);
+			/*
+			 * Property hierarchy axioms depend on the stated parents of attribute concepts and disjoint union axioms list the children of
+			 * exhaustive concepts, both of which can change without the concept itself being changed. There are only a few of these
+			 * concepts, so their axioms are always compared.
+			 */
+			changedConceptIds.addAll(attributeConceptIds);
+			changedConceptIds.addAll(source.getAttributeConceptIds());
+			changedConceptIds.addAll(exhaustiveConceptIds);
+			changedConceptIds.addAll(source.getExhaustiveConceptIds());
+			return changedConceptIds;
+		}
+
+		void update(final String branchPath, final DelegateOntology source, final LongSet changedConceptIds) {
+			final Stopwatch w = Stopwatch.createStarted();
+
+			final Set<OWLLogicalAxiom> newAxioms = source.getLogicalAxioms(changedConceptIds);
+			final LongKeyMap<Set<OWLLogicalAxiom>> unchangedAxioms = PrimitiveMaps.newLongKeyOpenHashMap();
+			final List<OWLOntologyChange> changes = Lists.newArrayList();
+
+			for (final OWLAxiom axiom : getAxioms(changedConceptIds)) {
+				if (!newAxioms.contains(axiom) && !isContributedByUnchangedConcept(axiom, source, changedConceptIds, unchangedAxioms)) {
+					changes.add(new RemoveAxiom(ontology, axiom));
+				}
+			}
+
+			final int removedAxioms = changes.size();
+			for (final OWLLogicalAxiom axiom : newAxioms) {
+				if (!ontology.containsAxiom(axiom)) {
+					changes.add(new AddAxiom(ontology, axiom));
+				}
+			}
+
+			apply(changes);
+
+			LOGGER.info("Updated reasoner session of branch '{}' with {} added and {} removed axioms of {} changed concepts in {}.",
+					branchPath,
+					changes.size() - removedAxioms,
+					removedAxioms,
+					changedConceptIds.size(),
+					w);
+		}
+
+		/*
+		 * Collects the axioms of the session ontology in which the given concepts appear in a defining position. This includes all axioms the
+		 * concepts have contributed to the ontology, and possibly some axioms contributed by other concepts (eg. equivalent class axioms
+		 * mentioning the concepts).
+		 */
+		private Set<OWLAxiom> getAxioms(final LongSet conceptIds) {
+			final OWLDataFactory dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+			final Set<OWLAxiom> axioms = new HashSet<>();
+
+			for (final LongIterator itr = conceptIds.iterator(); itr.hasNext(); /* empty */) {
+				final IRI iri = IRI.create(DelegateOntology.NAMESPACE_SCT + itr.next());
+
+				final OWLClass conceptClass = dataFactory.getOWLClass(iri);
+				axioms.addAll(ontology.getAxioms(conceptClass, Imports.EXCLUDED));
+				// general concept inclusion axioms are contributed by the concept on their right-hand side
+				ontology.getSubClassAxiomsForSuperClass(conceptClass)
+					.stream()
+					.filter(axiom -> axiom.getSubClass().isAnonymous())
+					.forEach(axioms::add);
+
+				final OWLObjectProperty objectProperty = dataFactory.getOWLObjectProperty(iri);
+				axioms.addAll(ontology.getAxioms(objectProperty, Imports.EXCLUDED));
+				ontology.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF)
+					.stream()
+					.filter(axiom -> axiom.getSuperProperty().equals(objectProperty))
+					.forEach(axioms::add);
+
+				axioms.addAll(ontology.getAxioms(dataFactory.getOWLDataProperty(iri), Imports.EXCLUDED));
+			}
+
+			return axioms;
+		}
+
+		private static boolean isContributedByUnchangedConcept(final OWLAxiom axiom,
+				final DelegateOntology source,
+				final LongSet changedConceptIds,
+				final LongKeyMap<Set<OWLLogicalAxiom>> unchangedAxioms) {
+
+			for (final OWLEntity entity : axiom.getSignature()) {
+				final String iri = entity.getIRI().toString();
+				if (!iri.startsWith(DelegateOntology.NAMESPACE_SCT)) {
+					continue;
+				}
+
+				final Long conceptId = Longs.tryParse(iri.substring(DelegateOntology.NAMESPACE_SCT.length()));
+				if (conceptId == null || changedConceptIds.contains(conceptId)) {
+					continue;
+				}
+
+				// axioms of unchanged concepts are the same in the session ontology and the source ontology
+				Set<OWLLogicalAxiom> axioms = unchangedAxioms.get(conceptId);
+				if (axioms == null) {
+					axioms = source.getLogicalAxioms(PrimitiveSets.newLongOpenHashSet(conceptId));
+					unchangedAxioms.put(conceptId, axioms);
+				}
+
+				if (axioms.contains(axiom)) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		void replace(final String branchPath, final DelegateOntology source) {
+			final Stopwatch w = Stopwatch.createStarted();
+
+			final Set<OWLAxiom> axiomsToAdd = new HashSet<>(source.getLogicalAxioms());
+			final List<OWLOntologyChange> changes = Lists.newArrayList();
+			for (final OWLAxiom axiom : ontology.getLogicalAxioms()) {
+				// axioms present in both versions are removed from the candidates, whatever is left has to be added
+				if (!axiomsToAdd.remove(axiom)) {
+					changes.add(new RemoveAxiom(ontology, axiom));
+				}
+			}
+			final int removedAxioms = changes.size();
+			for (final OWLAxiom axiom : axiomsToAdd) {
+				changes.add(new AddAxiom(ontology, axiom));
+			}
+
+			apply(changes);
+
+			LOGGER.info("Updated reasoner session of branch '{}' with {} added and {} removed axioms after comparing all axioms in {}.",
+					branchPath,
+					axiomsToAdd.size(),
+					removedAxioms,
+					w);
+		}
+
+		private void apply(final List<OWLOntologyChange> changes) {
+			if (!changes.isEmpty()) {
+				ontology.getOWLOntologyManager().applyChanges(changes);
+				reasoner.flush();
+			}
+		}
+
+		void dispose() {
+			reasoner.dispose();
+		}
+	}
+}
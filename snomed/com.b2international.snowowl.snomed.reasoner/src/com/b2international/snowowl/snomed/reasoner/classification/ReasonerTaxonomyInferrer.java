@@ -143,7 +143,16 @@ public final class ReasonerTaxonomyInferrer {
 	private InternalSctIdSet.Builder unsatisfiableConcepts;
 	private InternalSctIdMultimap.Builder equivalentConcepts;
 
-	private static OWLReasoner createReasoner(final String reasonerId, final OWLOntology owlOntology) {
+	/**
+	 * Creates a reasoner instance using the reasoner factory registered with the given ID.
+	 * 
+	 * @param reasonerId - the unique identifier of the reasoner extension
+	 * @param owlOntology - the ontology to reason over
+	 * @param buffering - <code>true</code> if changes of the ontology should be buffered until the reasoner is flushed (required for
+	 *            incremental reasoning), <code>false</code> if the reasoner should see changes immediately
+	 * @return the created reasoner
+	 */
+	static OWLReasoner createReasoner(final String reasonerId, final OWLOntology owlOntology, final boolean buffering) {
 		final IExtensionPoint extensionPoint = Platform.getExtensionRegistry().getExtensionPoint(EXTENSION_POINT_ID);
 		final IExtension[] extensions = extensionPoint.getExtensions();
 
@@ -173,7 +182,9 @@ public final class ReasonerTaxonomyInferrer {
 
 				final OWLReasonerFactory reasonerFactory = reasonerInfo.getReasonerFactory();
 				final OWLReasonerConfiguration reasonerConfiguration = reasonerInfo.getConfiguration(new LoggingProgressMonitor(LOGGER));
-				return reasonerFactory.createNonBufferingReasoner(owlOntology, reasonerConfiguration);
+				return buffering 
+						? reasonerFactory.createReasoner(owlOntology, reasonerConfiguration) 
+						: reasonerFactory.createNonBufferingReasoner(owlOntology, reasonerConfiguration);
 			}
 		}
 
@@ -187,6 +198,23 @@ public final class ReasonerTaxonomyInferrer {
 	}
 
 	public ReasonerTaxonomy addInferences(final ReasonerTaxonomy taxonomy) {
+		final OWLReasoner reasoner = createReasoner(reasonerId, ontology, false);
+		try {
+			return addInferences(taxonomy, reasoner);
+		} finally {
+			reasoner.dispose();
+		}
+	}
+	
+	/**
+	 * Extracts the inferred taxonomy using an existing reasoner instance which is already in sync with the ontology of this inferrer. The
+	 * reasoner is not disposed after use.
+	 * 
+	 * @param taxonomy - the taxonomy to add the inferences to
+	 * @param reasoner - the reasoner to use
+	 * @return the taxonomy with inferences
+	 */
+	public ReasonerTaxonomy addInferences(final ReasonerTaxonomy taxonomy, final OWLReasoner reasoner) {
 		LOGGER.info(">>> Classification and inferred taxonomy extraction");
 
 		try {
@@ -196,7 +224,7 @@ public final class ReasonerTaxonomyInferrer {
 			Deque<Node<OWLClass>> secondLayer = new LinkedList<Node<OWLClass>>();
 			final Set<Node<OWLClass>> deferredNodes = newHashSet();
 			
-			reasoner = createReasoner(reasonerId, ontology);
+			this.reasoner = reasoner;
 			if (Boolean.getBoolean(PRECOMPUTE_PROPERTY)) {
 				reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
 			}
@@ -246,9 +274,7 @@ public final class ReasonerTaxonomyInferrer {
 					iterationOrder);
 			
 		} finally {
-			if (reasoner != null) {
-				reasoner.dispose();
-			}
+			this.reasoner = null;
 		}
 	}
 
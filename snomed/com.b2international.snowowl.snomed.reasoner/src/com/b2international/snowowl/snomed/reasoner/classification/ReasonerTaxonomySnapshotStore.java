@@ -0,0 +1,259 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomySnapshots;
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hashing;
+
+/**
+ * Keeps the ontology snapshot collected for the last classification of recently classified branches on local disk, keyed by branch path and
+ * head timestamp. Snapshots are memory-mapped when read back, so classifying an unchanged branch head again can skip collecting the
+ * {@link ReasonerTaxonomy} from the index.
+ * <p>
+ * A single snapshot is kept for each branch. When the configured number of snapshots is exceeded, the least recently used ones are removed.
+ * Snapshots are written one at a time on a background thread, so writing does not delay the classification. Failures to read or write a
+ * snapshot are logged, but never fail the classification itself. Disposing the store lets writes already submitted complete in the background, and
+ * skips any later ones.
+ *
+ * @since 7.17
+ */
+public final class ReasonerTaxonomySnapshotStore implements IDisposableService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("reasoner");
+
+	private static final String SNAPSHOT_EXTENSION = ".taxonomy";
+
+	private final Path directory;
+	private final int maxSnapshots;
+	private final ExecutorService writeExecutor;
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+	public ReasonerTaxonomySnapshotStore(final Path directory, final int maxSnapshots) {
+		this.directory = directory;
+		this.maxSnapshots = maxSnapshots;
+		this.writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "reasoner-taxonomy-snapshot-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true)) {
+			writeExecutor.shutdown();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+
+	/**
+	 * Reads the snapshot of the given branch. If no matching snapshot exists, but the branch has no commits of its own and its parent did not
+	 * change since the branch was forked (or rebased), the snapshot of the parent is read instead, as both have the same contents.
+	 *
+	 * @param branchPath - the path of the branch
+	 * @param parentPath - the path of the parent branch
+	 * @param baseTimestamp - the base timestamp of the branch
+	 * @param headTimestamp - the head timestamp of the branch
+	 * @param parentHeadTimestamp - returns the current head timestamp of the parent branch, only called when the parent's snapshot could be used
+	 * @param configurationHash - the expected hash of the settings that influence the contents of the taxonomy (eg. excluded modules)
+	 * @return the taxonomy read from the snapshot of the branch or its parent, or an empty {@link Optional} if no usable snapshot exists
+	 */
+	public Optional<ReasonerTaxonomy> read(final String branchPath, 
+			final String parentPath, 
+			final long baseTimestamp, 
+			final long headTimestamp, 
+			final LongSupplier parentHeadTimestamp, 
+			final int configurationHash) {
+
+		final Optional<ReasonerTaxonomy> snapshot = read(branchPath, headTimestamp, configurationHash);
+		if (snapshot.isPresent() || Branch.MAIN_PATH.equals(branchPath) || headTimestamp != baseTimestamp) {
+			return snapshot;
+		}
+
+		final long currentParentHeadTimestamp = parentHeadTimestamp.getAsLong();
+		if (currentParentHeadTimestamp > baseTimestamp) {
+			return Optional.empty();
+		}
+
+		return read(parentPath, currentParentHeadTimestamp, configurationHash);
+	}
+
+	/**
+	 * Reads the snapshot of the given branch, if one exists for the given head timestamp and configuration.
+	 *
+	 * @param branchPath - the path of the branch
+	 * @param headTimestamp - the expected head timestamp of the snapshot
+	 * @param configurationHash - the expected hash of the settings that influence the contents of the taxonomy (eg. excluded modules)
+	 * @return the taxonomy read from the snapshot, or an empty {@link Optional} if no matching snapshot exists
+	 */
+	public Optional<ReasonerTaxonomy> read(final String branchPath, final long headTimestamp, final int configurationHash) {
+		final Path snapshotPath = getSnapshotPath(branchPath);
+		if (!Files.isRegularFile(snapshotPath)) {
+			return Optional.empty();
+		}
+
+		final Stopwatch w = Stopwatch.createStarted();
+		try {
+
+			final MappedByteBuffer buffer;
+			try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+				// XXX: mappings can not exceed 2 GB; snapshots this large are rebuilt from the index every time
+				if (channel.size() > Integer.MAX_VALUE) {
+					return Optional.empty();
+				}
+				buffer = channel.map(MapMode.READ_ONLY, 0L, channel.size());
+			}
+
+			if (buffer.getLong() != headTimestamp || buffer.getInt() != configurationHash) {
+				return Optional.empty();
+			}
+
+			final ReasonerTaxonomy taxonomy = ReasonerTaxonomySnapshots.read(buffer);
+			Files.setLastModifiedTime(snapshotPath, FileTime.fromMillis(System.currentTimeMillis()));
+			LOGGER.info("Read taxonomy snapshot of branch '{}' at {} in {}.", branchPath, headTimestamp, w);
+			return Optional.of(taxonomy);
+
+		} catch (final IOException | BufferUnderflowException | IllegalArgumentException e) {
+			LOGGER.warn("Couldn't read taxonomy snapshot of branch '{}', removing it.", branchPath, e);
+			deleteQuietly(snapshotPath);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Replaces the snapshot of the given branch with the specified taxonomy in the background.
+	 *
+	 * @param branchPath - the path of the branch
+	 * @param headTimestamp - the head timestamp of the branch the taxonomy was collected from
+	 * @param configurationHash - the hash of the settings that influence the contents of the taxonomy (eg. excluded modules)
+	 * @param taxonomy - the taxonomy to write, without any inferences
+	 * @return a {@link Future} that completes when the snapshot has been written (or writing it failed), or a completed one if the store has
+	 *         already been disposed
+	 */
+	public Future<?> write(final String branchPath, final long headTimestamp, final int configurationHash, final ReasonerTaxonomy taxonomy) {
+		try {
+			return writeExecutor.submit(() -> doWrite(branchPath, headTimestamp, configurationHash, taxonomy));
+		} catch (final RejectedExecutionException e) {
+			LOGGER.info("Skipped writing taxonomy snapshot of branch '{}', the snapshot store is disposed.", branchPath);
+			return CompletableFuture.completedFuture(null);
+		}
+	}
+
+	private void doWrite(final String branchPath, final long headTimestamp, final int configurationHash, final ReasonerTaxonomy taxonomy) {
+		final Path snapshotPath = getSnapshotPath(branchPath);
+		Path temporaryPath = null;
+
+		final Stopwatch w = Stopwatch.createStarted();
+		try {
+
+			Files.createDirectories(directory);
+			temporaryPath = Files.createTempFile(directory, "snapshot", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+				out.writeLong(headTimestamp);
+				out.writeInt(configurationHash);
+				ReasonerTaxonomySnapshots.write(taxonomy, out);
+			}
+
+			// Readers either see the previous snapshot or the new one, but never a partially written file
+			Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			LOGGER.info("Wrote taxonomy snapshot of branch '{}' at {} in {}.", branchPath, headTimestamp, w);
+
+			evictSnapshots();
+
+		} catch (final IOException | RuntimeException e) {
+			LOGGER.warn("Couldn't write taxonomy snapshot of branch '{}'.", branchPath, e);
+			if (temporaryPath != null) {
+				deleteQuietly(temporaryPath);
+			}
+		}
+	}
+
+	private void evictSnapshots() throws IOException {
+		final List<Path> snapshotPaths;
+		try (Stream<Path> paths = Files.list(directory)) {
+			snapshotPaths = paths.filter(path -> path.getFileName().toString().endsWith(SNAPSHOT_EXTENSION))
+					.collect(Collectors.toList());
+		}
+
+		if (snapshotPaths.size() <= maxSnapshots) {
+			return;
+		}
+
+		snapshotPaths.sort(Comparator.comparing(ReasonerTaxonomySnapshotStore::getLastModifiedTime));
+		for (final Path snapshotPath : snapshotPaths.subList(0, snapshotPaths.size() - maxSnapshots)) {
+			LOGGER.info("Evicting taxonomy snapshot '{}'.", snapshotPath.getFileName());
+			deleteQuietly(snapshotPath);
+		}
+	}
+
+	private Path getSnapshotPath(final String branchPath) {
+		// Branch paths contain characters that are not allowed in file names, use a hash of the path instead
+		return directory.resolve(Hashing.sha256().hashString(branchPath, StandardCharsets.UTF_8).toString() + SNAPSHOT_EXTENSION);
+	}
+
+	private static FileTime getLastModifiedTime(final Path path) {
+		try {
+			return Files.getLastModifiedTime(path);
+		} catch (final IOException e) {
+			return FileTime.fromMillis(0L);
+		}
+	}
+
+	private static void deleteQuietly(final Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (final IOException e) {
+			LOGGER.warn("Couldn't delete file '{}'.", path, e);
+		}
+	}
+}
@@ -19,6 +19,7 @@
  */
 package com.b2international.snowowl.snomed.reasoner.normalform;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
@@ -26,6 +27,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -33,6 +35,7 @@ import org.eclipse.core.runtime.SubMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveLists;
 import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
 import com.b2international.collections.longs.LongIterator;
@@ -40,6 +43,7 @@ import com.b2international.collections.longs.LongKeyMap;
 import com.b2international.collections.longs.LongList;
 import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.collect.LongSets;
+import com.b2international.snowowl.core.util.ConcurrentTasks;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
 import com.b2international.snowowl.snomed.datastore.StatementFragment;
@@ -72,7 +76,26 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	private static final Logger LOGGER = LoggerFactory.getLogger(NormalFormGenerator.class);
 	private static final long IS_A = Long.parseLong(Concepts.IS_A);
 
+	// Waves smaller than this are not worth distributing among threads
+	private static final int MIN_CONCURRENT_WAVE_SIZE = 64;
+	
+	/**
+	 * Normal form of a single concept, computed from the cached results of its direct parents.
+	 */
+	private static final class ConceptProperties {
+		private final long conceptId;
+		private final Collection<StatementFragment> statements;
+		private final Collection<ConcreteDomainFragment> members;
+
+		private ConceptProperties(final long conceptId, final Collection<StatementFragment> statements, final Collection<ConcreteDomainFragment> members) {
+			this.conceptId = conceptId;
+			this.statements = statements;
+			this.members = members;
+		}
+	}
+
 	private final ReasonerTaxonomy reasonerTaxonomy;
+	private final int maxConcurrency;
 	private final LongKeyMap<Collection<StatementFragment>> statementCache = PrimitiveMaps.newLongKeyOpenHashMap();
 	private final LongKeyMap<Collection<ConcreteDomainFragment>> concreteDomainCache = PrimitiveMaps.newLongKeyOpenHashMap();
 	private final Map<Long, NodeGraph> transitiveNodeGraphs = newHashMap();
@@ -85,7 +108,23 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	 *                         contents of the branch (may not be {@code null})
 	 */
 	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy) {
+		this(reasonerTaxonomy, 1);
+	}
+
+	/**
+	 * Creates a new distribution normal form generator instance that computes
+	 * the normal form of independent concepts concurrently.
+	 *
+	 * @param reasonerTaxonomy used for querying the concept hierarchy inferred by
+	 *                         the reasoner, as well as the pre-classification
+	 *                         contents of the branch (may not be {@code null})
+	 * @param maxConcurrency   the maximum number of threads to use (including
+	 *                         the calling thread), must be positive
+	 */
+	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy, final int maxConcurrency) {
+		checkArgument(maxConcurrency > 0, "Maximum concurrency should be positive, got %s.", maxConcurrency);
 		this.reasonerTaxonomy = reasonerTaxonomy;
+		this.maxConcurrency = maxConcurrency;
 	}
 
 	@Override
@@ -101,9 +140,6 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 
 		try {
 
-			LongSet previousLayer = null;
-			LongSet currentLayer = PrimitiveSets.newLongOpenHashSet();
-			
 			final Set<Long> graphTypeIds = reasonerTaxonomy.getPropertyChains()
 					.stream()
 					.map(PropertyChain::getDestinationType)
@@ -120,33 +156,17 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 			
 
 				// Round 1: build alternative hierarchies
-				for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
-					final long conceptId = itr.next();
-	
-					if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
-						if (previousLayer != null) {
-							invalidate(previousLayer);
-						}
-	
-						previousLayer = currentLayer;
-						currentLayer = PrimitiveSets.newLongOpenHashSet();
-						continue;
-					}
-	
-					precomputeProperties(conceptId, false);
-					
-					final Collection<StatementFragment> inferredNonIsAFragments = statementCache.get(conceptId);
-					inferredNonIsAFragments.stream()
+				processEntries(entries, false, properties -> {
+					final long conceptId = properties.conceptId;
+					properties.statements.stream()
 						.filter(r -> transitiveNodeGraphs.keySet().contains(r.getTypeId()))
 						.filter(StatementFragmentWithDestination.class::isInstance)
 						.map(StatementFragmentWithDestination.class::cast)
 						.forEachOrdered(r -> transitiveNodeGraphs.get(r.getTypeId())
 								.addParent(conceptId, r.getDestinationId()));
-				}
+				});
 				
 				// Clear the last layer of concepts
-				previousLayer = null;
-				currentLayer = PrimitiveSets.newLongOpenHashSet();
 				statementCache.clear();
 				concreteDomainCache.clear();
 				
@@ -156,23 +176,10 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		
 			LOGGER.info("--- Use node graphs for hierarchy computation");
 			
-			// Round 2: record changes using the hierarchies
-			for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
-				final long conceptId = itr.next();
-
-				if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
-					if (previousLayer != null) {
-						invalidate(previousLayer);
-					}
-
-					previousLayer = currentLayer;
-					currentLayer = PrimitiveSets.newLongOpenHashSet();
-					continue;
-				}
-
-				// Run costly comparison of property chain hierarchies only if there are any
-				precomputeProperties(conceptId, propertyChainsPresent);
-
+			// Round 2: record changes using the hierarchies (run costly comparison of property chain hierarchies only if there are any)
+			processEntries(entries, propertyChainsPresent, properties -> {
+				final long conceptId = properties.conceptId;
+				
 				final Collection<StatementFragment> existingStatements = reasonerTaxonomy.getExistingInferredRelationships().get(conceptId);
 				final Collection<StatementFragment> targetStatements = getTargetRelationships(conceptId);
 				statementProcessor.apply(conceptId, existingStatements, targetStatements, StatementFragmentOrdering.INSTANCE, subMonitor.newChild(1));
@@ -180,7 +187,7 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 				final Collection<ConcreteDomainFragment> existingMembers = reasonerTaxonomy.getInferredConcreteDomainMembers().get(Long.toString(conceptId));
 				final Collection<ConcreteDomainFragment> targetMembers = getTargetMembers(conceptId);
 				concreteDomainProcessor.apply(conceptId, existingMembers, targetMembers, ConcreteDomainChangeOrdering.INSTANCE, subMonitor.newChild(1));
-			}
+			});
 
 		} finally {
 			subMonitor.done();
@@ -188,6 +195,97 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		}
 	}
 
+	/*
+	 * Walks the iteration order in "waves" of concepts that do not have any of their direct parents in the same wave. Concepts of a wave only
+	 * depend on cached results of earlier waves, so their normal form can be computed concurrently; results are added to the cache and passed
+	 * to the consumer in iteration order when the entire wave is completed.
+	 * 
+	 * Depth change markers always close the current wave, but a single depth layer may still contain concepts along with their parents (when
+	 * a parent was deferred by the inferrer), so dependencies within a layer are also checked.
+	 */
+	private void processEntries(final LongList entries, final boolean useNodeGraphs, final Consumer<ConceptProperties> consumer) {
+		LongSet previousLayer = null;
+		LongSet currentLayer = PrimitiveSets.newLongOpenHashSet();
+		
+		final LongList wave = PrimitiveLists.newLongArrayList();
+		final LongSet waveIds = PrimitiveSets.newLongOpenHashSet();
+		
+		for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+
+			if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
+				processWave(wave, useNodeGraphs, consumer);
+				wave.clear();
+				waveIds.clear();
+				
+				if (previousLayer != null) {
+					invalidate(previousLayer);
+				}
+
+				previousLayer = currentLayer;
+				currentLayer = PrimitiveSets.newLongOpenHashSet();
+				continue;
+			}
+			
+			if (hasParentIn(conceptId, waveIds)) {
+				processWave(wave, useNodeGraphs, consumer);
+				wave.clear();
+				waveIds.clear();
+			}
+
+			wave.add(conceptId);
+			waveIds.add(conceptId);
+		}
+		
+		processWave(wave, useNodeGraphs, consumer);
+	}
+
+	private boolean hasParentIn(final long conceptId, final LongSet conceptIds) {
+		if (conceptIds.isEmpty()) {
+			return false;
+		}
+		
+		final LongSet parentIds = reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true);
+		for (final LongIterator itr = parentIds.iterator(); itr.hasNext(); /* empty */) {
+			if (conceptIds.contains(itr.next())) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+
+	private void processWave(final LongList wave, final boolean useNodeGraphs, final Consumer<ConceptProperties> consumer) {
+		final int size = wave.size();
+		if (size == 0) {
+			return;
+		}
+		
+		final ConceptProperties[] results = new ConceptProperties[size];
+		if (maxConcurrency == 1 || size < MIN_CONCURRENT_WAVE_SIZE) {
+			for (int i = 0; i < size; i++) {
+				results[i] = precomputeProperties(wave.get(i), useNodeGraphs);
+			}
+		} else {
+			computeConcurrently(wave, useNodeGraphs, results);
+		}
+
+		// Extract results; place them in the cache, so following concepts can re-use it
+		for (final ConceptProperties properties : results) {
+			statementCache.put(properties.conceptId, properties.statements);
+			concreteDomainCache.put(properties.conceptId, properties.members);
+		}
+		
+		for (final ConceptProperties properties : results) {
+			consumer.accept(properties);
+		}
+	}
+
+	private void computeConcurrently(final LongList wave, final boolean useNodeGraphs, final ConceptProperties[] results) {
+		final int workerCount = Math.min(maxConcurrency, results.length / MIN_CONCURRENT_WAVE_SIZE + 1);
+		ConcurrentTasks.runAll(results.length, i -> results[i] = precomputeProperties(wave.get(i), useNodeGraphs), workerCount);
+	}
+
 	/**
 	 * Indicates that the breadth-first iteration has reached a new level in the tree.
 	 * Generators are free to drop caches associated with components in the previous
@@ -200,7 +298,7 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		concreteDomainCache.keySet().removeAll(keysToInvalidate);
 	}
 
-	private void precomputeProperties(final long conceptId, final boolean useNodeGraphs) {
+	private ConceptProperties precomputeProperties(final long conceptId, final boolean useNodeGraphs) {
 		final LongSet parentIds = reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true);
 
 		/*
@@ -262,9 +360,9 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 				candidateMembers,
 				useNodeGraphs);
 
-		// Extract results; place them in the cache, so following concepts can re-use it
-		statementCache.put(conceptId, ImmutableList.copyOf(relationshipsFromGroupSet(targetGroupSet)));
-		concreteDomainCache.put(conceptId, ImmutableList.copyOf(membersFromGroupSet(targetGroupSet)));
+		return new ConceptProperties(conceptId, 
+				ImmutableList.copyOf(relationshipsFromGroupSet(targetGroupSet)), 
+				ImmutableList.copyOf(membersFromGroupSet(targetGroupSet)));
 	}
 
 	private NormalFormGroupSet getTargetGroupSet(final long conceptId,
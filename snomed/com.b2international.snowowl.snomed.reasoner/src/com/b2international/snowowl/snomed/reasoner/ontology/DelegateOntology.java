@@ -69,7 +69,7 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 	// The prefix used for SNOMED CT identifiers (also the default namespace for ":" prefixes)
 	private static final String PREFIX_SCT = ":";
 	private static final String PREFIX_SCT_LONG = "sct:";
-	private static final String NAMESPACE_SCT = "http://snomed.info/id/";
+	public static final String NAMESPACE_SCT = "http://snomed.info/id/";
 
 	// The prefix used for SNOMED CT module ontology identifiers
 	private static final String PREFIX_SCTM = "sctm:";
@@ -550,6 +550,69 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 		};
 	}
 	
+	/**
+	 * Returns the logical axioms contributed by the given concepts: OWL reference set axioms referring to them, their definitions, property
+	 * hierarchy axioms of attribute concepts and disjoint union axioms of exhaustive concepts. The union of these sets over all concepts is
+	 * the same as the set of axioms returned by {@link #getLogicalAxioms()}.
+	 * 
+	 * @param conceptIds - the concepts to return axioms for, concepts not present in the taxonomy are ignored
+	 * @return the logical axioms of the given concepts
+	 */
+	public Set<OWLLogicalAxiom> getLogicalAxioms(final LongSet conceptIds) {
+		final LongSet knownIds = PrimitiveSets.newLongOpenHashSetWithExpectedSize(conceptIds.size());
+		for (final LongIterator itr = conceptIds.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			if (taxonomy.getConceptMap().getInternalId(conceptId) != InternalIdMap.NO_INTERNAL_ID) {
+				knownIds.add(conceptId);
+			}
+		}
+		
+		final LongSet objectAttributeIds = PrimitiveSets.newLongOpenHashSet(knownIds);
+		objectAttributeIds.retainAll(getAllSubTypes(objectAttributeId));
+		final LongSet dataAttributeIds = PrimitiveSets.newLongOpenHashSet(knownIds);
+		dataAttributeIds.retainAll(getAllSubTypes(dataAttributeId));
+		final LongSet exhaustiveIds = PrimitiveSets.newLongOpenHashSet(knownIds);
+		exhaustiveIds.retainAll(getExhaustiveConceptIds());
+		
+		final List<String> owlAxioms = new ArrayList<>();
+		for (final LongIterator itr = knownIds.iterator(); itr.hasNext(); /* empty */) {
+			owlAxioms.addAll(taxonomy.getAxioms().get(itr.next()));
+		}
+		
+		final Set<OWLLogicalAxiom> axioms = newHashSet();
+		Iterators.addAll(axioms, new FunctionalSyntaxAxiomIterator(owlAxioms.stream()));
+		Iterators.addAll(axioms, conceptDefinitionAxioms(knownIds.iterator()));
+		Iterators.addAll(axioms, objectAttributeSubPropertyOfAxioms(objectAttributeIds.iterator()));
+		Iterators.addAll(axioms, new SubClassOfAxiomIterator(objectAttributeIds.iterator()));
+		Iterators.addAll(axioms, dataAttributeSubPropertyOfAxioms(dataAttributeIds.iterator()));
+		Iterators.addAll(axioms, new SubClassOfAxiomIterator(dataAttributeIds.iterator()));
+		Iterators.addAll(axioms, new DisjointUnionAxiomIterator(exhaustiveIds.iterator()));
+		return axioms;
+	}
+	
+	/**
+	 * @return the IDs of concepts in the object and data attribute hierarchies (excluding the hierarchy roots)
+	 */
+	public LongSet getAttributeConceptIds() {
+		final LongSet attributeIds = getAllSubTypes(objectAttributeId);
+		attributeIds.addAll(getAllSubTypes(dataAttributeId));
+		return attributeIds;
+	}
+	
+	/**
+	 * @return the IDs of attribute concepts that are never grouped when used in an ungrouped relationship
+	 */
+	public LongSet getNeverGroupedTypeIds() {
+		return PrimitiveSets.newLongOpenHashSet(neverGroupedIds);
+	}
+	
+	/**
+	 * @return the IDs of exhaustive concepts, which have a disjoint union axiom listing their children
+	 */
+	public LongSet getExhaustiveConceptIds() {
+		return PrimitiveSets.newLongOpenHashSet(taxonomy.getExhaustiveConcepts().toLongList());
+	}
+	
 	@Override
 	public Set<OWLAxiom> getAxioms() {
 		return new AbstractSet<OWLAxiom>() {
@@ -627,6 +690,10 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 	///////////////////////////////
 	
 	private Iterator<OWLClassAxiom> conceptDefinitionAxioms() {
+		return conceptDefinitionAxioms(conceptIdIterator());
+	}
+	
+	private Iterator<OWLClassAxiom> conceptDefinitionAxioms(final LongIterator idIterator) {
 		final LongPredicate hasStatedRelationship = conceptId -> !taxonomy.getStatedRelationships()
 			.get(conceptId)
 			.isEmpty();
@@ -634,7 +701,7 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 		final LongPredicate isFullyDefined = conceptId -> taxonomy.getDefiningConcepts()
 			.contains(conceptId);
 		
-		return new ConceptAxiomIterator(conceptIdIterator(), 
+		return new ConceptAxiomIterator(idIterator, 
 			hasStatedRelationship, 
 			isFullyDefined, 
 			taxonomy.getStatedRelationships());
@@ -651,8 +718,12 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 	////////////////////////////////////////////
 	
 	private Iterator<OWLSubObjectPropertyOfAxiom> objectAttributeSubPropertyOfAxioms() {
+		return objectAttributeSubPropertyOfAxioms(objectAttributeIdIterator());
+	}
+	
+	private Iterator<OWLSubObjectPropertyOfAxiom> objectAttributeSubPropertyOfAxioms(final LongIterator childIterator) {
 		return new SubPropertyOfAxiomIterator<>( 
-				objectAttributeIdIterator(), 
+				childIterator, 
 				this::getConceptObjectProperty, 
 				this::getOWLSubObjectPropertyOfAxiom);
 	}
@@ -666,8 +737,12 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 	}
 
 	private Iterator<OWLSubDataPropertyOfAxiom> dataAttributeSubPropertyOfAxioms() {
+		return dataAttributeSubPropertyOfAxioms(dataAttributeIdIterator());
+	}
+	
+	private Iterator<OWLSubDataPropertyOfAxiom> dataAttributeSubPropertyOfAxioms(final LongIterator childIterator) {
 		return new SubPropertyOfAxiomIterator<>( 
-				dataAttributeIdIterator(), 
+				childIterator, 
 				this::getConceptDataProperty, 
 				this::getOWLSubDataPropertyOfAxiom);
 	}
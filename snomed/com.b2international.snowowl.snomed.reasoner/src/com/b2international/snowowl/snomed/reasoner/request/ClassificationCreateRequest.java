@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,6 +60,8 @@ final class ClassificationCreateRequest implements Request<BranchContext, String
 	@NotNull
 	private String parentLockContext;
 
+	private boolean reuseExistingRun;
+
 	ClassificationCreateRequest() {}
 
 	void setClassificationId(final String classificationId) {
@@ -82,6 +84,10 @@ final class ClassificationCreateRequest implements Request<BranchContext, String
 		this.parentLockContext = parentLockContext;
 	}
 
+	void setReuseExistingRun(final boolean reuseExistingRun) {
+		this.reuseExistingRun = reuseExistingRun;
+	}
+
 	@Override
 	public String execute(final BranchContext context) {
 		final String repositoryId = context.id();
@@ -91,7 +97,21 @@ final class ClassificationCreateRequest implements Request<BranchContext, String
 
 		final String user = !Strings.isNullOrEmpty(userId) ? userId : context.service(User.class).getUsername();
 		
-		tracker.classificationScheduled(classificationId, reasonerId, user, branch.path());
+		if (reuseExistingRun && additionalConcepts.isEmpty()) {
+			final String scheduledId = tracker.classificationScheduledOrReused(classificationId, 
+					reasonerId, 
+					user, 
+					branch.path(), 
+					branch.headTimestamp(), 
+					config.getReasonerExcludedModuleIds(), 
+					config.isConcreteDomainSupported());
+			if (!scheduledId.equals(classificationId)) {
+				// An equivalent run already exists, the caller can follow that one instead
+				return scheduledId;
+			}
+		} else {
+			tracker.classificationScheduled(classificationId, reasonerId, user, branch.path());
+		}
 
 		final AsyncRequest<Boolean> jobRequest = new ClassificationJobRequestBuilder()
 				.setReasonerId(reasonerId)
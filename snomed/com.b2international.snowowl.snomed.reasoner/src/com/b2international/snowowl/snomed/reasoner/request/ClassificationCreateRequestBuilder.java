@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,7 @@ public final class ClassificationCreateRequestBuilder
 	private String userId;
 	private final List<SnomedConcept> additionalConcepts = newArrayList();
 	private String parentLockContext = DatastoreLockContextDescriptions.ROOT;
+	private boolean reuseExistingRun = false;
 
 	ClassificationCreateRequestBuilder() {}
 
@@ -72,6 +73,19 @@ public final class ClassificationCreateRequestBuilder
 		return getSelf();
 	}
 
+	/**
+	 * Allows returning the identifier of a scheduled, running or completed classification of the same branch head and reasoner instead of
+	 * starting a new run. Callers enabling this option should track the classification using the returned identifier. Classifications with
+	 * additional concepts are never reused.
+	 * 
+	 * @param reuseExistingRun
+	 * @return this builder instance
+	 */
+	public ClassificationCreateRequestBuilder setReuseExistingRun(final boolean reuseExistingRun) {
+		this.reuseExistingRun = reuseExistingRun;
+		return getSelf();
+	}
+
 	@Override
 	protected Request<BranchContext, String> doBuild() {
 		final ClassificationCreateRequest request = new ClassificationCreateRequest();
@@ -80,6 +94,7 @@ public final class ClassificationCreateRequestBuilder
 		request.setUserId(userId);
 		request.setAdditionalConcepts(additionalConcepts);
 		request.setParentLockContext(parentLockContext);
+		request.setReuseExistingRun(reuseExistingRun);
 		return request;
 	}
 }
@@ -16,6 +16,8 @@
 package com.b2international.snowowl.snomed.reasoner.request;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -32,6 +34,8 @@ import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.exceptions.LockedException;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.authorization.BranchAccessControl;
@@ -42,6 +46,7 @@ import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.internal.locks.DatastoreLockContextDescriptions;
 import com.b2international.snowowl.core.jobs.RemoteJob;
 import com.b2international.snowowl.core.locks.Locks;
+import com.b2international.snowowl.core.repository.RepositoryRequests;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
@@ -50,7 +55,9 @@ import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfigurati
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerSessionManager;
 import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomySnapshotStore;
 import com.b2international.snowowl.snomed.reasoner.exceptions.ReasonerApiException;
 import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormGenerator;
 import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
@@ -123,13 +130,33 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		
 		final RevisionSearcher revisionSearcher = context.service(RevisionSearcher.class);
 		final SnomedCoreConfiguration configuration = context.service(SnomedCoreConfiguration.class);
+		final Set<String> excludedModuleIds = configuration.getReasonerExcludedModuleIds();
 		final boolean concreteDomainSupported = configuration.isConcreteDomainSupported();
 
+		// Snapshots only capture the contents of the branch, so they can not be used when extra definitions are classified
+		final Optional<ReasonerTaxonomySnapshotStore> snapshotStore = additionalConcepts.isEmpty() 
+				? context.optionalService(ReasonerTaxonomySnapshotStore.class) 
+				: Optional.empty();
+		final int configurationHash = Objects.hash(excludedModuleIds, concreteDomainSupported);
+		final Optional<ReasonerTaxonomy> snapshot = snapshotStore.flatMap(store -> readSnapshot(context, store, configurationHash));
+		
 		final ReasonerTaxonomy taxonomy;
-		try (Locks locks = Locks.on(context).lock(DatastoreLockContextDescriptions.CLASSIFY, parentLockContext)) {
-			taxonomy = buildTaxonomy(revisionSearcher, context.service(SnomedCoreConfiguration.class).getReasonerExcludedModuleIds(), concreteDomainSupported);
-		} catch (final LockedException e) {
-			throw new ReasonerApiException("Couldn't acquire exclusive access to terminology store for classification; %s", e.getMessage(), e);
+		if (snapshot.isPresent()) {
+			taxonomy = snapshot.get();
+		} else {
+			try (Locks locks = Locks.on(context).lock(DatastoreLockContextDescriptions.CLASSIFY, parentLockContext)) {
+				taxonomy = buildTaxonomy(revisionSearcher, 
+						excludedModuleIds, 
+						concreteDomainSupported, 
+						configuration.getMaxConcurrentTaxonomyScans());
+			} catch (final LockedException e) {
+				throw new ReasonerApiException("Couldn't acquire exclusive access to terminology store for classification; %s", e.getMessage(), e);
+			}
+			
+			if (snapshotStore.isPresent()) {
+				final Branch branch = context.branch();
+				snapshotStore.get().write(branch.path(), branch.headTimestamp(), configurationHash, taxonomy);
+			}
 		}
 		
 		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
@@ -140,8 +167,18 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 
 			final DelegateOntology ontology = (DelegateOntology) ontologyManager.createOntology(ontologyIRI);
 			final ReasonerTaxonomyInferrer inferrer = new ReasonerTaxonomyInferrer(reasonerId, ontology, context);
-			final ReasonerTaxonomy inferredTaxonomy = inferrer.addInferences(taxonomy);
-			final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy);
+			final Optional<ReasonerSessionManager> sessionManager = context.optionalService(ReasonerSessionManager.class);
+			final ReasonerTaxonomy inferredTaxonomy;
+			if (sessionManager.isPresent()) {
+				// keep the reasoner of the branch warm, so the next run only has to process the changed axioms
+				final LongSet additionalConceptIds = PrimitiveSets.newLongOpenHashSet();
+				additionalConcepts.forEach(concept -> additionalConceptIds.add(Long.parseLong(concept.getId())));
+				inferredTaxonomy = sessionManager.get().withReasoner(context, reasonerId, configurationHash, additionalConceptIds, ontology, 
+						reasoner -> inferrer.addInferences(taxonomy, reasoner));
+			} else {
+				inferredTaxonomy = inferrer.addInferences(taxonomy);
+			}
+			final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy, configuration.getMaxNormalFormWorkers());
 			
 			tracker.classificationCompleted(classificationId, inferredTaxonomy, normalFormGenerator);
 
@@ -152,25 +189,31 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		}
 	}
 
-	private ReasonerTaxonomy buildTaxonomy(final RevisionSearcher revisionSearcher, final Set<String> excludedModuleIds, final boolean concreteDomainSupported) {
+	private Optional<ReasonerTaxonomy> readSnapshot(final BranchContext context, final ReasonerTaxonomySnapshotStore store, final int configurationHash) {
+		final Branch branch = context.branch();
+		return store.read(branch.path(), 
+				branch.parentPath(), 
+				branch.baseTimestamp(), 
+				branch.headTimestamp(), 
+				() -> RepositoryRequests.branching()
+					.prepareGet(branch.parentPath())
+					.build()
+					.execute(context)
+					.headTimestamp(), 
+				configurationHash);
+	}
+	
+	private ReasonerTaxonomy buildTaxonomy(final RevisionSearcher revisionSearcher, 
+			final Set<String> excludedModuleIds, 
+			final boolean concreteDomainSupported, 
+			final int maxConcurrentScans) {
 		final ReasonerTaxonomyBuilder taxonomyBuilder = new ReasonerTaxonomyBuilder(excludedModuleIds);
 		
 		taxonomyBuilder.addActiveConceptIds(revisionSearcher);
 		taxonomyBuilder.addActiveConceptIds(additionalConcepts.stream());
 		taxonomyBuilder.finishConcepts();
 		
-		taxonomyBuilder.addConceptFlags(revisionSearcher);
-		taxonomyBuilder.addActiveStatedEdges(revisionSearcher);
-		taxonomyBuilder.addActiveStatedRelationships(revisionSearcher);
-		taxonomyBuilder.addActiveInferredRelationships(revisionSearcher);
-		taxonomyBuilder.addActiveAdditionalGroupedRelationships(revisionSearcher);
-		
-		taxonomyBuilder.addNeverGroupedTypeIds(revisionSearcher);
-		taxonomyBuilder.addActiveAxioms(revisionSearcher);
-
-		if (concreteDomainSupported) {
-			taxonomyBuilder.addActiveConcreteDomainMembers(revisionSearcher);
-		}
+		taxonomyBuilder.addActiveComponents(revisionSearcher, concreteDomainSupported, maxConcurrentScans);
 
 		// Add the extra definitions
 		taxonomyBuilder.addConceptFlags(additionalConcepts.stream());
@@ -36,6 +36,7 @@ import com.b2international.snowowl.core.ComponentIdentifier;
 import com.b2international.snowowl.core.codesystem.CodeSystem;
 import com.b2international.snowowl.core.config.IndexConfiguration;
 import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.internal.validation.ValidationPoint;
 import com.b2international.snowowl.core.internal.validation.ValidationRepository;
 import com.b2international.snowowl.core.internal.validation.ValidationThreadPool;
 import com.b2international.snowowl.core.plugin.ClassPathScanner;
@@ -181,7 +182,7 @@ public abstract class BaseValidationTest extends BaseRevisionIndexTest {
 	@Override
 	protected final Collection<Class<?>> getTypes() {
 		return ImmutableList.<Class<?>>builder()
-				.add(ValidationRule.class, ValidationIssue.class, ValidationWhiteList.class)
+				.add(ValidationRule.class, ValidationIssue.class, ValidationWhiteList.class, ValidationPoint.class)
 				.addAll(getAdditionalTypes())
 				.build();
 	}